@@ -0,0 +1,59 @@
+package com.todo.backend.controller;
+
+import com.todo.backend.dto.analytics.AnalyticsQueryDto;
+import com.todo.backend.service.AnalyticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@CrossOrigin("http://localhost:3000")
+@RestController
+@RequestMapping("/api/analytics")
+@RequiredArgsConstructor
+@PreAuthorize("hasAnyAuthority('ADMIN', 'LIBRARIAN')")
+public class AnalyticsController {
+    private final AnalyticsService analyticsService;
+
+    /**
+    * Ad-hoc loan report: filter, group by up to 3 dimensions and sum the requested metrics.
+    * Example body:
+    * {"groupBy": ["CATEGORY", "MONTH"], "metrics": ["LOANS", "REVENUE"],
+    *  "filters": {"USER_ROLE": ["USER"]}, "borrowedFrom": "2025-01-01", "borrowedTo": "2026-01-01", "limit": 50}
+    */
+    @PostMapping("/query")
+    public ResponseEntity<?> query(@RequestBody AnalyticsQueryDto query) {
+        try {
+            return ResponseEntity.ok(analyticsService.query(query));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Error running analytics query: " + e.getMessage());
+        }
+    }
+
+    /**
+    * Size and age of the in-memory loan columns
+    */
+    @GetMapping("/status")
+    public ResponseEntity<?> getStatus() {
+        try {
+            return ResponseEntity.ok(analyticsService.getStatus());
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Error fetching analytics status: " + e.getMessage());
+        }
+    }
+
+    /**
+    * Reload the loan columns now instead of waiting for the next scheduled refresh
+    */
+    @PreAuthorize("hasAnyAuthority('ADMIN')")
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestParam(defaultValue = "false") boolean full) {
+        try {
+            return ResponseEntity.ok(analyticsService.refresh(full));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Error refreshing analytics: " + e.getMessage());
+        }
+    }
+}
@@ -3,11 +3,15 @@ package com.todo.backend.controller;
 import com.todo.backend.dto.balancetransaction.BalanceTransactionResponseDto;
 import com.todo.backend.entity.BalanceTransactionType;
 import com.todo.backend.service.BalanceTransactionService;
+import com.todo.backend.service.LedgerColdStorageService;
+import com.todo.backend.utils.concurrency.LaneBusyException;
+import com.todo.backend.utils.concurrency.UserCommandLanes;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.YearMonth;
 import java.util.List;
 
 @CrossOrigin("http://localhost:3000")
@@ -16,9 +20,15 @@ import java.util.List;
 public class BalanceTransactionController {
 
     private final BalanceTransactionService balanceTransactionService;
+    private final UserCommandLanes userCommandLanes;
+    private final LedgerColdStorageService ledgerColdStorageService;
 
-    public BalanceTransactionController(BalanceTransactionService balanceTransactionService) {
+    public BalanceTransactionController(BalanceTransactionService balanceTransactionService,
+                                        UserCommandLanes userCommandLanes,
+                                        LedgerColdStorageService ledgerColdStorageService) {
         this.balanceTransactionService = balanceTransactionService;
+        this.userCommandLanes = userCommandLanes;
+        this.ledgerColdStorageService = ledgerColdStorageService;
     }
 
     /**
@@ -82,9 +92,11 @@ public class BalanceTransactionController {
             }
 
             String desc = description != null ? description : "Nạp tiền tại quầy thư viện";
-            BalanceTransactionResponseDto response = balanceTransactionService.adjustBalance(
-                userId, BalanceTransactionType.DEPOSIT, amount, desc);
+            BalanceTransactionResponseDto response = userCommandLanes.execute(userId,
+                () -> balanceTransactionService.adjustBalance(userId, BalanceTransactionType.DEPOSIT, amount, desc));
             return ResponseEntity.ok(response);
+        } catch (LaneBusyException e) {
+            return ResponseEntity.status(429).body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(500).body("Error adding balance: " + e.getMessage());
         }
@@ -105,11 +117,73 @@ public class BalanceTransactionController {
             }
 
             String desc = description != null ? description : "Rút tiền bởi quản trị viên";
-            BalanceTransactionResponseDto response = balanceTransactionService.adjustBalance(
-                userId, BalanceTransactionType.WITHDRAWAL, -amount, desc);
+            BalanceTransactionResponseDto response = userCommandLanes.execute(userId,
+                () -> balanceTransactionService.adjustBalance(userId, BalanceTransactionType.WITHDRAWAL, -amount, desc));
             return ResponseEntity.ok(response);
+        } catch (LaneBusyException e) {
+            return ResponseEntity.status(429).body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(500).body("Error subtracting balance: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Queue depth and wait time of the per-user command lanes (admin only)
+     * GET /api/balance-transactions/lanes
+     */
+    @PreAuthorize("hasAnyAuthority('ADMIN')")
+    @GetMapping("/lanes")
+    public ResponseEntity<?> getCommandLaneMetrics() {
+        try {
+            return ResponseEntity.ok(userCommandLanes.getMetrics());
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Error fetching command lane metrics: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Ledger months moved to cold storage segments (admin only)
+     * GET /api/balance-transactions/cold/segments
+     */
+    @PreAuthorize("hasAnyAuthority('ADMIN')")
+    @GetMapping("/cold/segments")
+    public ResponseEntity<?> getColdSegments() {
+        try {
+            return ResponseEntity.ok(ledgerColdStorageService.getSegments());
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Error fetching ledger segments: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Per type totals over archived ledger months, e.g. ?from=2023-01&to=2023-12 (admin only)
+     * GET /api/balance-transactions/cold/audit
+     */
+    @PreAuthorize("hasAnyAuthority('ADMIN')")
+    @GetMapping("/cold/audit")
+    public ResponseEntity<?> auditColdTier(@RequestParam YearMonth from, @RequestParam YearMonth to) {
+        try {
+            if (from.isAfter(to)) {
+                return ResponseEntity.badRequest().body("from must not be after to");
+            }
+            return ResponseEntity.ok(ledgerColdStorageService.audit(from, to));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Error auditing ledger segments: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Export eligible ledger months to cold storage now instead of waiting for the monthly run (admin only)
+     * POST /api/balance-transactions/cold/export
+     */
+    @PreAuthorize("hasAnyAuthority('ADMIN')")
+    @PostMapping("/cold/export")
+    public ResponseEntity<?> exportColdSegments() {
+        try {
+            ledgerColdStorageService.triggerExport();
+            return ResponseEntity.accepted().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Error triggering ledger export: " + e.getMessage());
+        }
+    }
+}
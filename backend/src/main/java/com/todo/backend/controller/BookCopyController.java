@@ -5,6 +5,8 @@ import com.todo.backend.dto.bookcopy.CreateBookCopyDto;
 import com.todo.backend.dto.bookcopy.ResponseBookCopyDto;
 import com.todo.backend.dto.bookcopy.UpdateBookCopyDto;
 import com.todo.backend.service.BookCopyService;
+import com.todo.backend.service.CurrentLoanService;
+import com.todo.backend.service.OverdueService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -23,6 +25,8 @@ import java.util.Objects;
 public class BookCopyController {
     private final BookCopyService bookCopyService;
     private final BookCopyRepository bookCopyRepository;
+    private final CurrentLoanService currentLoanService;
+    private final OverdueService overdueService;
 
     // Endpoint to get all book copies with due information
     // Endpoint: GET /api/bookCopy/all
@@ -41,7 +45,7 @@ public class BookCopyController {
     @GetMapping("/overdue")
     public ResponseEntity<?> getOverdueBookCopies() {
         try {
-            return ResponseEntity.ok(bookCopyRepository.findOverdueBookCopies());
+            return ResponseEntity.ok(overdueService.getOverdueBookCopies());
         } catch (Exception e) {
             return ResponseEntity.status(500).body("Error fetching overdue book copies: " + e.getMessage());
         }
@@ -58,6 +62,31 @@ public class BookCopyController {
         }
     }
 
+    // Endpoint to queue a rebuild of the current-loan pointers from open transactions
+    // Endpoint: POST /api/bookCopy/current-loan/backfill
+    @PreAuthorize("hasAnyAuthority('ADMIN')")
+    @PostMapping("/current-loan/backfill")
+    public ResponseEntity<?> backfillCurrentLoans() {
+        try {
+            currentLoanService.scheduleBackfill();
+            return ResponseEntity.accepted().body("Current loan backfill scheduled");
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Error scheduling current loan backfill: " + e.getMessage());
+        }
+    }
+
+    // Endpoint to compare the current-loan pointers against open transactions
+    // Endpoint: GET /api/bookCopy/current-loan/consistency
+    @PreAuthorize("hasAnyAuthority('ADMIN')")
+    @GetMapping("/current-loan/consistency")
+    public ResponseEntity<?> checkCurrentLoanConsistency() {
+        try {
+            return ResponseEntity.ok(currentLoanService.checkConsistency());
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Error checking current loan consistency: " + e.getMessage());
+        }
+    }
+
     @GetMapping()
     public ResponseEntity<?> getAllBookCopies() {
         try {
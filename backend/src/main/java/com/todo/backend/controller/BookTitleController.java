@@ -1,5 +1,6 @@
 package com.todo.backend.controller;
 
+import com.todo.backend.dto.booktitle.AvailabilityForecastDto;
 import com.todo.backend.dto.booktitle.BookTitleDto;
 import com.todo.backend.dto.booktitle.ResponseBookTitleDto;
 import com.todo.backend.service.BookTitleService;
@@ -12,6 +13,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.HashMap;
 import java.util.Map;
 
 @CrossOrigin("*")
@@ -137,7 +139,7 @@ public class BookTitleController {
         try {
             ResponseBookTitleDto bookTitle = bookTitleService.getBookTitleWithAvailability(id, null, false);
             
-            Map<String, Object> availabilityInfo = Map.of(
+            Map<String, Object> availabilityInfo = new HashMap<>(Map.of(
                 "bookTitleId", id,
                 "totalCopies", bookTitle.getTotalCopies(),
                 "availableCopies", bookTitle.getAvailableCopies(),
@@ -145,11 +147,25 @@ public class BookTitleController {
                 "maxOnlineReservations", bookTitle.getMaxOnlineReservations(),
                 "canReserve", bookTitle.getAvailableCopies() > 0,
                 "reservationStatus", bookTitle.getAvailableCopies() > 0 ? "AVAILABLE" : "FULL"
-            );
+            ));
+            // null when the title has no copies that can come back
+            availabilityInfo.put("estimatedAvailableDate", bookTitle.getEstimatedAvailableDate());
             
             return ResponseEntity.ok(availabilityInfo);
         } catch (Exception e) {
             return ResponseEntity.status(500).body("Error checking availability: " + e.getMessage());
         }
     }
+
+    // Copies on the shelf and on loan, claims ahead and the estimated date a copy is free for a new patron
+    // Endpoint: GET /api/bookTitle/{id}/availability-forecast
+    @GetMapping("/{id}/availability-forecast")
+    public ResponseEntity<?> getAvailabilityForecast(@PathVariable String id) {
+        try {
+            AvailabilityForecastDto forecast = bookTitleService.getAvailabilityForecast(id);
+            return ResponseEntity.ok(forecast);
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Error forecasting availability: " + e.getMessage());
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,81 @@
+package com.todo.backend.controller;
+
+import com.todo.backend.entity.OverdueBucket;
+import com.todo.backend.service.OverdueService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+@CrossOrigin("*")
+@RestController
+@RequestMapping("/api/overdue")
+@RequiredArgsConstructor
+@PreAuthorize("hasAnyAuthority('ADMIN', 'LIBRARIAN')")
+public class OverdueController {
+    private final OverdueService overdueService;
+
+    // Endpoint to page through overdue loans, optionally by bucket, user or title
+    // Endpoint: GET /api/overdue?bucket=DAYS_8_14&page=0&size=20
+    @GetMapping
+    public ResponseEntity<?> getOverdueLoans(
+            @RequestParam(required = false) OverdueBucket bucket,
+            @RequestParam(required = false) String userId,
+            @RequestParam(required = false) String bookTitleId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(overdueService.getOverdueLoans(bucket, userId, bookTitleId, page, size));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Error fetching overdue loans: " + e.getMessage());
+        }
+    }
+
+    // Endpoint to get overdue counts, total and per days-late bucket
+    // Endpoint: GET /api/overdue/summary
+    @GetMapping("/summary")
+    public ResponseEntity<?> getOverdueSummary() {
+        try {
+            return ResponseEntity.ok(overdueService.getSummary());
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Error fetching overdue summary: " + e.getMessage());
+        }
+    }
+
+    // Endpoint to download overdue loans as CSV, streamed row by row
+    // Endpoint: GET /api/overdue/export?bucket=DAYS_31_PLUS
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportOverdueLoans(@RequestParam(required = false) OverdueBucket bucket) {
+        StreamingResponseBody body = outputStream -> {
+            var writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            overdueService.exportCsv(bucket, writer);
+        };
+
+        String fileName = "overdue-" + LocalDate.now() + (bucket != null ? "-" + bucket : "") + ".csv";
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .body(body);
+    }
+
+    // Endpoint to rebuild the overdue snapshot now instead of waiting for the nightly job
+    // Endpoint: POST /api/overdue/refresh
+    @PreAuthorize("hasAnyAuthority('ADMIN')")
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refreshOverdueLoans() {
+        try {
+            int count = overdueService.refresh();
+            return ResponseEntity.ok("Materialized " + count + " overdue loans");
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Error refreshing overdue loans: " + e.getMessage());
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package com.todo.backend.controller;
 
-import com.todo.backend.dto.reservation.CreateReservationDto;
-import com.todo.backend.dto.reservation.ResponseReservationDto;
-import com.todo.backend.dto.reservation.UpdateReservationDto;
+import com.todo.backend.dto.hold.HoldPositionDto;
+import com.todo.backend.dto.reservation.*;
+import com.todo.backend.service.HoldQueueService;
 import com.todo.backend.service.ReservationService;
+import com.todo.backend.utils.concurrency.LaneBusyException;
+import com.todo.backend.utils.concurrency.UserCommandLanes;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -20,9 +22,13 @@ import java.util.Objects;
 @RequestMapping("/api/reservation")
 public class ReservationController {
     private final ReservationService reservationService;
+    private final HoldQueueService holdQueueService;
+    private final UserCommandLanes userCommandLanes;
 
-    public ReservationController(ReservationService reservationService) {
+    public ReservationController(ReservationService reservationService, HoldQueueService holdQueueService, UserCommandLanes userCommandLanes) {
         this.reservationService = reservationService;
+        this.holdQueueService = holdQueueService;
+        this.userCommandLanes = userCommandLanes;
     }
 
     @PreAuthorize("hasAnyAuthority('ADMIN', 'LIBRARIAN')")
@@ -36,6 +42,52 @@ public class ReservationController {
         }
     }
 
+    /**
+     * Filtered, cursor-paginated reservation listing (newest reservation date first)
+     * GET /api/reservation/page?userId=&bookTitleId=&status=ACTIVE|EXPIRED|ASSIGNED&cursor=&size=
+     */
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'LIBRARIAN')")
+    @GetMapping("/page")
+    public ResponseEntity<?> getReservationPage(
+            @RequestParam(required = false) String userId,
+            @RequestParam(required = false) String bookTitleId,
+            @RequestParam(required = false) ReservationStatusFilter status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            ReservationPageDto page = reservationService.getReservationPage(ReservationPageQuery.builder()
+                    .userId(userId)
+                    .bookTitleId(bookTitleId)
+                    .status(status)
+                    .cursor(cursor)
+                    .size(size)
+                    .build());
+            return ResponseEntity.ok(page);
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Error fetching reservations: " + e.getMessage());
+        }
+    }
+
+    @PreAuthorize("hasAnyAuthority('USER')")
+    @GetMapping("/my/page")
+    public ResponseEntity<?> getMyReservationPage(
+            Authentication authentication,
+            @RequestParam(required = false) ReservationStatusFilter status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            ReservationPageDto page = reservationService.getReservationPage(ReservationPageQuery.builder()
+                    .userId(authentication.getName())
+                    .status(status)
+                    .cursor(cursor)
+                    .size(size)
+                    .build());
+            return ResponseEntity.ok(page);
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Error fetching user reservations: " + e.getMessage());
+        }
+    }
+
     @PreAuthorize("hasAnyAuthority('ADMIN', 'LIBRARIAN', 'USER')")
     @GetMapping("/{id}")
     public ResponseEntity<?> getReservation(@PathVariable String id, Authentication authentication) {
@@ -68,8 +120,11 @@ public class ReservationController {
             }
 
             String userId = authentication.getName();
-            ResponseReservationDto createdReservation = reservationService.createReservation(userId, createReservationDto);
+            ResponseReservationDto createdReservation = userCommandLanes.execute(userId,
+                    () -> reservationService.createReservation(userId, createReservationDto));
             return ResponseEntity.ok(createdReservation);
+        } catch (LaneBusyException e) {
+            return ResponseEntity.status(429).body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(500).body("Error creating reservation: " + e.getMessage());
         }
@@ -99,10 +154,14 @@ public class ReservationController {
         String currentUserId = authentication.getName();
 
         try {
-            reservationService.deleteReservation(id, currentUserId);
+            // The deposit refund goes to the reservation owner, so run on the owner's lane
+            userCommandLanes.execute(reservationService.getReservationOwnerId(id),
+                    () -> reservationService.deleteReservation(id, currentUserId));
             return ResponseEntity.ok("Reservation deleted successfully");
         } catch (AccessDeniedException ade) {
             return ResponseEntity.status(403).body("You do not have permission to delete this reservation");
+        } catch (LaneBusyException e) {
+            return ResponseEntity.status(429).body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(500).body("Error deleting reservation: " + e.getMessage());
         }
@@ -132,4 +191,44 @@ public class ReservationController {
             return ResponseEntity.status(500).body("Error assigning book copy: " + e.getMessage());
         }
     }
+
+    @PreAuthorize("hasAnyAuthority('USER')")
+    @PostMapping("/hold/{bookTitleId}")
+    public ResponseEntity<?> joinHoldQueue(@PathVariable String bookTitleId, Authentication authentication) {
+        try {
+            String userId = authentication.getName();
+            HoldPositionDto position = userCommandLanes.execute(userId,
+                    () -> holdQueueService.joinQueue(userId, bookTitleId));
+            return ResponseEntity.ok(position);
+        } catch (LaneBusyException e) {
+            return ResponseEntity.status(429).body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Error joining the queue: " + e.getMessage());
+        }
+    }
+
+    @PreAuthorize("hasAnyAuthority('USER')")
+    @GetMapping("/hold/{bookTitleId}")
+    public ResponseEntity<?> getHoldPosition(@PathVariable String bookTitleId, Authentication authentication) {
+        try {
+            String userId = authentication.getName();
+            return ResponseEntity.ok(holdQueueService.getPosition(userId, bookTitleId));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Error fetching queue position: " + e.getMessage());
+        }
+    }
+
+    @PreAuthorize("hasAnyAuthority('USER')")
+    @DeleteMapping("/hold/{bookTitleId}")
+    public ResponseEntity<?> leaveHoldQueue(@PathVariable String bookTitleId, Authentication authentication) {
+        try {
+            String userId = authentication.getName();
+            userCommandLanes.execute(userId, () -> holdQueueService.leaveQueue(userId, bookTitleId));
+            return ResponseEntity.ok("Left the queue successfully");
+        } catch (LaneBusyException e) {
+            return ResponseEntity.status(429).body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Error leaving the queue: " + e.getMessage());
+        }
+    }
 }
@@ -1,19 +1,31 @@
 package com.todo.backend.controller;
 
+import com.todo.backend.dto.statistics.BorrowerCountGranularity;
 import com.todo.backend.dto.statistics.StatisticsDataDto;
+import com.todo.backend.service.BorrowerSketchService;
+import com.todo.backend.service.LiveStatisticsService;
+import com.todo.backend.service.StatisticsRollupService;
 import com.todo.backend.service.StatisticsService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+
 @CrossOrigin("http://localhost:3000")
 @RestController
 @RequestMapping("/api/statistics")
 @RequiredArgsConstructor
 public class StatisticsController {
     
-    private final StatisticsService statisticsService;    
+    private final StatisticsService statisticsService;
+    private final StatisticsRollupService statisticsRollupService;
+    private final BorrowerSketchService borrowerSketchService;
+    private final LiveStatisticsService liveStatisticsService;
+
     /**
     * Get library statistics with detailed revenue breakdown
     * Revenue Explanation:
@@ -42,4 +54,70 @@ public class StatisticsController {
             return ResponseEntity.status(500).body("Error fetching statistics: " + e.getMessage());
         }
     }
+
+    /**
+    * Recompute the daily statistics rollups from the transaction, user and book copy tables.
+    * Runs as a background job; only needed after the rollups drifted, e.g. after manual database edits
+    */
+    @PreAuthorize("hasAnyAuthority('ADMIN')")
+    @PostMapping("/rollup/rebuild")
+    public ResponseEntity<?> rebuildRollups() {
+        try {
+            statisticsRollupService.scheduleRebuild();
+            return ResponseEntity.accepted().body("Statistics rollup rebuild started");
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Error starting statistics rollup rebuild: " + e.getMessage());
+        }
+    }
+
+    /**
+    * Timing of each statistics query and of the whole response, slowest first.
+    * With concurrent queries the response time follows the slowest query, not their sum
+    */
+    @PreAuthorize("hasAnyAuthority('ADMIN')")
+    @GetMapping("/query-timings")
+    public ResponseEntity<?> getQueryTimings() {
+        try {
+            return ResponseEntity.ok(statisticsService.getQueryTimings());
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Error fetching statistics query timings: " + e.getMessage());
+        }
+    }
+
+    /**
+    * Distinct borrowers per day, week, month or year over [from, to), optionally only for one category.
+    * Estimated from HyperLogLog sketches, about 1.6% relative standard error;
+    * exact=true counts the transactions of both tiers instead, slower, for audits
+    */
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'LIBRARIAN')")
+    @GetMapping("/distinct-borrowers")
+    public ResponseEntity<?> getDistinctBorrowers(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "MONTH") BorrowerCountGranularity granularity,
+            @RequestParam(required = false) String categoryId,
+            @RequestParam(defaultValue = "false") boolean exact) {
+        try {
+            return ResponseEntity.ok(borrowerSketchService.getDistinctBorrowers(from, to, granularity, categoryId, exact));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Error fetching distinct borrowers: " + e.getMessage());
+        }
+    }
+
+    /**
+    * Live dashboard metrics as Server-Sent Events: a "snapshot" event with today's totals on connect,
+    * then at most one "delta" event per interval with what changed and the new totals.
+    * Reconnect when the stream times out, a fresh snapshot follows
+    */
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'LIBRARIAN')")
+    @GetMapping(value = "/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<?> streamLiveStatistics() {
+        try {
+            return ResponseEntity.ok(liveStatisticsService.subscribe());
+        } catch (Exception e) {
+            return ResponseEntity.status(503).body("Error subscribing to live statistics: " + e.getMessage());
+        }
+    }
 }
@@ -1,29 +1,40 @@
 package com.todo.backend.controller;
 
-import com.todo.backend.dto.transaction.CreateTransactionDto;
-import com.todo.backend.dto.transaction.CreateTransactionFromReservationDto;
-import com.todo.backend.dto.transaction.ResponseTransactionDto;
-import com.todo.backend.dto.transaction.UpdateTransactionDto;
-import com.todo.backend.dto.transaction.ReturnBookDto;
-import com.todo.backend.dto.transaction.ReturnBookResponseDto;
+import com.todo.backend.dto.transaction.*;
+import com.todo.backend.service.LateFeeAccrualService;
+import com.todo.backend.service.PriceSnapshotService;
+import com.todo.backend.service.ReservationService;
 import com.todo.backend.service.TransactionService;
+import com.todo.backend.utils.concurrency.LaneBusyException;
+import com.todo.backend.utils.concurrency.UserCommandLanes;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @CrossOrigin("*")
 @RestController
 @RequestMapping("/api/transaction")
 public class TransactionController {
     private final TransactionService transactionService;
+    private final ReservationService reservationService;
+    private final UserCommandLanes userCommandLanes;
+    private final LateFeeAccrualService lateFeeAccrualService;
+    private final PriceSnapshotService priceSnapshotService;
 
-    public TransactionController(TransactionService transactionService) {
+    public TransactionController(TransactionService transactionService, ReservationService reservationService, UserCommandLanes userCommandLanes, LateFeeAccrualService lateFeeAccrualService, PriceSnapshotService priceSnapshotService) {
         this.transactionService = transactionService;
+        this.reservationService = reservationService;
+        this.userCommandLanes = userCommandLanes;
+        this.lateFeeAccrualService = lateFeeAccrualService;
+        this.priceSnapshotService = priceSnapshotService;
     }
 
     @PreAuthorize("hasAnyAuthority('ADMIN', 'LIBRARIAN')")
@@ -49,6 +60,108 @@ public class TransactionController {
         }
     }
 
+    /**
+     * Filtered, cursor-paginated transaction listing (newest borrow date first)
+     * GET /api/transaction/page?userId=&status=OPEN|RETURNED|OVERDUE&from=&to=&cursor=&size=
+     */
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'LIBRARIAN')")
+    @GetMapping("/page")
+    public ResponseEntity<?> getTransactionPage(
+            @RequestParam(required = false) String userId,
+            @RequestParam(required = false) TransactionStatusFilter status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            TransactionPageDto page = transactionService.getTransactionPage(TransactionPageQuery.builder()
+                    .userId(userId)
+                    .status(status)
+                    .borrowedFrom(from)
+                    .borrowedTo(to)
+                    .cursor(cursor)
+                    .size(size)
+                    .build());
+            return ResponseEntity.ok(page);
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Error fetching transactions: " + e.getMessage());
+        }
+    }
+
+    @PreAuthorize("hasAnyAuthority('USER')")
+    @GetMapping("/my/page")
+    public ResponseEntity<?> getMyTransactionPage(
+            Authentication authentication,
+            @RequestParam(required = false) TransactionStatusFilter status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            TransactionPageDto page = transactionService.getTransactionPage(TransactionPageQuery.builder()
+                    .userId(authentication.getName())
+                    .status(status)
+                    .borrowedFrom(from)
+                    .borrowedTo(to)
+                    .cursor(cursor)
+                    .size(size)
+                    .build());
+            return ResponseEntity.ok(page);
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Error fetching user transactions: " + e.getMessage());
+        }
+    }
+
+    // Progress of the late fee accrual batch (run date, last key, processed count)
+    // Endpoint: GET /api/transaction/late-fees/accrual
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'LIBRARIAN')")
+    @GetMapping("/late-fees/accrual")
+    public ResponseEntity<?> getLateFeeAccrualStatus() {
+        try {
+            return ResponseEntity.ok(lateFeeAccrualService.getStatus());
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Error fetching late fee accrual status: " + e.getMessage());
+        }
+    }
+
+    // Run the late fee accrual now, resuming today's run if it was interrupted
+    // Endpoint: POST /api/transaction/late-fees/accrual
+    @PreAuthorize("hasAnyAuthority('ADMIN')")
+    @PostMapping("/late-fees/accrual")
+    public ResponseEntity<?> runLateFeeAccrual() {
+        try {
+            lateFeeAccrualService.triggerRun();
+            return ResponseEntity.accepted().body("Late fee accrual triggered");
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Error triggering late fee accrual: " + e.getMessage());
+        }
+    }
+
+    // Number of transactions still missing their checkout price snapshot
+    // Endpoint: GET /api/transaction/price-snapshot
+    @PreAuthorize("hasAnyAuthority('ADMIN')")
+    @GetMapping("/price-snapshot")
+    public ResponseEntity<?> getPriceSnapshotStatus() {
+        try {
+            return ResponseEntity.ok(Map.of("missing", priceSnapshotService.countMissing()));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Error fetching price snapshot status: " + e.getMessage());
+        }
+    }
+
+    // Queue a backfill of checkout price snapshots on older transactions
+    // Endpoint: POST /api/transaction/price-snapshot/backfill
+    @PreAuthorize("hasAnyAuthority('ADMIN')")
+    @PostMapping("/price-snapshot/backfill")
+    public ResponseEntity<?> backfillPriceSnapshots() {
+        try {
+            priceSnapshotService.scheduleBackfill();
+            return ResponseEntity.accepted().body("Price snapshot backfill scheduled");
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Error scheduling price snapshot backfill: " + e.getMessage());
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<?> getTransaction(@PathVariable String id) {
         try {
@@ -67,8 +180,11 @@ public class TransactionController {
                 return ResponseEntity.badRequest().body(result.getFieldError().getDefaultMessage());
             }
 
-            ResponseTransactionDto createdTransaction = transactionService.createTransaction(createTransactionDto);
+            ResponseTransactionDto createdTransaction = userCommandLanes.execute(createTransactionDto.getUserId(),
+                    () -> transactionService.createTransaction(createTransactionDto));
             return ResponseEntity.ok(createdTransaction);
+        } catch (LaneBusyException e) {
+            return ResponseEntity.status(429).body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(500).body("Error creating transaction: " + e.getMessage());
         }
@@ -82,8 +198,11 @@ public class TransactionController {
                 return ResponseEntity.badRequest().body(result.getFieldError().getDefaultMessage());
             }
 
-            ResponseTransactionDto updatedTransaction = transactionService.updateTransaction(id, updateTransactionDto);
-            return ResponseEntity.ok(updatedTransaction);        } catch (Exception e) {
+            ResponseTransactionDto updatedTransaction = userCommandLanes.execute(transactionService.getTransactionUserId(id),
+                    () -> transactionService.updateTransaction(id, updateTransactionDto));
+            return ResponseEntity.ok(updatedTransaction);        } catch (LaneBusyException e) {
+            return ResponseEntity.status(429).body(e.getMessage());
+        } catch (Exception e) {
             return ResponseEntity.status(500).body("Error updating transaction: " + e.getMessage());
         }
     }
@@ -94,11 +213,16 @@ public class TransactionController {
         try {
             if (result.hasErrors()) {
                 return ResponseEntity.badRequest().body(result.getFieldError().getDefaultMessage());
-            }            ResponseTransactionDto createdTransaction = transactionService.createTransactionFromReservation(
-                dto.getReservationId(),
-                dto.getBookCopyId()
+            }            ResponseTransactionDto createdTransaction = userCommandLanes.execute(
+                reservationService.getReservationOwnerId(dto.getReservationId()),
+                () -> transactionService.createTransactionFromReservation(
+                    dto.getReservationId(),
+                    dto.getBookCopyId()
+                )
             );
             return ResponseEntity.ok(createdTransaction);
+        } catch (LaneBusyException e) {
+            return ResponseEntity.status(429).body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(500).body("Error creating transaction from reservation: " + e.getMessage());
         }
@@ -125,8 +249,11 @@ public class TransactionController {
                 return ResponseEntity.badRequest().body(result.getFieldError().getDefaultMessage());
             }
 
-            ReturnBookResponseDto response = transactionService.returnBook(id, returnBookDto, isLost);
+            ReturnBookResponseDto response = userCommandLanes.execute(transactionService.getTransactionUserId(id),
+                    () -> transactionService.returnBook(id, returnBookDto, isLost));
             return ResponseEntity.ok(response);
+        } catch (LaneBusyException e) {
+            return ResponseEntity.status(429).body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(500).body("Error returning book: " + e.getMessage());
         }
@@ -0,0 +1,40 @@
+package com.todo.backend.dao;
+
+import com.todo.backend.dto.latefee.AccrualSourceRowDto;
+import com.todo.backend.entity.AccruedLateFee;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RepositoryRestResource(exported = false)
+public interface AccruedLateFeeRepository extends JpaRepository<AccruedLateFee, String> {
+
+    // Next chunk of open overdue transactions of one hash partition of the users, keyset on ID so a run can resume after any key
+    @Query("""
+    SELECT new com.todo.backend.dto.latefee.AccrualSourceRowDto(t.id, t.dueDate, COALESCE(t.chargedPrice, bt.price))
+    FROM Transaction t
+    JOIN BookCopy bc ON t.bookCopyId = bc.id
+    JOIN BookTitle bt ON bc.bookTitleId = bt.id
+    WHERE t.returnedDate IS NULL
+        AND t.dueDate < :asOf
+        AND (:afterId IS NULL OR t.id > :afterId)
+        AND MOD(t.userHash, :partitions) = :partition
+    ORDER BY t.id ASC
+    """)
+    List<AccrualSourceRowDto> findAccrualChunk(@Param("asOf") LocalDate asOf,
+                                               @Param("afterId") String afterId,
+                                               @Param("partition") int partition,
+                                               @Param("partitions") int partitions,
+                                               Pageable pageable);
+
+    // Rows not touched by the run as of this date belong to returned or no longer overdue loans
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM AccruedLateFee a WHERE a.asOf < :asOf")
+    int deleteOlderThan(@Param("asOf") LocalDate asOf);
+}
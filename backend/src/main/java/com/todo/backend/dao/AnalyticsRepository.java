@@ -0,0 +1,62 @@
+package com.todo.backend.dao;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Sources of the in-memory analytics columns, read in one pass per refresh
+ */
+@Repository
+public class AnalyticsRepository {
+    private static final int FETCH_SIZE = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // [book title id, user role, copy condition, borrow date, due date, returned date, charged price, penalty]
+    // All loans of the tier, or with returnedSince only the open ones and those returned on or after it
+    public Stream<Object[]> streamLoans(boolean archive, LocalDate returnedSince) {
+        TypedQuery<Object[]> query = entityManager.createQuery("""
+            SELECT bc.bookTitleId, u.role, bc.condition, t.borrowDate, t.dueDate, t.returnedDate,
+                   t.chargedPrice, td.penaltyFee
+            FROM %s t
+            LEFT JOIN User u ON u.id = t.userId
+            LEFT JOIN BookCopy bc ON bc.id = t.bookCopyId
+            LEFT JOIN %s td ON td.transactionId = t.id
+            %s
+            """.formatted(
+                archive ? "ArchivedTransaction" : "Transaction",
+                archive ? "ArchivedTransactionDetail" : "TransactionDetail",
+                returnedSince != null ? "WHERE t.returnedDate IS NULL OR t.returnedDate >= :returnedSince" : ""),
+                Object[].class);
+        if (returnedSince != null) {
+            query.setParameter("returnedSince", returnedSince);
+        }
+        return query.setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE).getResultStream();
+    }
+
+    // [book title id, title, publisher name]
+    public List<Object[]> getTitles() {
+        return entityManager.createQuery("""
+            SELECT bt.id, bt.title, p.name
+            FROM BookTitle bt
+            LEFT JOIN Publisher p ON p.id = bt.publisherId
+            """, Object[].class).getResultList();
+    }
+
+    // [book title id, category name]
+    public List<Object[]> getTitleCategories() {
+        return entityManager.createQuery("""
+            SELECT bcat.bookTitleId, c.name
+            FROM BookCategory bcat
+            JOIN Category c ON c.id = bcat.categoryId
+            """, Object[].class).getResultList();
+    }
+}
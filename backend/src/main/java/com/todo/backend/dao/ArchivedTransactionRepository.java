@@ -0,0 +1,49 @@
+package com.todo.backend.dao;
+
+import com.todo.backend.entity.ArchivedTransaction;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RepositoryRestResource(exported = false)
+public interface ArchivedTransactionRepository extends JpaRepository<ArchivedTransaction, String> {
+
+    // Newest borrow date in the archive, reads starting after it never need the archive
+    @Query("SELECT MAX(a.borrowDate) FROM ArchivedTransaction a")
+    LocalDate findMaxBorrowDate();
+
+    // Oldest returned transactions first, so each chunk moves the coldest rows.
+    // Rows still waiting for their price snapshot stay hot until the backfill reaches them
+    @Query("""
+    SELECT t.id FROM Transaction t
+    WHERE t.returnedDate IS NOT NULL
+        AND t.returnedDate < :cutoff
+        AND t.chargedPrice IS NOT NULL
+    ORDER BY t.returnedDate ASC, t.id ASC
+    """)
+    List<String> findArchivableIds(@Param("cutoff") LocalDate cutoff, Pageable pageable);
+
+    @Modifying(flushAutomatically = true)
+    @Query("""
+    INSERT INTO ArchivedTransaction (id, borrowDate, dueDate, userId, bookCopyId, returnedDate, chargedPrice, deposit, archivedOn)
+    SELECT t.id, t.borrowDate, t.dueDate, t.userId, t.bookCopyId, t.returnedDate, t.chargedPrice, t.deposit, :archivedOn
+    FROM Transaction t
+    WHERE t.id IN :ids
+    """)
+    int copyTransactions(@Param("ids") List<String> ids, @Param("archivedOn") LocalDate archivedOn);
+
+    @Modifying(flushAutomatically = true)
+    @Query("""
+    INSERT INTO ArchivedTransactionDetail (transactionId, penaltyFee, description)
+    SELECT td.transactionId, td.penaltyFee, td.description
+    FROM TransactionDetail td
+    WHERE td.transactionId IN :ids
+    """)
+    int copyTransactionDetails(@Param("ids") List<String> ids);
+}
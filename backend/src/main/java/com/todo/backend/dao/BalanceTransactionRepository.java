@@ -2,13 +2,18 @@ package com.todo.backend.dao;
 
 import com.todo.backend.entity.BalanceTransaction;
 import com.todo.backend.entity.BalanceTransactionType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface BalanceTransactionRepository extends JpaRepository<BalanceTransaction, String> {
@@ -42,4 +47,32 @@ public interface BalanceTransactionRepository extends JpaRepository<BalanceTrans
     List<BalanceTransaction> findByUserIdAndDateRange(@Param("userId") String userId, 
                                                     @Param("startDate") LocalDateTime startDate, 
                                                     @Param("endDate") LocalDateTime endDate);
+
+    @Query("SELECT MIN(bt.timestamp) FROM BalanceTransaction bt")
+    LocalDateTime findOldestTimestamp();
+
+    /**
+     * Rows of one ledger month for export to a cold segment, half-open range [start, end), grouped by user and
+     * oldest first within a user. The rows are built outside the persistence context, so a month streams through
+     * without piling up managed entities
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+    SELECT new com.todo.backend.entity.BalanceTransaction(bt.id, bt.userId, bt.type, bt.amount, bt.description,
+                                                          bt.timestamp, bt.balanceAfter, bt.status)
+    FROM BalanceTransaction bt
+    WHERE bt.timestamp >= :start AND bt.timestamp < :end
+    ORDER BY bt.userId, bt.timestamp, bt.id
+    """)
+    Stream<BalanceTransaction> streamAllInRange(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM BalanceTransaction bt WHERE bt.timestamp >= :start AND bt.timestamp < :end")
+    int deleteAllInRange(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    // Sum of one type's amounts over [start, end)
+    @Query("SELECT COALESCE(SUM(bt.amount), 0) FROM BalanceTransaction bt WHERE bt.type = :type AND bt.timestamp >= :start AND bt.timestamp < :end")
+    long sumAmountByTypeBetween(@Param("type") BalanceTransactionType type,
+                                @Param("start") LocalDateTime start,
+                                @Param("end") LocalDateTime end);
 }
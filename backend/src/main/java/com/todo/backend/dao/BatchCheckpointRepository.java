@@ -0,0 +1,24 @@
+package com.todo.backend.dao;
+
+import com.todo.backend.entity.BatchCheckpoint;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@RepositoryRestResource(exported = false)
+public interface BatchCheckpointRepository extends JpaRepository<BatchCheckpoint, String> {
+    // Serializes runs of a job across nodes, held until the caller's transaction ends
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM BatchCheckpoint c WHERE c.jobName = :jobName")
+    Optional<BatchCheckpoint> findForUpdate(@Param("jobName") String jobName);
+
+    // Checkpoints of a partitioned job's partitions
+    List<BatchCheckpoint> findByJobNameStartingWithAndRunDate(String prefix, LocalDate runDate);
+}
@@ -1,16 +1,19 @@
 package com.todo.backend.dao;
 
 import com.todo.backend.dto.bookcopy.BookCopyWithDueInfoDto;
+import com.todo.backend.dto.bookcopy.CurrentBorrowerDto;
 import com.todo.backend.entity.BookCopy;
 import com.todo.backend.entity.BookCopyStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,9 +27,26 @@ public interface BookCopyRepository extends JpaRepository<BookCopy, String> {
     Page<BookCopy> findByBookTitleIdAndStatus(@RequestParam("bookTitleId") String bookTitleId, @RequestParam("status") String status, Pageable pageable);
 
     BookCopy findFirstByBookTitleIdAndStatus(String bookTitleId, BookCopyStatus status);
-    
+
+    // Locks one available copy of the title, skipping copies locked by a concurrent claim instead of waiting.
+    // MySQL 8 only: H2 does not skip rows of tables with a non-integer primary key and returns nothing
+    @Query(value = "SELECT * FROM BOOK_COPY WHERE BOOK_TITLE_ID = :bookTitleId AND STATUS = 'AVAILABLE' " +
+            "ORDER BY ID LIMIT 1 FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<BookCopy> lockAvailableSkippingLocked(@Param("bookTitleId") String bookTitleId);
+
+    @Query("SELECT bc.id FROM BookCopy bc WHERE bc.bookTitleId = :bookTitleId AND bc.status = :status ORDER BY bc.id")
+    List<String> findIdsByBookTitleIdAndStatus(@Param("bookTitleId") String bookTitleId, @Param("status") BookCopyStatus status);
+
+    // 0 rows when the copy left the expected status meanwhile
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE BookCopy bc SET bc.status = :status WHERE bc.id = :bookCopyId AND bc.status = :expectedStatus")
+    int updateStatusIfCurrent(@Param("bookCopyId") String bookCopyId, @Param("expectedStatus") BookCopyStatus expectedStatus,
+                              @Param("status") BookCopyStatus status);
+
     List<BookCopy> findByBookTitleId(String bookTitleId);
 
+    long countByBookTitleIdAndStatusIn(String bookTitleId, Collection<BookCopyStatus> statuses);
+
     @Query("""
     SELECT new com.todo.backend.dto.bookcopy.BookCopyWithDueInfoDto(
            bc.id,
@@ -47,16 +67,7 @@ public interface BookCopyRepository extends JpaRepository<BookCopy, String> {
     )
     FROM BookCopy bc
     LEFT JOIN BookTitle bt ON bc.bookTitleId = bt.id
-    LEFT JOIN Transaction t ON bc.id = t.bookCopyId
-        AND t.returnedDate IS NULL
-        AND t.id = (
-            SELECT t2.id
-            FROM Transaction t2
-            WHERE t2.bookCopyId = bc.id
-                AND t2.returnedDate IS NULL
-            ORDER BY t2.borrowDate DESC
-            LIMIT 1
-        )
+    LEFT JOIN Transaction t ON t.id = bc.currentTransactionId
     LEFT JOIN User u ON t.userId = u.id
     ORDER BY bc.id
     """)
@@ -82,51 +93,84 @@ public interface BookCopyRepository extends JpaRepository<BookCopy, String> {
     )
     FROM BookCopy bc
     LEFT JOIN BookTitle bt ON bc.bookTitleId = bt.id
-    LEFT JOIN Transaction t ON bc.id = t.bookCopyId
-        AND t.returnedDate IS NULL
-        AND t.id = (
-            SELECT t2.id
-            FROM Transaction t2
-            WHERE t2.bookCopyId = bc.id
-                AND t2.returnedDate IS NULL
-            ORDER BY t2.borrowDate DESC
-            LIMIT 1
-        )
+    LEFT JOIN Transaction t ON t.id = bc.currentTransactionId
     LEFT JOIN User u ON t.userId = u.id
     WHERE bc.id = :bookCopyId
     """)
     Optional<BookCopyWithDueInfoDto> findBookCopyWithDueInfo(@Param("bookCopyId") String bookCopyId);
 
     @Query("""
-    SELECT new com.todo.backend.dto.bookcopy.BookCopyWithDueInfoDto(
-           bc.id,
-           bc.status,
-           bc.condition,
-           bt.title,
-           bt.id,
-           bt.price,
-           t.dueDate,
-           t.borrowDate,
-           t.userId,
-           u.name,
-           u.cccd,
-           true
-    )
+    SELECT new com.todo.backend.dto.bookcopy.CurrentBorrowerDto(bc.id, u.id, u.name, u.cccd)
     FROM BookCopy bc
-    JOIN BookTitle bt ON bc.bookTitleId = bt.id
-    JOIN Transaction t ON bc.id = t.bookCopyId
-        AND t.returnedDate IS NULL
-        AND t.dueDate < CURRENT_DATE
-        AND t.id = (
-            SELECT t2.id
-            FROM Transaction t2
-            WHERE t2.bookCopyId = bc.id
-                AND t2.returnedDate IS NULL
-            ORDER BY t2.borrowDate DESC
-            LIMIT 1
-        )
+    JOIN Transaction t ON t.id = bc.currentTransactionId
     JOIN User u ON t.userId = u.id
-    ORDER BY t.dueDate ASC
     """)
-    List<BookCopyWithDueInfoDto> findOverdueBookCopies();
+    List<CurrentBorrowerDto> findAllCurrentBorrowers();
+
+    @Query("""
+    SELECT new com.todo.backend.dto.bookcopy.CurrentBorrowerDto(bc.id, u.id, u.name, u.cccd)
+    FROM BookCopy bc
+    JOIN Transaction t ON t.id = bc.currentTransactionId
+    JOIN User u ON t.userId = u.id
+    WHERE bc.id = :bookCopyId
+    """)
+    Optional<CurrentBorrowerDto> findCurrentBorrower(@Param("bookCopyId") String bookCopyId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE BookCopy bc SET bc.currentTransactionId = :transactionId WHERE bc.id = :bookCopyId")
+    int setCurrentTransactionId(@Param("bookCopyId") String bookCopyId, @Param("transactionId") String transactionId);
+
+    // Pointers that don't reference an open transaction of the same copy
+    @Query("""
+    SELECT bc.id FROM BookCopy bc
+    WHERE bc.currentTransactionId IS NOT NULL
+        AND NOT EXISTS (
+            SELECT 1 FROM Transaction t
+            WHERE t.id = bc.currentTransactionId
+                AND t.bookCopyId = bc.id
+                AND t.returnedDate IS NULL
+        )
+    """)
+    List<String> findBookCopyIdsWithStaleCurrentLoan();
+
+    // Copies that have an open transaction but no pointer
+    @Query("""
+    SELECT DISTINCT t.bookCopyId FROM Transaction t
+    WHERE t.returnedDate IS NULL
+        AND NOT EXISTS (
+            SELECT 1 FROM BookCopy bc
+            WHERE bc.id = t.bookCopyId
+                AND bc.currentTransactionId IS NOT NULL
+        )
+    """)
+    List<String> findBookCopyIdsMissingCurrentLoan();
+
+    // [copy ID, transaction ID] of the latest open transaction (by borrow date) of the next copies without a pointer,
+    // keyset on the copy ID; ties on the borrow date come back as several rows of the copy, the highest ID first
+    @Query("""
+    SELECT t.bookCopyId, t.id FROM Transaction t
+    WHERE t.returnedDate IS NULL
+        AND t.bookCopyId > :afterBookCopyId
+        AND (t.bookCopyId, t.borrowDate) IN (
+            SELECT o.bookCopyId, MAX(o.borrowDate) FROM Transaction o
+            WHERE o.returnedDate IS NULL
+                AND o.bookCopyId > :afterBookCopyId
+                AND NOT EXISTS (
+                    SELECT 1 FROM BookCopy bc
+                    WHERE bc.id = o.bookCopyId
+                        AND bc.currentTransactionId IS NOT NULL
+                )
+            GROUP BY o.bookCopyId
+        )
+    ORDER BY t.bookCopyId ASC, t.id DESC
+    """)
+    List<Object[]> findLatestOpenLoansMissingPointer(@Param("afterBookCopyId") String afterBookCopyId, Pageable pageable);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE BookCopy bc SET bc.currentTransactionId = NULL WHERE bc.id IN :bookCopyIds")
+    int clearCurrentTransactionIds(@Param("bookCopyIds") List<String> bookCopyIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE BookCopy bc SET bc.status = :status WHERE bc.id IN :bookCopyIds")
+    int updateStatusByIdIn(@Param("bookCopyIds") List<String> bookCopyIds, @Param("status") BookCopyStatus status);
 }
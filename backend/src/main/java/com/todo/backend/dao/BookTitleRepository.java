@@ -4,7 +4,9 @@ import com.todo.backend.entity.BookTitle;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
 import org.springframework.web.bind.annotation.RequestParam;
 
@@ -47,4 +49,21 @@ public interface BookTitleRepository extends JpaRepository<BookTitle, String> {
 
     @Query("SELECT b FROM BookTitle b JOIN b.bookCategories bc WHERE bc.category.name IN :categoryNames")
     Page<BookTitle> findByBookCategoriesName(List<String> categoryNames, Pageable pageable);
-}
\ No newline at end of file
+
+    // Takes one online reservation slot if one is free; 0 rows when the title is full or gone.
+    // The row lock is held until commit, so callers claim last, right before inserting the reservation
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE BookTitle bt SET bt.reservedOnline = bt.reservedOnline + 1 " +
+            "WHERE bt.id = :id AND bt.reservedOnline < bt.maxOnlineReservations")
+    int claimOnlineReservationSlot(@Param("id") String id);
+
+    // Counts a reservation made for a held copy; may go past the limit, the copy is on the shelf already
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE BookTitle bt SET bt.reservedOnline = bt.reservedOnline + 1 WHERE bt.id = :id")
+    int addOnlineReservationSlot(@Param("id") String id);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE BookTitle bt SET bt.reservedOnline = bt.reservedOnline - :count " +
+            "WHERE bt.id = :id AND bt.reservedOnline >= :count")
+    int releaseOnlineReservationSlots(@Param("id") String id, @Param("count") int count);
+}
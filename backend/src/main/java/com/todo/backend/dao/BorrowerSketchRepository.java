@@ -0,0 +1,36 @@
+package com.todo.backend.dao;
+
+import com.todo.backend.entity.BorrowerSketch;
+import com.todo.backend.entity.compositekey.BorrowerSketchPrimaryKey;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@RepositoryRestResource(exported = false)
+public interface BorrowerSketchRepository extends JpaRepository<BorrowerSketch, BorrowerSketchPrimaryKey> {
+
+    // Unlocked read of the registers, may be behind a concurrent writer but never ahead of it
+    @Query("SELECT s.registers FROM BorrowerSketch s WHERE s.categoryId = :categoryId AND s.statDate = :statDate")
+    Optional<byte[]> findRegisters(@Param("categoryId") String categoryId, @Param("statDate") LocalDate statDate);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM BorrowerSketch s WHERE s.categoryId = :categoryId AND s.statDate = :statDate")
+    Optional<BorrowerSketch> findForUpdate(@Param("categoryId") String categoryId, @Param("statDate") LocalDate statDate);
+
+    // [stat date, registers] of one category over [from, to), a range scan of the primary key
+    @Query("""
+    SELECT s.statDate, s.registers FROM BorrowerSketch s
+    WHERE s.categoryId = :categoryId AND s.statDate >= :from AND s.statDate < :to
+    ORDER BY s.statDate
+    """)
+    List<Object[]> findRegistersBetween(@Param("categoryId") String categoryId,
+                                        @Param("from") LocalDate from,
+                                        @Param("to") LocalDate to);
+}
@@ -3,6 +3,7 @@ package com.todo.backend.dao;
 import com.todo.backend.entity.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
 import org.springframework.web.bind.annotation.RequestParam;
 
@@ -13,6 +14,9 @@ public interface CategoryRepository extends JpaRepository<Category, String> {
     @Query("SELECT a FROM Category a JOIN a.bookCategories ba WHERE ba.bookTitle.id = :bookTitleId")
     List<Category> findByBookTitleId(@RequestParam("bookTitleId") String bookTitleId);
 
+    @Query("SELECT bc.categoryId FROM BookCategory bc WHERE bc.bookTitleId = :bookTitleId ORDER BY bc.categoryId")
+    List<String> findIdsByBookTitleId(@Param("bookTitleId") String bookTitleId);
+
     boolean existsByName(String name);
     boolean existsByNameAndIdNot(String name, String id);
 }
\ No newline at end of file
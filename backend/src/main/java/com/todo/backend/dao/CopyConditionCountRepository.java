@@ -0,0 +1,28 @@
+package com.todo.backend.dao;
+
+import com.todo.backend.dto.statistics.BookConditionDto;
+import com.todo.backend.entity.BookCopyCondition;
+import com.todo.backend.entity.CopyConditionCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+
+import java.util.List;
+
+@RepositoryRestResource(exported = false)
+public interface CopyConditionCountRepository extends JpaRepository<CopyConditionCount, BookCopyCondition> {
+
+    @Modifying
+    @Query("UPDATE CopyConditionCount c SET c.copies = c.copies + :delta WHERE c.condition = :condition")
+    int increment(@Param("condition") BookCopyCondition condition, @Param("delta") long delta);
+
+    @Query("""
+    SELECT new com.todo.backend.dto.statistics.BookConditionDto(CAST(c.condition AS string), c.copies)
+    FROM CopyConditionCount c
+    WHERE c.copies > 0
+    ORDER BY c.copies DESC
+    """)
+    List<BookConditionDto> findAllCounts();
+}
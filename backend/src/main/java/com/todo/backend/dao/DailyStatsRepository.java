@@ -0,0 +1,74 @@
+package com.todo.backend.dao;
+
+import com.todo.backend.dto.statistics.RollupTotalsDto;
+import com.todo.backend.entity.DailyStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RepositoryRestResource(exported = false)
+public interface DailyStatsRepository extends JpaRepository<DailyStats, LocalDate> {
+
+    // Relative update, concurrent commands on the same day never overwrite each other.
+    // No clearAutomatically: it runs inside the caller's transaction and must not detach its entities
+    @Modifying
+    @Query("""
+    UPDATE DailyStats d
+    SET d.borrows = d.borrows + :borrows,
+        d.returns = d.returns + :returns,
+        d.revenue = d.revenue + :revenue,
+        d.penalties = d.penalties + :penalties,
+        d.refunds = d.refunds + :refunds,
+        d.newUsers = d.newUsers + :newUsers
+    WHERE d.statDate = :statDate
+    """)
+    int increment(@Param("statDate") LocalDate statDate,
+                  @Param("borrows") int borrows,
+                  @Param("returns") int returns,
+                  @Param("revenue") long revenue,
+                  @Param("penalties") long penalties,
+                  @Param("refunds") long refunds,
+                  @Param("newUsers") int newUsers);
+
+    // Sums over the half-open range [from, to), a range scan of the primary key
+    @Query("""
+    SELECT new com.todo.backend.dto.statistics.RollupTotalsDto(
+        COALESCE(SUM(d.borrows), 0),
+        COALESCE(SUM(d.returns), 0),
+        COALESCE(SUM(d.revenue), 0),
+        COALESCE(SUM(d.penalties), 0),
+        COALESCE(SUM(d.refunds), 0),
+        COALESCE(SUM(d.newUsers), 0))
+    FROM DailyStats d
+    WHERE d.statDate >= :from AND d.statDate < :to
+    """)
+    RollupTotalsDto sumBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // All time totals read every row, one per day the library has been open
+    @Query("""
+    SELECT new com.todo.backend.dto.statistics.RollupTotalsDto(
+        COALESCE(SUM(d.borrows), 0),
+        COALESCE(SUM(d.returns), 0),
+        COALESCE(SUM(d.revenue), 0),
+        COALESCE(SUM(d.penalties), 0),
+        COALESCE(SUM(d.refunds), 0),
+        COALESCE(SUM(d.newUsers), 0))
+    FROM DailyStats d
+    """)
+    RollupTotalsDto sumAll();
+
+    // [month, borrows, revenue] over [from, to); MONTH() only groups rows the range already selected
+    @Query("""
+    SELECT MONTH(d.statDate), CAST(SUM(d.borrows) AS int), SUM(d.revenue)
+    FROM DailyStats d
+    WHERE d.statDate >= :from AND d.statDate < :to
+    GROUP BY MONTH(d.statDate)
+    ORDER BY MONTH(d.statDate)
+    """)
+    List<Object[]> sumByMonth(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -0,0 +1,46 @@
+package com.todo.backend.dao;
+
+import com.todo.backend.dto.statistics.PopularBookDto;
+import com.todo.backend.entity.DailyTitleStats;
+import com.todo.backend.entity.compositekey.DailyTitleStatsPrimaryKey;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RepositoryRestResource(exported = false)
+public interface DailyTitleStatsRepository extends JpaRepository<DailyTitleStats, DailyTitleStatsPrimaryKey> {
+
+    @Modifying
+    @Query("""
+    UPDATE DailyTitleStats d
+    SET d.borrows = d.borrows + :borrows,
+        d.revenue = d.revenue + :revenue
+    WHERE d.statDate = :statDate AND d.bookTitleId = :bookTitleId
+    """)
+    int increment(@Param("statDate") LocalDate statDate,
+                  @Param("bookTitleId") String bookTitleId,
+                  @Param("borrows") int borrows,
+                  @Param("revenue") long revenue);
+
+    // Most borrowed titles over [from, to)
+    @Query("""
+    SELECT new com.todo.backend.dto.statistics.PopularBookDto(
+        bt.title,
+        CAST(SUM(d.borrows) AS int),
+        CAST(SUM(d.revenue) AS long)
+    )
+    FROM DailyTitleStats d
+    JOIN BookTitle bt ON bt.id = d.bookTitleId
+    WHERE d.statDate >= :from AND d.statDate < :to
+    GROUP BY bt.id, bt.title
+    HAVING SUM(d.borrows) > 0
+    ORDER BY SUM(d.borrows) DESC
+    """)
+    List<PopularBookDto> findPopularBetween(@Param("from") LocalDate from, @Param("to") LocalDate to, Pageable pageable);
+}
@@ -0,0 +1,42 @@
+package com.todo.backend.dao;
+
+import com.todo.backend.entity.HoldRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@RepositoryRestResource(exported = false)
+public interface HoldRequestRepository extends JpaRepository<HoldRequest, String> {
+    // Queue order, loaded per title into HoldQueueService's positions
+    List<HoldRequest> findByBookTitleIdOrderByRequestedAtAscIdAsc(String bookTitleId);
+
+    // Head of a title's queue as committed by every node, read by the claim of a returned copy
+    @Query("SELECT h FROM HoldRequest h WHERE h.bookTitleId = :bookTitleId ORDER BY h.requestedAt ASC, h.id ASC")
+    List<HoldRequest> findQueueHead(@Param("bookTitleId") String bookTitleId, Pageable pageable);
+
+    // The holds queued behind the given one, keyset on the queue order
+    @Query("""
+    SELECT h FROM HoldRequest h
+    WHERE h.bookTitleId = :bookTitleId
+        AND (h.requestedAt > :afterRequestedAt OR (h.requestedAt = :afterRequestedAt AND h.id > :afterId))
+    ORDER BY h.requestedAt ASC, h.id ASC
+    """)
+    List<HoldRequest> findQueueAfter(@Param("bookTitleId") String bookTitleId,
+                                     @Param("afterRequestedAt") LocalDateTime afterRequestedAt,
+                                     @Param("afterId") String afterId,
+                                     Pageable pageable);
+
+    Optional<HoldRequest> findByUserIdAndBookTitleId(String userId, String bookTitleId);
+
+    // Claims a hold for a returned copy; 0 rows when a concurrent return claimed it or the patron left the queue
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM HoldRequest h WHERE h.id = :id")
+    int deleteClaimed(@Param("id") String id);
+}
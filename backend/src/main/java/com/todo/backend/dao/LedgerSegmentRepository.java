@@ -0,0 +1,24 @@
+package com.todo.backend.dao;
+
+import com.todo.backend.entity.LedgerSegment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+
+import java.util.List;
+import java.util.Optional;
+
+@RepositoryRestResource(exported = false)
+public interface LedgerSegmentRepository extends JpaRepository<LedgerSegment, String> {
+
+    @Query("SELECT s.month FROM LedgerSegment s")
+    List<String> findAllMonths();
+
+    @Query("SELECT s.content FROM LedgerSegment s WHERE s.month = :month")
+    Optional<byte[]> findContent(@Param("month") String month);
+
+    // [month, row count, size in bytes], newest first, without loading the contents
+    @Query("SELECT s.month, s.rowCount, s.sizeBytes FROM LedgerSegment s ORDER BY s.month DESC")
+    List<Object[]> findAllSummaries();
+}
@@ -0,0 +1,88 @@
+package com.todo.backend.dao;
+
+import com.todo.backend.dto.reminder.ReminderSourceRowDto;
+import com.todo.backend.entity.LoanReminder;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@RepositoryRestResource(exported = false)
+public interface LoanReminderRepository extends JpaRepository<LoanReminder, String> {
+
+    // Next chunk of open loans due by the horizon in one hash partition of the users, keyset on (due date, ID) so the scan
+    // walks IDX_TRANSACTION_RETURNED_DATE_DUE_DATE (InnoDB appends the ID to it) and a run can resume after any key
+    @Query("""
+    SELECT new com.todo.backend.dto.reminder.ReminderSourceRowDto(t.id, u.id, u.name, u.email, u.phone, bt.title, t.dueDate)
+    FROM Transaction t
+    JOIN User u ON t.userId = u.id
+    JOIN BookCopy bc ON t.bookCopyId = bc.id
+    JOIN BookTitle bt ON bc.bookTitleId = bt.id
+    WHERE t.returnedDate IS NULL
+        AND t.dueDate <= :horizon
+        AND t.dueDate >= :afterDueDate
+        AND (t.dueDate > :afterDueDate OR t.id > :afterId)
+        AND MOD(t.userHash, :partitions) = :partition
+    ORDER BY t.dueDate ASC, t.id ASC
+    """)
+    List<ReminderSourceRowDto> findReminderChunk(@Param("horizon") LocalDate horizon,
+                                                 @Param("afterDueDate") LocalDate afterDueDate,
+                                                 @Param("afterId") String afterId,
+                                                 @Param("partition") int partition,
+                                                 @Param("partitions") int partitions,
+                                                 Pageable pageable);
+
+    // Which of a chunk's reminders were already written, one primary key lookup per chunk
+    @Query("SELECT r.reminderKey FROM LoanReminder r WHERE r.reminderKey IN :keys")
+    List<String> findExistingKeys(@Param("keys") Collection<String> keys);
+
+    // Oldest unsent reminders still worth retrying and not claimed by a live batch, a range on IDX_LOAN_REMINDER_SENT_AT_CREATED_AT
+    @Query("""
+    SELECT r.reminderKey FROM LoanReminder r
+    WHERE r.sentAt IS NULL
+        AND r.attempts < :maxAttempts
+        AND (r.claimedUntil IS NULL OR r.claimedUntil < :now)
+    ORDER BY r.createdAt ASC, r.reminderKey ASC
+    """)
+    List<String> findClaimableKeys(@Param("maxAttempts") int maxAttempts, @Param("now") LocalDateTime now, Pageable pageable);
+
+    // Conditional, so of two batches racing for a reminder only the first to update it gets it
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+    UPDATE LoanReminder r SET r.claimedBy = :claimToken, r.claimedUntil = :claimedUntil
+    WHERE r.reminderKey IN :keys
+        AND r.sentAt IS NULL
+        AND (r.claimedUntil IS NULL OR r.claimedUntil < :now)
+    """)
+    int claim(@Param("keys") Collection<String> keys,
+              @Param("claimToken") String claimToken,
+              @Param("now") LocalDateTime now,
+              @Param("claimedUntil") LocalDateTime claimedUntil);
+
+    // What a batch won, oldest first
+    @Query("SELECT r FROM LoanReminder r WHERE r.claimedBy = :claimToken ORDER BY r.createdAt ASC, r.reminderKey ASC")
+    List<LoanReminder> findClaimed(@Param("claimToken") String claimToken);
+
+    // Only while the batch still holds the claim, 0 if it ran out and another batch took the reminder over
+    @Modifying
+    @Query("UPDATE LoanReminder r SET r.sentAt = :sentAt, r.claimedBy = NULL, r.claimedUntil = NULL WHERE r.reminderKey = :key AND r.claimedBy = :claimToken")
+    int markSent(@Param("key") String key, @Param("claimToken") String claimToken, @Param("sentAt") LocalDateTime sentAt);
+
+    @Modifying
+    @Query("UPDATE LoanReminder r SET r.attempts = r.attempts + 1, r.claimedBy = NULL, r.claimedUntil = NULL WHERE r.reminderKey = :key AND r.claimedBy = :claimToken")
+    int recordFailedAttempt(@Param("key") String key, @Param("claimToken") String claimToken);
+
+    // Hands back what a batch did not get to, so the next dispatch need not wait for the claims to run out
+    @Modifying
+    @Query("UPDATE LoanReminder r SET r.claimedBy = NULL, r.claimedUntil = NULL WHERE r.claimedBy = :claimToken")
+    int releaseClaims(@Param("claimToken") String claimToken);
+
+    long countBySentAtIsNull();
+}
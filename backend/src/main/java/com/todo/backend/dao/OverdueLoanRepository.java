@@ -0,0 +1,124 @@
+package com.todo.backend.dao;
+
+import com.todo.backend.dto.bookcopy.BookCopyWithDueInfoDto;
+import com.todo.backend.dto.overdue.OverdueLoanDto;
+import com.todo.backend.entity.OverdueBucket;
+import com.todo.backend.entity.OverdueLoan;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import jakarta.persistence.QueryHint;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+@RepositoryRestResource(exported = false)
+public interface OverdueLoanRepository extends JpaRepository<OverdueLoan, String> {
+
+    // Source rows for the nightly rebuild: open transactions already past their due date
+    @Query("""
+    SELECT new com.todo.backend.entity.OverdueLoan(
+           t.id, bc.id, bt.id, bt.title, bt.price,
+           u.id, u.name, u.cccd, t.borrowDate, t.dueDate
+    )
+    FROM Transaction t
+    JOIN BookCopy bc ON t.bookCopyId = bc.id
+    JOIN BookTitle bt ON bc.bookTitleId = bt.id
+    JOIN User u ON t.userId = u.id
+    WHERE t.returnedDate IS NULL
+        AND t.dueDate < :today
+    """)
+    List<OverdueLoan> findOverdueSource(@Param("today") LocalDate today);
+
+    // Source rows of the given loans that are past due and not in the snapshot yet
+    @Query("""
+    SELECT new com.todo.backend.entity.OverdueLoan(
+           t.id, bc.id, bt.id, bt.title, bt.price,
+           u.id, u.name, u.cccd, t.borrowDate, t.dueDate
+    )
+    FROM Transaction t
+    JOIN BookCopy bc ON t.bookCopyId = bc.id
+    JOIN BookTitle bt ON bc.bookTitleId = bt.id
+    JOIN User u ON t.userId = u.id
+    WHERE t.id IN :transactionIds
+        AND t.returnedDate IS NULL
+        AND t.dueDate < :today
+        AND NOT EXISTS (SELECT 1 FROM OverdueLoan o WHERE o.transactionId = t.id)
+    """)
+    List<OverdueLoan> findMissingOverdueSource(@Param("transactionIds") Collection<String> transactionIds,
+                                               @Param("today") LocalDate today);
+
+    @Query(value = """
+    SELECT new com.todo.backend.dto.overdue.OverdueLoanDto(
+           o.transactionId, o.bookCopyId, o.bookTitleId, o.bookTitle, o.bookPrice,
+           o.userId, o.userName, o.userCccd, o.borrowDate, o.dueDate, o.bucket
+    )
+    FROM OverdueLoan o
+    WHERE (:bucket IS NULL OR o.bucket = :bucket)
+        AND (:userId IS NULL OR o.userId = :userId)
+        AND (:bookTitleId IS NULL OR o.bookTitleId = :bookTitleId)
+    ORDER BY o.dueDate ASC, o.transactionId ASC
+    """, countQuery = """
+    SELECT COUNT(o) FROM OverdueLoan o
+    WHERE (:bucket IS NULL OR o.bucket = :bucket)
+        AND (:userId IS NULL OR o.userId = :userId)
+        AND (:bookTitleId IS NULL OR o.bookTitleId = :bookTitleId)
+    """)
+    Page<OverdueLoanDto> findPage(@Param("bucket") OverdueBucket bucket,
+                                  @Param("userId") String userId,
+                                  @Param("bookTitleId") String bookTitleId,
+                                  Pageable pageable);
+
+    // DTO projection so streamed rows never pile up in the persistence context
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+    SELECT new com.todo.backend.dto.overdue.OverdueLoanDto(
+           o.transactionId, o.bookCopyId, o.bookTitleId, o.bookTitle, o.bookPrice,
+           o.userId, o.userName, o.userCccd, o.borrowDate, o.dueDate, o.bucket
+    )
+    FROM OverdueLoan o
+    WHERE (:bucket IS NULL OR o.bucket = :bucket)
+    ORDER BY o.dueDate ASC, o.transactionId ASC
+    """)
+    Stream<OverdueLoanDto> streamByBucket(@Param("bucket") OverdueBucket bucket);
+
+    @Query("""
+    SELECT new com.todo.backend.dto.bookcopy.BookCopyWithDueInfoDto(
+           bc.id,
+           bc.status,
+           bc.condition,
+           o.bookTitle,
+           o.bookTitleId,
+           o.bookPrice,
+           o.dueDate,
+           o.borrowDate,
+           o.userId,
+           o.userName,
+           o.userCccd,
+           true
+    )
+    FROM OverdueLoan o
+    JOIN BookCopy bc ON o.bookCopyId = bc.id
+    ORDER BY o.dueDate ASC
+    """)
+    List<BookCopyWithDueInfoDto> findOverdueBookCopies();
+
+    @Query("SELECT o.bucket, COUNT(o) FROM OverdueLoan o GROUP BY o.bucket")
+    List<Object[]> countByBucket();
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM OverdueLoan o")
+    int deleteAllLoans();
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM OverdueLoan o WHERE o.transactionId = :transactionId")
+    int deleteByTransactionId(@Param("transactionId") String transactionId);
+}
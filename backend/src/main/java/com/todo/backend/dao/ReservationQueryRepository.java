@@ -0,0 +1,108 @@
+package com.todo.backend.dao;
+
+import com.todo.backend.dto.reservation.ReservationRowDto;
+import com.todo.backend.dto.reservation.ReservationStatusFilter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Reservation listings served by one projection query plus one batched author query per page, instead of
+ * loading each reservation's title, its book authors and each author lazily
+ */
+@Repository
+public class ReservationQueryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private static final String SELECT_ROWS = """
+        SELECT new com.todo.backend.dto.reservation.ReservationRowDto(
+            r.id,
+            r.reservationDate,
+            r.expirationDate,
+            r.deposit,
+            r.bookTitleId,
+            r.bookCopyId,
+            r.userId,
+            u.name,
+            bt.title,
+            bt.imageUrl
+        )
+        FROM Reservation r
+        LEFT JOIN User u ON r.userId = u.id
+        LEFT JOIN BookTitle bt ON r.bookTitleId = bt.id
+        """;
+
+    /**
+     * Keyset page ordered by reservationDate then id, newest first.
+     * Rows strictly after (cursorReservationDate, cursorId) in that order are returned; pass nulls for the first page.
+     * Pass limit <= 0 to load every matching row.
+     */
+    public List<ReservationRowDto> findRows(
+            String userId,
+            String bookTitleId,
+            ReservationStatusFilter status,
+            LocalDate cursorReservationDate,
+            String cursorId,
+            int limit
+    ) {
+        StringBuilder jpql = new StringBuilder(SELECT_ROWS).append("WHERE 1 = 1\n");
+        Map<String, Object> params = new HashMap<>();
+
+        if (userId != null) {
+            jpql.append("AND r.userId = :userId\n");
+            params.put("userId", userId);
+        }
+        if (bookTitleId != null) {
+            jpql.append("AND r.bookTitleId = :bookTitleId\n");
+            params.put("bookTitleId", bookTitleId);
+        }
+        if (status != null) {
+            switch (status) {
+                case ACTIVE -> jpql.append("AND r.expirationDate >= :today\n");
+                case EXPIRED -> jpql.append("AND r.expirationDate < :today\n");
+                case ASSIGNED -> jpql.append("AND r.expirationDate >= :today AND r.bookCopyId IS NOT NULL\n");
+            }
+            params.put("today", LocalDate.now());
+        }
+        if (cursorReservationDate != null && cursorId != null) {
+            jpql.append("AND (r.reservationDate < :cursorReservationDate OR (r.reservationDate = :cursorReservationDate AND r.id < :cursorId))\n");
+            params.put("cursorReservationDate", cursorReservationDate);
+            params.put("cursorId", cursorId);
+        }
+        jpql.append("ORDER BY r.reservationDate DESC, r.id DESC");
+
+        TypedQuery<ReservationRowDto> query = entityManager.createQuery(jpql.toString(), ReservationRowDto.class);
+        params.forEach(query::setParameter);
+        if (limit > 0) {
+            query.setMaxResults(limit);
+        }
+        return query.getResultList();
+    }
+
+    /**
+     * Author names of the given titles in one query, keyed by title ID. Titles without authors are left out.
+     */
+    public Map<String, List<String>> findAuthorNamesByBookTitleIds(Collection<String> bookTitleIds) {
+        if (bookTitleIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, List<String>> authorNames = new HashMap<>();
+        entityManager.createQuery("""
+                SELECT ba.bookTitleId, a.name
+                FROM BookAuthor ba
+                JOIN Author a ON ba.authorId = a.id
+                WHERE ba.bookTitleId IN :bookTitleIds
+                ORDER BY ba.bookTitleId, a.name
+                """, Object[].class)
+                .setParameter("bookTitleIds", bookTitleIds)
+                .getResultStream()
+                .forEach(row -> authorNames.computeIfAbsent((String) row[0], id -> new ArrayList<>()).add((String) row[1]));
+        return authorNames;
+    }
+}
@@ -1,13 +1,19 @@
 package com.todo.backend.dao;
 
+import com.todo.backend.dto.reservation.ActiveReservationCountsDto;
 import com.todo.backend.entity.Reservation;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 @RepositoryRestResource(exported = false)
 public interface ReservationRepository extends JpaRepository<Reservation, String> {
@@ -20,13 +26,54 @@ public interface ReservationRepository extends JpaRepository<Reservation, String
     @Query("SELECT r FROM Reservation r WHERE r.userId = :userId AND r.expirationDate >= :currentDate")
     List<Reservation> findActiveReservationsByUserId(String userId, LocalDate currentDate);
 
+    // Counts of the user's active reservations, overall and of one title, for the per-user rules at creation
+    @Query("""
+    SELECT new com.todo.backend.dto.reservation.ActiveReservationCountsDto(
+        COUNT(r), COALESCE(SUM(CASE WHEN r.bookTitleId = :bookTitleId THEN 1 ELSE 0 END), 0))
+    FROM Reservation r
+    WHERE r.userId = :userId AND r.expirationDate >= :currentDate
+    """)
+    ActiveReservationCountsDto countActiveReservations(@Param("userId") String userId,
+                                                       @Param("bookTitleId") String bookTitleId,
+                                                       @Param("currentDate") LocalDate currentDate);
+
     @Query("SELECT r FROM Reservation r WHERE r.bookTitleId = :bookTitleId AND r.expirationDate >= :currentDate")
     List<Reservation> findActiveReservationsByBookTitleId(String bookTitleId, LocalDate currentDate);
 
+    // 0 rows when another desk assigned a copy first
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Reservation r SET r.bookCopyId = :bookCopyId WHERE r.id = :id AND r.bookCopyId IS NULL")
+    int assignBookCopyIfUnassigned(@Param("id") String id, @Param("bookCopyId") String bookCopyId);
+
     // Find expired reservations for cleanup
     @Query("SELECT r FROM Reservation r WHERE r.expirationDate < :currentDate")
     List<Reservation> findExpiredReservations(LocalDate currentDate);
 
+    // [id, userId] of the oldest expired reservations of one hash partition of the users (see SweepWorker),
+    // a range on IDX_RESERVATION_EXPIRATION_DATE_USER_HASH that filters the partition in the index
+    @Query("""
+    SELECT r.id, r.userId FROM Reservation r
+    WHERE r.expirationDate < :currentDate
+        AND MOD(r.userHash, :partitions) = :partition
+    ORDER BY r.expirationDate, r.id
+    """)
+    List<Object[]> findExpiredIdsAndUserIdsInPartition(@Param("currentDate") LocalDate currentDate,
+                                                       @Param("partition") int partition,
+                                                       @Param("partitions") int partitions,
+                                                       Pageable pageable);
+
+    // [id, userId] of the given reservations that are expired
+    @Query("SELECT r.id, r.userId FROM Reservation r WHERE r.id IN :ids AND r.expirationDate < :currentDate")
+    List<Object[]> findExpiredIdsAndUserIdsByIdIn(@Param("ids") List<String> ids, @Param("currentDate") LocalDate currentDate);
+
+    // [id, expiration date] of the reservations not expired yet
+    @Query("SELECT r.id, r.expirationDate FROM Reservation r WHERE r.expirationDate >= :currentDate")
+    Stream<Object[]> streamActiveExpirationDates(@Param("currentDate") LocalDate currentDate);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Reservation r WHERE r.id IN :ids AND r.expirationDate < :currentDate")
+    List<Reservation> findExpiredByIdInForUpdate(@Param("ids") List<String> ids, @Param("currentDate") LocalDate currentDate);
+
     @Query("SELECT r FROM Reservation r WHERE r.userId = :userId "
             + "AND r.bookTitleId = :bookTitleId "
             + "AND (r.expirationDate >= :today)")
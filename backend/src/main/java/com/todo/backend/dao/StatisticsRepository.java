@@ -6,10 +6,9 @@ import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.Query;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDate;
-
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public class StatisticsRepository {
@@ -28,75 +27,12 @@ public class StatisticsRepository {
         return (Long) query.getSingleResult();
     }
     
-    public long getTotalTransactions() {
-        Query query = entityManager.createQuery("SELECT COUNT(t) FROM Transaction t");
-        return (Long) query.getSingleResult();
-    }
-
-    // Revenue calculation (gross revenue from all transactions)
-    public long getTotalRevenue() {
-        Query query = entityManager.createQuery("""
-            SELECT COALESCE(SUM(bc.bookTitle.price), 0)
-            FROM Transaction t
-            JOIN BookCopy bc ON t.bookCopyId = bc.id
-            """);
-        Object result = query.getSingleResult();
-        return result != null ? ((Number) result).longValue() : 0L;
-    }
-    
-    // Active transactions (not returned)
+    // Active transactions (not returned), an IS NULL lookup on IDX_TRANSACTION_RETURNED_DATE_DUE_DATE
     public long getActiveTransactions() {
         Query query = entityManager.createQuery("SELECT COUNT(t) FROM Transaction t WHERE t.returnedDate IS NULL");
         return (Long) query.getSingleResult();
     }
     
-    // Overdue transactions
-    public long getOverdueTransactions() {
-        Query query = entityManager.createQuery("""
-            SELECT COUNT(t) FROM Transaction t 
-            WHERE t.returnedDate IS NULL 
-            AND t.dueDate < CURRENT_DATE
-            """);
-        return (Long) query.getSingleResult();
-    }
-    
-    // Popular books by borrow count
-    @SuppressWarnings("unchecked")
-    public List<PopularBookDto> getPopularBooks(int limit) {
-        Query query = entityManager.createQuery("""
-            SELECT new com.todo.backend.dto.statistics.PopularBookDto(
-                bt.title,
-                CAST(COUNT(t) AS int),
-                CAST(COALESCE(SUM(bt.price), 0) AS long)
-            )
-            FROM Transaction t
-            JOIN BookCopy bc ON t.bookCopyId = bc.id
-            JOIN BookTitle bt ON bc.bookTitleId = bt.id
-            GROUP BY bt.id, bt.title, bt.price
-            ORDER BY COUNT(t) DESC
-            """);
-        query.setMaxResults(limit);
-        return query.getResultList();
-    }
-
-    // Monthly statistics
-    @SuppressWarnings("unchecked")
-    public List<Object[]> getMonthlyStats(int year) {
-        Query query = entityManager.createQuery("""
-            SELECT 
-                MONTH(t.borrowDate),
-                CAST(COUNT(t) AS int),
-                CAST(COALESCE(SUM(bc.bookTitle.price), 0) AS long)
-            FROM Transaction t
-            JOIN BookCopy bc ON t.bookCopyId = bc.id
-            WHERE YEAR(t.borrowDate) = :year
-            GROUP BY MONTH(t.borrowDate)
-            ORDER BY MONTH(t.borrowDate)
-            """);
-        query.setParameter("year", year);
-        return query.getResultList();
-    }
-    
     // User activity by role
     @SuppressWarnings("unchecked")
     public List<UserActivityDto> getUserActivity() {
@@ -127,119 +63,116 @@ public class StatisticsRepository {
         return query.getResultList();
     }
     
-    // Period-based statistics methods
-    public Long getTotalTransactionsInPeriod(LocalDate startDate, LocalDate endDate) {
-        Query query = entityManager.createQuery("""
-            SELECT COUNT(t)
-            FROM Transaction t
-            WHERE t.borrowDate >= :startDate AND t.borrowDate <= :endDate
-            """);
-        query.setParameter("startDate", startDate);
-        query.setParameter("endDate", endDate);
-        return (Long) query.getSingleResult();
+    // Sources of the statistics rollup rebuild, each grouped by the day its rollup counts it on. Loans the price
+    // snapshot backfill has not reached yet count at the title's price, as the live increments do
+
+    // [borrow date, borrows, revenue]
+    @SuppressWarnings("unchecked")
+    public List<Object[]> getDailyBorrows(boolean archive) {
+        return entityManager.createQuery("""
+            SELECT t.borrowDate, COUNT(t), COALESCE(SUM(COALESCE(t.chargedPrice, bt.price)), 0)
+            FROM %s t
+            LEFT JOIN BookCopy bc ON bc.id = t.bookCopyId
+            LEFT JOIN BookTitle bt ON bt.id = bc.bookTitleId
+            GROUP BY t.borrowDate
+            """.formatted(transactionTier(archive))).getResultList();
     }
 
-    public Long getTotalRevenueInPeriod(LocalDate startDate, LocalDate endDate) {
-        Query query = entityManager.createQuery("""
-            SELECT COALESCE(SUM(bc.bookTitle.price), 0)
-            FROM Transaction t
-            JOIN BookCopy bc ON t.bookCopyId = bc.id
-            WHERE t.borrowDate >= :startDate AND t.borrowDate <= :endDate
-            """);
-        query.setParameter("startDate", startDate);
-        query.setParameter("endDate", endDate);
-        Object result = query.getSingleResult();
-        return result != null ? (Long) result : 0L;
+    // [return date, returns, penalties, refunds]
+    @SuppressWarnings("unchecked")
+    public List<Object[]> getDailyReturns(boolean archive) {
+        return entityManager.createQuery("""
+            SELECT
+                t.returnedDate,
+                COUNT(t),
+                COALESCE(SUM(td.penaltyFee), 0),
+                COALESCE(SUM(COALESCE(t.chargedPrice, bt.price) - COALESCE(td.penaltyFee, 0)), 0)
+            FROM %s t
+            LEFT JOIN %s td ON t.id = td.transactionId
+            LEFT JOIN BookCopy bc ON bc.id = t.bookCopyId
+            LEFT JOIN BookTitle bt ON bt.id = bc.bookTitleId
+            WHERE t.returnedDate IS NOT NULL
+            GROUP BY t.returnedDate
+            """.formatted(transactionTier(archive), detailTier(archive))).getResultList();
     }
-    
+
+    // Penalties recorded on loans that are still open, the rollup counts them on the day they were recorded
+    public long getPenaltiesOfOpenLoans() {
+        Object result = entityManager.createQuery("""
+            SELECT COALESCE(SUM(td.penaltyFee), 0)
+            FROM TransactionDetail td
+            JOIN Transaction t ON t.id = td.transactionId
+            WHERE t.returnedDate IS NULL
+            """).getSingleResult();
+        return result != null ? ((Number) result).longValue() : 0L;
+    }
+
+    // [borrow date, book title id, borrows, revenue]
+    @SuppressWarnings("unchecked")
+    public List<Object[]> getDailyTitleBorrows(boolean archive) {
+        return entityManager.createQuery("""
+            SELECT t.borrowDate, bc.bookTitleId, COUNT(t), COALESCE(SUM(COALESCE(t.chargedPrice, bt.price)), 0)
+            FROM %s t
+            JOIN BookCopy bc ON bc.id = t.bookCopyId
+            JOIN BookTitle bt ON bt.id = bc.bookTitleId
+            GROUP BY t.borrowDate, bc.bookTitleId
+            """.formatted(transactionTier(archive))).getResultList();
+    }
+
+    // [created date, new users]; users created before the column existed have no date and are left out
+    @SuppressWarnings("unchecked")
+    public List<Object[]> getDailyNewUsers() {
+        return entityManager.createQuery("""
+            SELECT u.createdDate, COUNT(u)
+            FROM User u
+            WHERE u.createdDate IS NOT NULL
+            GROUP BY u.createdDate
+            """).getResultList();
+    }
+
+    // [borrow date, user id] pairs over [from, to), optionally only for titles of one category; exact distinct borrower counts
     @SuppressWarnings("unchecked")
-    public List<PopularBookDto> getPopularBooksInPeriod(int limit, LocalDate startDate, LocalDate endDate) {
+    public List<Object[]> getDailyBorrowers(boolean archive, LocalDate from, LocalDate to, String categoryId) {
         Query query = entityManager.createQuery("""
-            SELECT new com.todo.backend.dto.statistics.PopularBookDto(
-                bt.title,
-                CAST(COUNT(t) AS int),
-                CAST(COALESCE(SUM(bt.price), 0) AS long)
-            )
-            FROM Transaction t
-            JOIN BookCopy bc ON t.bookCopyId = bc.id
-            JOIN BookTitle bt ON bc.bookTitleId = bt.id
-            WHERE t.borrowDate >= :startDate AND t.borrowDate <= :endDate
-            GROUP BY bt.id, bt.title, bt.price
-            ORDER BY COUNT(t) DESC
-            """);
-        query.setParameter("startDate", startDate);
-        query.setParameter("endDate", endDate);
-        query.setMaxResults(limit);
+            SELECT DISTINCT t.borrowDate, t.userId
+            FROM %s t
+            %s
+            WHERE t.borrowDate >= :from AND t.borrowDate < :to
+            """.formatted(transactionTier(archive), categoryId == null ? "" : """
+            JOIN BookCopy bc ON bc.id = t.bookCopyId
+            JOIN BookCategory bcat ON bcat.bookTitleId = bc.bookTitleId AND bcat.categoryId = :categoryId
+            """));
+        query.setParameter("from", from);
+        query.setParameter("to", to);
+        if (categoryId != null) {
+            query.setParameter("categoryId", categoryId);
+        }
         return query.getResultList();
     }
-    
-    // Detailed revenue calculations with clear explanations
-    /**
-     * Gross Revenue: Total money collected from users when they borrow books
-     * This is the sum of all book prices (deposits) paid by users
-     */
-    public long getGrossRevenue() {
-        Query query = entityManager.createQuery("""
-            SELECT COALESCE(SUM(bc.bookTitle.price), 0)
-            FROM Transaction t
-            JOIN BookCopy bc ON t.bookCopyId = bc.id
-            """);
-        Object result = query.getSingleResult();
-        return result != null ? ((Number) result).longValue() : 0L;
+
+    // [borrow date, user id, book title id] ordered by day, source of the borrower sketch rebuild
+    @SuppressWarnings("unchecked")
+    public Stream<Object[]> streamBorrowers(boolean archive) {
+        return entityManager.createQuery("""
+            SELECT t.borrowDate, t.userId, bc.bookTitleId
+            FROM %s t
+            LEFT JOIN BookCopy bc ON bc.id = t.bookCopyId
+            ORDER BY t.borrowDate
+            """.formatted(transactionTier(archive))).getResultStream();
     }
-    
-    /**
-     * Net Revenue: Actual profit or loss for the library
-     * Calculation: Total penalties collected - Total refunds given back to users
-     * Positive = Library made profit, Negative = Library lost money
-     */
-    public long getNetRevenue() {
-        Query query = entityManager.createQuery("""
-            SELECT 
-                COALESCE(SUM(td.penaltyFee), 0) - 
-                COALESCE(SUM(
-                    CASE 
-                        WHEN t.returnedDate IS NOT NULL 
-                        THEN bc.bookTitle.price - COALESCE(td.penaltyFee, 0)
-                        ELSE 0 
-                    END
-                ), 0)
-            FROM Transaction t
-            JOIN BookCopy bc ON t.bookCopyId = bc.id
-            LEFT JOIN TransactionDetail td ON t.id = td.transactionId
-            """);
-        Object result = query.getSingleResult();
-        return result != null ? ((Number) result).longValue() : 0L;
+
+    // [book title id, category id]
+    @SuppressWarnings("unchecked")
+    public List<Object[]> getTitleCategoryIds() {
+        return entityManager.createQuery("SELECT bcat.bookTitleId, bcat.categoryId FROM BookCategory bcat").getResultList();
     }
-    
-    /**
-     * Total Penalties: Sum of all penalty fees collected from users
-     * This includes late fees, damage fees, and additional penalties
-     */
-    public long getTotalPenalties() {
-        Query query = entityManager.createQuery("""
-            SELECT COALESCE(SUM(td.penaltyFee), 0)
-            FROM TransactionDetail td
-            """);
-        Object result = query.getSingleResult();
-        return result != null ? ((Number) result).longValue() : 0L;
+
+    // Entity names of the hot or archive tier; the archive tables share the hot tables' columns
+    private static String transactionTier(boolean archive) {
+        return archive ? "ArchivedTransaction" : "Transaction";
     }
-    
-    /**
-     * Total Refunds: Total money given back to users when returning books
-     * Calculation: Sum of (book price - penalty fee) for all returned books
-     */
-    public long getTotalRefunds() {
-        Query query = entityManager.createQuery("""
-            SELECT COALESCE(SUM(
-                bc.bookTitle.price - COALESCE(td.penaltyFee, 0)
-            ), 0)
-            FROM Transaction t
-            JOIN BookCopy bc ON t.bookCopyId = bc.id
-            LEFT JOIN TransactionDetail td ON t.id = td.transactionId
-            WHERE t.returnedDate IS NOT NULL
-            """);
-        Object result = query.getSingleResult();
-        return result != null ? ((Number) result).longValue() : 0L;
+
+    private static String detailTier(boolean archive) {
+        return archive ? "ArchivedTransactionDetail" : "TransactionDetail";
     }
 }
@@ -0,0 +1,57 @@
+package com.todo.backend.dao;
+
+import com.todo.backend.entity.SweepLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RepositoryRestResource(exported = false)
+public interface SweepLeaseRepository extends JpaRepository<SweepLease, String> {
+    @Modifying
+    @Query("UPDATE SweepLease s SET s.requestedAt = :requestedAt WHERE s.jobName = :jobName AND s.partitionNo < :partitions")
+    int requestRun(@Param("jobName") String jobName, @Param("partitions") int partitions, @Param("requestedAt") LocalDateTime requestedAt);
+
+    // Keys of partitions with a pending run and no live lease, read without locks
+    @Query("""
+    SELECT s.leaseKey FROM SweepLease s
+    WHERE s.jobName = :jobName AND s.partitionNo < :partitions
+        AND s.requestedAt IS NOT NULL AND (s.completedAt IS NULL OR s.completedAt < s.requestedAt)
+        AND (s.leaseUntil IS NULL OR s.leaseUntil < :now)
+    """)
+    List<String> findClaimable(@Param("jobName") String jobName, @Param("partitions") int partitions, @Param("now") LocalDateTime now);
+
+    // 0 rows when another node leased the partition after the read above
+    @Modifying
+    @Query("""
+    UPDATE SweepLease s SET s.owner = :owner, s.leaseUntil = :leaseUntil
+    WHERE s.leaseKey = :leaseKey
+        AND s.requestedAt IS NOT NULL AND (s.completedAt IS NULL OR s.completedAt < s.requestedAt)
+        AND (s.leaseUntil IS NULL OR s.leaseUntil < :now)
+    """)
+    int claim(@Param("leaseKey") String leaseKey, @Param("owner") String owner,
+              @Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    // 0 rows when the lease expired and another node took the partition over
+    @Modifying
+    @Query("UPDATE SweepLease s SET s.leaseUntil = :leaseUntil WHERE s.leaseKey = :leaseKey AND s.owner = :owner")
+    int renew(@Param("leaseKey") String leaseKey, @Param("owner") String owner, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Modifying
+    @Query("""
+    UPDATE SweepLease s SET s.completedAt = :requestedAt, s.owner = NULL, s.leaseUntil = NULL
+    WHERE s.leaseKey = :leaseKey AND s.owner = :owner
+    """)
+    int complete(@Param("leaseKey") String leaseKey, @Param("owner") String owner, @Param("requestedAt") LocalDateTime requestedAt);
+
+    @Query("""
+    SELECT COUNT(s) FROM SweepLease s
+    WHERE s.jobName = :jobName AND s.partitionNo < :partitions
+        AND s.requestedAt IS NOT NULL AND (s.completedAt IS NULL OR s.completedAt < s.requestedAt)
+    """)
+    long countPending(@Param("jobName") String jobName, @Param("partitions") int partitions);
+}
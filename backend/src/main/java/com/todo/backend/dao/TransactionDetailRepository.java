@@ -2,10 +2,19 @@ package com.todo.backend.dao;
 
 import com.todo.backend.entity.TransactionDetail;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
 
+import java.util.List;
+
 
 @RepositoryRestResource(exported = false)
 public interface TransactionDetailRepository extends JpaRepository<TransactionDetail, String> {
     TransactionDetail findByTransactionId(String transactionId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM TransactionDetail td WHERE td.transactionId IN :transactionIds")
+    int deleteAllByTransactionIdIn(@Param("transactionIds") List<String> transactionIds);
 }
@@ -0,0 +1,166 @@
+package com.todo.backend.dao;
+
+import com.todo.backend.dto.transaction.TransactionRowDto;
+import com.todo.backend.dto.transaction.TransactionStatusFilter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Transaction listings served by one projection query, instead of loading entities and
+ * resolving user, copy, title and detail per row
+ */
+@Repository
+public class TransactionQueryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private static final String SELECT_ROWS = """
+        SELECT new com.todo.backend.dto.transaction.TransactionRowDto(
+            t.id,
+            t.borrowDate,
+            t.dueDate,
+            t.userId,
+            t.bookCopyId,
+            t.returnedDate,
+            u.name,
+            bt.title,
+            bt.price,
+            td.transactionId,
+            td.penaltyFee,
+            td.description,
+            a.accruedFee,
+            a.asOf
+        )
+        FROM Transaction t
+        LEFT JOIN User u ON t.userId = u.id
+        LEFT JOIN BookCopy bc ON t.bookCopyId = bc.id
+        LEFT JOIN BookTitle bt ON bc.bookTitleId = bt.id
+        LEFT JOIN TransactionDetail td ON td.transactionId = t.id
+        LEFT JOIN AccruedLateFee a ON a.transactionId = t.id AND t.returnedDate IS NULL
+        """;
+
+    // Same row shape over the archive tier, archived transactions are all returned so there is no accrued fee
+    private static final String SELECT_ARCHIVED_ROWS = """
+        SELECT new com.todo.backend.dto.transaction.TransactionRowDto(
+            t.id,
+            t.borrowDate,
+            t.dueDate,
+            t.userId,
+            t.bookCopyId,
+            t.returnedDate,
+            u.name,
+            bt.title,
+            bt.price,
+            td.transactionId,
+            td.penaltyFee,
+            td.description
+        )
+        FROM ArchivedTransaction t
+        LEFT JOIN User u ON t.userId = u.id
+        LEFT JOIN BookCopy bc ON t.bookCopyId = bc.id
+        LEFT JOIN BookTitle bt ON bc.bookTitleId = bt.id
+        LEFT JOIN ArchivedTransactionDetail td ON td.transactionId = t.id
+        """;
+
+    /**
+     * Keyset page ordered by borrowDate then id, newest first.
+     * Rows strictly after (cursorBorrowDate, cursorId) in that order are returned; pass nulls for the first page.
+     * Pass limit <= 0 to load every matching row.
+     */
+    public List<TransactionRowDto> findRows(
+            String userId,
+            TransactionStatusFilter status,
+            LocalDate borrowedFrom,
+            LocalDate borrowedTo,
+            LocalDate cursorBorrowDate,
+            String cursorId,
+            int limit
+    ) {
+        return findRows(SELECT_ROWS, userId, status, borrowedFrom, borrowedTo, cursorBorrowDate, cursorId, limit);
+    }
+
+    /**
+     * Same as {@link #findRows} over the archive tier. Archived transactions are all returned,
+     * so OPEN and OVERDUE never match.
+     */
+    public List<TransactionRowDto> findArchivedRows(
+            String userId,
+            TransactionStatusFilter status,
+            LocalDate borrowedFrom,
+            LocalDate borrowedTo,
+            LocalDate cursorBorrowDate,
+            String cursorId,
+            int limit
+    ) {
+        if (status == TransactionStatusFilter.OPEN || status == TransactionStatusFilter.OVERDUE) {
+            return List.of();
+        }
+        return findRows(SELECT_ARCHIVED_ROWS, userId, null, borrowedFrom, borrowedTo, cursorBorrowDate, cursorId, limit);
+    }
+
+    public Optional<TransactionRowDto> findArchivedRow(String id) {
+        return entityManager.createQuery(SELECT_ARCHIVED_ROWS + "WHERE t.id = :id", TransactionRowDto.class)
+                .setParameter("id", id)
+                .getResultStream()
+                .findFirst();
+    }
+
+    private List<TransactionRowDto> findRows(
+            String select,
+            String userId,
+            TransactionStatusFilter status,
+            LocalDate borrowedFrom,
+            LocalDate borrowedTo,
+            LocalDate cursorBorrowDate,
+            String cursorId,
+            int limit
+    ) {
+        StringBuilder jpql = new StringBuilder(select).append("WHERE 1 = 1\n");
+        Map<String, Object> params = new HashMap<>();
+
+        if (userId != null) {
+            jpql.append("AND t.userId = :userId\n");
+            params.put("userId", userId);
+        }
+        if (status != null) {
+            switch (status) {
+                case OPEN -> jpql.append("AND t.returnedDate IS NULL\n");
+                case RETURNED -> jpql.append("AND t.returnedDate IS NOT NULL\n");
+                case OVERDUE -> {
+                    jpql.append("AND t.returnedDate IS NULL AND t.dueDate < :today\n");
+                    params.put("today", LocalDate.now());
+                }
+            }
+        }
+        if (borrowedFrom != null) {
+            jpql.append("AND t.borrowDate >= :borrowedFrom\n");
+            params.put("borrowedFrom", borrowedFrom);
+        }
+        if (borrowedTo != null) {
+            jpql.append("AND t.borrowDate <= :borrowedTo\n");
+            params.put("borrowedTo", borrowedTo);
+        }
+        if (cursorBorrowDate != null && cursorId != null) {
+            jpql.append("AND (t.borrowDate < :cursorBorrowDate OR (t.borrowDate = :cursorBorrowDate AND t.id < :cursorId))\n");
+            params.put("cursorBorrowDate", cursorBorrowDate);
+            params.put("cursorId", cursorId);
+        }
+        jpql.append("ORDER BY t.borrowDate DESC, t.id DESC");
+
+        TypedQuery<TransactionRowDto> query = entityManager.createQuery(jpql.toString(), TransactionRowDto.class);
+        params.forEach(query::setParameter);
+        if (limit > 0) {
+            query.setMaxResults(limit);
+        }
+        return query.getResultList();
+    }
+}
@@ -1,18 +1,53 @@
 package com.todo.backend.dao;
 
 import com.todo.backend.entity.Transaction;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 @RepositoryRestResource(exported = false)
 public interface TransactionRepository extends JpaRepository<Transaction, String> {
     List<Transaction> findByUserId(@RequestParam("userId") String userId);
     List<Transaction> findByUserIdAndReturnedDateIsNull(@RequestParam("userId") String userId);
     List<Transaction> findByBookCopyIdAndReturnedDateIsNull(String bookCopyId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Transaction t WHERE t.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") List<String> ids);
+
+    @Query("SELECT t.id FROM Transaction t WHERE t.chargedPrice IS NULL ORDER BY t.id")
+    List<String> findIdsMissingChargedPrice(Pageable pageable);
+
+    @Query("SELECT COUNT(t) FROM Transaction t WHERE t.chargedPrice IS NULL")
+    long countMissingChargedPrice();
+
+    // Best available guess for rows written before the snapshot: the catalog price as of the backfill
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+    UPDATE Transaction t
+    SET t.chargedPrice = (
+        SELECT bt.price FROM BookCopy bc JOIN BookTitle bt ON bc.bookTitleId = bt.id
+        WHERE bc.id = t.bookCopyId)
+    WHERE t.id IN :ids AND t.chargedPrice IS NULL
+    """)
+    int fillChargedPrice(@Param("ids") List<String> ids);
 //    Page<Transaction> findByUserId(@RequestParam("user_id") String userId, Pageable pageable);
 //
 //    Page<Transaction> findByBookId(@RequestParam("book_id") String bookId, Pageable pageable);
+
+    // [id, due date] of open loans not yet overdue, a range on IDX_TRANSACTION_RETURNED_DATE_DUE_DATE
+    @Query("SELECT t.id, t.dueDate FROM Transaction t WHERE t.returnedDate IS NULL AND t.dueDate >= :today")
+    Stream<Object[]> streamOpenDueDates(@Param("today") LocalDate today);
+
+    // [id, due date] of a title's open loans, through the copies' current loan instead of scanning TRANSACTION
+    @Query("SELECT t.id, t.dueDate FROM BookCopy bc JOIN Transaction t ON bc.currentTransactionId = t.id WHERE bc.bookTitleId = :bookTitleId")
+    List<Object[]> findOpenLoanDueDatesByBookTitleId(@Param("bookTitleId") String bookTitleId);
 }
@@ -2,9 +2,14 @@ package com.todo.backend.dao;
 
 import com.todo.backend.entity.User;
 import com.todo.backend.entity.identity.UserRole;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
 import org.springframework.web.bind.annotation.RequestParam;
 
@@ -30,4 +35,21 @@ public interface UserRepository extends JpaRepository<User, String> {
     boolean existsByEmailAndIdNot(String email, String id);
     boolean existsByCccd(String cccd);
     boolean existsByCccdAndIdNot(String cccd, String id);
+
+    // Balance mutations, applied in the database so concurrent updates can't overwrite each other
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE User u SET u.balance = u.balance - :amount WHERE u.id = :userId AND u.balance >= :amount")
+    int debitBalanceIfSufficient(@Param("userId") String userId, @Param("amount") int amount);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE User u SET u.balance = u.balance + :delta WHERE u.id = :userId")
+    int addToBalance(@Param("userId") String userId, @Param("delta") int delta);
+
+    @Query("SELECT u.balance FROM User u WHERE u.id = :userId")
+    Optional<Integer> findBalanceById(@Param("userId") String userId);
+
+    // Locks in primary key order, so two batches locking overlapping users never wait on each other in a cycle
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids ORDER BY u.id")
+    List<String> lockAllByIdIn(@Param("ids") List<String> ids);
 }
@@ -0,0 +1,16 @@
+package com.todo.backend.dto.analytics;
+
+public enum AnalyticsDimension {
+    /// Category name of the borrowed title; a title in several categories counts once in each
+    CATEGORY,
+    /// Publisher name of the borrowed title
+    PUBLISHER,
+    /// Borrowed title, grouped and filtered by title ID
+    TITLE,
+    /// Role of the borrowing user
+    USER_ROLE,
+    /// Month of the borrow date, as yyyy-MM
+    MONTH,
+    /// Condition of the borrowed copy as of the last refresh
+    CONDITION
+}
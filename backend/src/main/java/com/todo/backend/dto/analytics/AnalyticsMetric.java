@@ -0,0 +1,12 @@
+package com.todo.backend.dto.analytics;
+
+public enum AnalyticsMetric {
+    /// Number of loans
+    LOANS,
+    /// Sum of the prices charged at checkout
+    REVENUE,
+    /// Sum of the penalties recorded on the loans
+    PENALTIES,
+    /// Loans returned after their due date, or still open past it
+    LATE_LOANS
+}
@@ -0,0 +1,23 @@
+package com.todo.backend.dto.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalyticsQueryDto {
+    private List<AnalyticsDimension> groupBy;               // At most 3, one total row if empty
+    private List<AnalyticsMetric> metrics;                  // All metrics if empty
+    private Map<AnalyticsDimension, List<String>> filters;  // Loans matching any of the values of every listed dimension
+    private LocalDate borrowedFrom;                         // Inclusive
+    private LocalDate borrowedTo;                           // Exclusive
+    private Integer limit;                                  // Groups returned, largest first metric first
+}
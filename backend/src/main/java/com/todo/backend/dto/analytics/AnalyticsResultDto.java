@@ -0,0 +1,19 @@
+package com.todo.backend.dto.analytics;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+public class AnalyticsResultDto {
+    private List<AnalyticsDimension> groupBy;
+    private List<AnalyticsMetric> metrics;
+    private List<AnalyticsRowDto> rows;
+    private int totalGroups;                    // Groups before the limit was applied
+    private int scannedLoans;
+    private double elapsedMillis;
+    private LocalDateTime refreshedAt;          // Data is as of this refresh
+}
@@ -0,0 +1,14 @@
+package com.todo.backend.dto.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+public class AnalyticsRowDto {
+    private List<String> group;                 // One value per groupBy dimension, in order
+    private Map<AnalyticsMetric, Long> metrics;
+}
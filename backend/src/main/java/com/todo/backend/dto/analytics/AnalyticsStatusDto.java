@@ -0,0 +1,19 @@
+package com.todo.backend.dto.analytics;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class AnalyticsStatusDto {
+    private int loans;
+    private int titles;
+    private int sealedLoans;                    // Loans returned before the last full load, kept across refreshes
+    private LocalDate fullLoadOn;
+    private LocalDateTime refreshedAt;
+    private double refreshMillis;
+    private long memoryBytes;                   // Approximate size of the loan columns
+}
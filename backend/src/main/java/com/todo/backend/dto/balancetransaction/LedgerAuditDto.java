@@ -0,0 +1,21 @@
+package com.todo.backend.dto.balancetransaction;
+
+import com.todo.backend.entity.BalanceTransactionType;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.YearMonth;
+import java.util.Map;
+
+/**
+ * Totals over the cold ledger tier for a range of months
+ */
+@Data
+@Builder
+public class LedgerAuditDto {
+    private YearMonth from;
+    private YearMonth to;
+    private long rowCount;
+    private Map<BalanceTransactionType, Long> countByType;
+    private Map<BalanceTransactionType, Long> amountByType;
+}
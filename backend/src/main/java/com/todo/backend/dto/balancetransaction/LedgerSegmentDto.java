@@ -0,0 +1,14 @@
+package com.todo.backend.dto.balancetransaction;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.YearMonth;
+
+@Data
+@AllArgsConstructor
+public class LedgerSegmentDto {
+    private YearMonth month;
+    private int rowCount;
+    private long sizeBytes;
+}
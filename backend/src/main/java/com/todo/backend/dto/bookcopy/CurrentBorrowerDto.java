@@ -0,0 +1,15 @@
+package com.todo.backend.dto.bookcopy;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CurrentBorrowerDto {
+    private String bookCopyId;
+    private String borrowerId;
+    private String borrowerName;
+    private String borrowerCccd;
+}
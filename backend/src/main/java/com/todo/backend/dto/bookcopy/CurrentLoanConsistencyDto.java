@@ -0,0 +1,19 @@
+package com.todo.backend.dto.bookcopy;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+public class CurrentLoanConsistencyDto {
+    private LocalDateTime checkedAt;
+    private boolean consistent;
+
+    // Copies pointing at a transaction that is returned, missing, or belongs to another copy
+    private List<String> staleBookCopyIds;
+    // Copies with an open transaction but no pointer
+    private List<String> missingBookCopyIds;
+}
@@ -0,0 +1,19 @@
+package com.todo.backend.dto.booktitle;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+public class AvailabilityForecastDto {
+    private String bookTitleId;
+    // Copies in the library, free or set aside for a reservation
+    private int copiesOnShelf;
+    private int copiesOnLoan;
+    // Active reservations and queued holds served before a new patron
+    private int claimsAhead;
+    // Today when a copy is free now, null when the title has no copies that can come back
+    private LocalDate estimatedAvailableDate;
+}
@@ -32,6 +32,8 @@ public class ResponseBookTitleDto {
     private Integer availableCopies;
     private Integer onlineReservations;
     private Integer maxOnlineReservations;
+    // When a copy is expected to be free for a new patron, see AvailabilityForecastService
+    private LocalDate estimatedAvailableDate;
     
     // User-specific information (only for authenticated users with USER role)
     private Integer userReservationsForThisBook;
@@ -0,0 +1,16 @@
+package com.todo.backend.dto.hold;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+public class HoldPositionDto {
+    private String bookTitleId;
+    // 1 is the next patron to get a returned copy
+    private int position;
+    private int queueLength;
+    private LocalDate estimatedAvailableDate;
+}
@@ -0,0 +1,18 @@
+package com.todo.backend.dto.lane;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class CommandLaneMetricsDto {
+    private int lane;
+    private int queueDepth;             // Commands waiting behind the one currently running
+    private int queueCapacity;          // Ceiling of queueDepth, further commands are rejected
+    private long rejectedCommands;      // Commands turned away because the lane was full or did not start them in time
+    private long executedCommands;      // Commands that have started on this lane
+    private double averageWaitMillis;   // Average time between submission and start
+    private double maxWaitMillis;
+}
@@ -0,0 +1,16 @@
+package com.todo.backend.dto.latefee;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccrualSourceRowDto {
+    private String transactionId;
+    private LocalDate dueDate;
+    private Integer bookPrice;
+}
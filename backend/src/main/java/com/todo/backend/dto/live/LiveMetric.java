@@ -0,0 +1,18 @@
+package com.todo.backend.dto.live;
+
+public enum LiveMetric {
+    /// Loans checked out today
+    CHECKOUTS,
+    /// Loans returned today
+    RETURNS,
+    /// Prices charged by today's checkouts
+    REVENUE,
+    /// Penalties recorded by today's returns
+    PENALTIES,
+    /// Open loans past their due date
+    OVERDUE_LOANS,
+    /// Reservations not yet fulfilled, cancelled or expired
+    ACTIVE_RESERVATIONS,
+    /// Money deposited to user balances today
+    BALANCE_DEPOSITS
+}
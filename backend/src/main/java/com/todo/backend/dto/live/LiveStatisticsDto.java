@@ -0,0 +1,17 @@
+package com.todo.backend.dto.live;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@Builder
+public class LiveStatisticsDto {
+    private LocalDate day;                  // Today's figures are for this day
+    private Map<LiveMetric, Long> totals;
+    private Map<LiveMetric, Long> deltas;   // Changes since the previous event, null on a snapshot
+    private LocalDateTime at;
+}
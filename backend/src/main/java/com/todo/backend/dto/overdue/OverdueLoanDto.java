@@ -0,0 +1,34 @@
+package com.todo.backend.dto.overdue;
+
+import com.todo.backend.entity.OverdueBucket;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OverdueLoanDto {
+    private String transactionId;
+    private String bookCopyId;
+    private String bookTitleId;
+    private String bookTitle;
+    private Integer bookPrice;
+    private String userId;
+    private String userName;
+    private String userCccd;
+    private LocalDate borrowDate;
+    private LocalDate dueDate;
+    @Enumerated(EnumType.STRING)
+    private OverdueBucket bucket;
+
+    // Computed on read, the bucket is as of the last refresh
+    public long getDaysLate() {
+        return ChronoUnit.DAYS.between(dueDate, LocalDate.now());
+    }
+}
@@ -0,0 +1,17 @@
+package com.todo.backend.dto.overdue;
+
+import com.todo.backend.entity.OverdueBucket;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@Data
+@Builder
+public class OverdueSummaryDto {
+    private long total;
+    private Map<OverdueBucket, Long> byBucket;
+    // Day the snapshot was built, null before the first rebuild
+    private LocalDate materializedOn;
+}
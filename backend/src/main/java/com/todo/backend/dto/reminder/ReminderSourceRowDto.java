@@ -0,0 +1,20 @@
+package com.todo.backend.dto.reminder;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReminderSourceRowDto {
+    private String transactionId;
+    private String userId;
+    private String userName;
+    private String email;
+    private String phone;
+    private String bookTitle;
+    private LocalDate dueDate;
+}
@@ -0,0 +1,15 @@
+package com.todo.backend.dto.reservation;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActiveReservationCountsDto {
+    // Active reservations of the user
+    private Long active;
+    // Of those, reservations of the requested title
+    private Long forTitle;
+}
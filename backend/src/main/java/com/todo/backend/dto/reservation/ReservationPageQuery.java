@@ -0,0 +1,14 @@
+package com.todo.backend.dto.reservation;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ReservationPageQuery {
+    private String userId;                  // Only this user's reservations, all users if null
+    private String bookTitleId;             // Only reservations of this title, all titles if null
+    private ReservationStatusFilter status; // Any status if null
+    private String cursor;                  // nextCursor of the previous page, first page if null
+    private int size;
+}
@@ -0,0 +1,27 @@
+package com.todo.backend.dto.reservation;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Flat projection of a reservation joined with its user and book title, loaded by a single query for listings.
+ * Author names are loaded separately for all titles of a page at once.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationRowDto {
+    private String id;
+    private LocalDate reservationDate;
+    private LocalDate expirationDate;
+    private Integer deposit;
+    private String bookTitleId;
+    private String bookCopyId; // null until a copy is assigned at pickup
+    private String userId;
+    private String userName;
+    private String bookTitle;
+    private String bookImageUrl;
+}
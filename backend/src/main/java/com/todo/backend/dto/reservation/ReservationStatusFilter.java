@@ -0,0 +1,10 @@
+package com.todo.backend.dto.reservation;
+
+public enum ReservationStatusFilter {
+    /// Not expired yet, with or without an assigned copy
+    ACTIVE,
+    /// Past the expiration date, waiting for the expiry sweep
+    EXPIRED,
+    /// Not expired and a copy is set aside for pickup
+    ASSIGNED
+}
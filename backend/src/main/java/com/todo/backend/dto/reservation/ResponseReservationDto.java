@@ -20,4 +20,5 @@ public class ResponseReservationDto {
     private String bookTitle;
     private String bookImageUrl;
     private List<String> bookAuthors;
+    private String userName; // Only filled by the listings
 }
@@ -0,0 +1,9 @@
+package com.todo.backend.dto.statistics;
+
+public enum BorrowerCountGranularity {
+    DAY,
+    /// ISO weeks, starting on Monday
+    WEEK,
+    MONTH,
+    YEAR
+}
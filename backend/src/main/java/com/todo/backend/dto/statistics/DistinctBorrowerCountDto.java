@@ -0,0 +1,14 @@
+package com.todo.backend.dto.statistics;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+public class DistinctBorrowerCountDto {
+    private LocalDate from;     // Inclusive
+    private LocalDate to;       // Exclusive
+    private long borrowers;
+}
@@ -0,0 +1,17 @@
+package com.todo.backend.dto.statistics;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class DistinctBorrowersDto {
+    private String categoryId;                      // All categories if null
+    private BorrowerCountGranularity granularity;
+    private List<DistinctBorrowerCountDto> periods;
+    private long total;                             // Distinct over the whole range, not the sum of the periods
+    private boolean exact;
+    private double relativeStandardError;           // 0 when exact
+}
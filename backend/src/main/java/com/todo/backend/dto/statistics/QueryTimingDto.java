@@ -0,0 +1,16 @@
+package com.todo.backend.dto.statistics;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class QueryTimingDto {
+    private String query;
+    private long executions;
+    private double lastMillis;
+    private double averageMillis;
+    private double maxMillis;
+}
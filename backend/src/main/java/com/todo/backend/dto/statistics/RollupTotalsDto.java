@@ -0,0 +1,15 @@
+package com.todo.backend.dto.statistics;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class RollupTotalsDto {
+    private long borrows;
+    private long returns;
+    private long revenue;
+    private long penalties;
+    private long refunds;
+    private long newUsers;
+}
@@ -14,6 +14,7 @@ public class StatisticsDataDto {
     private long totalUsers;                    // Total number of users in system
     private long totalBooks;                    // Total number of book titles in system
     private long totalTransactions;             // Total number of borrowing transactions
+    private long newUsers;                      // Users registered in the selected period
     
     // Revenue breakdown - explained in detail
     private long grossRevenue;                  // Total money collected from book deposits (what users pay to borrow)
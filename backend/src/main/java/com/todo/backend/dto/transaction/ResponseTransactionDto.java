@@ -21,5 +21,9 @@ public class ResponseTransactionDto {
     private String bookTitle;
     private Integer bookPrice; // Book price for frontend late fee calculation
 
+    // Late fee accrued on an open loan by the nightly batch, null when none
+    private Integer accruedLateFee;
+    private LocalDate accruedAsOf;
+
     private ResponseTransactionDetailDto transactionDetail;
 }
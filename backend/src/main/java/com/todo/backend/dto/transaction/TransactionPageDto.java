@@ -0,0 +1,16 @@
+package com.todo.backend.dto.transaction;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class TransactionPageDto {
+    private List<ResponseTransactionDto> items;
+    private String nextCursor;  // Pass back as cursor to get the next page, null on the last page
+    private boolean hasMore;
+}
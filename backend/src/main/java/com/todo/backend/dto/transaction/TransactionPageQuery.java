@@ -0,0 +1,17 @@
+package com.todo.backend.dto.transaction;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+public class TransactionPageQuery {
+    private String userId;                  // Only this user's transactions, all users if null
+    private TransactionStatusFilter status; // Any status if null
+    private LocalDate borrowedFrom;         // Inclusive
+    private LocalDate borrowedTo;           // Inclusive
+    private String cursor;                  // nextCursor of the previous page, first page if null
+    private int size;
+}
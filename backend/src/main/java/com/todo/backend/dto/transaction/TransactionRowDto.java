@@ -0,0 +1,39 @@
+package com.todo.backend.dto.transaction;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Flat projection of a transaction joined with its user, book copy, book title, detail and accrued fee,
+ * loaded by a single query for listings
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionRowDto {
+    private String id;
+    private LocalDate borrowDate;
+    private LocalDate dueDate;
+    private String userId;
+    private String bookCopyId;
+    private LocalDate returnedDate;
+    private String userName;
+    private String bookTitle;
+    private Integer bookPrice;
+    private String detailTransactionId; // null when the transaction has no detail
+    private Integer penaltyFee;
+    private String detailDescription;
+    private Integer accruedLateFee; // open loans only, as of the last accrual run
+    private LocalDate accruedAsOf;
+
+    // Rows without an accrued fee column, such as the archive tier
+    public TransactionRowDto(String id, LocalDate borrowDate, LocalDate dueDate, String userId, String bookCopyId,
+                             LocalDate returnedDate, String userName, String bookTitle, Integer bookPrice,
+                             String detailTransactionId, Integer penaltyFee, String detailDescription) {
+        this(id, borrowDate, dueDate, userId, bookCopyId, returnedDate, userName, bookTitle, bookPrice,
+                detailTransactionId, penaltyFee, detailDescription, null, null);
+    }
+}
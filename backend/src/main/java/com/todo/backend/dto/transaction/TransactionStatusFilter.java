@@ -0,0 +1,10 @@
+package com.todo.backend.dto.transaction;
+
+public enum TransactionStatusFilter {
+    /// Not returned yet, overdue or not
+    OPEN,
+    /// Already returned
+    RETURNED,
+    /// Not returned and past the due date
+    OVERDUE
+}
@@ -0,0 +1,55 @@
+package com.todo.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDate;
+
+/**
+ * Late fee accrued so far on an open transaction, as computed by the nightly accrual batch.
+ * The fee actually charged is still computed at return time.
+ */
+@Entity
+@Table(name = "ACCRUED_LATE_FEE")
+@Data
+@NoArgsConstructor
+public class AccruedLateFee implements Persistable<String> {
+    @Id
+    @Column(name = "TRANSACTION_ID")
+    private String transactionId;
+
+    @Column(name = "DAYS_LATE")
+    private int daysLate;
+
+    @Column(name = "ACCRUED_FEE")
+    private int accruedFee;
+
+    @Column(name = "AS_OF")
+    private LocalDate asOf;
+
+    // IDs come from TRANSACTION, so track newness to persist new rows without a merge select
+    @Transient
+    private boolean isNew = true;
+
+    public AccruedLateFee(String transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    @Override
+    public String getId() {
+        return transactionId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        isNew = false;
+    }
+}
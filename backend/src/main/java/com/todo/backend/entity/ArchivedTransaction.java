@@ -0,0 +1,43 @@
+package com.todo.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * Returned transaction moved out of TRANSACTION by the archival job, same columns plus the archive date.
+ * Read only, there are no relationships so nothing lazily reaches back into the hot tables.
+ */
+@Entity
+@Table(name = "TRANSACTION_ARCHIVE")
+@Data
+public class ArchivedTransaction {
+    @Id
+    @Column(name = "ID")
+    private String id;
+
+    @Column(name = "BORROW_DATE")
+    private LocalDate borrowDate;
+
+    @Column(name = "DUE_DATE")
+    private LocalDate dueDate;
+
+    @Column(name = "USER_ID")
+    private String userId;
+
+    @Column(name = "BOOK_COPY_ID")
+    private String bookCopyId;
+
+    @Column(name = "RETURNED_DATE")
+    private LocalDate returnedDate;
+
+    @Column(name = "CHARGED_PRICE")
+    private int chargedPrice;
+
+    @Column(name = "DEPOSIT")
+    private int deposit;
+
+    @Column(name = "ARCHIVED_ON")
+    private LocalDate archivedOn;
+}
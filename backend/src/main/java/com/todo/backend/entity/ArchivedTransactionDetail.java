@@ -0,0 +1,19 @@
+package com.todo.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+@Entity
+@Table(name = "TRANSACTION_DETAIL_ARCHIVE")
+@Data
+public class ArchivedTransactionDetail {
+    @Id
+    @Column(name = "TRANSACTION_ID")
+    private String transactionId;
+
+    @Column(name = "PENALTY_FEE")
+    private int penaltyFee;
+
+    @Column(name = "DESCRIPTION")
+    private String description;
+}
@@ -1,11 +1,13 @@
 package com.todo.backend.entity;
 
 import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "balance_transactions")
-public class BalanceTransaction {
+public class BalanceTransaction implements Persistable<String> {
     @Id
     private String id;
 
@@ -32,6 +34,10 @@ public class BalanceTransaction {
     @Column(name = "status", nullable = false)
     private BalanceTransactionStatus status;
 
+    // IDs are assigned before saving, so tell Spring Data to persist instead of merge-selecting each row
+    @Transient
+    private boolean isNew = true;
+
     // Default constructor
     public BalanceTransaction() {
         this.timestamp = LocalDateTime.now();
@@ -51,11 +57,37 @@ public class BalanceTransaction {
         this.status = BalanceTransactionStatus.COMPLETED;
     }
 
+    // Every column as stored, for rows read outside the persistence context
+    public BalanceTransaction(String id, String userId, BalanceTransactionType type, int amount, String description,
+                              LocalDateTime timestamp, int balanceAfter, BalanceTransactionStatus status) {
+        this.id = id;
+        this.userId = userId;
+        this.type = type;
+        this.amount = amount;
+        this.description = description;
+        this.timestamp = timestamp;
+        this.balanceAfter = balanceAfter;
+        this.status = status;
+        this.isNew = false;
+    }
+
     // Getters and Setters
+    @Override
     public String getId() {
         return id;
     }
 
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        isNew = false;
+    }
+
     public void setId(String id) {
         this.id = id;
     }
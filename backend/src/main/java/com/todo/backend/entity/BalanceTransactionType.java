@@ -5,5 +5,7 @@ public enum BalanceTransactionType {
     WITHDRAWAL,     // Manual withdrawal by admin
     BOOK_RENTAL,    // User borrows book (negative amount)
     PENALTY_FEE,    // Late fee or damage fee (negative amount)
-    REFUND          // Book return refund (positive amount)
+    REFUND,         // Book return refund (positive amount)
+    RESERVATION_DEPOSIT, // Deposit held for an online reservation (negative amount)
+    ADJUSTMENT      // Balance set by an admin or librarian when editing the user, logged as the difference
 }
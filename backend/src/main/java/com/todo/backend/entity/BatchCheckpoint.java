@@ -0,0 +1,36 @@
+package com.todo.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a chunked batch job, written in the same transaction as each chunk
+ * so a restarted run continues after the last committed key.
+ */
+@Entity
+@Table(name = "BATCH_CHECKPOINT")
+@Data
+public class BatchCheckpoint {
+    @Id
+    @Column(name = "JOB_NAME")
+    private String jobName;
+
+    @Column(name = "RUN_DATE")
+    private LocalDate runDate;
+
+    @Column(name = "LAST_KEY")
+    private String lastKey;
+
+    @Column(name = "PROCESSED")
+    private long processed;
+
+    @Column(name = "STATUS")
+    @Enumerated(EnumType.STRING)
+    private BatchRunStatus status;
+
+    @Column(name = "UPDATED_AT")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,8 @@
+package com.todo.backend.entity;
+
+public enum BatchRunStatus {
+    /// Started and not finished yet, the next run resumes after the checkpoint
+    RUNNING,
+    /// Finished, the next run starts over
+    COMPLETED
+}
@@ -27,6 +27,10 @@ public class BookCopy {
     @Enumerated(EnumType.STRING)
     private BookCopyCondition condition;
 
+    // Open transaction currently holding this copy, kept in sync by checkout and return
+    @Column(name = "CURRENT_TRANSACTION_ID")
+    private String currentTransactionId;
+
     // Relationship with BookTitle
     @JsonIgnore
     @ManyToOne(fetch = FetchType.LAZY)
@@ -1,8 +1,10 @@
 package com.todo.backend.entity;
 
 public enum BookCopyStatus {
-    /// Is available in-store for borrowing, including those that are reserved
+    /// Is available in-store for borrowing
     AVAILABLE,
+    /// Is on the shelf, held for the reservation it is assigned to until pickup or expiry
+    RESERVED,
     /// Is currently borrowed by a user, either due or not
     BORROWED,
     /// For internal use only, not available for borrowing
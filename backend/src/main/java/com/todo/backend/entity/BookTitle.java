@@ -44,6 +44,10 @@ public class BookTitle {
     @Column(name = "MAX_ONLINE_RESERVATIONS")
     private int maxOnlineReservations;
 
+    // Reservations holding an online slot, only changed by the conditional updates in BookTitleRepository
+    @Column(name = "RESERVED_ONLINE", updatable = false)
+    private int reservedOnline;
+
     // Relationship with Publisher
     @JsonIgnore
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,39 @@
+package com.todo.backend.entity;
+
+import com.todo.backend.entity.compositekey.BorrowerSketchPrimaryKey;
+import com.todo.backend.utils.sketch.HyperLogLog;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * HyperLogLog registers of the users who borrowed on a day, over all titles or the titles of one category
+ */
+@Entity
+@Table(name = "BORROWER_SKETCH")
+@Data
+@NoArgsConstructor
+@IdClass(BorrowerSketchPrimaryKey.class)
+public class BorrowerSketch {
+    // Category ID of the sketch over every title
+    public static final String ALL_CATEGORIES = "";
+
+    @Id
+    @Column(name = "CATEGORY_ID")
+    private String categoryId;
+
+    @Id
+    @Column(name = "STAT_DATE")
+    private LocalDate statDate;
+
+    @Column(name = "REGISTERS", length = HyperLogLog.REGISTERS)
+    private byte[] registers;
+
+    public BorrowerSketch(String categoryId, LocalDate statDate) {
+        this.categoryId = categoryId;
+        this.statDate = statDate;
+        this.registers = new HyperLogLog().toBytes();
+    }
+}
@@ -0,0 +1,26 @@
+package com.todo.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Current number of book copies in each condition, adjusted whenever a copy is added, removed or changes condition
+ */
+@Entity
+@Table(name = "COPY_CONDITION_COUNT")
+@Data
+@NoArgsConstructor
+public class CopyConditionCount {
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "BOOK_CONDITION")
+    private BookCopyCondition condition;
+
+    @Column(name = "COPIES")
+    private long copies;
+
+    public CopyConditionCount(BookCopyCondition condition) {
+        this.condition = condition;
+    }
+}
@@ -0,0 +1,44 @@
+package com.todo.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * One day of library activity, kept up to date by the domain services and rebuilt by
+ * StatisticsRollupService. Borrows and revenue are dated by borrow date, returns, penalties and
+ * refunds by return date, so archived transactions stay counted after they leave TRANSACTION.
+ */
+@Entity
+@Table(name = "DAILY_STATS")
+@Data
+@NoArgsConstructor
+public class DailyStats {
+    @Id
+    @Column(name = "STAT_DATE")
+    private LocalDate statDate;
+
+    @Column(name = "BORROWS")
+    private int borrows;
+
+    @Column(name = "RETURNS")
+    private int returns;
+
+    @Column(name = "REVENUE")
+    private long revenue;
+
+    @Column(name = "PENALTIES")
+    private long penalties;
+
+    @Column(name = "REFUNDS")
+    private long refunds;
+
+    @Column(name = "NEW_USERS")
+    private int newUsers;
+
+    public DailyStats(LocalDate statDate) {
+        this.statDate = statDate;
+    }
+}
@@ -0,0 +1,37 @@
+package com.todo.backend.entity;
+
+import com.todo.backend.entity.compositekey.DailyTitleStatsPrimaryKey;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Borrows per book title and borrow date, the source of the popular books ranking
+ */
+@Entity
+@Table(name = "DAILY_TITLE_STATS")
+@Data
+@NoArgsConstructor
+@IdClass(DailyTitleStatsPrimaryKey.class)
+public class DailyTitleStats {
+    @Id
+    @Column(name = "STAT_DATE")
+    private LocalDate statDate;
+
+    @Id
+    @Column(name = "BOOK_TITLE_ID")
+    private String bookTitleId;
+
+    @Column(name = "BORROWS")
+    private int borrows;
+
+    @Column(name = "REVENUE")
+    private long revenue;
+
+    public DailyTitleStats(LocalDate statDate, String bookTitleId) {
+        this.statDate = statDate;
+        this.bookTitleId = bookTitleId;
+    }
+}
@@ -0,0 +1,29 @@
+package com.todo.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * A patron waiting for a copy of a fully reserved title. Served first come, first served
+ * when a copy of the title is returned, see HoldQueueService.
+ */
+@Entity
+@Table(name = "HOLD_REQUEST", uniqueConstraints = @UniqueConstraint(columnNames = {"USER_ID", "BOOK_TITLE_ID"}))
+@Data
+public class HoldRequest {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "ID")
+    private String id;
+
+    @Column(name = "USER_ID")
+    private String userId;
+
+    @Column(name = "BOOK_TITLE_ID")
+    private String bookTitleId;
+
+    @Column(name = "REQUESTED_AT")
+    private LocalDateTime requestedAt;
+}
@@ -0,0 +1,32 @@
+package com.todo.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One archived month of balance_transactions in the segment format of LedgerSegmentWriter.
+ * Written in the same transaction that purges the month's rows, never changed afterwards.
+ */
+@Entity
+@Table(name = "LEDGER_SEGMENT")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerSegment {
+    // The month as yyyy-MM
+    @Id
+    @Column(name = "SEGMENT_MONTH", length = 7)
+    private String month;
+
+    @Column(name = "ROW_COUNT")
+    private int rowCount;
+
+    @Column(name = "SIZE_BYTES")
+    private long sizeBytes;
+
+    @Lob
+    @Column(name = "CONTENT")
+    private byte[] content;
+}
@@ -0,0 +1,88 @@
+package com.todo.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A due-date reminder rendered by the reminder scan, kept as the outbox the dispatcher sends from.
+ * The key names the loan, the kind and the due date, so each reminder is written once however often
+ * the loan is scanned, and a renewed loan (new due date) gets reminded again.
+ */
+@Entity
+@Table(name = "LOAN_REMINDER")
+@Data
+@NoArgsConstructor
+public class LoanReminder implements Persistable<String> {
+    @Id
+    @Column(name = "REMINDER_KEY")
+    private String reminderKey;
+
+    @Column(name = "TRANSACTION_ID")
+    private String transactionId;
+
+    @Column(name = "USER_ID")
+    private String userId;
+
+    @Column(name = "KIND")
+    @Enumerated(EnumType.STRING)
+    private ReminderKind kind;
+
+    @Column(name = "DUE_DATE")
+    private LocalDate dueDate;
+
+    @Column(name = "RECIPIENT")
+    private String recipient;
+
+    @Column(name = "SUBJECT")
+    private String subject;
+
+    @Column(name = "BODY", length = 2000)
+    private String body;
+
+    @Column(name = "CREATED_AT")
+    private LocalDateTime createdAt;
+
+    // NULL until handed to the sender
+    @Column(name = "SENT_AT")
+    private LocalDateTime sentAt;
+
+    @Column(name = "ATTEMPTS")
+    private int attempts;
+
+    // Token of the dispatch batch sending it, NULL when no batch holds it or once sent
+    @Column(name = "CLAIMED_BY")
+    private String claimedBy;
+
+    // Another batch may take it over after this, should the claiming node die mid-batch
+    @Column(name = "CLAIMED_UNTIL")
+    private LocalDateTime claimedUntil;
+
+    // Keys are built from the loan, so track newness to persist new rows without a merge select
+    @Transient
+    private boolean isNew = true;
+
+    public static String key(String transactionId, ReminderKind kind, LocalDate dueDate) {
+        return transactionId + "#" + kind + "#" + dueDate;
+    }
+
+    @Override
+    public String getId() {
+        return reminderKey;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        isNew = false;
+    }
+}
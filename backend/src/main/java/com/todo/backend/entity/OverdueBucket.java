@@ -0,0 +1,19 @@
+package com.todo.backend.entity;
+
+public enum OverdueBucket {
+    /// 1 to 7 days past the due date
+    DAYS_1_7,
+    /// 8 to 14 days past the due date
+    DAYS_8_14,
+    /// 15 to 30 days past the due date
+    DAYS_15_30,
+    /// More than 30 days past the due date
+    DAYS_31_PLUS;
+
+    public static OverdueBucket of(long daysLate) {
+        if (daysLate <= 7) return DAYS_1_7;
+        if (daysLate <= 14) return DAYS_8_14;
+        if (daysLate <= 30) return DAYS_15_30;
+        return DAYS_31_PLUS;
+    }
+}
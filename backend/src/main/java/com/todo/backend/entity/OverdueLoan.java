@@ -0,0 +1,91 @@
+package com.todo.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.springframework.data.domain.Persistable;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Snapshot of an open, overdue transaction with the user and title columns the overdue
+ * views need. Rebuilt nightly by OverdueRefreshJob and trimmed as loans are returned.
+ */
+@Entity
+@Table(name = "OVERDUE_LOAN")
+@Data
+@NoArgsConstructor
+public class OverdueLoan implements Persistable<String> {
+    @Id
+    @Column(name = "TRANSACTION_ID")
+    private String transactionId;
+
+    @Column(name = "BOOK_COPY_ID")
+    private String bookCopyId;
+
+    @Column(name = "BOOK_TITLE_ID")
+    private String bookTitleId;
+
+    @Column(name = "BOOK_TITLE")
+    private String bookTitle;
+
+    @Column(name = "BOOK_PRICE")
+    private Integer bookPrice;
+
+    @Column(name = "USER_ID")
+    private String userId;
+
+    @Column(name = "USER_NAME")
+    private String userName;
+
+    @Column(name = "USER_CCCD")
+    private String userCccd;
+
+    @Column(name = "BORROW_DATE")
+    private LocalDate borrowDate;
+
+    @Column(name = "DUE_DATE")
+    private LocalDate dueDate;
+
+    @Column(name = "DAYS_LATE_BUCKET")
+    @Enumerated(EnumType.STRING)
+    private OverdueBucket bucket;
+
+    @Column(name = "MATERIALIZED_ON")
+    private LocalDate materializedOn;
+
+    // IDs are assigned from TRANSACTION, so tell Spring Data to persist instead of merge-selecting each row
+    @Transient
+    private boolean isNew = true;
+
+    @Override
+    public String getId() {
+        return transactionId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        isNew = false;
+    }
+
+    // Used by the JPQL constructor expression that reads the source transactions
+    public OverdueLoan(String transactionId, String bookCopyId, String bookTitleId, String bookTitle, Integer bookPrice,
+                       String userId, String userName, String userCccd, LocalDate borrowDate, LocalDate dueDate) {
+        this.transactionId = transactionId;
+        this.bookCopyId = bookCopyId;
+        this.bookTitleId = bookTitleId;
+        this.bookTitle = bookTitle;
+        this.bookPrice = bookPrice;
+        this.userId = userId;
+        this.userName = userName;
+        this.userCccd = userCccd;
+        this.borrowDate = borrowDate;
+        this.dueDate = dueDate;
+    }
+}
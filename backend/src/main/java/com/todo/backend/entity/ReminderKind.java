@@ -0,0 +1,8 @@
+package com.todo.backend.entity;
+
+public enum ReminderKind {
+    /// The loan falls due within the reminder horizon
+    DUE_SOON,
+    /// The loan is past its due date and still open
+    OVERDUE
+}
@@ -2,7 +2,10 @@ package com.todo.backend.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import com.todo.backend.utils.partition.PartitionHash;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Setter;
 
 import java.time.LocalDate;
 
@@ -33,6 +36,12 @@ public class Reservation {
     @Column(name = "USER_ID")
     private String userId;
 
+    // Sweep partition of the row, see PartitionHash; follows the user ID
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    @Column(name = "USER_HASH")
+    private long userHash;
+
     // Relationship with BookTitle
     @JsonIgnore
     @ManyToOne(fetch = FetchType.LAZY)
@@ -50,4 +59,9 @@ public class Reservation {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "USER_ID", referencedColumnName = "ID", insertable = false, updatable = false)
     private User user;
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+        this.userHash = PartitionHash.of(userId);
+    }
 }
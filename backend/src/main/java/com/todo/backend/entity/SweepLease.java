@@ -0,0 +1,43 @@
+package com.todo.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * One hash partition of a recurring sweep. A run is pending on the partition while COMPLETED_AT is
+ * before REQUESTED_AT; the node holding an unexpired lease works it, see SweepWorker.
+ */
+@Entity
+@Table(name = "SWEEP_LEASE")
+@Data
+public class SweepLease {
+    // JOB_NAME#PARTITION_NO
+    @Id
+    @Column(name = "LEASE_KEY")
+    private String leaseKey;
+
+    @Column(name = "JOB_NAME")
+    private String jobName;
+
+    @Column(name = "PARTITION_NO")
+    private int partitionNo;
+
+    @Column(name = "REQUESTED_AT")
+    private LocalDateTime requestedAt;
+
+    // REQUESTED_AT of the last run the partition finished
+    @Column(name = "COMPLETED_AT")
+    private LocalDateTime completedAt;
+
+    @Column(name = "OWNER")
+    private String owner;
+
+    @Column(name = "LEASE_UNTIL")
+    private LocalDateTime leaseUntil;
+
+    public static String key(String jobName, int partitionNo) {
+        return jobName + "#" + partitionNo;
+    }
+}
@@ -2,7 +2,10 @@ package com.todo.backend.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import com.todo.backend.utils.partition.PartitionHash;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Setter;
 
 import java.time.LocalDate;
 
@@ -10,6 +13,9 @@ import java.time.LocalDate;
 @Table(name = "TRANSACTION")
 @Data
 public class Transaction {
+    // Loan period of a checkout, also what the hold queue and availability estimates count per loan
+    public static final int DEFAULT_LOAN_WEEKS = 2;
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     @Column(name = "ID")
@@ -24,12 +30,27 @@ public class Transaction {
     @Column(name = "USER_ID")
     private String userId;
 
+    // Sweep partition of the row, see PartitionHash; follows the user ID
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    @Column(name = "USER_HASH")
+    private long userHash;
+
     @Column(name = "BOOK_COPY_ID")
     private String bookCopyId;
 
     @Column(name = "RETURNED_DATE")
     private LocalDate returnedDate;
 
+    // Book price charged at checkout, history must not change when the catalog price does.
+    // Null only on rows written before the snapshot existed, until the backfill fills them
+    @Column(name = "CHARGED_PRICE")
+    private Integer chargedPrice;
+
+    // Reservation deposit applied towards the charged price at checkout, 0 for walk-in checkouts
+    @Column(name = "DEPOSIT")
+    private int deposit;
+
     // Relationship with User
     @JsonIgnore
     @ManyToOne(fetch = FetchType.LAZY)
@@ -46,4 +67,9 @@ public class Transaction {
     @JsonIgnore
     @OneToOne(mappedBy = "transaction", fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
     private TransactionDetail transactionDetail;
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+        this.userHash = PartitionHash.of(userId);
+    }
 }
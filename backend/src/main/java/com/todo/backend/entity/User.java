@@ -45,9 +45,13 @@ public class User {
     @Enumerated(EnumType.STRING)
     private UserRole role;
 
-    @Column(name = "BALANCE")
+    // Only changed through the conditional UPDATEs of BalanceTransactionService, saving a loaded user must not write back a stale balance
+    @Column(name = "BALANCE", updatable = false)
     private int balance;
 
+    @Column(name = "CREATED_DATE", updatable = false)
+    private LocalDate createdDate;
+
     // Relationship with Review
     @JsonIgnore
     @OneToMany(mappedBy = "user", fetch = FetchType.LAZY, cascade = CascadeType.REMOVE, orphanRemoval = true)
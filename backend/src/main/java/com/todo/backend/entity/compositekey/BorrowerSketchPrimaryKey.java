@@ -0,0 +1,37 @@
+package com.todo.backend.entity.compositekey;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+@NoArgsConstructor
+@Getter
+public class BorrowerSketchPrimaryKey implements Serializable {
+    private String categoryId;
+    private LocalDate statDate;
+
+    public BorrowerSketchPrimaryKey(String categoryId, LocalDate statDate) {
+        this.categoryId = categoryId;
+        this.statDate = statDate;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+
+        if (obj instanceof BorrowerSketchPrimaryKey other) {
+            return Objects.equals(this.categoryId, other.categoryId) &&
+                   Objects.equals(this.statDate, other.statDate);
+        }
+
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(categoryId, statDate);
+    }
+}
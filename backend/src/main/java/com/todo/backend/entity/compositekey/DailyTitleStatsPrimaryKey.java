@@ -0,0 +1,37 @@
+package com.todo.backend.entity.compositekey;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+@NoArgsConstructor
+@Getter
+public class DailyTitleStatsPrimaryKey implements Serializable {
+    private LocalDate statDate;
+    private String bookTitleId;
+
+    public DailyTitleStatsPrimaryKey(LocalDate statDate, String bookTitleId) {
+        this.statDate = statDate;
+        this.bookTitleId = bookTitleId;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+
+        if (obj instanceof DailyTitleStatsPrimaryKey other) {
+            return Objects.equals(this.statDate, other.statDate) &&
+                   Objects.equals(this.bookTitleId, other.bookTitleId);
+        }
+
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(statDate, bookTitleId);
+    }
+}
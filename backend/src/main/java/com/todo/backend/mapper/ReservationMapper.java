@@ -24,6 +24,7 @@ public interface ReservationMapper {
 
     @Mapping(target = "bookTitle", source = "bookTitle")
     @Mapping(target = "bookAuthors", ignore = true)
+    @Mapping(target = "userName", ignore = true)
     ResponseReservationDto toResponseDto(Reservation reservation);
     List<ResponseReservationDto> toResponseDtoList(List<Reservation> reservations);
     
@@ -0,0 +1,130 @@
+package com.todo.backend.scheduler;
+
+import com.todo.backend.scheduler.sweeps.ReservationExpirySweep;
+import com.todo.backend.service.DeadlineService;
+import com.todo.backend.service.OverdueService;
+import com.todo.backend.service.ReservationService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives the deadline wheels of DeadlineService on one thread: rebuilds them once the application is up,
+ * then advances them every tick. On a single node fired reservation expiries are expired in batches, each
+ * its own database transaction; in a cluster every node's wheel fires the same deadlines, so they only
+ * request a run of the partitioned expiry sweep, which one node works per partition. Loans falling due
+ * are added to the overdue snapshot by ID, a node finding them already added skips them.
+ */
+@Slf4j
+@Component
+public class DeadlineDispatcher {
+    private final DeadlineService deadlineService;
+    private final ReservationService reservationService;
+    private final OverdueService overdueService;
+    private final SweepWorker sweepWorker;
+    private final boolean enabled;
+    private final boolean clustered;
+    private final long tickMillis;
+    private final int batchSize;
+
+    private final ScheduledExecutorService ticker =
+            Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("deadline-wheel").daemon().factory());
+
+    public DeadlineDispatcher(DeadlineService deadlineService,
+                              ReservationService reservationService,
+                              OverdueService overdueService,
+                              SweepWorker sweepWorker,
+                              @Value("${library.deadlines.enabled:true}") boolean enabled,
+                              @Value("${library.cluster.enabled:false}") boolean clustered,
+                              @Value("${library.deadlines.tick-ms:1000}") long tickMillis,
+                              @Value("${library.reservations.expiry.batch-size:500}") int batchSize) {
+        this.deadlineService = deadlineService;
+        this.reservationService = reservationService;
+        this.overdueService = overdueService;
+        this.sweepWorker = sweepWorker;
+        this.enabled = enabled;
+        this.clustered = clustered;
+        this.tickMillis = tickMillis;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        ticker.execute(() -> {
+            try {
+                log.info("Deadline wheels rebuilt with {} pending deadlines", deadlineService.rebuild());
+            } catch (Exception e) {
+                // The wheels still get what is scheduled from now on, the sweeps cover the rest
+                log.warn("Failed to rebuild the deadline wheels", e);
+            }
+        });
+        ticker.scheduleWithFixedDelay(this::tickSafely, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+    }
+
+    public void tick() {
+        DeadlineService.FiredDeadlines fired = deadlineService.advance(System.currentTimeMillis());
+        if (fired.isEmpty()) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+
+        List<String> reservationIds = fired.reservationIds();
+        if (!reservationIds.isEmpty() && clustered) {
+            sweepWorker.requestRun(ReservationExpirySweep.NAME);
+            log.info("{} reservation deadlines fired, expiry sweep requested", reservationIds.size());
+        }
+        else if (!reservationIds.isEmpty()) {
+            int expired = 0;
+            for (int from = 0; from < reservationIds.size(); from += batchSize) {
+                expired += reservationService.expireReservations(
+                        reservationIds.subList(from, Math.min(from + batchSize, reservationIds.size())), today);
+            }
+            log.info("{} reservation deadlines fired, {} reservations expired", reservationIds.size(), expired);
+        }
+
+        List<String> transactionIds = fired.transactionIds();
+        if (!transactionIds.isEmpty()) {
+            int added = 0;
+            for (int from = 0; from < transactionIds.size(); from += batchSize) {
+                added += addOverdueLoans(transactionIds.subList(from, Math.min(from + batchSize, transactionIds.size())));
+            }
+            log.info("{} loans fell due, {} added to the overdue loans", transactionIds.size(), added);
+        }
+    }
+
+    private int addOverdueLoans(List<String> transactionIds) {
+        try {
+            return overdueService.addLoans(transactionIds);
+        } catch (DataIntegrityViolationException e) {
+            // Another node's wheel added some of them first, the retry skips what it committed
+            return overdueService.addLoans(transactionIds);
+        }
+    }
+
+    private void tickSafely() {
+        try {
+            tick();
+        } catch (Exception e) {
+            // Fired deadlines are dropped, the hourly reservation sweep and the nightly overdue refresh cover them
+            log.warn("Deadline dispatch failed", e);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.todo.backend.scheduler;
+
+import java.time.LocalDateTime;
+
+/**
+ * A recurring sweep whose rows are split into hash partitions, each worked by whichever node leases it,
+ * see SweepWorker. Batches must tolerate a partition being swept again after a lease was lost.
+ */
+public interface PartitionedSweep {
+    String name();
+
+    /**
+     * Before the first batch of a partition, on the node that leased it
+     */
+    default void beginPartition(int partition, int partitions, LocalDateTime requestedAt) {
+    }
+
+    /**
+     * Processes the next batch of the partition in its own transaction
+     * @return true if there may be more rows to process
+     */
+    boolean processNextBatch(int partition, int partitions, LocalDateTime requestedAt);
+
+    /**
+     * After the last batch of a partition, before its lease is released
+     */
+    default void completePartition(int partition, LocalDateTime requestedAt) {
+    }
+
+    /**
+     * Once no partition has the run pending anymore, on the node that finished last; may run on more
+     * than one node when the last partitions finish together
+     */
+    default void completeRun(LocalDateTime requestedAt) {
+    }
+}
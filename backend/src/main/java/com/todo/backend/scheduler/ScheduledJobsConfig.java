@@ -0,0 +1,183 @@
+package com.todo.backend.scheduler;
+
+import com.todo.backend.scheduler.jobs.AnalyticsRefreshJob;
+import com.todo.backend.scheduler.jobs.DueDateReminderJob;
+import com.todo.backend.scheduler.jobs.LateFeeAccrualJob;
+import com.todo.backend.scheduler.jobs.LedgerSegmentExportJob;
+import com.todo.backend.scheduler.jobs.OverdueRefreshJob;
+import com.todo.backend.scheduler.jobs.ReminderDispatchJob;
+import com.todo.backend.scheduler.jobs.ReservationExpirySweepJob;
+import com.todo.backend.scheduler.jobs.TransactionArchiveJob;
+import org.quartz.*;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Recurring jobs, registered with the Quartz scheduler by Spring Boot.
+ * One-off jobs (backfills) are still scheduled by their services.
+ * In cluster mode each trigger fires on one node only; the sweeps split into partitions
+ * (reservation expiry, late fee accrual, due-date reminders) only request a run there, see SweepWorker.
+ */
+@Configuration
+public class ScheduledJobsConfig {
+    private static final String MAINTENANCE_GROUP = "maintenanceGroup";
+
+    public static final JobKey LATE_FEE_ACCRUAL_JOB = JobKey.jobKey("lateFeeAccrualJob", MAINTENANCE_GROUP);
+    public static final JobKey LEDGER_SEGMENT_EXPORT_JOB = JobKey.jobKey("ledgerSegmentExportJob", MAINTENANCE_GROUP);
+    public static final JobKey REMINDER_DISPATCH_JOB = JobKey.jobKey("reminderDispatchJob", MAINTENANCE_GROUP);
+
+    @Bean
+    public JobDetail overdueRefreshJobDetail() {
+        return JobBuilder.newJob(OverdueRefreshJob.class)
+                .withIdentity("overdueRefreshJob", MAINTENANCE_GROUP)
+                .storeDurably()
+                .build();
+    }
+
+    @Bean
+    public Trigger overdueRefreshTrigger(@Value("${library.overdue.refresh-cron:0 5 0 * * ?}") String cron) {
+        return TriggerBuilder.newTrigger()
+                .withIdentity("overdueRefreshTrigger", MAINTENANCE_GROUP)
+                .forJob(overdueRefreshJobDetail())
+                .withSchedule(CronScheduleBuilder.cronSchedule(cron).withMisfireHandlingInstructionFireAndProceed())
+                .build();
+    }
+
+    // Fires once per startup so a node that missed the nightly run catches up, a no-op once today's snapshot exists
+    @Bean
+    public Trigger overdueRefreshCatchUpTrigger() {
+        return TriggerBuilder.newTrigger()
+                .withIdentity("overdueRefreshCatchUpTrigger", MAINTENANCE_GROUP)
+                .forJob(overdueRefreshJobDetail())
+                .startNow()
+                .withSchedule(SimpleScheduleBuilder.simpleSchedule().withMisfireHandlingInstructionFireNow())
+                .build();
+    }
+
+    @Bean
+    public JobDetail lateFeeAccrualJobDetail() {
+        return JobBuilder.newJob(LateFeeAccrualJob.class)
+                .withIdentity(LATE_FEE_ACCRUAL_JOB)
+                .storeDurably()
+                // Re-run after a crash mid-batch, the job resumes from its checkpoint
+                .requestRecovery()
+                .build();
+    }
+
+    @Bean
+    public Trigger lateFeeAccrualTrigger(@Value("${library.late-fees.accrual-cron:0 15 0 * * ?}") String cron) {
+        return TriggerBuilder.newTrigger()
+                .withIdentity("lateFeeAccrualTrigger", MAINTENANCE_GROUP)
+                .forJob(lateFeeAccrualJobDetail())
+                .withSchedule(CronScheduleBuilder.cronSchedule(cron).withMisfireHandlingInstructionFireAndProceed())
+                .build();
+    }
+
+    @Bean
+    public JobDetail transactionArchiveJobDetail() {
+        return JobBuilder.newJob(TransactionArchiveJob.class)
+                .withIdentity("transactionArchiveJob", MAINTENANCE_GROUP)
+                .storeDurably()
+                .build();
+    }
+
+    @Bean
+    public Trigger transactionArchiveTrigger(@Value("${library.archive.transactions.cron:0 30 1 * * ?}") String cron) {
+        return TriggerBuilder.newTrigger()
+                .withIdentity("transactionArchiveTrigger", MAINTENANCE_GROUP)
+                .forJob(transactionArchiveJobDetail())
+                .withSchedule(CronScheduleBuilder.cronSchedule(cron).withMisfireHandlingInstructionDoNothing())
+                .build();
+    }
+
+    @Bean
+    public JobDetail ledgerSegmentExportJobDetail() {
+        return JobBuilder.newJob(LedgerSegmentExportJob.class)
+                .withIdentity(LEDGER_SEGMENT_EXPORT_JOB)
+                .storeDurably()
+                .build();
+    }
+
+    @Bean
+    public Trigger ledgerSegmentExportTrigger(@Value("${library.ledger.cold.cron:0 0 3 1 * ?}") String cron) {
+        return TriggerBuilder.newTrigger()
+                .withIdentity("ledgerSegmentExportTrigger", MAINTENANCE_GROUP)
+                .forJob(ledgerSegmentExportJobDetail())
+                .withSchedule(CronScheduleBuilder.cronSchedule(cron).withMisfireHandlingInstructionFireAndProceed())
+                .build();
+    }
+
+    @Bean
+    public JobDetail analyticsRefreshJobDetail() {
+        return JobBuilder.newJob(AnalyticsRefreshJob.class)
+                .withIdentity("analyticsRefreshJob", MAINTENANCE_GROUP)
+                .storeDurably()
+                .build();
+    }
+
+    // Keeps the snapshot warm on the node it fires on; other nodes refresh theirs on a query once it is too old
+    @Bean
+    public Trigger analyticsRefreshTrigger(@Value("${library.analytics.refresh-cron:0 */5 * * * ?}") String cron) {
+        return TriggerBuilder.newTrigger()
+                .withIdentity("analyticsRefreshTrigger", MAINTENANCE_GROUP)
+                .forJob(analyticsRefreshJobDetail())
+                .withSchedule(CronScheduleBuilder.cronSchedule(cron).withMisfireHandlingInstructionDoNothing())
+                .build();
+    }
+
+    @Bean
+    public JobDetail reservationExpirySweepJobDetail() {
+        return JobBuilder.newJob(ReservationExpirySweepJob.class)
+                .withIdentity("reservationExpirySweepJob", MAINTENANCE_GROUP)
+                .storeDurably()
+                .build();
+    }
+
+    @Bean
+    public Trigger reservationExpirySweepTrigger(@Value("${library.reservations.expiry.cron:0 0 * * * ?}") String cron) {
+        return TriggerBuilder.newTrigger()
+                .withIdentity("reservationExpirySweepTrigger", MAINTENANCE_GROUP)
+                .forJob(reservationExpirySweepJobDetail())
+                // After downtime one run catches up on everything that expired meanwhile
+                .withSchedule(CronScheduleBuilder.cronSchedule(cron).withMisfireHandlingInstructionFireAndProceed())
+                .build();
+    }
+
+    @Bean
+    public JobDetail dueDateReminderJobDetail() {
+        return JobBuilder.newJob(DueDateReminderJob.class)
+                .withIdentity("dueDateReminderJob", MAINTENANCE_GROUP)
+                .storeDurably()
+                // Re-run after a crash mid-scan, the partitions resume from their checkpoints
+                .requestRecovery()
+                .build();
+    }
+
+    @Bean
+    public Trigger dueDateReminderTrigger(@Value("${library.reminders.cron:0 0 8 * * ?}") String cron) {
+        return TriggerBuilder.newTrigger()
+                .withIdentity("dueDateReminderTrigger", MAINTENANCE_GROUP)
+                .forJob(dueDateReminderJobDetail())
+                .withSchedule(CronScheduleBuilder.cronSchedule(cron).withMisfireHandlingInstructionFireAndProceed())
+                .build();
+    }
+
+    @Bean
+    public JobDetail reminderDispatchJobDetail() {
+        return JobBuilder.newJob(ReminderDispatchJob.class)
+                .withIdentity(REMINDER_DISPATCH_JOB)
+                .storeDurably()
+                .build();
+    }
+
+    @Bean
+    public Trigger reminderDispatchTrigger(@Value("${library.reminders.dispatch-cron:0 */15 * * * ?}") String cron) {
+        return TriggerBuilder.newTrigger()
+                .withIdentity("reminderDispatchTrigger", MAINTENANCE_GROUP)
+                .forJob(reminderDispatchJobDetail())
+                // Retries of failed sends, no need to catch up on missed firings
+                .withSchedule(CronScheduleBuilder.cronSchedule(cron).withMisfireHandlingInstructionDoNothing())
+                .build();
+    }
+}
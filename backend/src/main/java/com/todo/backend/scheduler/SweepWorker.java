@@ -0,0 +1,164 @@
+package com.todo.backend.scheduler;
+
+import com.todo.backend.service.SweepLeaseService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Works the partitioned sweeps on every node. A run is requested once for the whole cluster (by the
+ * clustered Quartz trigger firing on one node), then each node's worker leases pending partitions one
+ * at a time until none is left, so a run is spread over all nodes and no partition is swept twice.
+ * <p>
+ * Rows are assigned to partitions by the CRC32 of their user ID stored on the row (USER_HASH, see
+ * PartitionHash), so a user's rows are swept by one node. All nodes must be configured with the same
+ * partition count.
+ */
+@Slf4j
+@Component
+public class SweepWorker {
+    private static final int MAX_PARTITIONS = 256;
+
+    private final SweepLeaseService sweepLeaseService;
+    private final List<PartitionedSweep> sweeps;
+    private final boolean enabled;
+    private final int partitions;
+    private final long pollMillis;
+    private final Duration leaseDuration;
+    private final String nodeId;
+
+    private final ScheduledExecutorService poller =
+            Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("sweep-worker").daemon().factory());
+
+    public SweepWorker(SweepLeaseService sweepLeaseService,
+                       List<PartitionedSweep> sweeps,
+                       @Value("${library.sweeps.enabled:true}") boolean enabled,
+                       @Value("${library.sweeps.partitions:8}") int partitions,
+                       @Value("${library.sweeps.poll-ms:10000}") long pollMillis,
+                       @Value("${library.sweeps.lease-seconds:60}") long leaseSeconds,
+                       @Value("${library.cluster.node-id:}") String nodeId) {
+        if (partitions < 1 || partitions > MAX_PARTITIONS) {
+            throw new IllegalArgumentException("library.sweeps.partitions must be between 1 and " + MAX_PARTITIONS);
+        }
+        this.sweepLeaseService = sweepLeaseService;
+        this.sweeps = sweeps;
+        this.enabled = enabled;
+        this.partitions = partitions;
+        this.pollMillis = pollMillis;
+        this.leaseDuration = Duration.ofSeconds(leaseSeconds);
+        this.nodeId = nodeId.isBlank() ? defaultNodeId() : nodeId;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        poller.execute(() -> sweeps.forEach(sweep -> ensurePartitions(sweep.name())));
+        poller.scheduleWithFixedDelay(this::pollSafely, pollMillis, pollMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        poller.shutdownNow();
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Makes a run of the sweep pending on all partitions, for whichever nodes poll first; this node
+     * starts on it right away
+     */
+    public void requestRun(String sweepName) {
+        LocalDateTime requestedAt = LocalDateTime.now();
+        ensurePartitions(sweepName);
+        sweepLeaseService.requestRun(sweepName, partitions, requestedAt);
+        if (enabled && !poller.isShutdown()) {
+            poller.execute(this::pollSafely);
+        }
+    }
+
+    /**
+     * Works pending partitions of every sweep until none is left unleased
+     */
+    public void poll() {
+        for (PartitionedSweep sweep : sweeps) {
+            Optional<SweepLeaseService.Claim> claim;
+            while ((claim = sweepLeaseService.claimNext(sweep.name(), partitions, nodeId, leaseDuration)).isPresent()) {
+                if (!work(sweep, claim.get())) {
+                    return;
+                }
+            }
+        }
+    }
+
+    // false if the worker is shutting down
+    private boolean work(PartitionedSweep sweep, SweepLeaseService.Claim claim) {
+        int partition = claim.partition();
+        LocalDateTime requestedAt = claim.requestedAt();
+
+        sweep.beginPartition(partition, partitions, requestedAt);
+        while (sweep.processNextBatch(partition, partitions, requestedAt)) {
+            if (Thread.currentThread().isInterrupted()) {
+                // Committed batches stay, the lease runs out and another node continues the partition
+                return false;
+            }
+            if (!sweepLeaseService.renew(claim, nodeId, leaseDuration)) {
+                log.warn("Lost the lease on {} partition {}, leaving it to its new owner", sweep.name(), partition);
+                return true;
+            }
+        }
+        sweep.completePartition(partition, requestedAt);
+        sweepLeaseService.complete(claim, nodeId);
+
+        if (sweepLeaseService.isRunComplete(sweep.name(), partitions)) {
+            sweep.completeRun(requestedAt);
+        }
+        return true;
+    }
+
+    private void ensurePartitions(String sweepName) {
+        for (int partition = 0; partition < partitions; partition++) {
+            try {
+                sweepLeaseService.ensurePartition(sweepName, partition);
+            } catch (DataIntegrityViolationException e) {
+                // Another node created it first
+            }
+        }
+    }
+
+    private void pollSafely() {
+        try {
+            poll();
+        } catch (Exception e) {
+            // Leases held by this node run out, the partitions are picked up again on a later poll
+            log.warn("Sweep worker poll failed", e);
+        }
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "node";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -0,0 +1,33 @@
+package com.todo.backend.scheduler.jobs;
+
+import com.todo.backend.service.AnalyticsService;
+import lombok.extern.slf4j.Slf4j;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@DisallowConcurrentExecution
+public class AnalyticsRefreshJob implements Job {
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    public void setAnalyticsService(AnalyticsService analyticsService) {
+        this.analyticsService = analyticsService;
+    }
+
+    @Override
+    public void execute(JobExecutionContext jobExecutionContext) throws JobExecutionException {
+        try {
+            analyticsService.refresh(false);
+        }
+        catch (Exception e) {
+            // No refire, queries keep using the previous snapshot until the next run
+            throw new JobExecutionException("Failed to refresh analytics columns", e, false);
+        }
+    }
+}
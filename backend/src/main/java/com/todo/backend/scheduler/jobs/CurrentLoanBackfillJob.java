@@ -0,0 +1,51 @@
+package com.todo.backend.scheduler.jobs;
+
+import com.todo.backend.service.CurrentLoanService;
+import lombok.extern.slf4j.Slf4j;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@DisallowConcurrentExecution
+public class CurrentLoanBackfillJob implements Job {
+    private CurrentLoanService currentLoanService;
+
+    @Autowired
+    public void setCurrentLoanService(CurrentLoanService currentLoanService) {
+        this.currentLoanService = currentLoanService;
+    }
+
+    @Override
+    public void execute(JobExecutionContext jobExecutionContext) throws JobExecutionException {
+        int cleared = 0;
+        int filled = 0;
+        try {
+            cleared = currentLoanService.clearStalePointers();
+            String afterBookCopyId = "";
+            CurrentLoanService.FillChunk chunk;
+            while ((chunk = currentLoanService.fillMissingChunk(afterBookCopyId)).lastBookCopyId() != null) {
+                filled += chunk.filledPointers();
+                afterBookCopyId = chunk.lastBookCopyId();
+                if (jobExecutionContext.getScheduler().isShutdown()) {
+                    break;
+                }
+            }
+            log.info("Current loan backfill cleared {} and filled {} pointers", cleared, filled);
+
+            var report = currentLoanService.checkConsistency();
+            if (!report.isConsistent()) {
+                log.warn("Current loan pointers still inconsistent after backfill, stale: {}, missing: {}",
+                        report.getStaleBookCopyIds(), report.getMissingBookCopyIds());
+            }
+        }
+        catch (Exception e) {
+            throw new JobExecutionException("Failed to backfill current loan pointers after clearing " + cleared
+                    + " and filling " + filled, e, false);
+        }
+    }
+}
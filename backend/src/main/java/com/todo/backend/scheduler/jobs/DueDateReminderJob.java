@@ -0,0 +1,47 @@
+package com.todo.backend.scheduler.jobs;
+
+import com.todo.backend.scheduler.SweepWorker;
+import com.todo.backend.service.DueDateReminderService;
+import com.todo.backend.service.PartitionedCheckpointService;
+import lombok.extern.slf4j.Slf4j;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Starts the daily reminder scan on one node; the partitions are then scanned by the sweep workers of all nodes
+ */
+@Slf4j
+@Component
+@DisallowConcurrentExecution
+public class DueDateReminderJob implements Job {
+    private PartitionedCheckpointService partitionedCheckpointService;
+    private SweepWorker sweepWorker;
+
+    @Autowired
+    public void setPartitionedCheckpointService(PartitionedCheckpointService partitionedCheckpointService) {
+        this.partitionedCheckpointService = partitionedCheckpointService;
+    }
+
+    @Autowired
+    public void setSweepWorker(SweepWorker sweepWorker) {
+        this.sweepWorker = sweepWorker;
+    }
+
+    @Override
+    public void execute(JobExecutionContext jobExecutionContext) throws JobExecutionException {
+        try {
+            var checkpoint = partitionedCheckpointService.begin(DueDateReminderService.JOB_NAME, LocalDate.now());
+            log.info("Due-date reminder scan for {} requested", checkpoint.getRunDate());
+            sweepWorker.requestRun(DueDateReminderService.JOB_NAME);
+        }
+        catch (Exception e) {
+            throw new JobExecutionException("Failed to start the due-date reminder scan, partitions resume from their checkpoints", e, false);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.todo.backend.scheduler.jobs;
+
+import com.todo.backend.service.LedgerColdStorageService;
+import lombok.extern.slf4j.Slf4j;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+
+@Slf4j
+@Component
+@DisallowConcurrentExecution
+public class LedgerSegmentExportJob implements Job {
+    private LedgerColdStorageService ledgerColdStorageService;
+
+    @Autowired
+    public void setLedgerColdStorageService(LedgerColdStorageService ledgerColdStorageService) {
+        this.ledgerColdStorageService = ledgerColdStorageService;
+    }
+
+    @Override
+    public void execute(JobExecutionContext jobExecutionContext) throws JobExecutionException {
+        YearMonth current = null;
+        try {
+            // One transaction per month, a failure leaves earlier months exported and later ones hot
+            for (YearMonth month : ledgerColdStorageService.findExportableMonths()) {
+                current = month;
+                int moved = ledgerColdStorageService.exportMonth(month);
+                if (moved > 0) {
+                    log.info("Moved {} ledger rows of {} to cold storage", moved, month);
+                }
+                if (jobExecutionContext.getScheduler().isShutdown()) {
+                    return;
+                }
+            }
+        }
+        catch (Exception e) {
+            throw new JobExecutionException("Failed to export ledger month " + current, e, false);
+        }
+    }
+}
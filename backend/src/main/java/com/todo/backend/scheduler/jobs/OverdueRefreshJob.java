@@ -0,0 +1,35 @@
+package com.todo.backend.scheduler.jobs;
+
+import com.todo.backend.service.OverdueService;
+import lombok.extern.slf4j.Slf4j;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@DisallowConcurrentExecution
+public class OverdueRefreshJob implements Job {
+    private OverdueService overdueService;
+
+    @Autowired
+    public void setOverdueService(OverdueService overdueService) {
+        this.overdueService = overdueService;
+    }
+
+    @Override
+    public void execute(JobExecutionContext jobExecutionContext) throws JobExecutionException {
+        try {
+            overdueService.refreshIfStale().ifPresentOrElse(
+                    count -> log.info("Materialized {} overdue loans", count),
+                    () -> log.info("Overdue loans already materialized today"));
+        }
+        catch (Exception e) {
+            // No refire, the catch-up trigger on the next startup or the next nightly run rebuilds
+            throw new JobExecutionException("Failed to materialize overdue loans", e, false);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.todo.backend.scheduler.jobs;
+
+import com.todo.backend.service.PriceSnapshotService;
+import lombok.extern.slf4j.Slf4j;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@DisallowConcurrentExecution
+public class PriceSnapshotBackfillJob implements Job {
+    private PriceSnapshotService priceSnapshotService;
+
+    @Autowired
+    public void setPriceSnapshotService(PriceSnapshotService priceSnapshotService) {
+        this.priceSnapshotService = priceSnapshotService;
+    }
+
+    @Override
+    public void execute(JobExecutionContext jobExecutionContext) throws JobExecutionException {
+        long filled = 0;
+        try {
+            int chunk;
+            while ((chunk = priceSnapshotService.backfillChunk()) > 0) {
+                filled += chunk;
+                if (jobExecutionContext.getScheduler().isShutdown()) {
+                    break;
+                }
+            }
+            log.info("Price snapshot backfill filled {} transactions, {} still missing",
+                    filled, priceSnapshotService.countMissing());
+        }
+        catch (Exception e) {
+            throw new JobExecutionException("Failed to backfill price snapshots after " + filled + " rows", e, false);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.todo.backend.scheduler.jobs;
+
+import com.todo.backend.service.ReminderDispatchService;
+import lombok.extern.slf4j.Slf4j;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drains the pending reminders batch by batch; triggered after each reminder scan and on its own schedule
+ * to retry failed sends
+ */
+@Slf4j
+@Component
+@DisallowConcurrentExecution
+public class ReminderDispatchJob implements Job {
+    private ReminderDispatchService reminderDispatchService;
+
+    @Autowired
+    public void setReminderDispatchService(ReminderDispatchService reminderDispatchService) {
+        this.reminderDispatchService = reminderDispatchService;
+    }
+
+    @Override
+    public void execute(JobExecutionContext jobExecutionContext) throws JobExecutionException {
+        try {
+            while (reminderDispatchService.dispatchNextBatch()) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+            }
+        }
+        catch (Exception e) {
+            // Sent batches are committed, the rest is picked up by the next run
+            throw new JobExecutionException("Failed to dispatch reminders", e, false);
+        }
+    }
+}
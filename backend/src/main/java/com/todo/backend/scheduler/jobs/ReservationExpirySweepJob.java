@@ -0,0 +1,49 @@
+package com.todo.backend.scheduler.jobs;
+
+import com.todo.backend.scheduler.SweepWorker;
+import com.todo.backend.scheduler.sweeps.ReservationExpirySweep;
+import lombok.extern.slf4j.Slf4j;
+import org.quartz.*;
+import org.quartz.impl.matchers.GroupMatcher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Set;
+
+@Slf4j
+@Component
+@DisallowConcurrentExecution
+public class ReservationExpirySweepJob implements Job {
+    // Group of the one-off expiry job each reservation used to get
+    private static final String LEGACY_RESERVATION_GROUP = "reservationGroup";
+
+    private SweepWorker sweepWorker;
+
+    @Autowired
+    public void setSweepWorker(SweepWorker sweepWorker) {
+        this.sweepWorker = sweepWorker;
+    }
+
+    @Override
+    public void execute(JobExecutionContext jobExecutionContext) throws JobExecutionException {
+        try {
+            removeLegacyJobs(jobExecutionContext.getScheduler());
+            // Partitions are expired by the sweep workers of all nodes
+            sweepWorker.requestRun(ReservationExpirySweep.NAME);
+        }
+        catch (Exception e) {
+            // The next run requests it again and catches up on what expired meanwhile
+            throw new JobExecutionException("Failed to request a reservation expiry run", e, false);
+        }
+    }
+
+    // The sweep covers their reservations too, they would only fail to load the removed job class
+    private static void removeLegacyJobs(Scheduler scheduler) throws SchedulerException {
+        Set<JobKey> legacyJobs = scheduler.getJobKeys(GroupMatcher.jobGroupEquals(LEGACY_RESERVATION_GROUP));
+        if (!legacyJobs.isEmpty()) {
+            scheduler.deleteJobs(new ArrayList<>(legacyJobs));
+            log.info("Removed {} per-reservation expiry jobs", legacyJobs.size());
+        }
+    }
+}
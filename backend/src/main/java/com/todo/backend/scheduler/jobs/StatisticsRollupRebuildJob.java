@@ -0,0 +1,42 @@
+package com.todo.backend.scheduler.jobs;
+
+import com.todo.backend.service.BorrowerSketchService;
+import com.todo.backend.service.StatisticsRollupService;
+import lombok.extern.slf4j.Slf4j;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@DisallowConcurrentExecution
+public class StatisticsRollupRebuildJob implements Job {
+    private StatisticsRollupService statisticsRollupService;
+    private BorrowerSketchService borrowerSketchService;
+
+    @Autowired
+    public void setStatisticsRollupService(StatisticsRollupService statisticsRollupService) {
+        this.statisticsRollupService = statisticsRollupService;
+    }
+
+    @Autowired
+    public void setBorrowerSketchService(BorrowerSketchService borrowerSketchService) {
+        this.borrowerSketchService = borrowerSketchService;
+    }
+
+    @Override
+    public void execute(JobExecutionContext jobExecutionContext) throws JobExecutionException {
+        try {
+            int days = statisticsRollupService.rebuild();
+            log.info("Statistics rollups rebuilt over {} days", days);
+            int sketches = borrowerSketchService.rebuild();
+            log.info("Rebuilt {} borrower sketches", sketches);
+        }
+        catch (Exception e) {
+            throw new JobExecutionException("Failed to rebuild statistics rollups", e, false);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.todo.backend.scheduler.jobs;
+
+import com.todo.backend.service.TransactionArchiveService;
+import lombok.extern.slf4j.Slf4j;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@DisallowConcurrentExecution
+public class TransactionArchiveJob implements Job {
+    private TransactionArchiveService transactionArchiveService;
+
+    // Pause between chunks so archiving doesn't starve the live workload of locks and IO
+    @Value("${library.archive.transactions.throttle-ms:200}")
+    private long throttleMillis;
+
+    @Autowired
+    public void setTransactionArchiveService(TransactionArchiveService transactionArchiveService) {
+        this.transactionArchiveService = transactionArchiveService;
+    }
+
+    @Override
+    public void execute(JobExecutionContext jobExecutionContext) throws JobExecutionException {
+        long archived = 0;
+        try {
+            int moved;
+            while ((moved = transactionArchiveService.archiveChunk()) > 0) {
+                archived += moved;
+                if (jobExecutionContext.getScheduler().isShutdown()) {
+                    break;
+                }
+                Thread.sleep(throttleMillis);
+            }
+            log.info("Archived {} returned transactions", archived);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.info("Transaction archiving interrupted after {} transactions", archived);
+        }
+        catch (Exception e) {
+            // Chunks already moved are committed, the next run continues with what is left
+            throw new JobExecutionException("Failed to archive transactions after " + archived + " rows", e, false);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.todo.backend.scheduler.sweeps;
+
+import com.todo.backend.scheduler.PartitionedSweep;
+import com.todo.backend.service.DueDateReminderService;
+import com.todo.backend.service.PartitionedCheckpointService;
+import com.todo.backend.service.ReminderDispatchService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Writes due-date reminders partitioned by loan, requested by DueDateReminderJob; sending starts once
+ * the whole run is written
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DueDateReminderSweep implements PartitionedSweep {
+    private final DueDateReminderService dueDateReminderService;
+    private final PartitionedCheckpointService partitionedCheckpointService;
+    private final ReminderDispatchService reminderDispatchService;
+
+    @Override
+    public String name() {
+        return DueDateReminderService.JOB_NAME;
+    }
+
+    @Override
+    public void beginPartition(int partition, int partitions, LocalDateTime requestedAt) {
+        var checkpoint = partitionedCheckpointService.beginPartition(DueDateReminderService.JOB_NAME, requestedAt.toLocalDate(), partition);
+        if (checkpoint.getLastKey() != null) {
+            log.info("Resuming due-date reminder partition {} for {} after {} ({} processed)",
+                    partition, checkpoint.getRunDate(), checkpoint.getLastKey(), checkpoint.getProcessed());
+        }
+    }
+
+    @Override
+    public boolean processNextBatch(int partition, int partitions, LocalDateTime requestedAt) {
+        return dueDateReminderService.processNextChunk(requestedAt.toLocalDate(), partition, partitions);
+    }
+
+    @Override
+    public void completePartition(int partition, LocalDateTime requestedAt) {
+        partitionedCheckpointService.completePartition(DueDateReminderService.JOB_NAME, partition);
+    }
+
+    @Override
+    public void completeRun(LocalDateTime requestedAt) {
+        var checkpoint = partitionedCheckpointService.complete(DueDateReminderService.JOB_NAME, requestedAt.toLocalDate());
+        log.info("Due-date reminder scan for {} went through {} open loans, {} reminders to send",
+                checkpoint.getRunDate(), checkpoint.getProcessed(), reminderDispatchService.countPending());
+        reminderDispatchService.triggerRun();
+    }
+}
@@ -0,0 +1,51 @@
+package com.todo.backend.scheduler.sweeps;
+
+import com.todo.backend.scheduler.PartitionedSweep;
+import com.todo.backend.service.LateFeeAccrualService;
+import com.todo.backend.service.PartitionedCheckpointService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Accrues late fees partitioned by loan, requested by LateFeeAccrualJob
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LateFeeAccrualSweep implements PartitionedSweep {
+    private final LateFeeAccrualService lateFeeAccrualService;
+    private final PartitionedCheckpointService partitionedCheckpointService;
+
+    @Override
+    public String name() {
+        return LateFeeAccrualService.JOB_NAME;
+    }
+
+    @Override
+    public void beginPartition(int partition, int partitions, LocalDateTime requestedAt) {
+        var checkpoint = partitionedCheckpointService.beginPartition(LateFeeAccrualService.JOB_NAME, requestedAt.toLocalDate(), partition);
+        if (checkpoint.getLastKey() != null) {
+            log.info("Resuming late fee accrual partition {} for {} after {} ({} processed)",
+                    partition, checkpoint.getRunDate(), checkpoint.getLastKey(), checkpoint.getProcessed());
+        }
+    }
+
+    @Override
+    public boolean processNextBatch(int partition, int partitions, LocalDateTime requestedAt) {
+        return lateFeeAccrualService.processNextChunk(requestedAt.toLocalDate(), partition, partitions);
+    }
+
+    @Override
+    public void completePartition(int partition, LocalDateTime requestedAt) {
+        partitionedCheckpointService.completePartition(LateFeeAccrualService.JOB_NAME, partition);
+    }
+
+    @Override
+    public void completeRun(LocalDateTime requestedAt) {
+        var checkpoint = lateFeeAccrualService.complete(requestedAt.toLocalDate());
+        log.info("Late fee accrual for {} processed {} open overdue loans", checkpoint.getRunDate(), checkpoint.getProcessed());
+    }
+}
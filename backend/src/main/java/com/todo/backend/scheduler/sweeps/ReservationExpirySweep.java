@@ -0,0 +1,37 @@
+package com.todo.backend.scheduler.sweeps;
+
+import com.todo.backend.scheduler.PartitionedSweep;
+import com.todo.backend.service.ReservationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Expires reservations partitioned by user, requested by ReservationExpirySweepJob
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReservationExpirySweep implements PartitionedSweep {
+    public static final String NAME = "reservationExpiry";
+
+    private final ReservationService reservationService;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public boolean processNextBatch(int partition, int partitions, LocalDateTime requestedAt) {
+        // The request's date for the whole run, so a run crossing midnight stays consistent
+        return reservationService.expireBatch(requestedAt.toLocalDate(), partition, partitions) > 0;
+    }
+
+    @Override
+    public void completeRun(LocalDateTime requestedAt) {
+        log.info("Reservation expiry run requested at {} completed", requestedAt);
+    }
+}
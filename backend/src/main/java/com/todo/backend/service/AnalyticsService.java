@@ -0,0 +1,144 @@
+package com.todo.backend.service;
+
+import com.todo.backend.dao.AnalyticsRepository;
+import com.todo.backend.dto.analytics.AnalyticsQueryDto;
+import com.todo.backend.dto.analytics.AnalyticsResultDto;
+import com.todo.backend.dto.analytics.AnalyticsStatusDto;
+import com.todo.backend.entity.BookCopyCondition;
+import com.todo.backend.entity.identity.UserRole;
+import com.todo.backend.utils.analytics.AnalyticsQueryEngine;
+import com.todo.backend.utils.analytics.LoanColumns;
+import jakarta.annotation.PreDestroy;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Ad-hoc circulation reports, answered from an in-memory column snapshot of all loans instead of
+ * running arbitrary GROUP BYs on the database the checkouts write to.
+ * <p>
+ * The first refresh of a day loads every loan of both tiers. Later refreshes that day keep the loans
+ * returned before it and reload only the open and since returned ones, an index range on RETURNED_DATE.
+ * A penalty changed or a loan deleted after its return shows up with the next day's full load.
+ * <p>
+ * Each node holds its own snapshot. In cluster mode the refresh trigger fires on one node only, so a query
+ * finding the snapshot older than {@code library.analytics.max-age-seconds} refreshes it first.
+ */
+@Service
+@Transactional
+@Slf4j
+public class AnalyticsService {
+    private final AnalyticsRepository analyticsRepository;
+    private final ForkJoinPool scanPool;
+    private final AnalyticsQueryEngine queryEngine;
+
+    private final long maxAgeNanos;
+
+    private volatile LoanColumns columns;
+    private volatile long refreshedAtNanos;
+    private volatile double refreshMillis;
+
+    public AnalyticsService(AnalyticsRepository analyticsRepository,
+                            @Value("${library.analytics.parallelism:0}") int parallelism,
+                            @Value("${library.analytics.max-age-seconds:300}") long maxAgeSeconds) {
+        this.analyticsRepository = analyticsRepository;
+        this.scanPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.queryEngine = new AnalyticsQueryEngine(scanPool);
+        this.maxAgeNanos = TimeUnit.SECONDS.toNanos(maxAgeSeconds);
+    }
+
+    public AnalyticsResultDto query(AnalyticsQueryDto query) {
+        LoanColumns current = columns;
+        if (current == null || isStale()) {
+            current = refreshIfStale();
+        }
+        return queryEngine.run(current, query, LocalDate.now());
+    }
+
+    /**
+     * Reload the loan columns, incrementally unless full is set or the last full load was before today
+     */
+    public synchronized AnalyticsStatusDto refresh(boolean full) {
+        long start = System.nanoTime();
+        LocalDate today = LocalDate.now();
+        LoanColumns previous = columns;
+        boolean incremental = !full && previous != null && previous.fullLoadOn().equals(today);
+
+        LoanColumns.Builder builder = incremental ? LoanColumns.builder(previous) : LoanColumns.builder(today);
+        if (!incremental) {
+            addLoans(builder, analyticsRepository.streamLoans(true, null));
+        }
+        addLoans(builder, analyticsRepository.streamLoans(false, incremental ? previous.fullLoadOn() : null));
+
+        Map<String, List<String>> categories = new HashMap<>();
+        for (Object[] row : analyticsRepository.getTitleCategories()) {
+            categories.computeIfAbsent((String) row[0], id -> new ArrayList<>()).add((String) row[1]);
+        }
+        for (Object[] row : analyticsRepository.getTitles()) {
+            String id = (String) row[0];
+            builder.addTitle(id, (String) row[1], (String) row[2], categories.getOrDefault(id, List.of()));
+        }
+
+        columns = builder.build(LocalDateTime.now());
+        refreshedAtNanos = start;
+        refreshMillis = (System.nanoTime() - start) / 1_000_000.0;
+        log.info("{} analytics refresh loaded {} loans in {} ms",
+                incremental ? "Incremental" : "Full", columns.size() - (incremental ? previous.sealedRows() : 0), refreshMillis);
+        return getStatus();
+    }
+
+    public AnalyticsStatusDto getStatus() {
+        LoanColumns current = columns;
+        if (current == null) {
+            return AnalyticsStatusDto.builder().build();
+        }
+        return AnalyticsStatusDto.builder()
+                .loans(current.size())
+                .titles(current.titleCount())
+                .sealedLoans(current.sealedRows())
+                .fullLoadOn(current.fullLoadOn())
+                .refreshedAt(current.refreshedAt())
+                .refreshMillis(refreshMillis)
+                .memoryBytes(current.memoryBytes())
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scanPool.shutdownNow();
+    }
+
+    // Queries arriving together wait for one refresh instead of each running their own
+    private synchronized LoanColumns refreshIfStale() {
+        if (columns == null || isStale()) {
+            refresh(false);
+        }
+        return columns;
+    }
+
+    private boolean isStale() {
+        return System.nanoTime() - refreshedAtNanos >= maxAgeNanos;
+    }
+
+    private static void addLoans(LoanColumns.Builder builder, Stream<Object[]> loans) {
+        try (loans) {
+            loans.forEach(row -> builder.addLoan(
+                    (String) row[0],
+                    (UserRole) row[1],
+                    (BookCopyCondition) row[2],
+                    (LocalDate) row[3],
+                    (LocalDate) row[4],
+                    (LocalDate) row[5],
+                    row[6] != null ? ((Number) row[6]).intValue() : 0,
+                    row[7] != null ? ((Number) row[7]).intValue() : 0));
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.todo.backend.service;
+
+import com.todo.backend.dao.BookCopyRepository;
+import com.todo.backend.dao.TransactionRepository;
+import com.todo.backend.dto.booktitle.AvailabilityForecastDto;
+import com.todo.backend.entity.BookCopyStatus;
+import com.todo.backend.entity.Transaction;
+import com.todo.backend.utils.cache.ReloadingCache;
+import com.todo.backend.utils.forecast.ReturnDateIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.todo.backend.utils.transaction.TransactionHooks.afterCommit;
+
+/**
+ * Estimates when a copy of a title is free for a new patron. Each title's open loans are loaded on first
+ * use into a {@link ReturnDateIndex} of due dates and kept in step once checkouts, due date changes and
+ * returns commit on this node, so the estimate is one copy count plus an O(log n) lookup instead of reading
+ * every loan. A title loaded longer ago than {@code library.forecast.reload-seconds} is read again, which
+ * bounds how long loans changed on other nodes are missed.
+ * <p>
+ * Patrons are served in order: active reservations and queued holds first, then the new patron. Copies on
+ * the shelf serve the first claims today, each loaned copy the next one on its due date (today if overdue),
+ * and once every copy is taken the line goes round again one loan period later.
+ */
+@Service
+@RequiredArgsConstructor
+public class AvailabilityForecastService {
+    private static final EnumSet<BookCopyStatus> ON_SHELF = EnumSet.of(BookCopyStatus.AVAILABLE, BookCopyStatus.RESERVED);
+
+    private final TransactionRepository transactionRepository;
+    private final BookCopyRepository bookCopyRepository;
+
+    @Value("${library.forecast.reload-seconds:60}")
+    private long reloadSeconds;
+
+    private final ReloadingCache<String, TitleLoans> titles = new ReloadingCache<>(this::loadLoans,
+            () -> TimeUnit.SECONDS.toNanos(reloadSeconds));
+
+    // A forecast reads the index while commits change it, so every access holds the instance's lock
+    private static final class TitleLoans {
+        private final ReturnDateIndex dueDates = new ReturnDateIndex();
+        private final Map<String, LocalDate> byTransactionId = new HashMap<>();
+
+        synchronized void put(String transactionId, LocalDate dueDate) {
+            LocalDate previous = byTransactionId.put(transactionId, dueDate);
+            if (previous != null) {
+                dueDates.remove(previous);
+            }
+            dueDates.add(dueDate);
+        }
+
+        synchronized void remove(String transactionId) {
+            LocalDate dueDate = byTransactionId.remove(transactionId);
+            if (dueDate != null) {
+                dueDates.remove(dueDate);
+            }
+        }
+
+        synchronized int size() {
+            return dueDates.size();
+        }
+
+        synchronized LocalDate kth(int k) {
+            return dueDates.kth(k);
+        }
+    }
+
+    /**
+     * A checkout or a due date change, applied once the caller's transaction commits
+     */
+    public void recordLoan(String bookTitleId, String transactionId, LocalDate dueDate) {
+        afterCommit(() -> titles.ifLoaded(bookTitleId, loans -> loans.put(transactionId, dueDate)));
+    }
+
+    /**
+     * A return, applied once the caller's transaction commits
+     */
+    public void recordReturn(String bookTitleId, String transactionId) {
+        afterCommit(() -> titles.ifLoaded(bookTitleId, loans -> loans.remove(transactionId)));
+    }
+
+    /**
+     * @param claimsAhead active reservations and queued holds of the title, served before the new patron
+     */
+    public AvailabilityForecastDto forecast(String bookTitleId, int claimsAhead) {
+        int onShelf = (int) bookCopyRepository.countByBookTitleIdAndStatusIn(bookTitleId, ON_SHELF);
+        TitleLoans loans = titles.get(bookTitleId);
+        int onLoan = loans.size();
+
+        return AvailabilityForecastDto.builder()
+                .bookTitleId(bookTitleId)
+                .copiesOnShelf(onShelf)
+                .copiesOnLoan(onLoan)
+                .claimsAhead(claimsAhead)
+                .estimatedAvailableDate(estimate(loans, onShelf, onLoan, claimsAhead, LocalDate.now()))
+                .build();
+    }
+
+    private static LocalDate estimate(TitleLoans loans, int onShelf, int onLoan, int claimsAhead, LocalDate today) {
+        int copies = onShelf + onLoan;
+        if (copies == 0) {
+            return null;
+        }
+        // The new patron's 0-based place in line, then which copy serves them and in which round
+        int place = claimsAhead;
+        int copy = place % copies;
+        int round = place / copies;
+
+        LocalDate freeOn = today;
+        if (copy >= onShelf) {
+            // Copies come back in due date order; the loan may have been returned meanwhile, then it is free now
+            LocalDate dueDate = loans.kth(copy - onShelf + 1);
+            if (dueDate != null && dueDate.isAfter(today)) {
+                freeOn = dueDate;
+            }
+        }
+        return freeOn.plusWeeks((long) Transaction.DEFAULT_LOAN_WEEKS * round);
+    }
+
+    private TitleLoans loadLoans(String bookTitleId) {
+        TitleLoans loaded = new TitleLoans();
+        transactionRepository.findOpenLoanDueDatesByBookTitleId(bookTitleId)
+                .forEach(row -> loaded.put((String) row[0], (LocalDate) row[1]));
+        return loaded;
+    }
+}
@@ -6,15 +6,17 @@ import com.todo.backend.dto.balancetransaction.BalanceTransactionResponseDto;
 import com.todo.backend.entity.BalanceTransaction;
 import com.todo.backend.entity.BalanceTransactionType;
 import com.todo.backend.entity.BalanceTransactionStatus;
-import com.todo.backend.entity.User;
 import jakarta.transaction.Transactional;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
@@ -22,11 +24,17 @@ public class BalanceTransactionService {
 
     private final BalanceTransactionRepository balanceTransactionRepository;
     private final UserRepository userRepository;
+    private final LedgerColdStorageService ledgerColdStorageService;
+    private final LiveStatisticsService liveStatisticsService;
 
     public BalanceTransactionService(BalanceTransactionRepository balanceTransactionRepository, 
-                                   UserRepository userRepository) {
+                                   UserRepository userRepository,
+                                   LedgerColdStorageService ledgerColdStorageService,
+                                   LiveStatisticsService liveStatisticsService) {
         this.balanceTransactionRepository = balanceTransactionRepository;
         this.userRepository = userRepository;
+        this.ledgerColdStorageService = ledgerColdStorageService;
+        this.liveStatisticsService = liveStatisticsService;
     }
 
     /**
@@ -44,14 +52,47 @@ public class BalanceTransactionService {
         );
         
         balanceTransactionRepository.save(transaction);
+        liveStatisticsService.recordBalance(type, amount);
     }
 
     /**
-     * Get all balance transactions for a user
+     * Debit the user's balance only if it covers the amount, in a single conditional UPDATE.
+     * @return The balance after the debit, or empty if the balance is insufficient (nothing is changed)
+     */
+    public Optional<Integer> tryDebitBalance(String userId, int amount) {
+        if (userRepository.debitBalanceIfSufficient(userId, amount) == 0) {
+            // Only pay for the extra lookup on the failure path, to tell "not found" from "not enough"
+            userRepository.findBalanceById(userId)
+                    .orElseThrow(() -> new RuntimeException("User with ID " + userId + " not found"));
+            return Optional.empty();
+        }
+        return userRepository.findBalanceById(userId);
+    }
+
+    /**
+     * Unconditionally add a (possibly negative) delta to the user's balance, e.g. refunds or penalties
+     * that are allowed to overdraw the account.
+     * @return The balance after the change
+     */
+    public int changeBalance(String userId, int delta) {
+        if (userRepository.addToBalance(userId, delta) == 0) {
+            throw new RuntimeException("User with ID " + userId + " not found");
+        }
+        // The row is locked by the UPDATE until commit, so this read is the balance we just wrote
+        return userRepository.findBalanceById(userId)
+                .orElseThrow(() -> new RuntimeException("User with ID " + userId + " not found"));
+    }
+
+    /**
+     * Get all balance transactions for a user, the hot table followed by the older archived months
      */
     public List<BalanceTransactionResponseDto> getUserTransactions(String userId) {
         List<BalanceTransaction> transactions = balanceTransactionRepository.findByUserIdOrderByTimestampDesc(userId);
-        return transactions.stream()
+        Set<String> hotIds = transactions.stream().map(BalanceTransaction::getId).collect(Collectors.toSet());
+        // The segment cache outlives transactions, so a month exported after the hot rows were read can show up in both
+        Stream<BalanceTransaction> archived = ledgerColdStorageService.findUserTransactions(userId).stream()
+                .filter(transaction -> !hotIds.contains(transaction.getId()));
+        return Stream.concat(transactions.stream(), archived)
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
@@ -71,12 +112,13 @@ public class BalanceTransactionService {
      */
     public BalanceTransactionResponseDto adjustBalance(String userId, BalanceTransactionType type, 
                                                      int amount, String description) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User with ID " + userId + " not found"));
-
-        int newBalance = user.getBalance() + amount;
-        user.setBalance(newBalance);
-        userRepository.save(user);
+        int newBalance;
+        if (amount < 0) {
+            newBalance = tryDebitBalance(userId, -amount)
+                    .orElseThrow(() -> new RuntimeException("Insufficient balance for withdrawal"));
+        } else {
+            newBalance = changeBalance(userId, amount);
+        }
 
         // Log the transaction
         BalanceTransaction transaction = new BalanceTransaction(
@@ -89,6 +131,7 @@ public class BalanceTransactionService {
         );
         
         balanceTransactionRepository.save(transaction);
+        liveStatisticsService.recordBalance(type, amount);
         return convertToDto(transaction);
     }
 
@@ -0,0 +1,62 @@
+package com.todo.backend.service;
+
+import com.todo.backend.dao.BookCopyRepository;
+import com.todo.backend.entity.BookCopy;
+import com.todo.backend.entity.BookCopyStatus;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.todo.backend.utils.transaction.TransactionHooks.afterCompletion;
+
+/**
+ * Hands out one available copy of a title per pickup, marked RESERVED in the caller's transaction. Copies
+ * another pickup is still claiming are skipped rather than waited for, so desks serving the same title never
+ * queue behind each other.
+ * <p>
+ * On MySQL the database does the skipping ({@code FOR UPDATE SKIP LOCKED}). H2 cannot skip rows of BOOK_COPY,
+ * so there the copies claimed by uncommitted transactions of this instance are kept in memory, left out of the
+ * candidates, and the pick is made with a conditional status update that only one claim can win.
+ */
+@Service
+@Transactional
+public class BookCopyClaimService {
+    private final BookCopyRepository bookCopyRepository;
+    private final boolean skipLocked;
+
+    // Copies claimed by transactions that have not completed yet
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    public BookCopyClaimService(BookCopyRepository bookCopyRepository,
+                                @Value("${spring.jpa.properties.hibernate.dialect:}") String dialect) {
+        this.bookCopyRepository = bookCopyRepository;
+        this.skipLocked = dialect.contains("MySQL");
+    }
+
+    public Optional<BookCopy> claimAvailableCopy(String bookTitleId) {
+        if (skipLocked) {
+            Optional<BookCopy> bookCopy = bookCopyRepository.lockAvailableSkippingLocked(bookTitleId);
+            bookCopy.ifPresent(copy -> copy.setStatus(BookCopyStatus.RESERVED));
+            return bookCopy;
+        }
+
+        for (String bookCopyId : bookCopyRepository.findIdsByBookTitleIdAndStatus(bookTitleId, BookCopyStatus.AVAILABLE)) {
+            if (!inFlight.add(bookCopyId)) {
+                continue;
+            }
+            afterCompletion(() -> inFlight.remove(bookCopyId));
+            // 0 rows when a claim that committed after the read took it
+            if (bookCopyRepository.updateStatusIfCurrent(bookCopyId, BookCopyStatus.AVAILABLE, BookCopyStatus.RESERVED) == 1) {
+                BookCopy bookCopy = bookCopyRepository.findById(bookCopyId).orElseThrow();
+                // The copy may already be in the persistence context with its old status
+                bookCopy.setStatus(BookCopyStatus.RESERVED);
+                return Optional.of(bookCopy);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -5,6 +5,7 @@ import com.todo.backend.dao.BookTitleRepository;
 import com.todo.backend.dao.TransactionRepository;
 import com.todo.backend.dao.UserRepository;
 import com.todo.backend.dto.bookcopy.CreateBookCopyDto;
+import com.todo.backend.dto.bookcopy.CurrentBorrowerDto;
 import com.todo.backend.dto.bookcopy.ResponseBookCopyDto;
 import com.todo.backend.dto.bookcopy.UpdateBookCopyDto;
 import com.todo.backend.entity.*;
@@ -16,6 +17,9 @@ import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -26,11 +30,17 @@ public class BookCopyService {
     private final TransactionRepository transactionRepository;
     private final UserRepository userRepository;
     private final BookCopyMapper bookCopyMapper;
+    private final StatisticsRollupService statisticsRollupService;
 
     public List<ResponseBookCopyDto> getAllBookCopies() {
         List<BookCopy> bookCopies = bookCopyRepository.findAll();
+
+        // One join over the current-loan pointers instead of a transaction + user lookup per copy
+        Map<String, CurrentBorrowerDto> borrowers = bookCopyRepository.findAllCurrentBorrowers().stream()
+                .collect(Collectors.toMap(CurrentBorrowerDto::getBookCopyId, Function.identity()));
+
         return bookCopies.stream()
-                .map(this::buildEnhancedBookCopyDto)
+                .map(bookCopy -> buildEnhancedBookCopyDto(bookCopy, borrowers.get(bookCopy.getId())))
                 .toList();
     }
 
@@ -45,6 +55,13 @@ public class BookCopyService {
     }
 
     private ResponseBookCopyDto buildEnhancedBookCopyDto(BookCopy bookCopy) {
+        CurrentBorrowerDto borrower = bookCopy.getCurrentTransactionId() == null
+                ? null
+                : bookCopyRepository.findCurrentBorrower(bookCopy.getId()).orElse(null);
+        return buildEnhancedBookCopyDto(bookCopy, borrower);
+    }
+
+    private ResponseBookCopyDto buildEnhancedBookCopyDto(BookCopy bookCopy, CurrentBorrowerDto borrower) {
         ResponseBookCopyDto.ResponseBookCopyDtoBuilder builder = ResponseBookCopyDto.builder()
                 .id(bookCopy.getId())
                 .bookTitleId(bookCopy.getBookTitleId())
@@ -59,18 +76,10 @@ public class BookCopyService {
         }
 
         // Add borrower information if the book is currently borrowed
-        if (BookCopyStatus.BORROWED.equals(bookCopy.getStatus())) {
-            // Find the current borrower through transactions
-            List<Transaction> unreturned = transactionRepository
-                    .findByBookCopyIdAndReturnedDateIsNull(bookCopy.getId());
-
-            if (!unreturned.isEmpty()) {
-                Transaction currentTransaction = unreturned.getFirst();
-                userRepository.findById(currentTransaction.getUserId())
-                        .ifPresent(borrower -> builder.borrowerCccd(borrower.getCccd())
-                        .borrowerName(borrower.getName())
-                        .borrowerId(borrower.getId()));
-            }
+        if (BookCopyStatus.BORROWED.equals(bookCopy.getStatus()) && borrower != null) {
+            builder.borrowerCccd(borrower.getBorrowerCccd())
+                    .borrowerName(borrower.getBorrowerName())
+                    .borrowerId(borrower.getBorrowerId());
         }
 
         return builder.build();
@@ -93,6 +102,7 @@ public class BookCopyService {
             bookCopy.setStatus(BookCopyStatus.AVAILABLE);
             bookCopy.setCondition(condition); // Set default condition for new book copies or you could have bookCopy condition in the dto idk
             bookCopyRepository.save(bookCopy);
+            statisticsRollupService.recordConditionChange(null, condition);
             copies.add(buildEnhancedBookCopyDto(bookCopy));
         }
 
@@ -105,6 +115,7 @@ public class BookCopyService {
                 .orElseThrow(() -> new IllegalArgumentException("BookCopy with this ID does not exist"));
 
         bookCopyRepository.delete(existingBookCopy);
+        statisticsRollupService.recordConditionChange(existingBookCopy.getCondition(), null);
     }
 
     public ResponseBookCopyDto updateBookCopy(String id, UpdateBookCopyDto updateBookCopyDto, String currentUserId) {
@@ -119,9 +130,11 @@ public class BookCopyService {
         validateBookCopyUpdate(existingBookCopy, updateBookCopyDto, currentUser.getRole());
 
         // Update the fields using the mapper
+        BookCopyCondition oldCondition = existingBookCopy.getCondition();
         bookCopyMapper.updateEntityFromUpdateDto(updateBookCopyDto, existingBookCopy);
         
         bookCopyRepository.save(existingBookCopy);
+        statisticsRollupService.recordConditionChange(oldCondition, existingBookCopy.getCondition());
 
         return buildEnhancedBookCopyDto(existingBookCopy);
     }
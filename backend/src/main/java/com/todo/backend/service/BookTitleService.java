@@ -3,6 +3,7 @@ package com.todo.backend.service;
 import com.todo.backend.dao.BookCopyRepository;
 import com.todo.backend.dao.BookTitleRepository;
 import com.todo.backend.dao.ReservationRepository;
+import com.todo.backend.dto.booktitle.AvailabilityForecastDto;
 import com.todo.backend.dto.booktitle.BookTitleDto;
 import com.todo.backend.dto.booktitle.ResponseBookTitleDto;
 import com.todo.backend.dto.review.ResponseReviewDto;
@@ -24,17 +25,26 @@ public class BookTitleService {
     private final ReservationRepository reservationRepository;
     private final BookTitleMapper bookTitleMapper;
     private final ReviewMapper reviewMapper;
+    private final StatisticsRollupService statisticsRollupService;
+    private final HoldQueueService holdQueueService;
+    private final AvailabilityForecastService availabilityForecastService;
 
     public BookTitleService(BookTitleRepository bookTitleRepository,
                             BookCopyRepository bookCopyRepository,
                             ReservationRepository reservationRepository,
                             BookTitleMapper bookTitleMapper,
-                            ReviewMapper reviewMapper) {
+                            ReviewMapper reviewMapper,
+                            StatisticsRollupService statisticsRollupService,
+                            HoldQueueService holdQueueService,
+                            AvailabilityForecastService availabilityForecastService) {
         this.bookTitleRepository = bookTitleRepository;
         this.bookCopyRepository = bookCopyRepository;
         this.reservationRepository = reservationRepository;
         this.bookTitleMapper = bookTitleMapper;
         this.reviewMapper = reviewMapper;
+        this.statisticsRollupService = statisticsRollupService;
+        this.holdQueueService = holdQueueService;
+        this.availabilityForecastService = availabilityForecastService;
     }
 
     public List<ResponseBookTitleDto> getAllBookTitles() {
@@ -145,7 +155,10 @@ public class BookTitleService {
         responseBookTitleDto.setTotalCopies(totalCopies);
         responseBookTitleDto.setAvailableCopies(availableForOnlineReservation); // For UI display of reservation availability
         responseBookTitleDto.setOnlineReservations(onlineReservations);
-        responseBookTitleDto.setMaxOnlineReservations(maxOnlineReservations);        // Set user-specific information (only for authenticated users with USER role)
+        responseBookTitleDto.setMaxOnlineReservations(maxOnlineReservations);
+        responseBookTitleDto.setEstimatedAvailableDate(getAvailabilityForecast(bookTitle).getEstimatedAvailableDate());
+
+        // Set user-specific information (only for authenticated users with USER role)
         if (currentUserId != null && isUserRole) {
             List<Reservation> userResForBook = reservationRepository
                     .findActiveReservationsByUserIdAndBookTitleId(currentUserId, id, today);
@@ -162,6 +175,18 @@ public class BookTitleService {
         return responseBookTitleDto;
     }
 
+    public AvailabilityForecastDto getAvailabilityForecast(String id) {
+        BookTitle bookTitle = bookTitleRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Book title ID does not exist"));
+        return getAvailabilityForecast(bookTitle);
+    }
+
+    // Reservations holding an online slot and the hold queue are served before a new patron
+    private AvailabilityForecastDto getAvailabilityForecast(BookTitle bookTitle) {
+        int claimsAhead = bookTitle.getReservedOnline() + holdQueueService.getQueueLength(bookTitle.getId());
+        return availabilityForecastService.forecast(bookTitle.getId(), claimsAhead);
+    }
+
     public ResponseBookTitleDto createBookTitle(BookTitleDto bookTitleDto) {
         if (bookTitleDto.getAuthorIds().size() != bookTitleDto.getAuthorIds().stream().distinct().count()) {
             throw new RuntimeException("Duplicate author IDs found in the request");
@@ -269,6 +294,9 @@ public class BookTitleService {
         }
 
         bookTitleRepository.delete(existingBookTitle);
+        for (BookCopy bookCopy : bookCopies) {
+            statisticsRollupService.recordConditionChange(bookCopy.getCondition(), null);
+        }
     }
 
     /**
@@ -292,6 +320,7 @@ public class BookTitleService {
             // Let the database auto-generate the actual ID, but we could add a displayId field if needed
 
             bookCopyRepository.save(bookCopy);
+            statisticsRollupService.recordConditionChange(null, BookCopyCondition.NEW);
         }
     }
 
@@ -319,6 +348,9 @@ public class BookTitleService {
                     .toList();
 
             bookCopyRepository.deleteAll(availableCopies);
+            for (BookCopy bookCopy : availableCopies) {
+                statisticsRollupService.recordConditionChange(bookCopy.getCondition(), null);
+            }
         }
     }
 
@@ -329,12 +361,9 @@ public class BookTitleService {
         BookTitle bookTitle = bookTitleRepository.findById(bookTitleId)
                 .orElseThrow(() -> new IllegalArgumentException("BookTitle not found"));
 
-        // Check if there are available slots for online reservations
+        // Check if there are available slots for online reservations, counted as createReservation claims them
         LocalDate today = LocalDate.now();
-        List<Reservation> activeReservations = reservationRepository.findActiveReservationsByBookTitleId(bookTitleId, today);
-        int currentOnlineReservations = activeReservations.size();
-
-        if (currentOnlineReservations >= bookTitle.getMaxOnlineReservations()) {
+        if (bookTitle.getReservedOnline() >= bookTitle.getMaxOnlineReservations()) {
             return false; // No more online reservation slots available
         }
 
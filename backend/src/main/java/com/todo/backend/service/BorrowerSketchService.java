@@ -0,0 +1,222 @@
+package com.todo.backend.service;
+
+import com.todo.backend.dao.BorrowerSketchRepository;
+import com.todo.backend.dao.CategoryRepository;
+import com.todo.backend.dao.StatisticsRepository;
+import com.todo.backend.dto.statistics.BorrowerCountGranularity;
+import com.todo.backend.dto.statistics.DistinctBorrowerCountDto;
+import com.todo.backend.dto.statistics.DistinctBorrowersDto;
+import com.todo.backend.entity.BorrowerSketch;
+import com.todo.backend.entity.compositekey.BorrowerSketchPrimaryKey;
+import com.todo.backend.utils.sketch.HyperLogLog;
+import jakarta.transaction.Transactional;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Distinct borrower counts from per day HyperLogLog sketches (BORROWER_SKETCH), one over all titles
+ * and one per category. Any range is answered by merging its days, within the error documented on
+ * {@link HyperLogLog}; exact mode counts the transactions instead, for audits.
+ */
+@Service
+@Transactional
+public class BorrowerSketchService {
+    private static final int MAX_KNOWN_ROWS = 4096;
+
+    private final BorrowerSketchRepository borrowerSketchRepository;
+    private final CategoryRepository categoryRepository;
+    private final StatisticsRepository statisticsRepository;
+    private final TransactionTemplate rowCreator;
+
+    // Keys whose sketch row is known to exist
+    private final Set<BorrowerSketchPrimaryKey> knownRows = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+    public BorrowerSketchService(BorrowerSketchRepository borrowerSketchRepository,
+                                 CategoryRepository categoryRepository,
+                                 StatisticsRepository statisticsRepository,
+                                 PlatformTransactionManager transactionManager) {
+        this.borrowerSketchRepository = borrowerSketchRepository;
+        this.categoryRepository = categoryRepository;
+        this.statisticsRepository = statisticsRepository;
+        this.rowCreator = new TransactionTemplate(transactionManager);
+        this.rowCreator.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Adds the borrower to the day's sketch and to the day's sketch of each category of the title.
+     * Called at the end of a checkout, after the statistics rollups; sketches are locked all categories
+     * first, then by category ID, so two checkouts never wait on each other in opposite order.
+     */
+    public void recordBorrower(LocalDate borrowDate, String userId, String bookTitleId) {
+        long hash = HyperLogLog.hash(userId);
+        offer(BorrowerSketch.ALL_CATEGORIES, borrowDate, hash);
+        for (String categoryId : categoryRepository.findIdsByBookTitleId(bookTitleId)) {
+            offer(categoryId, borrowDate, hash);
+        }
+    }
+
+    public DistinctBorrowersDto getDistinctBorrowers(LocalDate from, LocalDate to, BorrowerCountGranularity granularity,
+                                                     String categoryId, boolean exact) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+
+        List<DistinctBorrowerCountDto> periods = new ArrayList<>();
+        long total;
+        if (exact) {
+            Map<LocalDate, Set<String>> borrowers = new HashMap<>();
+            Set<String> all = new HashSet<>();
+            for (boolean archive : new boolean[]{false, true}) {
+                for (Object[] row : statisticsRepository.getDailyBorrowers(archive, from, to, categoryId)) {
+                    String userId = (String) row[1];
+                    borrowers.computeIfAbsent(periodStart((LocalDate) row[0], granularity), p -> new HashSet<>()).add(userId);
+                    all.add(userId);
+                }
+            }
+            forEachPeriod(from, to, granularity, (start, end) -> periods.add(new DistinctBorrowerCountDto(
+                    start, end, borrowers.getOrDefault(periodStart(start, granularity), Set.of()).size())));
+            total = all.size();
+        } else {
+            Map<LocalDate, HyperLogLog> sketches = new HashMap<>();
+            HyperLogLog all = new HyperLogLog();
+            String sketchCategory = categoryId != null ? categoryId : BorrowerSketch.ALL_CATEGORIES;
+            for (Object[] row : borrowerSketchRepository.findRegistersBetween(sketchCategory, from, to)) {
+                HyperLogLog day = HyperLogLog.fromBytes((byte[]) row[1]);
+                sketches.computeIfAbsent(periodStart((LocalDate) row[0], granularity), p -> new HyperLogLog()).merge(day);
+                all.merge(day);
+            }
+            forEachPeriod(from, to, granularity, (start, end) -> {
+                HyperLogLog sketch = sketches.get(periodStart(start, granularity));
+                periods.add(new DistinctBorrowerCountDto(start, end, sketch != null ? sketch.estimate() : 0));
+            });
+            total = all.estimate();
+        }
+
+        return DistinctBorrowersDto.builder()
+                .categoryId(categoryId)
+                .granularity(granularity)
+                .periods(periods)
+                .total(total)
+                .exact(exact)
+                .relativeStandardError(exact ? 0 : HyperLogLog.RELATIVE_STANDARD_ERROR)
+                .build();
+    }
+
+    /**
+     * Recomputes every sketch from both transaction tiers; run with the statistics rollup rebuild
+     */
+    public int rebuild() {
+        Map<String, List<String>> categoriesByTitle = new HashMap<>();
+        for (Object[] row : statisticsRepository.getTitleCategoryIds()) {
+            categoriesByTitle.computeIfAbsent((String) row[0], id -> new ArrayList<>()).add((String) row[1]);
+        }
+
+        Map<BorrowerSketchPrimaryKey, HyperLogLog> sketches = new HashMap<>();
+        for (boolean archive : new boolean[]{true, false}) {
+            try (Stream<Object[]> rows = statisticsRepository.streamBorrowers(archive)) {
+                rows.forEach(row -> {
+                    LocalDate day = (LocalDate) row[0];
+                    long hash = HyperLogLog.hash((String) row[1]);
+                    sketches.computeIfAbsent(new BorrowerSketchPrimaryKey(BorrowerSketch.ALL_CATEGORIES, day),
+                            k -> new HyperLogLog()).offerHash(hash);
+                    for (String categoryId : categoriesByTitle.getOrDefault((String) row[2], List.of())) {
+                        sketches.computeIfAbsent(new BorrowerSketchPrimaryKey(categoryId, day),
+                                k -> new HyperLogLog()).offerHash(hash);
+                    }
+                });
+            }
+        }
+
+        List<BorrowerSketch> rows = new ArrayList<>(sketches.size());
+        sketches.forEach((key, sketch) -> {
+            BorrowerSketch row = new BorrowerSketch(key.getCategoryId(), key.getStatDate());
+            row.setRegisters(sketch.toBytes());
+            rows.add(row);
+        });
+
+        borrowerSketchRepository.deleteAllInBatch();
+        knownRows.clear();
+        borrowerSketchRepository.saveAll(rows);
+        return rows.size();
+    }
+
+    private void offer(String categoryId, LocalDate day, long hash) {
+        var key = new BorrowerSketchPrimaryKey(categoryId, day);
+        ensureRow(key);
+
+        // Registers only grow, so when the unlocked read already holds the rank the locked row does too.
+        // Repeat borrowers and saturated registers skip the lock and the write, the common case once a day warms up
+        byte[] registers = borrowerSketchRepository.findRegisters(categoryId, day).orElse(null);
+        if (registers != null && !HyperLogLog.wouldChange(registers, hash)) {
+            return;
+        }
+
+        BorrowerSketch sketch = borrowerSketchRepository.findForUpdate(categoryId, day)
+                .orElseThrow(() -> new RuntimeException("Borrower sketch row missing: " + categoryId + " " + day));
+        HyperLogLog registersNow = HyperLogLog.fromBytes(sketch.getRegisters());
+        if (registersNow.offerHash(hash)) {
+            sketch.setRegisters(registersNow.toBytes());
+            borrowerSketchRepository.save(sketch);
+        }
+    }
+
+    /**
+     * Creates a missing empty sketch in its own short transaction, same as the statistics rollup rows
+     */
+    private void ensureRow(BorrowerSketchPrimaryKey key) {
+        if (knownRows.contains(key)) {
+            return;
+        }
+        try {
+            rowCreator.executeWithoutResult(status -> {
+                if (!borrowerSketchRepository.existsById(key)) {
+                    borrowerSketchRepository.saveAndFlush(new BorrowerSketch(key.getCategoryId(), key.getStatDate()));
+                }
+            });
+        }
+        catch (DataIntegrityViolationException e) {
+            // Another checkout created it first
+        }
+        if (knownRows.size() >= MAX_KNOWN_ROWS) {
+            knownRows.clear();
+        }
+        knownRows.add(key);
+    }
+
+    private static LocalDate periodStart(LocalDate day, BorrowerCountGranularity granularity) {
+        return switch (granularity) {
+            case DAY -> day;
+            case WEEK -> day.with(DayOfWeek.MONDAY);
+            case MONTH -> day.withDayOfMonth(1);
+            case YEAR -> day.withDayOfYear(1);
+        };
+    }
+
+    // Periods covering [from, to), the first and last clipped to the range
+    private static void forEachPeriod(LocalDate from, LocalDate to, BorrowerCountGranularity granularity,
+                                      BiConsumer<LocalDate, LocalDate> action) {
+        LocalDate start = from;
+        while (start.isBefore(to)) {
+            LocalDate periodStart = periodStart(start, granularity);
+            LocalDate next = switch (granularity) {
+                case DAY -> periodStart.plusDays(1);
+                case WEEK -> periodStart.plusWeeks(1);
+                case MONTH -> periodStart.plusMonths(1);
+                case YEAR -> periodStart.plusYears(1);
+            };
+            LocalDate end = next.isBefore(to) ? next : to;
+            action.accept(start, end);
+            start = end;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.todo.backend.service;
+
+import com.todo.backend.dao.BookCopyRepository;
+import com.todo.backend.dto.bookcopy.CurrentLoanConsistencyDto;
+import com.todo.backend.scheduler.jobs.CurrentLoanBackfillJob;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.quartz.*;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Maintains BOOK_COPY.CURRENT_TRANSACTION_ID for rows written before the pointer existed,
+ * or left out of sync by manual edits. Checkout and return keep it current otherwise.
+ * The backfill works in chunks of copies, one transaction each, so it stays bounded on a large legacy table.
+ */
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class CurrentLoanService {
+    private static final String MAINTENANCE_GROUP = "maintenanceGroup";
+    private static final String CURRENT_LOAN_BACKFILL_JOB = "currentLoanBackfillJob";
+    private static final String CURRENT_LOAN_BACKFILL_TRIGGER = "currentLoanBackfillTrigger";
+
+    private final BookCopyRepository bookCopyRepository;
+    private final Scheduler scheduler;
+
+    @Value("${library.current-loan.backfill.chunk-size:1000}")
+    private int chunkSize;
+
+    /**
+     * Pointers set by one chunk of the backfill, and the last copy it looked at (null once none is left)
+     */
+    public record FillChunk(int filledPointers, String lastBookCopyId) {
+    }
+
+    /**
+     * Drops pointers to returned or foreign transactions, the backfill then picks those copies up as missing
+     */
+    public int clearStalePointers() {
+        List<String> staleIds = bookCopyRepository.findBookCopyIdsWithStaleCurrentLoan();
+        return staleIds.isEmpty() ? 0 : bookCopyRepository.clearCurrentTransactionIds(staleIds);
+    }
+
+    /**
+     * Points the next chunk of copies without a pointer, after the given copy ID, at their latest open transaction.
+     * Each chunk is its own transaction; start with an empty ID and continue after the returned one.
+     */
+    public FillChunk fillMissingChunk(String afterBookCopyId) {
+        List<Object[]> rows = bookCopyRepository.findLatestOpenLoansMissingPointer(afterBookCopyId, PageRequest.of(0, chunkSize));
+        if (rows.isEmpty()) {
+            return new FillChunk(0, null);
+        }
+
+        int filled = 0;
+        String previousBookCopyId = null;
+        for (Object[] row : rows) {
+            String bookCopyId = (String) row[0];
+            // Same tie-break the old correlated subquery used: latest borrow date wins, then the highest ID
+            if (!bookCopyId.equals(previousBookCopyId)) {
+                filled += bookCopyRepository.setCurrentTransactionId(bookCopyId, (String) row[1]);
+                previousBookCopyId = bookCopyId;
+            }
+        }
+        return new FillChunk(filled, previousBookCopyId);
+    }
+
+    public CurrentLoanConsistencyDto checkConsistency() {
+        List<String> staleIds = bookCopyRepository.findBookCopyIdsWithStaleCurrentLoan();
+        List<String> missingIds = bookCopyRepository.findBookCopyIdsMissingCurrentLoan();
+
+        return CurrentLoanConsistencyDto.builder()
+                .checkedAt(LocalDateTime.now())
+                .consistent(staleIds.isEmpty() && missingIds.isEmpty())
+                .staleBookCopyIds(staleIds)
+                .missingBookCopyIds(missingIds)
+                .build();
+    }
+
+    public void scheduleBackfill() {
+        JobDetail jobDetail = JobBuilder.newJob(CurrentLoanBackfillJob.class)
+                .withIdentity(CURRENT_LOAN_BACKFILL_JOB, MAINTENANCE_GROUP)
+                .build();
+
+        Trigger trigger = TriggerBuilder.newTrigger()
+                .withIdentity(CURRENT_LOAN_BACKFILL_TRIGGER, MAINTENANCE_GROUP)
+                .startNow()
+                .forJob(jobDetail)
+                .build();
+
+        try {
+            if (scheduler.checkExists(jobDetail.getKey())) {
+                throw new RuntimeException("Current loan backfill is already running");
+            }
+            scheduler.scheduleJob(jobDetail, trigger);
+        }
+        catch (SchedulerException e) {
+            throw new RuntimeException("Failed to schedule current loan backfill job: ", e);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.todo.backend.service;
+
+import com.todo.backend.dao.ReservationRepository;
+import com.todo.backend.dao.TransactionRepository;
+import com.todo.backend.utils.timer.TimingWheel;
+import com.todo.backend.utils.timer.TimingWheel.Timeout;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static com.todo.backend.utils.transaction.TransactionHooks.afterCommit;
+
+/**
+ * Pending reservation expiries and loan due dates, held in two in-memory timing wheels instead of a
+ * database row or Quartz trigger each. The wheels are rebuilt from RESERVATION and TRANSACTION at startup,
+ * and the services schedule and cancel deadlines once their transaction commits.
+ * <p>
+ * A reservation expires and a loan falls due at the start of the day after its date. The database stays
+ * the source of truth: DeadlineDispatcher checks every fired deadline against it, and the hourly
+ * reservation sweep catches anything a wheel missed.
+ */
+@Service
+@Slf4j
+public class DeadlineService {
+    private final ReservationRepository reservationRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate readOnly;
+
+    private final TimingWheel<String> reservationExpiries;
+    private final TimingWheel<String> loanDueDates;
+    // By ID, to cancel or move a pending deadline
+    private final Map<String, Timeout<String>> reservationTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timeout<String>> loanTimers = new ConcurrentHashMap<>();
+
+    public DeadlineService(ReservationRepository reservationRepository,
+                           TransactionRepository transactionRepository,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${library.deadlines.tick-ms:1000}") long tickMillis) {
+        this.reservationRepository = reservationRepository;
+        this.transactionRepository = transactionRepository;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        long now = System.currentTimeMillis();
+        this.reservationExpiries = new TimingWheel<>(tickMillis, now);
+        this.loanDueDates = new TimingWheel<>(tickMillis, now);
+    }
+
+    public record FiredDeadlines(List<String> reservationIds, List<String> transactionIds) {
+        public boolean isEmpty() {
+            return reservationIds.isEmpty() && transactionIds.isEmpty();
+        }
+    }
+
+    public void scheduleReservationExpiry(String reservationId, LocalDate expirationDate) {
+        afterCommit(() -> schedule(reservationExpiries, reservationTimers, reservationId, expirationDate));
+    }
+
+    public void cancelReservationExpiry(String reservationId) {
+        afterCommit(() -> cancel(reservationExpiries, reservationTimers, reservationId));
+    }
+
+    public void scheduleLoanDue(String transactionId, LocalDate dueDate) {
+        afterCommit(() -> schedule(loanDueDates, loanTimers, transactionId, dueDate));
+    }
+
+    public void cancelLoanDue(String transactionId) {
+        afterCommit(() -> cancel(loanDueDates, loanTimers, transactionId));
+    }
+
+    /**
+     * Schedules every reservation not expired yet and every open loan not due yet; run once at startup
+     * @return number of pending deadlines afterwards
+     */
+    public int rebuild() {
+        LocalDate today = LocalDate.now();
+        readOnly.executeWithoutResult(status -> {
+            try (Stream<Object[]> rows = reservationRepository.streamActiveExpirationDates(today)) {
+                rows.forEach(row -> schedule(reservationExpiries, reservationTimers, (String) row[0], (LocalDate) row[1]));
+            }
+            try (Stream<Object[]> rows = transactionRepository.streamOpenDueDates(today)) {
+                rows.forEach(row -> schedule(loanDueDates, loanTimers, (String) row[0], (LocalDate) row[1]));
+            }
+        });
+        return reservationExpiries.size() + loanDueDates.size();
+    }
+
+    /**
+     * Moves both wheels up to nowMillis; run by DeadlineDispatcher every tick
+     */
+    public FiredDeadlines advance(long nowMillis) {
+        return new FiredDeadlines(
+                fire(reservationExpiries, reservationTimers, nowMillis),
+                fire(loanDueDates, loanTimers, nowMillis));
+    }
+
+    public int getPendingReservationExpiries() {
+        return reservationExpiries.size();
+    }
+
+    public int getPendingLoanDueDates() {
+        return loanDueDates.size();
+    }
+
+    private static void schedule(TimingWheel<String> wheel, Map<String, Timeout<String>> timers, String id, LocalDate date) {
+        if (date.isBefore(LocalDate.now())) {
+            // Already past, left to the sweep and the overdue refresh
+            cancel(wheel, timers, id);
+            return;
+        }
+        long deadline = date.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        Timeout<String> previous = timers.put(id, wheel.schedule(deadline, id));
+        if (previous != null) {
+            wheel.cancel(previous);
+        }
+    }
+
+    private static void cancel(TimingWheel<String> wheel, Map<String, Timeout<String>> timers, String id) {
+        Timeout<String> timeout = timers.remove(id);
+        if (timeout != null) {
+            wheel.cancel(timeout);
+        }
+    }
+
+    private static List<String> fire(TimingWheel<String> wheel, Map<String, Timeout<String>> timers, long nowMillis) {
+        List<Timeout<String>> fired = wheel.advance(nowMillis);
+        List<String> ids = new ArrayList<>(fired.size());
+        for (Timeout<String> timeout : fired) {
+            // Keeps a deadline rescheduled meanwhile
+            timers.remove(timeout.payload(), timeout);
+            ids.add(timeout.payload());
+        }
+        return ids;
+    }
+}
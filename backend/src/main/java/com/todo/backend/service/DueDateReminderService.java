@@ -0,0 +1,137 @@
+package com.todo.backend.service;
+
+import com.todo.backend.dao.LoanReminderRepository;
+import com.todo.backend.dto.reminder.ReminderSourceRowDto;
+import com.todo.backend.entity.BatchCheckpoint;
+import com.todo.backend.entity.LoanReminder;
+import com.todo.backend.entity.ReminderKind;
+import com.todo.backend.utils.reminders.ReminderTemplate;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Steps of the daily due-date reminder scan. Open loans falling due within the horizon or already overdue
+ * are read in keyset chunks by due date, each chunk's new reminders rendered together and written to
+ * LOAN_REMINDER with the partition's checkpoint in one transaction, so memory stays bounded by the chunk
+ * size and a restarted run continues after the last committed key. Sending is left to ReminderDispatchService.
+ */
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class DueDateReminderService {
+    public static final String JOB_NAME = "dueDateReminder";
+
+    // Before any due date, so a partition's first chunk starts at the beginning of the index
+    private static final LocalDate SCAN_START = LocalDate.of(1900, 1, 1);
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private static final ReminderTemplate DUE_SOON_SUBJECT = ReminderTemplate.compile("Sắp đến hạn trả sách: {title}");
+    private static final ReminderTemplate DUE_SOON_BODY = ReminderTemplate.compile(
+            "Xin chào {name},\nSách \"{title}\" bạn đang mượn sẽ đến hạn trả vào ngày {dueDate} (còn {days} ngày). "
+                    + "Vui lòng trả sách đúng hạn để tránh phí trễ hạn.");
+    private static final ReminderTemplate OVERDUE_SUBJECT = ReminderTemplate.compile("Quá hạn trả sách: {title}");
+    private static final ReminderTemplate OVERDUE_BODY = ReminderTemplate.compile(
+            "Xin chào {name},\nSách \"{title}\" bạn đang mượn đã quá hạn trả từ ngày {dueDate} ({days} ngày). "
+                    + "Phí trễ hạn được tính cho đến khi bạn trả sách.");
+
+    private final LoanReminderRepository loanReminderRepository;
+    private final PartitionedCheckpointService partitionedCheckpointService;
+
+    @Value("${library.reminders.days-before:2}")
+    private int daysBefore;
+
+    @Value("${library.reminders.chunk-size:1000}")
+    private int chunkSize;
+
+    /**
+     * Writes the reminders of the next chunk of the hash partition after its checkpoint, skipping the ones
+     * written by an earlier run and loans whose borrower has no email or phone
+     * @return true if there may be more rows to process
+     */
+    public boolean processNextChunk(LocalDate asOf, int partition, int partitions) {
+        BatchCheckpoint checkpoint = partitionedCheckpointService.getPartition(JOB_NAME, partition);
+
+        LocalDate afterDueDate = SCAN_START;
+        String afterId = "";
+        if (checkpoint.getLastKey() != null) {
+            int separator = checkpoint.getLastKey().indexOf('|');
+            afterDueDate = LocalDate.parse(checkpoint.getLastKey().substring(0, separator));
+            afterId = checkpoint.getLastKey().substring(separator + 1);
+        }
+
+        List<ReminderSourceRowDto> rows = loanReminderRepository.findReminderChunk(
+                asOf.plusDays(daysBefore), afterDueDate, afterId, partition, partitions, PageRequest.of(0, chunkSize));
+        if (rows.isEmpty()) {
+            return false;
+        }
+
+        Map<String, ReminderSourceRowDto> unsent = new LinkedHashMap<>();
+        for (ReminderSourceRowDto row : rows) {
+            if (recipientOf(row) != null) {
+                unsent.put(LoanReminder.key(row.getTransactionId(), kindOf(row.getDueDate(), asOf), row.getDueDate()), row);
+            }
+        }
+        if (!unsent.isEmpty()) {
+            loanReminderRepository.findExistingKeys(List.copyOf(unsent.keySet())).forEach(unsent::remove);
+            loanReminderRepository.saveAll(render(unsent, asOf));
+        }
+
+        ReminderSourceRowDto last = rows.getLast();
+        partitionedCheckpointService.advancePartition(checkpoint, last.getDueDate() + "|" + last.getTransactionId(), rows.size());
+
+        return rows.size() == chunkSize;
+    }
+
+    public BatchCheckpoint getStatus() {
+        return partitionedCheckpointService.getStatus(JOB_NAME);
+    }
+
+    private static List<LoanReminder> render(Map<String, ReminderSourceRowDto> rowsByKey, LocalDate asOf) {
+        LocalDateTime now = LocalDateTime.now();
+        // One builder and one value map for the whole chunk
+        StringBuilder builder = new StringBuilder(256);
+        Map<String, String> values = new HashMap<>();
+        List<LoanReminder> reminders = new ArrayList<>(rowsByKey.size());
+        for (Map.Entry<String, ReminderSourceRowDto> entry : rowsByKey.entrySet()) {
+            ReminderSourceRowDto row = entry.getValue();
+            ReminderKind kind = kindOf(row.getDueDate(), asOf);
+            values.put("name", row.getUserName() == null ? "" : row.getUserName());
+            values.put("title", row.getBookTitle());
+            values.put("dueDate", row.getDueDate().format(DATE_FORMAT));
+            values.put("days", String.valueOf(Math.abs(ChronoUnit.DAYS.between(asOf, row.getDueDate()))));
+
+            LoanReminder reminder = new LoanReminder();
+            reminder.setReminderKey(entry.getKey());
+            reminder.setTransactionId(row.getTransactionId());
+            reminder.setUserId(row.getUserId());
+            reminder.setKind(kind);
+            reminder.setDueDate(row.getDueDate());
+            reminder.setRecipient(recipientOf(row));
+            reminder.setSubject((kind == ReminderKind.OVERDUE ? OVERDUE_SUBJECT : DUE_SOON_SUBJECT).render(values, builder));
+            reminder.setBody((kind == ReminderKind.OVERDUE ? OVERDUE_BODY : DUE_SOON_BODY).render(values, builder));
+            reminder.setCreatedAt(now);
+            reminders.add(reminder);
+        }
+        return reminders;
+    }
+
+    private static ReminderKind kindOf(LocalDate dueDate, LocalDate asOf) {
+        return dueDate.isBefore(asOf) ? ReminderKind.OVERDUE : ReminderKind.DUE_SOON;
+    }
+
+    private static String recipientOf(ReminderSourceRowDto row) {
+        if (row.getEmail() != null && !row.getEmail().isBlank()) {
+            return row.getEmail();
+        }
+        return row.getPhone() != null && !row.getPhone().isBlank() ? row.getPhone() : null;
+    }
+}
@@ -0,0 +1,241 @@
+package com.todo.backend.service;
+
+import com.todo.backend.dao.BookTitleRepository;
+import com.todo.backend.dao.HoldRequestRepository;
+import com.todo.backend.dao.ReservationRepository;
+import com.todo.backend.dto.hold.HoldPositionDto;
+import com.todo.backend.entity.BookCopy;
+import com.todo.backend.entity.BookCopyStatus;
+import com.todo.backend.entity.BookTitle;
+import com.todo.backend.entity.HoldRequest;
+import com.todo.backend.entity.Reservation;
+import com.todo.backend.entity.Transaction;
+import com.todo.backend.utils.cache.ReloadingCache;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import static com.todo.backend.utils.transaction.TransactionHooks.afterCommit;
+
+/**
+ * Per-title FIFO waitlist for titles whose online reservation slots are all taken. HOLD_REQUEST is the
+ * source of truth; for positions and estimates each title's queue is loaded into a priority queue, kept in
+ * step with this node's commits and reloaded once older than {@code library.holds.queue-reload-seconds},
+ * which bounds how long holds changed on other nodes take to show up.
+ * <p>
+ * A returned copy goes to the head of its title's queue, read from HOLD_REQUEST inside the return's
+ * transaction so holds joined on any node keep their turn: the hold row is deleted as the claim, so two
+ * concurrent returns never serve the same patron, and a reservation with the copy assigned is created for them.
+ */
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class HoldQueueService {
+    // Holds read per query by the claim, most claims serve the first one
+    private static final int CLAIM_BATCH_SIZE = 8;
+
+    private final HoldRequestRepository holdRequestRepository;
+    private final BookTitleRepository bookTitleRepository;
+    private final ReservationRepository reservationRepository;
+    private final LiveStatisticsService liveStatisticsService;
+    private final DeadlineService deadlineService;
+
+    @Value("${library.holds.queue-reload-seconds:60}")
+    private long queueReloadSeconds;
+
+    private final ReloadingCache<String, TitleQueue> queues = new ReloadingCache<>(this::loadQueue,
+            () -> TimeUnit.SECONDS.toNanos(queueReloadSeconds));
+
+    private record Hold(String id, String userId, LocalDateTime requestedAt) {
+        static final Comparator<Hold> FIFO = Comparator.comparing(Hold::requestedAt).thenComparing(Hold::id);
+
+        static Hold of(HoldRequest holdRequest) {
+            return new Hold(holdRequest.getId(), holdRequest.getUserId(), holdRequest.getRequestedAt());
+        }
+    }
+
+    // Position lookups walk the heap while commits change it, so every access holds the instance's lock
+    private static final class TitleQueue {
+        private final PriorityQueue<Hold> holds = new PriorityQueue<>(Hold.FIFO);
+        private final Map<String, Hold> byUserId = new HashMap<>();
+        private final int totalCopies;
+
+        TitleQueue(int totalCopies) {
+            this.totalCopies = totalCopies;
+        }
+
+        synchronized void add(Hold hold) {
+            // Idempotent, the loading read may already have seen a hold whose commit is being applied
+            if (byUserId.putIfAbsent(hold.userId(), hold) == null) {
+                holds.add(hold);
+            }
+        }
+
+        synchronized void remove(String userId) {
+            Hold hold = byUserId.remove(userId);
+            if (hold != null) {
+                holds.remove(hold);
+            }
+        }
+
+        synchronized int size() {
+            return holds.size();
+        }
+
+        synchronized Optional<Integer> positionOf(String userId) {
+            Hold hold = byUserId.get(userId);
+            if (hold == null) {
+                return Optional.empty();
+            }
+            int ahead = 0;
+            for (Hold other : holds) {
+                if (Hold.FIFO.compare(other, hold) < 0) {
+                    ahead++;
+                }
+            }
+            return Optional.of(ahead + 1);
+        }
+    }
+
+    public HoldPositionDto joinQueue(String userId, String bookTitleId) {
+        BookTitle bookTitle = bookTitleRepository.findById(bookTitleId)
+                .orElseThrow(() -> new RuntimeException("Book title not found"));
+        if (!bookTitle.isCanBorrow()) {
+            throw new RuntimeException("This book title cannot be reserved");
+        }
+        if (bookTitle.getReservedOnline() < bookTitle.getMaxOnlineReservations()) {
+            throw new RuntimeException("Online reservation slots are still available for this book, reserve it instead");
+        }
+        if (hasActiveReservation(userId, bookTitleId, LocalDate.now())) {
+            throw new RuntimeException("User has already reserved this book");
+        }
+        if (holdRequestRepository.findByUserIdAndBookTitleId(userId, bookTitleId).isPresent()) {
+            throw new RuntimeException("User is already in the queue for this book");
+        }
+        // Loaded before the insert, which would otherwise be flushed into the loading read
+        TitleQueue queue = queues.get(bookTitleId);
+
+        HoldRequest holdRequest = new HoldRequest();
+        holdRequest.setUserId(userId);
+        holdRequest.setBookTitleId(bookTitleId);
+        holdRequest.setRequestedAt(LocalDateTime.now());
+        holdRequestRepository.save(holdRequest);
+
+        Hold hold = Hold.of(holdRequest);
+        afterCommit(() -> queues.ifLoaded(bookTitleId, loaded -> loaded.add(hold)));
+
+        // Everyone queued so far is ahead, this hold is not in memory until the commit
+        int position = queue.size() + 1;
+        return toPositionDto(bookTitleId, queue, position, position);
+    }
+
+    public void leaveQueue(String userId, String bookTitleId) {
+        HoldRequest holdRequest = holdRequestRepository.findByUserIdAndBookTitleId(userId, bookTitleId)
+                .orElseThrow(() -> new RuntimeException("User is not in the queue for this book"));
+        holdRequestRepository.delete(holdRequest);
+        afterCommit(() -> queues.ifLoaded(bookTitleId, queue -> queue.remove(userId)));
+    }
+
+    /**
+     * Position of the user in the title's queue and a rough date a copy comes back for them, from memory
+     */
+    public HoldPositionDto getPosition(String userId, String bookTitleId) {
+        TitleQueue queue = queues.get(bookTitleId);
+        int position = queue.positionOf(userId)
+                .orElseThrow(() -> new RuntimeException("User is not in the queue for this book"));
+        return toPositionDto(bookTitleId, queue, position, queue.size());
+    }
+
+    /**
+     * Number of patrons waiting for the title, from memory
+     */
+    public int getQueueLength(String bookTitleId) {
+        return queues.get(bookTitleId).size();
+    }
+
+    /**
+     * Gives a copy back on the shelf to the first patron in its title's queue: a returned copy, or one that was
+     * held for a reservation which expired, was cancelled or was picked up with another copy. Patrons who
+     * reserved the title meanwhile lose their hold and are skipped.
+     * @return the reservation made for the patron, empty when nobody is waiting
+     */
+    public Optional<Reservation> claimReturnedCopy(BookCopy bookCopy, LocalDate today) {
+        String bookTitleId = bookCopy.getBookTitleId();
+        List<HoldRequest> holds = holdRequestRepository.findQueueHead(bookTitleId, PageRequest.of(0, CLAIM_BATCH_SIZE));
+        while (!holds.isEmpty()) {
+            for (HoldRequest hold : holds) {
+                Optional<Reservation> reservation = claim(hold, bookCopy, today);
+                if (reservation.isPresent()) {
+                    return reservation;
+                }
+            }
+            if (holds.size() < CLAIM_BATCH_SIZE) {
+                break;
+            }
+            HoldRequest last = holds.get(holds.size() - 1);
+            holds = holdRequestRepository.findQueueAfter(bookTitleId, last.getRequestedAt(), last.getId(),
+                    PageRequest.of(0, CLAIM_BATCH_SIZE));
+        }
+        return Optional.empty();
+    }
+
+    // Patrons whose hold went to a concurrent return or who reserved the title meanwhile are skipped
+    private Optional<Reservation> claim(HoldRequest hold, BookCopy bookCopy, LocalDate today) {
+        String bookTitleId = hold.getBookTitleId();
+        if (holdRequestRepository.deleteClaimed(hold.getId()) == 0) {
+            return Optional.empty();
+        }
+        afterCommit(() -> queues.ifLoaded(bookTitleId, queue -> queue.remove(hold.getUserId())));
+        if (hasActiveReservation(hold.getUserId(), bookTitleId, today)) {
+            return Optional.empty();
+        }
+
+        // No deposit is taken, the holder did not ask for this moment and pays the full price at pickup;
+        // it also keeps the holder's USER row out of the returner's transaction
+        Reservation reservation = new Reservation();
+        reservation.setUserId(hold.getUserId());
+        reservation.setBookTitleId(bookTitleId);
+        reservation.setBookCopyId(bookCopy.getId());
+        reservation.setReservationDate(today);
+        reservation.setExpirationDate(today.plusWeeks(1));
+        reservation.setDeposit(0);
+        reservationRepository.save(reservation);
+        bookCopy.setStatus(BookCopyStatus.RESERVED);
+
+        // BOOK_TITLE last, as in createReservation
+        bookTitleRepository.addOnlineReservationSlot(bookTitleId);
+        liveStatisticsService.recordReservations(1);
+        deadlineService.scheduleReservationExpiry(reservation.getId(), reservation.getExpirationDate());
+        return Optional.of(reservation);
+    }
+
+    private boolean hasActiveReservation(String userId, String bookTitleId, LocalDate today) {
+        return reservationRepository.findByUserIdAndBookTitleId(userId, bookTitleId).stream()
+                .anyMatch(reservation -> !reservation.getExpirationDate().isBefore(today));
+    }
+
+    // Each copy serves one patron per loan period, the queue is shared by all copies of the title
+    private static HoldPositionDto toPositionDto(String bookTitleId, TitleQueue queue, int position, int queueLength) {
+        int loanPeriods = Math.ceilDiv(position, Math.max(1, queue.totalCopies));
+        return HoldPositionDto.builder()
+                .bookTitleId(bookTitleId)
+                .position(position)
+                .queueLength(queueLength)
+                .estimatedAvailableDate(LocalDate.now().plusWeeks((long) Transaction.DEFAULT_LOAN_WEEKS * loanPeriods))
+                .build();
+    }
+
+    private TitleQueue loadQueue(String bookTitleId) {
+        int totalCopies = bookTitleRepository.findById(bookTitleId).map(BookTitle::getTotalCopies).orElse(0);
+        TitleQueue loaded = new TitleQueue(totalCopies);
+        holdRequestRepository.findByBookTitleIdOrderByRequestedAtAscIdAsc(bookTitleId).forEach(holdRequest -> loaded.add(Hold.of(holdRequest)));
+        return loaded;
+    }
+}
@@ -0,0 +1,97 @@
+package com.todo.backend.service;
+
+import com.todo.backend.dao.AccruedLateFeeRepository;
+import com.todo.backend.dto.latefee.AccrualSourceRowDto;
+import com.todo.backend.entity.AccruedLateFee;
+import com.todo.backend.entity.BatchCheckpoint;
+import com.todo.backend.scheduler.ScheduledJobsConfig;
+import com.todo.backend.utils.fees.LateFeePolicy;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Steps of the nightly late fee accrual. Each method runs in its own transaction, so a chunk's
+ * snapshots and its checkpoint commit together and memory stays bounded by the chunk size.
+ * The open loans are split into hash partitions swept by whichever node leases them, each with its own
+ * checkpoint kept by PartitionedCheckpointService under JOB_NAME.
+ */
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class LateFeeAccrualService {
+    public static final String JOB_NAME = "lateFeeAccrual";
+
+    private final AccruedLateFeeRepository accruedLateFeeRepository;
+    private final PartitionedCheckpointService partitionedCheckpointService;
+    private final Scheduler scheduler;
+
+    @Value("${library.late-fees.chunk-size:1000}")
+    private int chunkSize;
+
+    /**
+     * Accrues fees for the next chunk of the hash partition after its checkpoint
+     * @return true if there may be more rows to process
+     */
+    public boolean processNextChunk(LocalDate asOf, int partition, int partitions) {
+        BatchCheckpoint checkpoint = partitionedCheckpointService.getPartition(JOB_NAME, partition);
+
+        List<AccrualSourceRowDto> rows = accruedLateFeeRepository.findAccrualChunk(
+                asOf, checkpoint.getLastKey(), partition, partitions, PageRequest.of(0, chunkSize));
+        if (rows.isEmpty()) {
+            return false;
+        }
+
+        // One lookup per chunk, existing snapshots are updated and the rest inserted
+        Map<String, AccruedLateFee> existing = accruedLateFeeRepository
+                .findAllById(rows.stream().map(AccrualSourceRowDto::getTransactionId).toList()).stream()
+                .collect(Collectors.toMap(AccruedLateFee::getTransactionId, Function.identity()));
+
+        List<AccruedLateFee> snapshots = new ArrayList<>(rows.size());
+        for (AccrualSourceRowDto row : rows) {
+            AccruedLateFee snapshot = existing.getOrDefault(row.getTransactionId(), new AccruedLateFee(row.getTransactionId()));
+            snapshot.setDaysLate((int) LateFeePolicy.daysLate(row.getDueDate(), asOf));
+            snapshot.setAccruedFee(LateFeePolicy.cappedLateFee(row.getDueDate(), asOf, row.getBookPrice()));
+            snapshot.setAsOf(asOf);
+            snapshots.add(snapshot);
+        }
+        accruedLateFeeRepository.saveAll(snapshots);
+
+        partitionedCheckpointService.advancePartition(checkpoint, rows.getLast().getTransactionId(), rows.size());
+
+        return rows.size() == chunkSize;
+    }
+
+    /**
+     * Once every partition is done: drops snapshots the run did not refresh (returned or no longer overdue)
+     * and closes the run with the partitions' totals
+     */
+    public BatchCheckpoint complete(LocalDate asOf) {
+        accruedLateFeeRepository.deleteOlderThan(asOf);
+        return partitionedCheckpointService.complete(JOB_NAME, asOf);
+    }
+
+    public BatchCheckpoint getStatus() {
+        return partitionedCheckpointService.getStatus(JOB_NAME);
+    }
+
+    public void triggerRun() {
+        try {
+            scheduler.triggerJob(ScheduledJobsConfig.LATE_FEE_ACCRUAL_JOB);
+        }
+        catch (SchedulerException e) {
+            throw new RuntimeException("Failed to trigger late fee accrual job: ", e);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.todo.backend.service;
+
+import com.todo.backend.dao.BalanceTransactionRepository;
+import com.todo.backend.dao.LedgerSegmentRepository;
+import com.todo.backend.dto.balancetransaction.LedgerAuditDto;
+import com.todo.backend.dto.balancetransaction.LedgerSegmentDto;
+import com.todo.backend.entity.BalanceTransaction;
+import com.todo.backend.entity.BalanceTransactionType;
+import com.todo.backend.entity.LedgerSegment;
+import com.todo.backend.scheduler.ScheduledJobsConfig;
+import com.todo.backend.utils.ledger.LedgerSegmentReader;
+import com.todo.backend.utils.ledger.LedgerSegmentWriter;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * Cold tier of the balance ledger. Months older than the configured age are encoded into immutable
+ * segments (one per month) stored in LEDGER_SEGMENT, in the same transaction that purges them from
+ * balance_transactions, so every node sees either the hot rows or the segment. Each node decodes a
+ * segment once and keeps the reader.
+ */
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class LedgerColdStorageService {
+    private final BalanceTransactionRepository balanceTransactionRepository;
+    private final LedgerSegmentRepository ledgerSegmentRepository;
+    private final Scheduler scheduler;
+
+    @Value("${library.ledger.cold.min-age-months:12}")
+    private int minAgeMonths;
+
+    // Newest month first; segments never change once written, so a loaded reader stays valid
+    private final NavigableMap<YearMonth, LedgerSegmentReader> segments = new ConcurrentSkipListMap<>(Comparator.reverseOrder());
+
+    /**
+     * Months still in the hot table that are old enough to export, oldest first
+     */
+    public List<YearMonth> findExportableMonths() {
+        LocalDateTime oldest = balanceTransactionRepository.findOldestTimestamp();
+        if (oldest == null) {
+            return List.of();
+        }
+        YearMonth cutoff = YearMonth.now().minusMonths(minAgeMonths);
+        List<YearMonth> months = new ArrayList<>();
+        for (YearMonth month = YearMonth.from(oldest); month.isBefore(cutoff); month = month.plusMonths(1)) {
+            months.add(month);
+        }
+        return months;
+    }
+
+    /**
+     * Streams the month's rows into a segment, stores it and purges the rows, all in one transaction
+     * @return number of rows moved
+     */
+    public int exportMonth(YearMonth month) {
+        LocalDateTime start = month.atDay(1).atStartOfDay();
+        LocalDateTime end = month.plusMonths(1).atDay(1).atStartOfDay();
+        if (ledgerSegmentRepository.existsById(month.toString())) {
+            // The segment and the purge commit together, so rows left in an archived month arrived after it
+            throw new RuntimeException("Ledger segment " + month + " already exists but the month still has rows");
+        }
+
+        Optional<byte[]> content;
+        try (Stream<BalanceTransaction> rows = balanceTransactionRepository.streamAllInRange(start, end)) {
+            content = LedgerSegmentWriter.write(month, rows.iterator());
+        }
+        if (content.isEmpty()) {
+            return 0;
+        }
+        LedgerSegmentReader segment;
+        try {
+            segment = LedgerSegmentReader.open(content.get());
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to encode ledger segment " + month + ": " + e.getMessage(), e);
+        }
+        ledgerSegmentRepository.save(new LedgerSegment(month.toString(), segment.getRowCount(), segment.getSizeBytes(), content.get()));
+
+        // A row written into the month while it streamed would be purged without being in the segment
+        int purged = balanceTransactionRepository.deleteAllInRange(start, end);
+        if (purged != segment.getRowCount()) {
+            throw new RuntimeException("Ledger segment " + month + " has " + segment.getRowCount()
+                    + " rows but " + purged + " were purged");
+        }
+        return purged;
+    }
+
+    /**
+     * A user's archived ledger rows, newest first
+     */
+    public List<BalanceTransaction> findUserTransactions(String userId) {
+        List<BalanceTransaction> rows = new ArrayList<>();
+        for (LedgerSegmentReader segment : loadedSegments().values()) {
+            List<BalanceTransaction> monthRows = segment.readUser(userId);
+            for (int i = monthRows.size() - 1; i >= 0; i--) {
+                rows.add(monthRows.get(i));
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Per type totals over the segments of [from, to], for audits and yearly reports
+     */
+    public LedgerAuditDto audit(YearMonth from, YearMonth to) {
+        Map<BalanceTransactionType, Long> countByType = new EnumMap<>(BalanceTransactionType.class);
+        Map<BalanceTransactionType, Long> amountByType = new EnumMap<>(BalanceTransactionType.class);
+        long[] rowCount = {0};
+        for (LedgerSegmentReader segment : loadedSegments().subMap(to, true, from, true).values()) {
+            segment.scan(row -> {
+                countByType.merge(row.getType(), 1L, Long::sum);
+                amountByType.merge(row.getType(), (long) row.getAmount(), Long::sum);
+                rowCount[0]++;
+            });
+        }
+        return LedgerAuditDto.builder()
+                .from(from)
+                .to(to)
+                .rowCount(rowCount[0])
+                .countByType(countByType)
+                .amountByType(amountByType)
+                .build();
+    }
+
+    public List<LedgerSegmentDto> getSegments() {
+        return ledgerSegmentRepository.findAllSummaries().stream()
+                .map(row -> new LedgerSegmentDto(YearMonth.parse((String) row[0]), (Integer) row[1], (Long) row[2]))
+                .toList();
+    }
+
+    public void triggerExport() {
+        try {
+            scheduler.triggerJob(ScheduledJobsConfig.LEDGER_SEGMENT_EXPORT_JOB);
+        }
+        catch (SchedulerException e) {
+            throw new RuntimeException("Failed to trigger ledger segment export job: ", e);
+        }
+    }
+
+    // Months are listed on every read, so a segment another node exported is picked up right after its commit
+    private NavigableMap<YearMonth, LedgerSegmentReader> loadedSegments() {
+        for (String month : ledgerSegmentRepository.findAllMonths()) {
+            segments.computeIfAbsent(YearMonth.parse(month), this::loadSegment);
+        }
+        return segments;
+    }
+
+    private LedgerSegmentReader loadSegment(YearMonth month) {
+        byte[] content = ledgerSegmentRepository.findContent(month.toString())
+                .orElseThrow(() -> new RuntimeException("Ledger segment " + month + " not found"));
+        try {
+            return LedgerSegmentReader.open(content);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to load ledger segment " + month + ": " + e.getMessage(), e);
+        }
+    }
+}
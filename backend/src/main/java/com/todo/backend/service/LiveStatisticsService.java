@@ -0,0 +1,314 @@
+package com.todo.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todo.backend.dao.BalanceTransactionRepository;
+import com.todo.backend.dao.DailyStatsRepository;
+import com.todo.backend.dao.OverdueLoanRepository;
+import com.todo.backend.dao.ReservationRepository;
+import com.todo.backend.dto.live.LiveMetric;
+import com.todo.backend.dto.live.LiveStatisticsDto;
+import com.todo.backend.entity.BalanceTransactionType;
+import com.todo.backend.entity.DailyStats;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.todo.backend.utils.transaction.TransactionHooks.afterCommit;
+
+/**
+ * Pushes dashboard metrics to Server-Sent Events subscribers as they change.
+ * <p>
+ * The transaction, reservation, balance and overdue services report deltas once their transaction commits.
+ * Deltas add up in counters, and a single flusher thread drains them every interval into one "delta" event
+ * per subscriber, so a burst of checkouts is one update. Totals are read from the database only to seed
+ * them (first subscriber, a new day, every reseed interval), never per subscriber; a new tab gets the
+ * in-memory totals as a "snapshot" event. A command committing while the totals are read may be counted
+ * twice, an error that lasts until the next reseed.
+ */
+@Service
+@Slf4j
+public class LiveStatisticsService {
+    private static final long HEARTBEAT_NANOS = TimeUnit.SECONDS.toNanos(15);
+    private static final LiveMetric[] METRICS = LiveMetric.values();
+
+    private final DailyStatsRepository dailyStatsRepository;
+    private final OverdueLoanRepository overdueLoanRepository;
+    private final ReservationRepository reservationRepository;
+    private final BalanceTransactionRepository balanceTransactionRepository;
+    private final ObjectMapper objectMapper;
+    private final long intervalMillis;
+    private final long reseedNanos;
+    private final long emitterTimeoutMillis;
+    private final int maxSubscribers;
+
+    private final LongAdder[] pending = new LongAdder[METRICS.length];
+    private final List<SseEmitter> subscribers = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService flusher =
+            Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("live-statistics").daemon().factory());
+    private volatile boolean reseedRequested;
+    private volatile LiveStatisticsDto current;
+
+    // Only touched on the flusher thread
+    private long[] totals;
+    private LocalDate day;
+    private long seededAt;
+    private long lastSentAt;
+
+    public LiveStatisticsService(DailyStatsRepository dailyStatsRepository,
+                                 OverdueLoanRepository overdueLoanRepository,
+                                 ReservationRepository reservationRepository,
+                                 BalanceTransactionRepository balanceTransactionRepository,
+                                 ObjectMapper objectMapper,
+                                 @Value("${library.statistics.live.interval-ms:1000}") long intervalMillis,
+                                 @Value("${library.statistics.live.reseed-interval-ms:900000}") long reseedIntervalMillis,
+                                 @Value("${library.statistics.live.emitter-timeout-ms:1800000}") long emitterTimeoutMillis,
+                                 @Value("${library.statistics.live.max-subscribers:200}") int maxSubscribers) {
+        this.dailyStatsRepository = dailyStatsRepository;
+        this.overdueLoanRepository = overdueLoanRepository;
+        this.reservationRepository = reservationRepository;
+        this.balanceTransactionRepository = balanceTransactionRepository;
+        this.objectMapper = objectMapper;
+        this.intervalMillis = intervalMillis;
+        this.reseedNanos = TimeUnit.MILLISECONDS.toNanos(reseedIntervalMillis);
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+        this.maxSubscribers = maxSubscribers;
+        for (int i = 0; i < pending.length; i++) {
+            pending[i] = new LongAdder();
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        flusher.scheduleWithFixedDelay(this::flushSafely, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdownNow();
+        subscribers.forEach(SseEmitter::complete);
+    }
+
+    public void recordCheckout(int chargedPrice) {
+        afterCommit(() -> {
+            pending[LiveMetric.CHECKOUTS.ordinal()].increment();
+            pending[LiveMetric.REVENUE.ordinal()].add(chargedPrice);
+        });
+    }
+
+    public void recordReturn(int penaltyFee) {
+        afterCommit(() -> {
+            pending[LiveMetric.RETURNS.ordinal()].increment();
+            pending[LiveMetric.PENALTIES.ordinal()].add(penaltyFee);
+        });
+    }
+
+    public void recordOverdueResolved() {
+        afterCommit(() -> pending[LiveMetric.OVERDUE_LOANS.ordinal()].decrement());
+    }
+
+    public void recordOverdueAdded(int count) {
+        afterCommit(() -> pending[LiveMetric.OVERDUE_LOANS.ordinal()].add(count));
+    }
+
+    public void recordReservations(int delta) {
+        afterCommit(() -> pending[LiveMetric.ACTIVE_RESERVATIONS.ordinal()].add(delta));
+    }
+
+    public void recordBalance(BalanceTransactionType type, int amount) {
+        if (type == BalanceTransactionType.DEPOSIT) {
+            afterCommit(() -> pending[LiveMetric.BALANCE_DEPOSITS.ordinal()].add(amount));
+        }
+    }
+
+    /**
+     * Reload the totals from the database on the next flush, after a bulk change such as the nightly overdue refresh
+     */
+    public void requestReseed() {
+        afterCommit(() -> reseedRequested = true);
+    }
+
+    /**
+     * Subscribe to the live events; the snapshot is sent by the flusher right away
+     */
+    public SseEmitter subscribe() {
+        return subscribe(new SseEmitter(emitterTimeoutMillis));
+    }
+
+    public SseEmitter subscribe(SseEmitter emitter) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new RuntimeException("Too many live statistics subscribers");
+        }
+        subscribers.add(emitter);
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(() -> subscribers.remove(emitter));
+        emitter.onError(e -> subscribers.remove(emitter));
+
+        flusher.execute(() -> {
+            try {
+                if (ensureSeeded()) {
+                    // Reseeding broadcast the snapshot to everyone, this subscriber included
+                    return;
+                }
+                send(emitter, "snapshot", serialize(event(null)));
+            } catch (Exception e) {
+                log.warn("Failed to send live statistics snapshot", e);
+                emitter.completeWithError(e);
+            }
+        });
+        return emitter;
+    }
+
+    /**
+     * Latest totals as last sent to subscribers, null before the first subscriber
+     */
+    public LiveStatisticsDto getCurrent() {
+        return current;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Drains the deltas of the last interval into one event; run by the flusher thread
+     */
+    public void flush() {
+        if (subscribers.isEmpty()) {
+            // Nobody is watching, drop the deltas and reseed when someone is
+            drain();
+            totals = null;
+            return;
+        }
+        if (ensureSeeded()) {
+            return;
+        }
+
+        long[] deltas = drain();
+        boolean changed = false;
+        for (int i = 0; i < deltas.length; i++) {
+            totals[i] += deltas[i];
+            changed |= deltas[i] != 0;
+        }
+        if (changed) {
+            Map<LiveMetric, Long> deltaMap = new EnumMap<>(LiveMetric.class);
+            for (LiveMetric metric : METRICS) {
+                if (deltas[metric.ordinal()] != 0) {
+                    deltaMap.put(metric, deltas[metric.ordinal()]);
+                }
+            }
+            broadcast("delta", event(deltaMap));
+        } else if (System.nanoTime() - lastSentAt > HEARTBEAT_NANOS) {
+            // Keeps proxies from closing an idle stream and finds subscribers that went away
+            for (SseEmitter emitter : subscribers) {
+                try {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                } catch (IOException | IllegalStateException e) {
+                    subscribers.remove(emitter);
+                }
+            }
+            lastSentAt = System.nanoTime();
+        }
+    }
+
+    // Seeds the totals if they are missing, stale or from another day; returns whether it did
+    private boolean ensureSeeded() {
+        LocalDate today = LocalDate.now();
+        if (totals != null && today.equals(day) && !reseedRequested && System.nanoTime() - seededAt < reseedNanos) {
+            return false;
+        }
+        reseedRequested = false;
+        // What was drained is already in the rows read below. A command whose commit lands while the reads run
+        // can show up both in a row and in the next drain and is then counted twice until the next reseed;
+        // draining after the reads would drop it instead. The window is as long as the reads.
+        drain();
+
+        long[] seeded = new long[METRICS.length];
+        DailyStats stats = dailyStatsRepository.findById(today).orElseGet(() -> new DailyStats(today));
+        seeded[LiveMetric.CHECKOUTS.ordinal()] = stats.getBorrows();
+        seeded[LiveMetric.RETURNS.ordinal()] = stats.getReturns();
+        seeded[LiveMetric.REVENUE.ordinal()] = stats.getRevenue();
+        seeded[LiveMetric.PENALTIES.ordinal()] = stats.getPenalties();
+        seeded[LiveMetric.OVERDUE_LOANS.ordinal()] = overdueLoanRepository.count();
+        seeded[LiveMetric.ACTIVE_RESERVATIONS.ordinal()] = reservationRepository.count();
+        seeded[LiveMetric.BALANCE_DEPOSITS.ordinal()] = balanceTransactionRepository.sumAmountByTypeBetween(
+                BalanceTransactionType.DEPOSIT, today.atStartOfDay(), today.plusDays(1).atStartOfDay());
+
+        totals = seeded;
+        day = today;
+        seededAt = System.nanoTime();
+        broadcast("snapshot", event(null));
+        return true;
+    }
+
+    private long[] drain() {
+        long[] deltas = new long[METRICS.length];
+        for (int i = 0; i < pending.length; i++) {
+            deltas[i] = pending[i].sumThenReset();
+        }
+        return deltas;
+    }
+
+    private LiveStatisticsDto event(Map<LiveMetric, Long> deltas) {
+        Map<LiveMetric, Long> totalMap = new EnumMap<>(LiveMetric.class);
+        for (LiveMetric metric : METRICS) {
+            totalMap.put(metric, totals[metric.ordinal()]);
+        }
+        LiveStatisticsDto event = LiveStatisticsDto.builder()
+                .day(day)
+                .totals(totalMap)
+                .deltas(deltas)
+                .at(LocalDateTime.now())
+                .build();
+        current = event;
+        return event;
+    }
+
+    // Serialized once, every subscriber gets the same payload
+    private void broadcast(String name, LiveStatisticsDto event) {
+        String data = serialize(event);
+        for (SseEmitter emitter : subscribers) {
+            send(emitter, name, data);
+        }
+        lastSentAt = System.nanoTime();
+    }
+
+    private void send(SseEmitter emitter, String name, String data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data));
+        } catch (IOException | IllegalStateException e) {
+            // Client went away, the container completes the emitter
+            subscribers.remove(emitter);
+        }
+    }
+
+    private String serialize(LiveStatisticsDto event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize live statistics: ", e);
+        }
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (Exception e) {
+            // Keep the schedule alive, the next run reseeds
+            log.warn("Live statistics flush failed", e);
+            totals = null;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.todo.backend.service;
+
+import com.todo.backend.dao.BatchCheckpointRepository;
+import com.todo.backend.dao.OverdueLoanRepository;
+import com.todo.backend.dto.bookcopy.BookCopyWithDueInfoDto;
+import com.todo.backend.dto.overdue.OverdueLoanDto;
+import com.todo.backend.dto.overdue.OverdueSummaryDto;
+import com.todo.backend.entity.BatchCheckpoint;
+import com.todo.backend.entity.BatchRunStatus;
+import com.todo.backend.entity.OverdueBucket;
+import com.todo.backend.entity.OverdueLoan;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.stream.Stream;
+
+/**
+ * Serves the overdue views from the OVERDUE_LOAN snapshot instead of scanning open transactions.
+ * Loans only become overdue at a day boundary, so a snapshot taken today is exact for today;
+ * returns and due date changes remove rows as they happen. Reads never rebuild, they report the
+ * day the snapshot was materialized on; only the refresh job and the admin endpoint rebuild, one
+ * at a time across nodes through a lock on the job's BATCH_CHECKPOINT row.
+ */
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class OverdueService {
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int CSV_FLUSH_INTERVAL = 500;
+
+    public static final String JOB_NAME = "overdue-refresh";
+
+    private final OverdueLoanRepository overdueLoanRepository;
+    private final BatchCheckpointRepository batchCheckpointRepository;
+    private final LiveStatisticsService liveStatisticsService;
+
+    /**
+     * Rebuilds the snapshot, waiting for a rebuild running on another node to finish first
+     * @return overdue loans materialized
+     */
+    public int refresh() {
+        return rebuild(lockCheckpoint(), LocalDate.now());
+    }
+
+    /**
+     * Rebuilds the snapshot unless it was already materialized today, for the nightly and catch-up runs.
+     * A second caller waits on the checkpoint row and then finds today's snapshot committed.
+     * @return overdue loans materialized, empty when the snapshot was already current
+     */
+    public OptionalInt refreshIfStale() {
+        LocalDate today = LocalDate.now();
+        BatchCheckpoint checkpoint = lockCheckpoint();
+        if (today.equals(checkpoint.getRunDate()) && checkpoint.getStatus() == BatchRunStatus.COMPLETED) {
+            return OptionalInt.empty();
+        }
+        return OptionalInt.of(rebuild(checkpoint, today));
+    }
+
+    // Day of the snapshot being served, null before the first rebuild
+    public LocalDate getMaterializedOn() {
+        return batchCheckpointRepository.findById(JOB_NAME)
+                .filter(checkpoint -> checkpoint.getStatus() == BatchRunStatus.COMPLETED)
+                .map(BatchCheckpoint::getRunDate)
+                .orElse(null);
+    }
+
+    private int rebuild(BatchCheckpoint checkpoint, LocalDate today) {
+        List<OverdueLoan> overdueLoans = overdueLoanRepository.findOverdueSource(today);
+        for (OverdueLoan overdueLoan : overdueLoans) {
+            overdueLoan.setBucket(OverdueBucket.of(ChronoUnit.DAYS.between(overdueLoan.getDueDate(), today)));
+            overdueLoan.setMaterializedOn(today);
+        }
+
+        overdueLoanRepository.deleteAllLoans();
+        overdueLoanRepository.saveAll(overdueLoans);
+        liveStatisticsService.requestReseed();
+
+        checkpoint.setRunDate(today);
+        checkpoint.setProcessed(overdueLoans.size());
+        checkpoint.setStatus(BatchRunStatus.COMPLETED);
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        batchCheckpointRepository.save(checkpoint);
+
+        return overdueLoans.size();
+    }
+
+    private BatchCheckpoint lockCheckpoint() {
+        return batchCheckpointRepository.findForUpdate(JOB_NAME).orElseGet(() -> {
+            // First rebuild ever, a node racing this insert fails on the primary key and retries on its next run
+            BatchCheckpoint checkpoint = new BatchCheckpoint();
+            checkpoint.setJobName(JOB_NAME);
+            checkpoint.setStatus(BatchRunStatus.RUNNING);
+            checkpoint.setUpdatedAt(LocalDateTime.now());
+            return batchCheckpointRepository.saveAndFlush(checkpoint);
+        });
+    }
+
+    public Page<OverdueLoanDto> getOverdueLoans(OverdueBucket bucket, String userId, String bookTitleId, int page, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        return overdueLoanRepository.findPage(bucket, userId, bookTitleId, PageRequest.of(Math.max(page, 0), pageSize));
+    }
+
+    public OverdueSummaryDto getSummary() {
+        Map<OverdueBucket, Long> byBucket = new EnumMap<>(OverdueBucket.class);
+        for (OverdueBucket bucket : OverdueBucket.values()) {
+            byBucket.put(bucket, 0L);
+        }
+        for (Object[] row : overdueLoanRepository.countByBucket()) {
+            byBucket.put((OverdueBucket) row[0], (Long) row[1]);
+        }
+
+        return OverdueSummaryDto.builder()
+                .total(byBucket.values().stream().mapToLong(Long::longValue).sum())
+                .byBucket(byBucket)
+                .materializedOn(getMaterializedOn())
+                .build();
+    }
+
+    public long countOverdue() {
+        return overdueLoanRepository.count();
+    }
+
+    public List<BookCopyWithDueInfoDto> getOverdueBookCopies() {
+        return overdueLoanRepository.findOverdueBookCopies();
+    }
+
+    public void exportCsv(OverdueBucket bucket, Writer writer) throws IOException {
+        writer.write("transactionId,bookCopyId,bookTitle,userId,userName,userCccd,borrowDate,dueDate,daysLate,bucket\n");
+
+        try (Stream<OverdueLoanDto> rows = overdueLoanRepository.streamByBucket(bucket)) {
+            int written = 0;
+            for (OverdueLoanDto row : (Iterable<OverdueLoanDto>) rows::iterator) {
+                writer.write(String.join(",",
+                        csv(row.getTransactionId()),
+                        csv(row.getBookCopyId()),
+                        csv(row.getBookTitle()),
+                        csv(row.getUserId()),
+                        csv(row.getUserName()),
+                        csv(row.getUserCccd()),
+                        csv(row.getBorrowDate()),
+                        csv(row.getDueDate()),
+                        csv(row.getDaysLate()),
+                        csv(row.getBucket())));
+                writer.write('\n');
+
+                if (++written % CSV_FLUSH_INTERVAL == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+    }
+
+    /**
+     * Adds loans that fell due after the snapshot was built, skipping those already in it.
+     * Two nodes adding the same loan make the later commit fail on the primary key; a retry skips it.
+     * @return loans added
+     */
+    public int addLoans(Collection<String> transactionIds) {
+        LocalDate today = LocalDate.now();
+        List<OverdueLoan> overdueLoans = overdueLoanRepository.findMissingOverdueSource(transactionIds, today);
+        for (OverdueLoan overdueLoan : overdueLoans) {
+            overdueLoan.setBucket(OverdueBucket.of(ChronoUnit.DAYS.between(overdueLoan.getDueDate(), today)));
+            overdueLoan.setMaterializedOn(today);
+        }
+        overdueLoanRepository.saveAllAndFlush(overdueLoans);
+        liveStatisticsService.recordOverdueAdded(overdueLoans.size());
+        return overdueLoans.size();
+    }
+
+    // Called on return or due date change, the loan may no longer be overdue
+    public void removeLoan(String transactionId) {
+        if (overdueLoanRepository.deleteByTransactionId(transactionId) > 0) {
+            liveStatisticsService.recordOverdueResolved();
+        }
+    }
+
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.contains(",") || text.contains("\"") || text.contains("\n")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+}
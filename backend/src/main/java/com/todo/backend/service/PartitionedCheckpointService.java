@@ -0,0 +1,99 @@
+package com.todo.backend.service;
+
+import com.todo.backend.dao.BatchCheckpointRepository;
+import com.todo.backend.entity.BatchCheckpoint;
+import com.todo.backend.entity.BatchRunStatus;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * BATCH_CHECKPOINT lifecycle of a sweep split into hash partitions (see SweepWorker). The run's checkpoint
+ * under the job name holds the totals; each partition keeps its own under partitionJobName, advanced in
+ * the transaction of the chunk it covers, so a restarted partition continues after its last committed key.
+ */
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class PartitionedCheckpointService {
+    private final BatchCheckpointRepository batchCheckpointRepository;
+
+    /**
+     * Resumes today's unfinished run, otherwise starts a new one; the partitions keep their own checkpoints
+     */
+    public BatchCheckpoint begin(String jobName, LocalDate asOf) {
+        return beginCheckpoint(jobName, asOf);
+    }
+
+    /**
+     * Resumes the partition's unfinished run of today after its last committed key, otherwise starts it over
+     */
+    public BatchCheckpoint beginPartition(String jobName, LocalDate asOf, int partition) {
+        return beginCheckpoint(partitionJobName(jobName, partition), asOf);
+    }
+
+    public static String partitionJobName(String jobName, int partition) {
+        return jobName + "#" + partition;
+    }
+
+    public BatchCheckpoint getPartition(String jobName, int partition) {
+        return batchCheckpointRepository.findById(partitionJobName(jobName, partition))
+                .orElseThrow(() -> new RuntimeException("Partition " + partition + " of " + jobName + " has not been started"));
+    }
+
+    /**
+     * Moves the partition past a processed chunk, in the chunk's transaction
+     */
+    public void advancePartition(BatchCheckpoint checkpoint, String lastKey, int processed) {
+        checkpoint.setLastKey(lastKey);
+        checkpoint.setProcessed(checkpoint.getProcessed() + processed);
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        batchCheckpointRepository.save(checkpoint);
+    }
+
+    public void completePartition(String jobName, int partition) {
+        BatchCheckpoint checkpoint = getPartition(jobName, partition);
+        checkpoint.setStatus(BatchRunStatus.COMPLETED);
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        batchCheckpointRepository.save(checkpoint);
+    }
+
+    /**
+     * Once every partition is done: closes the run with the partitions' totals
+     */
+    public BatchCheckpoint complete(String jobName, LocalDate asOf) {
+        BatchCheckpoint checkpoint = batchCheckpointRepository.findById(jobName)
+                .orElseThrow(() -> new RuntimeException(jobName + " has not been started"));
+        checkpoint.setProcessed(batchCheckpointRepository.findByJobNameStartingWithAndRunDate(jobName + "#", asOf).stream()
+                .mapToLong(BatchCheckpoint::getProcessed)
+                .sum());
+        checkpoint.setStatus(BatchRunStatus.COMPLETED);
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        return batchCheckpointRepository.save(checkpoint);
+    }
+
+    public BatchCheckpoint getStatus(String jobName) {
+        return batchCheckpointRepository.findById(jobName).orElse(null);
+    }
+
+    private BatchCheckpoint beginCheckpoint(String jobName, LocalDate asOf) {
+        BatchCheckpoint checkpoint = batchCheckpointRepository.findById(jobName).orElseGet(() -> {
+            BatchCheckpoint created = new BatchCheckpoint();
+            created.setJobName(jobName);
+            return created;
+        });
+
+        boolean resuming = checkpoint.getStatus() == BatchRunStatus.RUNNING && asOf.equals(checkpoint.getRunDate());
+        if (!resuming) {
+            checkpoint.setRunDate(asOf);
+            checkpoint.setLastKey(null);
+            checkpoint.setProcessed(0);
+            checkpoint.setStatus(BatchRunStatus.RUNNING);
+        }
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        return batchCheckpointRepository.save(checkpoint);
+    }
+}
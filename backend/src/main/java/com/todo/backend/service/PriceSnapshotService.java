@@ -0,0 +1,65 @@
+package com.todo.backend.service;
+
+import com.todo.backend.dao.TransactionRepository;
+import com.todo.backend.scheduler.jobs.PriceSnapshotBackfillJob;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.quartz.*;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Fills TRANSACTION.CHARGED_PRICE on rows written before checkout started recording it.
+ * Each chunk commits on its own, so the backfill can be stopped and rerun at any point.
+ */
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class PriceSnapshotService {
+    private static final String MAINTENANCE_GROUP = "maintenanceGroup";
+    private static final String PRICE_SNAPSHOT_BACKFILL_JOB = "priceSnapshotBackfillJob";
+    private static final String PRICE_SNAPSHOT_BACKFILL_TRIGGER = "priceSnapshotBackfillTrigger";
+
+    private final TransactionRepository transactionRepository;
+    private final Scheduler scheduler;
+
+    @Value("${library.transactions.price-snapshot.chunk-size:1000}")
+    private int chunkSize;
+
+    /**
+     * @return number of transactions filled, 0 once every row has a snapshot
+     */
+    public int backfillChunk() {
+        List<String> ids = transactionRepository.findIdsMissingChargedPrice(PageRequest.of(0, chunkSize));
+        return ids.isEmpty() ? 0 : transactionRepository.fillChargedPrice(ids);
+    }
+
+    public long countMissing() {
+        return transactionRepository.countMissingChargedPrice();
+    }
+
+    public void scheduleBackfill() {
+        JobDetail jobDetail = JobBuilder.newJob(PriceSnapshotBackfillJob.class)
+                .withIdentity(PRICE_SNAPSHOT_BACKFILL_JOB, MAINTENANCE_GROUP)
+                .build();
+
+        Trigger trigger = TriggerBuilder.newTrigger()
+                .withIdentity(PRICE_SNAPSHOT_BACKFILL_TRIGGER, MAINTENANCE_GROUP)
+                .startNow()
+                .forJob(jobDetail)
+                .build();
+
+        try {
+            if (scheduler.checkExists(jobDetail.getKey())) {
+                throw new RuntimeException("Price snapshot backfill is already running");
+            }
+            scheduler.scheduleJob(jobDetail, trigger);
+        }
+        catch (SchedulerException e) {
+            throw new RuntimeException("Failed to schedule price snapshot backfill job: ", e);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.todo.backend.service;
+
+import com.todo.backend.dao.LoanReminderRepository;
+import com.todo.backend.entity.LoanReminder;
+import com.todo.backend.scheduler.ScheduledJobsConfig;
+import com.todo.backend.service.reminder.ReminderSender;
+import com.todo.backend.utils.concurrency.RateLimiter;
+import lombok.extern.slf4j.Slf4j;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Sends the reminders written by the due-date reminder scan through the configured ReminderSender, oldest
+ * first and no faster than the configured rate on each node. The dispatch job fires on every node unless
+ * the scheduler is clustered, so a batch first claims its reminders in a short transaction: the claim is a
+ * conditional update, only one batch gets a reminder, and a claim runs out after a while in case its node
+ * dies. Sending happens outside any transaction, each sent reminder is marked in its own update, a failed
+ * send counts an attempt and ends the batch, and reminders out of attempts stay in LOAN_REMINDER unsent.
+ * A node dying between a send and its mark sends that reminder again once the claim runs out.
+ */
+@Slf4j
+@Service
+public class ReminderDispatchService {
+    private final LoanReminderRepository loanReminderRepository;
+    private final ReminderSender reminderSender;
+    private final Scheduler scheduler;
+    private final TransactionTemplate transactions;
+    private final RateLimiter rateLimiter;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration claimDuration;
+
+    public ReminderDispatchService(LoanReminderRepository loanReminderRepository,
+                                   ReminderSender reminderSender,
+                                   Scheduler scheduler,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${library.reminders.rate-per-second:20}") double ratePerSecond,
+                                   @Value("${library.reminders.burst:20}") int burst,
+                                   @Value("${library.reminders.dispatch-batch-size:100}") int batchSize,
+                                   @Value("${library.reminders.max-attempts:5}") int maxAttempts,
+                                   @Value("${library.reminders.claim-seconds:300}") long claimSeconds) {
+        this.loanReminderRepository = loanReminderRepository;
+        this.reminderSender = reminderSender;
+        this.scheduler = scheduler;
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.rateLimiter = new RateLimiter(ratePerSecond, burst);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.claimDuration = Duration.ofSeconds(claimSeconds);
+    }
+
+    /**
+     * Claims and sends the next batch of pending reminders
+     * @return true if there may be more to send right away
+     */
+    public boolean dispatchNextBatch() {
+        String claimToken = UUID.randomUUID().toString();
+        Claim claim = transactions.execute(status -> claim(claimToken));
+        if (claim.reminders().isEmpty()) {
+            // Whatever another batch claimed first is skipped by the next read
+            return claim.candidates() == batchSize;
+        }
+        try {
+            for (LoanReminder reminder : claim.reminders()) {
+                try {
+                    rateLimiter.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+                try {
+                    reminderSender.send(reminder);
+                } catch (RuntimeException e) {
+                    // The sender is likely down, the rest of the batch waits for the next dispatch
+                    transactions.executeWithoutResult(status ->
+                            loanReminderRepository.recordFailedAttempt(reminder.getReminderKey(), claimToken));
+                    log.warn("Failed to send reminder {} (attempt {})", reminder.getReminderKey(), reminder.getAttempts() + 1, e);
+                    return false;
+                }
+                int marked = transactions.execute(status ->
+                        loanReminderRepository.markSent(reminder.getReminderKey(), claimToken, LocalDateTime.now()));
+                if (marked == 0) {
+                    log.warn("Claim on reminder {} ran out before it was marked sent", reminder.getReminderKey());
+                }
+            }
+            return claim.candidates() == batchSize;
+        } finally {
+            transactions.executeWithoutResult(status -> loanReminderRepository.releaseClaims(claimToken));
+        }
+    }
+
+    // The reminders a batch won, and how many it tried for
+    private record Claim(int candidates, List<LoanReminder> reminders) {
+    }
+
+    private Claim claim(String claimToken) {
+        LocalDateTime now = LocalDateTime.now();
+        List<String> keys = loanReminderRepository.findClaimableKeys(maxAttempts, now, PageRequest.of(0, batchSize));
+        if (keys.isEmpty()) {
+            return new Claim(0, List.of());
+        }
+        loanReminderRepository.claim(keys, claimToken, now, now.plus(claimDuration));
+        return new Claim(keys.size(), loanReminderRepository.findClaimed(claimToken));
+    }
+
+    public long countPending() {
+        return loanReminderRepository.countBySentAtIsNull();
+    }
+
+    public void triggerRun() {
+        try {
+            scheduler.triggerJob(ScheduledJobsConfig.REMINDER_DISPATCH_JOB);
+        }
+        catch (SchedulerException e) {
+            throw new RuntimeException("Failed to trigger reminder dispatch job: ", e);
+        }
+    }
+}
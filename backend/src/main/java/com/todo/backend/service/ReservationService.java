@@ -2,42 +2,46 @@ package com.todo.backend.service;
 
 import com.todo.backend.dao.BookCopyRepository;
 import com.todo.backend.dao.BookTitleRepository;
+import com.todo.backend.dao.ReservationQueryRepository;
 import com.todo.backend.dao.ReservationRepository;
 import com.todo.backend.dao.UserRepository;
-import com.todo.backend.dto.reservation.CreateReservationDto;
-import com.todo.backend.dto.reservation.ResponseReservationDto;
-import com.todo.backend.dto.reservation.UpdateReservationDto;
+import com.todo.backend.dto.reservation.*;
 import com.todo.backend.entity.*;
 import com.todo.backend.entity.identity.UserRole;
 import com.todo.backend.mapper.ReservationMapper;
-import com.todo.backend.scheduler.jobs.ReservationExpiryJob;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
-import org.quartz.*;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.support.TransactionSynchronization;
-import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
-import java.time.ZoneId;
-import java.util.Date;
-import java.util.List;
+import java.time.format.DateTimeParseException;
+import java.util.*;
 
 @Service
 @Transactional
 @RequiredArgsConstructor
 public class ReservationService {
-    private final String RESERVATION_GROUP = "reservationGroup";
-    private final String RESERVATION_EXPIRY_JOB_PREFIX = "reservationExpiryJob_";
-    private final String RESERVATION_EXPIRY_TRIGGER_PREFIX = "reservationExpiryTrigger_";
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
 
     private final ReservationRepository reservationRepository;
     private final BookCopyRepository bookCopyRepository;
     private final BookTitleRepository bookTitleRepository;
     private final UserRepository userRepository;
     private final ReservationMapper reservationMapper;
-    private final Scheduler scheduler;
+    private final BalanceTransactionService balanceTransactionService;
+    private final LiveStatisticsService liveStatisticsService;
+    private final DeadlineService deadlineService;
+    private final BookCopyClaimService bookCopyClaimService;
+    private final HoldQueueService holdQueueService;
+    private final ReservationQueryRepository reservationQueryRepository;
+
+    @Value("${library.reservations.expiry.batch-size:500}")
+    private int expiryBatchSize;
 
     public ResponseReservationDto getReservation(String id, String userId) {
         Reservation reservation = reservationRepository.findById(id)
@@ -73,41 +77,133 @@ public class ReservationService {
     }
 
     public List<ResponseReservationDto> getAllReservations() {
-        List<Reservation> reservations = reservationRepository.findAll();
-        return reservations.stream()
-                .map(this::enhanceReservationDto)
-                .toList();
+        return toResponseDtos(reservationQueryRepository.findRows(null, null, null, null, null, 0));
     }
 
     public List<ResponseReservationDto> getReservationsByUserId(String userId) {
-        List<Reservation> reservations = reservationRepository.findByUserId(userId);
-        return reservations.stream()
-                .map(this::enhanceReservationDto)
+        return toResponseDtos(reservationQueryRepository.findRows(userId, null, null, null, null, 0));
+    }
+
+    /**
+     * Filtered keyset page of reservations, newest reservation date first
+     */
+    public ReservationPageDto getReservationPage(ReservationPageQuery pageQuery) {
+        int size = pageQuery.getSize() <= 0 ? DEFAULT_PAGE_SIZE : Math.min(pageQuery.getSize(), MAX_PAGE_SIZE);
+
+        LocalDate cursorReservationDate = null;
+        String cursorId = null;
+        if (pageQuery.getCursor() != null && !pageQuery.getCursor().isBlank()) {
+            String[] cursor = decodeCursor(pageQuery.getCursor());
+            cursorReservationDate = LocalDate.parse(cursor[0]);
+            cursorId = cursor[1];
+        }
+
+        // Fetch one extra row to know whether there is a next page
+        List<ReservationRowDto> rows = reservationQueryRepository.findRows(
+                pageQuery.getUserId(),
+                pageQuery.getBookTitleId(),
+                pageQuery.getStatus(),
+                cursorReservationDate,
+                cursorId,
+                size + 1
+        );
+
+        boolean hasMore = rows.size() > size;
+        if (hasMore) {
+            rows = rows.subList(0, size);
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            ReservationRowDto last = rows.getLast();
+            nextCursor = encodeCursor(last.getReservationDate(), last.getId());
+        }
+
+        return ReservationPageDto.builder()
+                .items(toResponseDtos(rows))
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    // Author names of all titles in the rows are loaded with one query
+    private List<ResponseReservationDto> toResponseDtos(List<ReservationRowDto> rows) {
+        Set<String> bookTitleIds = new HashSet<>();
+        rows.forEach(row -> bookTitleIds.add(row.getBookTitleId()));
+        Map<String, List<String>> authorNames = reservationQueryRepository.findAuthorNamesByBookTitleIds(bookTitleIds);
+
+        return rows.stream()
+                .map(row -> ResponseReservationDto.builder()
+                        .id(row.getId())
+                        .reservationDate(row.getReservationDate())
+                        .expirationDate(row.getExpirationDate())
+                        .deposit(row.getDeposit())
+                        .bookTitleId(row.getBookTitleId())
+                        .bookCopyId(row.getBookCopyId())
+                        .userId(row.getUserId())
+                        .userName(row.getUserName())
+                        .bookTitle(row.getBookTitle())
+                        .bookImageUrl(row.getBookImageUrl())
+                        .bookAuthors(authorNames.getOrDefault(row.getBookTitleId(), List.of()))
+                        .build())
                 .toList();
     }
 
+    private String encodeCursor(LocalDate reservationDate, String id) {
+        String raw = reservationDate + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException();
+            }
+            LocalDate.parse(parts[0]);
+            return parts;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new RuntimeException("Invalid reservation page cursor");
+        }
+    }
+
+    /**
+     * Owner of the reservation, used to route mutations onto the owner's command lane
+     */
+    public String getReservationOwnerId(String id) {
+        return reservationRepository.findById(id)
+                .map(Reservation::getUserId)
+                .orElseThrow(() -> new RuntimeException("Reservation not found"));
+    }
+
     public ResponseReservationDto createReservation(String userId, CreateReservationDto createReservationDto) {
         LocalDate today = LocalDate.now();
 
         Reservation reservation = reservationMapper.toEntity(createReservationDto);
         reservation.setUserId(userId);
 
-        validateReservationRules(reservation);
-
-        // Check if a user exists
-        User user = userRepository.findById(userId).orElseThrow(() -> new RuntimeException("User not found"));        // Check if a user has enough balances to reserve
         BookTitle bookTitle = bookTitleRepository.findById(createReservationDto.getBookTitleId())
                 .orElseThrow(() -> new RuntimeException("Book title not found"));
-        int depositAmount = bookTitle.getPrice() / 10; // 10% of book price as deposit
-        
-        if (user.getBalance() < depositAmount) {
-            throw new RuntimeException("User does not have enough balance to reserve. Required deposit: " + 
-                String.format("%,d", depositAmount) + " VND");
+        if (!bookTitle.isCanBorrow()) {
+            throw new RuntimeException("This book title cannot be reserved");
         }
+        int depositAmount = bookTitle.getPrice() / 10; // 10% of book price as deposit
+
+        // Deduct the deposit from the user's balance, fails without writing if the balance doesn't cover it.
+        // The update also locks the user's row until commit, so the same user's reservations are created
+        // one at a time and the per-user rules below see each other's rows. A missing user fails here too,
+        // so the user row is never loaded as an entity
+        int balanceAfter = balanceTransactionService.tryDebitBalance(userId, depositAmount)
+                .orElseThrow(() -> new RuntimeException("User does not have enough balance to reserve. Required deposit: " +
+                        String.format("%,d", depositAmount) + " VND"));
 
-        // Deduct the deposit from the user's balance
-        user.setBalance(user.getBalance() - depositAmount);
-        userRepository.save(user);
+        validateReservationRules(reservation, today);
+
+        // Take an online slot last, so the title's row stays locked only for the insert and the commit
+        if (bookTitleRepository.claimOnlineReservationSlot(bookTitle.getId()) == 0) {
+            throw new RuntimeException("No more online reservation slots available for this book");
+        }
 
         // In the hybrid system, we don't reserve specific copies during online reservation
         // BookCopy will be assigned when the user comes to pick up the book
@@ -117,15 +213,10 @@ public class ReservationService {
         reservation.setDeposit(depositAmount); // Set the calculated deposit
 
         reservationRepository.save(reservation);
-
-        // Only create the job if the transaction is committed successfully
-        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
-            @Override
-            public void afterCommit() {
-                TransactionSynchronization.super.afterCommit();
-                createExpiryJob(reservation);
-            }
-        });
+        balanceTransactionService.logTransaction(userId, BalanceTransactionType.RESERVATION_DEPOSIT, -depositAmount,
+                "Đặt cọc đặt trước: " + bookTitle.getTitle(), balanceAfter);
+        liveStatisticsService.recordReservations(1);
+        deadlineService.scheduleReservationExpiry(reservation.getId(), reservation.getExpirationDate());
 
         return reservationMapper.toResponseDto(reservation);
     }
@@ -174,77 +265,110 @@ public class ReservationService {
 
         // Check if reservation is expired (expired reservations are auto-cleaned, but if user tries to delete, allow it)
         LocalDate today = LocalDate.now();
+        Optional<BookCopy> releasedCopy = Optional.empty();
         if (existingReservation.getExpirationDate().isAfter(today) || existingReservation.getExpirationDate().isEqual(today)) {
             // Reservation is still active, cancel it and refund deposit
-            cancelReservation(existingReservation);
+            releasedCopy = cancelReservation(existingReservation);
         }
 
         reservationRepository.delete(existingReservation);
+        bookTitleRepository.releaseOnlineReservationSlots(existingReservation.getBookTitleId(), 1);
+        liveStatisticsService.recordReservations(-1);
+        deadlineService.cancelReservationExpiry(id);
+
+        // The copy that was held goes to the first patron waiting for the title, once this slot is free
+        releasedCopy.ifPresent(bookCopy -> holdQueueService.claimReturnedCopy(bookCopy, today));
     }
 
-    public void cleanupExpiredReservation(String id) {
-        Reservation existingReservation = reservationRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Reservation not found"));
+    /**
+     * Expires one batch of reservations past their expiration date, oldest first, in a single database transaction:
+     * refunds the deposits with one balance update per user, frees assigned copies and deletes the rows.
+     * Only reservations of users in the given hash partition are taken, so nodes sweeping different partitions
+     * never lock the same USER rows. Run by ReservationExpirySweep until it returns 0, so a backlog after
+     * downtime is cleared in one run.
+     * @return number of reservations expired
+     */
+    public int expireBatch(LocalDate today, int partition, int partitions) {
+        return expire(reservationRepository.findExpiredIdsAndUserIdsInPartition(
+                today, partition, partitions, PageRequest.of(0, expiryBatchSize)), today);
+    }
 
-        LocalDate today = LocalDate.now();
-        if (existingReservation.getExpirationDate().isBefore(today)) {
-            // Reservation is expired, clean it up
-            cancelReservation(existingReservation);
-            reservationRepository.delete(existingReservation);
-        }
+    /**
+     * Expires the given reservations, skipping those that are gone or not expired yet; used when their
+     * deadline fires, see DeadlineDispatcher
+     * @return number of reservations expired
+     */
+    public int expireReservations(List<String> ids, LocalDate today) {
+        return expire(reservationRepository.findExpiredIdsAndUserIdsByIdIn(ids, today), today);
     }
 
-    private void createExpiryJob(Reservation reservation) {
-        JobDetail jobDetail = JobBuilder.newJob(ReservationExpiryJob.class)
-                .withIdentity(RESERVATION_EXPIRY_JOB_PREFIX + reservation.getId(), RESERVATION_GROUP)
-                .usingJobData("reservationId", reservation.getId())
-                .usingJobData("retryCount", 0)
-                .build();
+    // candidates are [id, userId] rows
+    private int expire(List<Object[]> candidates, LocalDate today) {
+        if (candidates.isEmpty()) {
+            return 0;
+        }
 
-        Trigger trigger = TriggerBuilder.newTrigger()
-                .withIdentity(RESERVATION_EXPIRY_TRIGGER_PREFIX + reservation.getId(), RESERVATION_GROUP)
-                .startAt(Date.from(reservation.getExpirationDate().atStartOfDay().atZone(ZoneId.systemDefault()).toInstant()))
-                .forJob(jobDetail)
-                .build();
+        // USER before RESERVATION, as a checkout from a reservation does: that checkout either committed
+        // before (its reservation is gone from the locked read below) or waits for this batch
+        userRepository.lockAllByIdIn(candidates.stream().map(row -> (String) row[1]).distinct().toList());
+        List<Reservation> expired = reservationRepository.findExpiredByIdInForUpdate(
+                candidates.stream().map(row -> (String) row[0]).toList(), today);
+        if (expired.isEmpty()) {
+            return 0;
+        }
 
-        try {
-            scheduler.scheduleJob(jobDetail, trigger);
+        Map<String, Integer> refunds = new TreeMap<>();
+        Map<String, Integer> slots = new TreeMap<>();
+        List<String> bookCopyIds = new ArrayList<>();
+        for (Reservation reservation : expired) {
+            refunds.merge(reservation.getUserId(), reservation.getDeposit(), Integer::sum);
+            slots.merge(reservation.getBookTitleId(), 1, Integer::sum);
+            // In the hybrid system, only restore book copy status if a specific copy was assigned
+            if (reservation.getBookCopyId() != null) {
+                bookCopyIds.add(reservation.getBookCopyId());
+            }
         }
-        catch (SchedulerException e) {
-            throw new RuntimeException("Failed to schedule reservation expiry job: ", e);
+        refunds.forEach((userId, deposit) -> {
+            if (deposit != 0) {
+                int balanceAfter = balanceTransactionService.changeBalance(userId, deposit);
+                balanceTransactionService.logTransaction(userId, BalanceTransactionType.REFUND, deposit,
+                        "Hoàn cọc đặt trước hết hạn", balanceAfter);
+            }
+        });
+        if (!bookCopyIds.isEmpty()) {
+            bookCopyRepository.updateStatusByIdIn(bookCopyIds, BookCopyStatus.AVAILABLE);
         }
-    }
 
-    private void deleteScheduledJob(Reservation reservation) {
-        JobKey jobKey = new JobKey(RESERVATION_EXPIRY_JOB_PREFIX + reservation.getId(), RESERVATION_GROUP);
-        try {
-            if (!scheduler.checkExists(jobKey)) {
-                return;
-            }
+        reservationRepository.deleteAllByIdInBatch(expired.stream().map(Reservation::getId).toList());
+        // BOOK_TITLE last, as in createReservation, one update per title
+        slots.forEach(bookTitleRepository::releaseOnlineReservationSlots);
+        liveStatisticsService.recordReservations(-expired.size());
 
-            scheduler.deleteJob(jobKey);
-        }
-        catch (SchedulerException e) {
-            throw new RuntimeException("Failed to delete reservation expiry job: ", e);
+        // Copies that were held go to the first patrons waiting for their titles, once the slots are free
+        if (!bookCopyIds.isEmpty()) {
+            bookCopyRepository.findAllById(bookCopyIds)
+                    .forEach(bookCopy -> holdQueueService.claimReturnedCopy(bookCopy, today));
         }
+        return expired.size();
     }
 
-    private void cancelReservation(Reservation reservation) {
-        // In the hybrid system, only restore book copy status if a specific copy was assigned
-        if (reservation.getBookCopyId() != null) {
-            BookCopy bookCopy = bookCopyRepository.findById(reservation.getBookCopyId())
-                    .orElseThrow(() -> new RuntimeException("Book copy not found"));
-            bookCopy.setStatus(BookCopyStatus.AVAILABLE);
-            bookCopyRepository.save(bookCopy);
+    // Returns the copy put back on the shelf, if one was assigned
+    private Optional<BookCopy> cancelReservation(Reservation reservation) {
+        // Return the deposit to the user, before touching the copy so USER is locked before BOOK_COPY
+        int balanceAfter = balanceTransactionService.changeBalance(reservation.getUserId(), reservation.getDeposit());
+        if (reservation.getDeposit() != 0) {
+            balanceTransactionService.logTransaction(reservation.getUserId(), BalanceTransactionType.REFUND,
+                    reservation.getDeposit(), "Hoàn cọc hủy đặt trước: " + reservation.getBookTitle().getTitle(), balanceAfter);
         }
 
-        // Return the deposit to the user
-        User user = userRepository.findById(reservation.getUserId())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        user.setBalance(user.getBalance() + reservation.getDeposit());
-        userRepository.save(user);
-
-        deleteScheduledJob(reservation);
+        // In the hybrid system, only restore book copy status if a specific copy was assigned
+        if (reservation.getBookCopyId() == null) {
+            return Optional.empty();
+        }
+        BookCopy bookCopy = bookCopyRepository.findById(reservation.getBookCopyId())
+                .orElseThrow(() -> new RuntimeException("Book copy not found"));
+        bookCopy.setStatus(BookCopyStatus.AVAILABLE);
+        return Optional.of(bookCopyRepository.save(bookCopy));
     }
 
     /**
@@ -261,54 +385,39 @@ public class ReservationService {
             throw new RuntimeException("Cannot assign book copy to expired reservation");
         }
 
-        // Find an available book copy for this book title
-        BookCopy availableBookCopy = bookCopyRepository.findFirstByBookTitleIdAndStatus(
-                reservation.getBookTitleId(), BookCopyStatus.AVAILABLE);
-        
-        if (availableBookCopy == null) {
-            throw new RuntimeException("No available physical copy for pickup at this time");
+        if (reservation.getBookCopyId() != null) {
+            throw new RuntimeException("A book copy is already assigned to this reservation");
         }
 
-        // Assign the book copy and update statuses
-        reservation.setBookCopyId(availableBookCopy.getId());
-        
-        reservationRepository.save(reservation);
-        bookCopyRepository.save(availableBookCopy);
+        // Copies being claimed by other pickups are skipped, not waited for, and the claimed one is held
+        // for this reservation so no other desk or walk-in checkout gets it
+        BookCopy availableBookCopy = bookCopyClaimService.claimAvailableCopy(reservation.getBookTitleId())
+                .orElseThrow(() -> new RuntimeException("No available physical copy for pickup at this time"));
 
-        return enhanceReservationDto(reservation);
+        // Two desks serving the same reservation: the second rolls back, which frees its copy
+        if (reservationRepository.assignBookCopyIfUnassigned(reservationId, availableBookCopy.getId()) == 0) {
+            throw new RuntimeException("A book copy is already assigned to this reservation");
+        }
+
+        ResponseReservationDto dto = enhanceReservationDto(reservation);
+        dto.setBookCopyId(availableBookCopy.getId());
+        return dto;
     }
 
-    private void validateReservationRules(Reservation reservation) {
-        LocalDate today = LocalDate.now();
-        List<Reservation> activeReservations = reservationRepository.findActiveReservationsByUserId(reservation.getUserId(), today);
+    private void validateReservationRules(Reservation reservation, LocalDate today) {
+        // Both rules from one row of counts instead of loading the user's reservations
+        ActiveReservationCountsDto counts = reservationRepository.countActiveReservations(
+                reservation.getUserId(), reservation.getBookTitleId(), today);
 
         // Maximum 5 reservations per user
         final int MAX_RESERVATIONS = 5;
-        if (activeReservations.size() >= MAX_RESERVATIONS) {
+        if (counts.getActive() >= MAX_RESERVATIONS) {
             throw new RuntimeException("User has reached the maximum number of active reservations");
         }
 
         // Only one reservation per book title
-        for (Reservation activeReservation : activeReservations) {
-            if (activeReservation.getBookTitleId().equals(reservation.getBookTitleId())) {
-                throw new RuntimeException("User has already reserved this book");
-            }
-        }
-
-        // Check if the book title can be borrowed
-        BookTitle bookTitle = bookTitleRepository.findById(reservation.getBookTitleId())
-                .orElseThrow(() -> new RuntimeException("Book title not found"));
-
-        if (!bookTitle.isCanBorrow()) {
-            throw new RuntimeException("This book title cannot be reserved");
-        }
-
-        // Check online reservation availability using hybrid inventory system
-        List<Reservation> bookTitleActiveReservations = reservationRepository.findActiveReservationsByBookTitleId(reservation.getBookTitleId(), today);
-        int currentOnlineReservations = bookTitleActiveReservations.size();
-        
-        if (currentOnlineReservations >= bookTitle.getMaxOnlineReservations()) {
-            throw new RuntimeException("No more online reservation slots available for this book");
+        if (counts.getForTitle() > 0) {
+            throw new RuntimeException("User has already reserved this book");
         }
 
         // Check if the deposit is valid
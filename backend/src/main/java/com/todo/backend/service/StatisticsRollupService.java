@@ -0,0 +1,260 @@
+package com.todo.backend.service;
+
+import com.todo.backend.dao.CopyConditionCountRepository;
+import com.todo.backend.dao.DailyStatsRepository;
+import com.todo.backend.dao.DailyTitleStatsRepository;
+import com.todo.backend.dao.StatisticsRepository;
+import com.todo.backend.dto.statistics.BookConditionDto;
+import com.todo.backend.entity.*;
+import com.todo.backend.entity.compositekey.DailyTitleStatsPrimaryKey;
+import com.todo.backend.scheduler.jobs.StatisticsRollupRebuildJob;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.quartz.*;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntSupplier;
+
+/**
+ * Maintains the statistics rollup tables (DAILY_STATS, DAILY_TITLE_STATS, COPY_CONDITION_COUNT).
+ * Domain services call the record methods as the last step of their transaction, so a rollup row
+ * is only locked for the short tail of the command and commits or rolls back with it.
+ */
+@Slf4j
+@Service
+@Transactional
+public class StatisticsRollupService {
+    private static final String MAINTENANCE_GROUP = "maintenanceGroup";
+    private static final String ROLLUP_REBUILD_JOB = "statisticsRollupRebuildJob";
+    private static final String ROLLUP_REBUILD_TRIGGER = "statisticsRollupRebuildTrigger";
+    private static final int MAX_KNOWN_ROWS = 4096;
+
+    private final DailyStatsRepository dailyStatsRepository;
+    private final DailyTitleStatsRepository dailyTitleStatsRepository;
+    private final CopyConditionCountRepository copyConditionCountRepository;
+    private final StatisticsRepository statisticsRepository;
+    private final Scheduler scheduler;
+    private final TransactionTemplate rowCreator;
+
+    // Keys whose rollup row is known to exist, so the common path is a single UPDATE
+    private final Set<Object> knownRows = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+    public StatisticsRollupService(DailyStatsRepository dailyStatsRepository,
+                                   DailyTitleStatsRepository dailyTitleStatsRepository,
+                                   CopyConditionCountRepository copyConditionCountRepository,
+                                   StatisticsRepository statisticsRepository,
+                                   Scheduler scheduler,
+                                   PlatformTransactionManager transactionManager) {
+        this.dailyStatsRepository = dailyStatsRepository;
+        this.dailyTitleStatsRepository = dailyTitleStatsRepository;
+        this.copyConditionCountRepository = copyConditionCountRepository;
+        this.statisticsRepository = statisticsRepository;
+        this.scheduler = scheduler;
+        this.rowCreator = new TransactionTemplate(transactionManager);
+        this.rowCreator.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public void recordBorrow(LocalDate borrowDate, String bookTitleId, int chargedPrice) {
+        incrementDay(borrowDate, 1, 0, chargedPrice, 0, 0, 0);
+        incrementTitle(borrowDate, bookTitleId, 1, chargedPrice);
+    }
+
+    /**
+     * A loan returned with the given total penalty; the refund is the charged price minus the penalty,
+     * negative when the penalty exceeded the deposit, same as the statistics always reported it
+     */
+    public void recordReturn(LocalDate returnedDate, int chargedPrice, int penaltyFee) {
+        incrementDay(returnedDate, 0, 1, 0, penaltyFee, chargedPrice - penaltyFee, 0);
+    }
+
+    /**
+     * Penalty of a loan changed outside the return flow. Counted on the return date, or today for an open loan;
+     * a returned loan's refund moves the other way
+     */
+    public void recordPenaltyChange(Transaction transaction, int delta) {
+        if (delta == 0) {
+            return;
+        }
+        boolean returned = transaction.getReturnedDate() != null;
+        LocalDate day = returned ? transaction.getReturnedDate() : LocalDate.now();
+        incrementDay(day, 0, 0, 0, delta, returned ? -delta : 0, 0);
+    }
+
+    /**
+     * A returned loan was deleted, take back everything it contributed
+     */
+    public void recordDeletedLoan(Transaction transaction, String bookTitleId, int penaltyFee) {
+        int chargedPrice = transaction.getChargedPrice() != null ? transaction.getChargedPrice() : 0;
+        incrementDay(transaction.getBorrowDate(), -1, 0, -chargedPrice, 0, 0, 0);
+        incrementTitle(transaction.getBorrowDate(), bookTitleId, -1, -chargedPrice);
+        if (transaction.getReturnedDate() != null) {
+            incrementDay(transaction.getReturnedDate(), 0, -1, 0, -penaltyFee, -(chargedPrice - penaltyFee), 0);
+        }
+    }
+
+    public void recordNewUser(LocalDate createdDate) {
+        incrementDay(createdDate, 0, 0, 0, 0, 0, 1);
+    }
+
+    /**
+     * A copy moved between conditions; null on one side for a copy being added or removed
+     */
+    public void recordConditionChange(BookCopyCondition from, BookCopyCondition to) {
+        if (from == to) {
+            return;
+        }
+        if (from != null) {
+            incrementCondition(from, -1);
+        }
+        if (to != null) {
+            incrementCondition(to, 1);
+        }
+    }
+
+    /**
+     * Recomputes every rollup row from the source tables, including the transaction archive.
+     * Commands committing while this runs may be lost from the rollups, run it when the library is quiet.
+     */
+    public int rebuild() {
+        Map<LocalDate, DailyStats> days = new TreeMap<>();
+        Map<DailyTitleStatsPrimaryKey, DailyTitleStats> titles = new HashMap<>();
+
+        for (boolean archive : new boolean[]{false, true}) {
+            for (Object[] row : statisticsRepository.getDailyBorrows(archive)) {
+                DailyStats day = days.computeIfAbsent((LocalDate) row[0], DailyStats::new);
+                day.setBorrows(day.getBorrows() + ((Number) row[1]).intValue());
+                day.setRevenue(day.getRevenue() + ((Number) row[2]).longValue());
+            }
+            for (Object[] row : statisticsRepository.getDailyReturns(archive)) {
+                DailyStats day = days.computeIfAbsent((LocalDate) row[0], DailyStats::new);
+                day.setReturns(day.getReturns() + ((Number) row[1]).intValue());
+                day.setPenalties(day.getPenalties() + ((Number) row[2]).longValue());
+                day.setRefunds(day.getRefunds() + ((Number) row[3]).longValue());
+            }
+            for (Object[] row : statisticsRepository.getDailyTitleBorrows(archive)) {
+                var key = new DailyTitleStatsPrimaryKey((LocalDate) row[0], (String) row[1]);
+                DailyTitleStats title = titles.computeIfAbsent(key, k -> new DailyTitleStats(k.getStatDate(), k.getBookTitleId()));
+                title.setBorrows(title.getBorrows() + ((Number) row[2]).intValue());
+                title.setRevenue(title.getRevenue() + ((Number) row[3]).longValue());
+            }
+        }
+        long openLoanPenalties = statisticsRepository.getPenaltiesOfOpenLoans();
+        if (openLoanPenalties != 0) {
+            DailyStats today = days.computeIfAbsent(LocalDate.now(), DailyStats::new);
+            today.setPenalties(today.getPenalties() + openLoanPenalties);
+        }
+        for (Object[] row : statisticsRepository.getDailyNewUsers()) {
+            days.computeIfAbsent((LocalDate) row[0], DailyStats::new).setNewUsers(((Number) row[1]).intValue());
+        }
+
+        List<CopyConditionCount> conditions = new ArrayList<>();
+        for (BookConditionDto row : statisticsRepository.getBookConditionStats()) {
+            if (row.getCondition() != null) {
+                CopyConditionCount count = new CopyConditionCount(BookCopyCondition.valueOf(row.getCondition()));
+                count.setCopies(row.getCount());
+                conditions.add(count);
+            }
+        }
+
+        dailyStatsRepository.deleteAllInBatch();
+        dailyTitleStatsRepository.deleteAllInBatch();
+        copyConditionCountRepository.deleteAllInBatch();
+        knownRows.clear();
+        dailyStatsRepository.saveAll(days.values());
+        dailyTitleStatsRepository.saveAll(titles.values());
+        copyConditionCountRepository.saveAll(conditions);
+
+        return days.size();
+    }
+
+    public void scheduleRebuild() {
+        JobDetail jobDetail = JobBuilder.newJob(StatisticsRollupRebuildJob.class)
+                .withIdentity(ROLLUP_REBUILD_JOB, MAINTENANCE_GROUP)
+                .build();
+
+        Trigger trigger = TriggerBuilder.newTrigger()
+                .withIdentity(ROLLUP_REBUILD_TRIGGER, MAINTENANCE_GROUP)
+                .startNow()
+                .forJob(jobDetail)
+                .build();
+
+        try {
+            if (scheduler.checkExists(jobDetail.getKey())) {
+                throw new RuntimeException("Statistics rollup rebuild is already running");
+            }
+            scheduler.scheduleJob(jobDetail, trigger);
+        }
+        catch (SchedulerException e) {
+            throw new RuntimeException("Failed to schedule statistics rollup rebuild job: ", e);
+        }
+    }
+
+    private void incrementDay(LocalDate day, int borrows, int returns, long revenue, long penalties, long refunds, int newUsers) {
+        increment(day, () -> dailyStatsRepository.existsById(day), () -> dailyStatsRepository.saveAndFlush(new DailyStats(day)),
+                () -> dailyStatsRepository.increment(day, borrows, returns, revenue, penalties, refunds, newUsers));
+    }
+
+    private void incrementTitle(LocalDate day, String bookTitleId, int borrows, long revenue) {
+        var key = new DailyTitleStatsPrimaryKey(day, bookTitleId);
+        increment(key, () -> dailyTitleStatsRepository.existsById(key),
+                () -> dailyTitleStatsRepository.saveAndFlush(new DailyTitleStats(day, bookTitleId)),
+                () -> dailyTitleStatsRepository.increment(day, bookTitleId, borrows, revenue));
+    }
+
+    private void incrementCondition(BookCopyCondition condition, long delta) {
+        increment(condition, () -> copyConditionCountRepository.existsById(condition),
+                () -> copyConditionCountRepository.saveAndFlush(new CopyConditionCount(condition)),
+                () -> copyConditionCountRepository.increment(condition, delta));
+    }
+
+    /**
+     * Runs the UPDATE on a row created if missing. A row cached as known can be gone by now (a rebuild
+     * started on another node deletes every row), so an UPDATE matching nothing forgets the key,
+     * recreates the row and tries once more.
+     */
+    private void increment(Object key, BooleanSupplier exists, Runnable create, IntSupplier update) {
+        ensureRow(key, exists, create);
+        if (update.getAsInt() > 0) {
+            return;
+        }
+        knownRows.remove(key);
+        ensureRow(key, exists, create);
+        if (update.getAsInt() == 0) {
+            // Deleted again under us by a rebuild, running the rebuild once more recounts this change
+            log.warn("Statistics rollup row {} is missing, change not counted", key);
+        }
+    }
+
+    /**
+     * Creates a missing zero row in its own short transaction before the caller's UPDATE touches the table.
+     * Inserting from the caller's transaction would let two commands on a new day collide on the key,
+     * and an UPDATE that matched nothing can hold a gap lock that blocks the other's insert.
+     */
+    private void ensureRow(Object key, BooleanSupplier exists, Runnable create) {
+        if (knownRows.contains(key)) {
+            return;
+        }
+        try {
+            rowCreator.executeWithoutResult(status -> {
+                if (!exists.getAsBoolean()) {
+                    create.run();
+                }
+            });
+        }
+        catch (DataIntegrityViolationException e) {
+            // Another command created it first
+        }
+        if (knownRows.size() >= MAX_KNOWN_ROWS) {
+            knownRows.clear();
+        }
+        knownRows.add(key);
+    }
+}
@@ -1,9 +1,14 @@
 package com.todo.backend.service;
 
+import com.todo.backend.dao.CopyConditionCountRepository;
+import com.todo.backend.dao.DailyStatsRepository;
+import com.todo.backend.dao.DailyTitleStatsRepository;
 import com.todo.backend.dao.StatisticsRepository;
 import com.todo.backend.dto.statistics.*;
+import com.todo.backend.utils.concurrency.ParallelQueryRunner;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
@@ -14,80 +19,115 @@ import java.util.List;
 @RequiredArgsConstructor
 public class StatisticsService {
     
-    private final StatisticsRepository statisticsRepository;    public StatisticsDataDto getStatistics() {
+    private final OverdueService overdueService;
+    private final StatisticsRepository statisticsRepository;
+    private final DailyStatsRepository dailyStatsRepository;
+    private final DailyTitleStatsRepository dailyTitleStatsRepository;
+    private final CopyConditionCountRepository copyConditionCountRepository;
+    private final ParallelQueryRunner parallelQueryRunner;
+
+    private static final String STATISTICS_BATCH = "statistics";
+
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public StatisticsDataDto getStatistics() {
         return getStatistics("year", null, null, null);
     }
     
+    // Each query opens its own read-only transaction, the request itself must not hold a connection meanwhile
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
     public StatisticsDataDto getStatistics(String period, Integer year, Integer month, Integer quarter) {
         LocalDate now = LocalDate.now();
         int currentYear = year != null ? year : now.getYear();
         int currentMonth = month != null ? month : now.getMonthValue();
         int currentQuarter = quarter != null ? quarter : ((now.getMonthValue() - 1) / 3) + 1;
         
-        // Calculate date range based on period
+        // Calculate the half-open date range [startDate, endDate) of the period
         LocalDate startDate;
         LocalDate endDate;
         
         switch (period.toLowerCase()) {
             case "week" -> {
                 startDate = now.minusDays(now.getDayOfWeek().getValue() - 1); // Start of current week
-                endDate = startDate.plusDays(6); // End of current week
+                endDate = startDate.plusWeeks(1); // Start of next week
             }
             case "month" -> {
                 startDate = LocalDate.of(currentYear, currentMonth, 1);
-                endDate = startDate.plusMonths(1).minusDays(1);
+                endDate = startDate.plusMonths(1);
             }
             case "quarter" -> {
                 int startMonth = (currentQuarter - 1) * 3 + 1;
                 startDate = LocalDate.of(currentYear, startMonth, 1);
-                endDate = startDate.plusMonths(3).minusDays(1);
+                endDate = startDate.plusMonths(3);
             }
             case "year" -> {
                 startDate = LocalDate.of(currentYear, 1, 1);
-                endDate = LocalDate.of(currentYear, 12, 31);
+                endDate = startDate.plusYears(1);
             }
             default -> {
                 // Default to current year
                 startDate = LocalDate.of(currentYear, 1, 1);
-                endDate = LocalDate.of(currentYear, 12, 31);
+                endDate = startDate.plusYears(1);
             }
         }
         
-        // Convert monthly stats from Object[] to DTOs
-        List<Object[]> monthlyData = statisticsRepository.getMonthlyStats(currentYear);
-        List<MonthlyStatDto> monthlyStats = monthlyData.stream()
-                .map(row -> {
-                    int monthNum = (Integer) row[0];
-                    String monthName = getMonthName(monthNum);
-                    int transactions = (Integer) row[1];
-                    long revenue = (Long) row[2];
-                    return new MonthlyStatDto(monthName, transactions, revenue);
-                })
-                .toList();
+        // All figures except the live counts come from the daily rollups, a year is at most 366 rows.
+        // The queries are independent, so they run side by side and the response waits for the slowest one
+        LocalDate periodStart = startDate;
+        LocalDate periodEnd = endDate;
+        try (ParallelQueryRunner.Batch queries = parallelQueryRunner.batch(STATISTICS_BATCH)) {
+            var monthlyRows = queries.submit("monthlyStats", () -> dailyStatsRepository
+                    .sumByMonth(LocalDate.of(currentYear, 1, 1), LocalDate.of(currentYear + 1, 1, 1)));
+            var periodTotals = queries.submit("periodTotals", () -> dailyStatsRepository.sumBetween(periodStart, periodEnd));
+            var allTimeTotals = queries.submit("allTimeTotals", () -> dailyStatsRepository.sumAll());
+            var totalUsers = queries.submit("totalUsers", statisticsRepository::getTotalUsers);
+            var totalBooks = queries.submit("totalBooks", statisticsRepository::getTotalBooks);
+            var activeTransactions = queries.submit("activeTransactions", statisticsRepository::getActiveTransactions);
+            // May refresh the overdue snapshot on the first call of the day
+            var overdueTransactions = queries.submitReadWrite("overdueTransactions", overdueService::countOverdue);
+            var popularBooks = queries.submit("popularBooks", () -> dailyTitleStatsRepository
+                    .findPopularBetween(periodStart, periodEnd, PageRequest.of(0, 5)));
+            var userActivity = queries.submit("userActivity", statisticsRepository::getUserActivity);
+            var bookCondition = queries.submit("bookCondition", copyConditionCountRepository::findAllCounts);
+
+            List<MonthlyStatDto> monthlyStats = queries.get(monthlyRows).stream()
+                    .map(row -> new MonthlyStatDto(getMonthName((Integer) row[0]), (Integer) row[1], (Long) row[2]))
+                    .toList();
+            RollupTotalsDto inPeriod = queries.get(periodTotals);
+            RollupTotalsDto allTime = queries.get(allTimeTotals);
+            long grossRevenue = allTime.getRevenue();
+
+            return StatisticsDataDto.builder()
+                    // Basic counts
+                    .totalUsers(queries.get(totalUsers))
+                    .totalBooks(queries.get(totalBooks))
+                    .totalTransactions(inPeriod.getBorrows())
+                    .newUsers(inPeriod.getNewUsers())
+
+                    // Detailed revenue breakdown
+                    .grossRevenue(grossRevenue)           // Total deposits collected
+                    .netRevenue(allTime.getPenalties() - allTime.getRefunds()) // Actual profit/loss
+                    .totalPenalties(allTime.getPenalties()) // Penalty fees collected
+                    .totalRefunds(allTime.getRefunds())   // Money refunded to users
+                    .totalRevenue(grossRevenue)           // Legacy field (same as gross)
+
+                    // Transaction status
+                    .activeTransactions(queries.get(activeTransactions))
+                    .overdueTransactions(queries.get(overdueTransactions))
+
+                    // Detailed breakdowns
+                    .popularBooks(queries.get(popularBooks))
+                    .monthlyStats(monthlyStats)
+                    .userActivity(queries.get(userActivity))
+                    .bookCondition(queries.get(bookCondition))
+                    .build();
+        }
+    }
 
-        return StatisticsDataDto.builder()
-                // Basic counts
-                .totalUsers(statisticsRepository.getTotalUsers())
-                .totalBooks(statisticsRepository.getTotalBooks())
-                .totalTransactions(statisticsRepository.getTotalTransactionsInPeriod(startDate, endDate))
-                
-                // Detailed revenue breakdown
-                .grossRevenue(statisticsRepository.getGrossRevenue())           // Total deposits collected
-                .netRevenue(statisticsRepository.getNetRevenue())               // Actual profit/loss
-                .totalPenalties(statisticsRepository.getTotalPenalties())       // Penalty fees collected
-                .totalRefunds(statisticsRepository.getTotalRefunds())           // Money refunded to users
-                .totalRevenue(statisticsRepository.getGrossRevenue())           // Legacy field (same as gross)
-                
-                // Transaction status
-                .activeTransactions(statisticsRepository.getActiveTransactions())
-                .overdueTransactions(statisticsRepository.getOverdueTransactions())
-                
-                // Detailed breakdowns
-                .popularBooks(statisticsRepository.getPopularBooksInPeriod(5, startDate, endDate))
-                .monthlyStats(monthlyStats)
-                .userActivity(statisticsRepository.getUserActivity())
-                .bookCondition(statisticsRepository.getBookConditionStats())
-                .build();
+    /**
+     * Per query timing of the statistics assembly, slowest first; the "statistics" entry is the whole response
+     */
+    public List<QueryTimingDto> getQueryTimings() {
+        return parallelQueryRunner.getTimings();
     }
     
     private String getMonthName(int monthNum) {
@@ -0,0 +1,96 @@
+package com.todo.backend.service;
+
+import com.todo.backend.dao.SweepLeaseRepository;
+import com.todo.backend.entity.SweepLease;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Leases on the hash partitions of the recurring sweeps, shared by every node through SWEEP_LEASE.
+ * Each method is its own short transaction; a partition is claimed with a conditional update, so
+ * exactly one node works it per run, and a node that dies only holds it until its lease runs out.
+ * Lease times come from the nodes' clocks, which are assumed to be within a fraction of the lease.
+ */
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class SweepLeaseService {
+    private final SweepLeaseRepository sweepLeaseRepository;
+
+    public record Claim(String jobName, int partition, LocalDateTime requestedAt) {
+        public String leaseKey() {
+            return SweepLease.key(jobName, partition);
+        }
+    }
+
+    /**
+     * Creates the lease row of a partition if it does not exist yet; a node creating it concurrently
+     * makes this commit fail with a duplicate key, which the caller can ignore
+     */
+    public void ensurePartition(String jobName, int partition) {
+        String leaseKey = SweepLease.key(jobName, partition);
+        if (sweepLeaseRepository.existsById(leaseKey)) {
+            return;
+        }
+        SweepLease lease = new SweepLease();
+        lease.setLeaseKey(leaseKey);
+        lease.setJobName(jobName);
+        lease.setPartitionNo(partition);
+        sweepLeaseRepository.save(lease);
+    }
+
+    /**
+     * Makes a run of the sweep pending on all its partitions. A partition that is being worked on is
+     * swept once more after it finishes, so nothing that became due meanwhile waits for the next run.
+     */
+    public void requestRun(String jobName, int partitions, LocalDateTime requestedAt) {
+        sweepLeaseRepository.requestRun(jobName, partitions, requestedAt);
+    }
+
+    /**
+     * Leases a partition with a pending run, if any is left unleased
+     */
+    public Optional<Claim> claimNext(String jobName, int partitions, String owner, Duration leaseDuration) {
+        LocalDateTime now = LocalDateTime.now();
+        List<String> candidates = sweepLeaseRepository.findClaimable(jobName, partitions, now);
+        // Nodes polling at the same moment start at different partitions instead of racing for the first
+        int offset = candidates.isEmpty() ? 0 : ThreadLocalRandom.current().nextInt(candidates.size());
+        for (int i = 0; i < candidates.size(); i++) {
+            String leaseKey = candidates.get((offset + i) % candidates.size());
+            if (sweepLeaseRepository.claim(leaseKey, owner, now, now.plus(leaseDuration)) == 1) {
+                SweepLease lease = sweepLeaseRepository.findById(leaseKey).orElseThrow();
+                return Optional.of(new Claim(jobName, lease.getPartitionNo(), lease.getRequestedAt()));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @return false if the lease was lost to another node, the caller must stop working the partition
+     */
+    public boolean renew(Claim claim, String owner, Duration leaseDuration) {
+        return sweepLeaseRepository.renew(claim.leaseKey(), owner, LocalDateTime.now().plus(leaseDuration)) == 1;
+    }
+
+    /**
+     * Marks the claimed run done on the partition and frees the lease
+     */
+    public void complete(Claim claim, String owner) {
+        sweepLeaseRepository.complete(claim.leaseKey(), owner, claim.requestedAt());
+    }
+
+    /**
+     * Whether no partition of the sweep has a pending run left. Asked after complete has committed, so of
+     * nodes finishing the last partitions at the same time at least the last one sees the run complete.
+     */
+    public boolean isRunComplete(String jobName, int partitions) {
+        return sweepLeaseRepository.countPending(jobName, partitions) == 0;
+    }
+}
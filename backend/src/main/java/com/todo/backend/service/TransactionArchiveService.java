@@ -0,0 +1,65 @@
+package com.todo.backend.service;
+
+import com.todo.backend.dao.ArchivedTransactionRepository;
+import com.todo.backend.dao.TransactionDetailRepository;
+import com.todo.backend.dao.TransactionRepository;
+import com.todo.backend.dto.transaction.TransactionStatusFilter;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Moves returned transactions (and their details) older than the configured age into the archive
+ * tables, and tells read paths whether a query can reach archived rows at all.
+ */
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class TransactionArchiveService {
+    private final ArchivedTransactionRepository archivedTransactionRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionDetailRepository transactionDetailRepository;
+
+    @Value("${library.archive.transactions.min-age-days:365}")
+    private int minAgeDays;
+
+    @Value("${library.archive.transactions.chunk-size:500}")
+    private int chunkSize;
+
+    /**
+     * Moves one chunk in a single database transaction, copy first then delete
+     * @return number of transactions archived, 0 when nothing is old enough
+     */
+    public int archiveChunk() {
+        LocalDate today = LocalDate.now();
+        List<String> ids = archivedTransactionRepository.findArchivableIds(
+                today.minusDays(minAgeDays), PageRequest.of(0, chunkSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        archivedTransactionRepository.copyTransactions(ids, today);
+        archivedTransactionRepository.copyTransactionDetails(ids);
+        transactionDetailRepository.deleteAllByTransactionIdIn(ids);
+        transactionRepository.deleteAllByIdIn(ids);
+
+        return ids.size();
+    }
+
+    /**
+     * Whether a read filtered by status and borrowed on or after {@code borrowedFrom} can match archived rows.
+     * Only returned transactions are archived, and none was borrowed after the archive horizon.
+     */
+    public boolean needsArchive(TransactionStatusFilter status, LocalDate borrowedFrom) {
+        if (status == TransactionStatusFilter.OPEN || status == TransactionStatusFilter.OVERDUE) {
+            return false;
+        }
+        LocalDate horizon = archivedTransactionRepository.findMaxBorrowDate();
+        return horizon != null && (borrowedFrom == null || !borrowedFrom.isAfter(horizon));
+    }
+}
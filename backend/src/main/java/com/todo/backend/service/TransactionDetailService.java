@@ -1,6 +1,7 @@
 package com.todo.backend.service;
 
 import com.todo.backend.dao.TransactionDetailRepository;
+import com.todo.backend.dao.TransactionRepository;
 import com.todo.backend.dto.transactiondetail.CreateTransactionDetailDto;
 import com.todo.backend.dto.transactiondetail.ResponseTransactionDetailDto;
 import com.todo.backend.dto.transactiondetail.UpdateTransactionDetailDto;
@@ -16,10 +17,14 @@ import java.util.List;
 public class TransactionDetailService {
     private final TransactionDetailRepository transactionDetailRepository;
     private final TransactionDetailMapper transactionDetailMapper;
+    private final TransactionRepository transactionRepository;
+    private final StatisticsRollupService statisticsRollupService;
 
-    public TransactionDetailService(TransactionDetailRepository transactionDetailRepository, TransactionDetailMapper transactionDetailMapper) {
+    public TransactionDetailService(TransactionDetailRepository transactionDetailRepository, TransactionDetailMapper transactionDetailMapper, TransactionRepository transactionRepository, StatisticsRollupService statisticsRollupService) {
         this.transactionDetailRepository = transactionDetailRepository;
         this.transactionDetailMapper = transactionDetailMapper;
+        this.transactionRepository = transactionRepository;
+        this.statisticsRollupService = statisticsRollupService;
     }
 
     public List<ResponseTransactionDetailDto> getAllTransactionDetails() {
@@ -38,6 +43,7 @@ public class TransactionDetailService {
     public ResponseTransactionDetailDto createTransactionDetail(CreateTransactionDetailDto createTransactionDetailDto) {
         TransactionDetail transactionDetail = transactionDetailMapper.toEntity(createTransactionDetailDto);
         TransactionDetail savedTransactionDetail = transactionDetailRepository.save(transactionDetail);
+        recordPenaltyChange(savedTransactionDetail.getTransactionId(), savedTransactionDetail.getPenaltyFee());
         return transactionDetailMapper.toResponseDto(savedTransactionDetail);
     }
 
@@ -47,8 +53,10 @@ public class TransactionDetailService {
             throw new RuntimeException("Transaction detail not found");
         }
 
+        int previousPenaltyFee = existingTransactionDetail.getPenaltyFee();
         transactionDetailMapper.updateEntityFromDto(updateTransactionDetailDto, existingTransactionDetail);
         TransactionDetail updatedTransactionDetail = transactionDetailRepository.save(existingTransactionDetail);
+        recordPenaltyChange(transactionId, updatedTransactionDetail.getPenaltyFee() - previousPenaltyFee);
         return transactionDetailMapper.toResponseDto(updatedTransactionDetail);
     }
 
@@ -59,5 +67,13 @@ public class TransactionDetailService {
         }
 
         transactionDetailRepository.delete(existingTransactionDetail);
+        recordPenaltyChange(transactionId, -existingTransactionDetail.getPenaltyFee());
+    }
+
+    private void recordPenaltyChange(String transactionId, int delta) {
+        if (delta != 0) {
+            transactionRepository.findById(transactionId)
+                    .ifPresent(transaction -> statisticsRollupService.recordPenaltyChange(transaction, delta));
+        }
     }
 }
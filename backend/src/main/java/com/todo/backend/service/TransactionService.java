@@ -1,52 +1,84 @@
 package com.todo.backend.service;
 
 import com.todo.backend.dao.BookCopyRepository;
+import com.todo.backend.dao.BookTitleRepository;
 import com.todo.backend.dao.ReservationRepository;
 import com.todo.backend.dao.TransactionDetailRepository;
+import com.todo.backend.dao.TransactionQueryRepository;
 import com.todo.backend.dao.TransactionRepository;
 import com.todo.backend.dao.UserRepository;
-import com.todo.backend.dto.transaction.CreateTransactionDto;
-import com.todo.backend.dto.transaction.ResponseTransactionDto;
-import com.todo.backend.dto.transaction.UpdateTransactionDto;
-import com.todo.backend.dto.transaction.ReturnBookDto;
-import com.todo.backend.dto.transaction.ReturnBookResponseDto;
+import com.todo.backend.dto.transaction.*;
 import com.todo.backend.dto.transactiondetail.ResponseTransactionDetailDto;
 import com.todo.backend.entity.*;
 import com.todo.backend.mapper.TransactionDetailMapper;
 import com.todo.backend.mapper.TransactionMapper;
+import com.todo.backend.utils.fees.LateFeePolicy;
 import jakarta.transaction.Transactional;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
-import java.time.temporal.ChronoUnit;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class TransactionService {
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final TransactionRepository transactionRepository;
+    private final TransactionQueryRepository transactionQueryRepository;
     private final TransactionDetailRepository transactionDetailRepository;
     private final BookCopyRepository bookCopyRepository;
+    private final BookTitleRepository bookTitleRepository;
     private final UserRepository userRepository;
     private final ReservationRepository reservationRepository;
     private final TransactionMapper transactionMapper;
     private final TransactionDetailMapper transactionDetailMapper;
     private final BalanceTransactionService balanceTransactionService;
-
-    public TransactionService(TransactionRepository transactionRepository, TransactionDetailRepository transactionDetailRepository, BookCopyRepository bookCopyRepository, UserRepository userRepository, ReservationRepository reservationRepository, TransactionMapper transactionMapper, TransactionDetailMapper transactionDetailMapper, BalanceTransactionService balanceTransactionService) {
+    private final OverdueService overdueService;
+    private final TransactionArchiveService transactionArchiveService;
+    private final StatisticsRollupService statisticsRollupService;
+    private final BorrowerSketchService borrowerSketchService;
+    private final LiveStatisticsService liveStatisticsService;
+    private final DeadlineService deadlineService;
+    private final HoldQueueService holdQueueService;
+    private final AvailabilityForecastService availabilityForecastService;
+
+    public TransactionService(TransactionRepository transactionRepository, TransactionQueryRepository transactionQueryRepository, TransactionDetailRepository transactionDetailRepository, BookCopyRepository bookCopyRepository, BookTitleRepository bookTitleRepository, UserRepository userRepository, ReservationRepository reservationRepository, TransactionMapper transactionMapper, TransactionDetailMapper transactionDetailMapper, BalanceTransactionService balanceTransactionService, OverdueService overdueService, TransactionArchiveService transactionArchiveService, StatisticsRollupService statisticsRollupService, BorrowerSketchService borrowerSketchService, LiveStatisticsService liveStatisticsService, DeadlineService deadlineService, HoldQueueService holdQueueService, AvailabilityForecastService availabilityForecastService) {
         this.transactionRepository = transactionRepository;
+        this.transactionQueryRepository = transactionQueryRepository;
         this.transactionDetailRepository = transactionDetailRepository;
         this.bookCopyRepository = bookCopyRepository;
+        this.bookTitleRepository = bookTitleRepository;
         this.userRepository = userRepository;
         this.reservationRepository = reservationRepository;
         this.transactionMapper = transactionMapper;
         this.transactionDetailMapper = transactionDetailMapper;
         this.balanceTransactionService = balanceTransactionService;
+        this.overdueService = overdueService;
+        this.transactionArchiveService = transactionArchiveService;
+        this.statisticsRollupService = statisticsRollupService;
+        this.borrowerSketchService = borrowerSketchService;
+        this.liveStatisticsService = liveStatisticsService;
+        this.deadlineService = deadlineService;
+        this.holdQueueService = holdQueueService;
+        this.availabilityForecastService = availabilityForecastService;
     }
 
     public ResponseTransactionDto getTransaction(String id) {
-        Transaction transaction = transactionRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Transaction with ID not found"));
+        Transaction transaction = transactionRepository.findById(id).orElse(null);
+        if (transaction == null) {
+            // Fall back to the archive tier for old returned transactions
+            return transactionQueryRepository.findArchivedRow(id)
+                    .map(this::toResponseDto)
+                    .orElseThrow(() -> new RuntimeException("Transaction with ID not found"));
+        }
 
         ResponseTransactionDto responseTransactionDto = transactionMapper.toResponseDto(transaction);
 
@@ -63,39 +95,93 @@ public class TransactionService {
     }
 
     public List<ResponseTransactionDto> getAllTransactions() {
-        List<Transaction> transactions = transactionRepository.findAll();
-        return transactions.stream().map(transaction -> {
-            ResponseTransactionDto responseTransactionDto = transactionMapper.toResponseDto(transaction);
+        return findRowsAcrossTiers(null, null, null, null, null, null, 0).stream()
+                .map(this::toResponseDto)
+                .toList();
+    }
 
-            // Enhance with user name and book title
-            enhanceTransactionDto(responseTransactionDto, transaction);
+    public List<ResponseTransactionDto> getTransactionsByUserId(String userId) {
+        return findRowsAcrossTiers(userId, null, null, null, null, null, 0).stream()
+                .map(this::toResponseDto)
+                .toList();
+    }
 
-            // Include transaction detail if it exists
-            if (transaction.getTransactionDetail() != null) {
-                ResponseTransactionDetailDto detail = transactionDetailMapper.toResponseDto(transaction.getTransactionDetail());
-                responseTransactionDto.setTransactionDetail(detail);
-            }
+    /**
+     * Filtered keyset page of transactions, newest borrow date first
+     */
+    public TransactionPageDto getTransactionPage(TransactionPageQuery pageQuery) {
+        int size = pageQuery.getSize() <= 0 ? DEFAULT_PAGE_SIZE : Math.min(pageQuery.getSize(), MAX_PAGE_SIZE);
+
+        LocalDate cursorBorrowDate = null;
+        String cursorId = null;
+        if (pageQuery.getCursor() != null && !pageQuery.getCursor().isBlank()) {
+            String[] cursor = decodeCursor(pageQuery.getCursor());
+            cursorBorrowDate = LocalDate.parse(cursor[0]);
+            cursorId = cursor[1];
+        }
 
-            return responseTransactionDto;
-        }).toList();
+        // Fetch one extra row to know whether there is a next page
+        List<TransactionRowDto> rows = findRowsAcrossTiers(
+                pageQuery.getUserId(),
+                pageQuery.getStatus(),
+                pageQuery.getBorrowedFrom(),
+                pageQuery.getBorrowedTo(),
+                cursorBorrowDate,
+                cursorId,
+                size + 1
+        );
+
+        boolean hasMore = rows.size() > size;
+        if (hasMore) {
+            rows = rows.subList(0, size);
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            TransactionRowDto last = rows.getLast();
+            nextCursor = encodeCursor(last.getBorrowDate(), last.getId());
+        }
+
+        return TransactionPageDto.builder()
+                .items(rows.stream().map(this::toResponseDto).toList())
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
     }
 
-    public List<ResponseTransactionDto> getTransactionsByUserId(String userId) {
-        List<Transaction> transactions = transactionRepository.findByUserId(userId);
-        return transactions.stream().map(transaction -> {
-            ResponseTransactionDto responseTransactionDto = transactionMapper.toResponseDto(transaction);
+    /**
+     * Hot tier rows, merged with archived rows only when the filters can reach the archive.
+     * Both tiers are read with the same keyset and limit, then merged in the same order.
+     */
+    private List<TransactionRowDto> findRowsAcrossTiers(String userId, TransactionStatusFilter status,
+                                                        LocalDate borrowedFrom, LocalDate borrowedTo,
+                                                        LocalDate cursorBorrowDate, String cursorId, int limit) {
+        List<TransactionRowDto> rows = transactionQueryRepository.findRows(
+                userId, status, borrowedFrom, borrowedTo, cursorBorrowDate, cursorId, limit);
+        if (!transactionArchiveService.needsArchive(status, borrowedFrom)) {
+            return rows;
+        }
 
-            // Enhance with user name and book title
-            enhanceTransactionDto(responseTransactionDto, transaction);
+        List<TransactionRowDto> archivedRows = transactionQueryRepository.findArchivedRows(
+                userId, status, borrowedFrom, borrowedTo, cursorBorrowDate, cursorId, limit);
+        if (archivedRows.isEmpty()) {
+            return rows;
+        }
 
-            // Include transaction detail if it exists
-            if (transaction.getTransactionDetail() != null) {
-                ResponseTransactionDetailDto detail = transactionDetailMapper.toResponseDto(transaction.getTransactionDetail());
-                responseTransactionDto.setTransactionDetail(detail);
-            }
+        var merged = Stream.concat(rows.stream(), archivedRows.stream())
+                .sorted(Comparator.comparing(TransactionRowDto::getBorrowDate)
+                        .thenComparing(TransactionRowDto::getId)
+                        .reversed());
+        return (limit > 0 ? merged.limit(limit) : merged).toList();
+    }
 
-            return responseTransactionDto;
-        }).toList();
+    /**
+     * Borrower of the transaction, used to route mutations onto the borrower's command lane
+     */
+    public String getTransactionUserId(String id) {
+        return transactionRepository.findById(id)
+                .map(Transaction::getUserId)
+                .orElseThrow(() -> new RuntimeException("Transaction with ID not found"));
     }
 
     public ResponseTransactionDto createTransaction(CreateTransactionDto createTransactionDto) {
@@ -125,10 +211,6 @@ public class TransactionService {
         }
 
         int totalPrice = bookCopy.getBookTitle().getPrice();
-        if (user.getBalance() < totalPrice) {
-            throw new RuntimeException(String.format("Insufficient balance. Required: %,d VND, Available: %,d VND",
-                    totalPrice, user.getBalance()));
-        }
 
         // Check if user already has this book title borrowed
         List<String> unreturnedBookTitleIds = unreturnedTransactions.stream()
@@ -143,23 +225,36 @@ public class TransactionService {
             throw new RuntimeException("Only one book copy per book title is allowed");
         }
 
-        // Update book copy status and save transaction
+        // Deduct the price from user's balance, fails without writing if the balance doesn't cover it.
+        // The message reads the balance again, the loaded user may predate a concurrent debit
+        int balanceAfter = balanceTransactionService.tryDebitBalance(user.getId(), totalPrice)
+                .orElseThrow(() -> new RuntimeException(String.format("Insufficient balance. Required: %,d VND, Available: %,d VND",
+                        totalPrice, currentBalance(user.getId()))));
+
+        // Save transaction with the price it was charged, then mark the copy as borrowed by it
+        transaction.setChargedPrice(totalPrice);
+        transaction.setDeposit(0);
+        Transaction savedTransaction = transactionRepository.save(transaction);
+
         bookCopy.setStatus(BookCopyStatus.BORROWED);
+        bookCopy.setCurrentTransactionId(savedTransaction.getId());
         bookCopyRepository.save(bookCopy);
 
-        Transaction savedTransaction = transactionRepository.save(transaction);        // Deduct the price from user's balance
-        user.setBalance(user.getBalance() - totalPrice);
-        userRepository.save(user);
-        
         // Log balance transaction
         balanceTransactionService.logTransaction(
             user.getId(), 
             BalanceTransactionType.BOOK_RENTAL, 
             -totalPrice, 
             "Mượn sách: " + bookCopy.getBookTitle().getTitle(),
-            user.getBalance()
+            balanceAfter
         );
 
+        statisticsRollupService.recordBorrow(today, bookCopy.getBookTitleId(), totalPrice);
+        borrowerSketchService.recordBorrower(today, user.getId(), bookCopy.getBookTitleId());
+        liveStatisticsService.recordCheckout(totalPrice);
+        deadlineService.scheduleLoanDue(savedTransaction.getId(), savedTransaction.getDueDate());
+        availabilityForecastService.recordLoan(bookCopy.getBookTitleId(), savedTransaction.getId(), savedTransaction.getDueDate());
+
         ResponseTransactionDto responseTransactionDto = transactionMapper.toResponseDto(savedTransaction);
 
         // Enhance with user name and book title
@@ -180,20 +275,43 @@ public class TransactionService {
             BookCopy bookCopy = bookCopyRepository.findById(existingTransaction.getBookCopyId())
                     .orElseThrow(() -> new RuntimeException("BookCopy with ID " + existingTransaction.getBookCopyId() + " not found"));
 
+            // Refund user balance, before the copy update so USER is locked before BOOK_COPY
+            int refundAmount = chargedPrice(existingTransaction, bookCopy);
+            balanceTransactionService.changeBalance(existingTransaction.getUserId(), refundAmount);
+
             bookCopy.setStatus(BookCopyStatus.AVAILABLE);
+            clearCurrentLoan(bookCopy, existingTransaction.getId());
             bookCopyRepository.save(bookCopy);
 
-            // Refund user balance
-            User user = userRepository.findById(existingTransaction.getUserId())
-                    .orElseThrow(() -> new RuntimeException("User with ID " + existingTransaction.getUserId() + " not found"));
-
-            int refundAmount = bookCopy.getBookTitle().getPrice();
-            user.setBalance(user.getBalance() + refundAmount);
-            userRepository.save(user);
+            TransactionDetail detail = existingTransaction.getTransactionDetail();
+            statisticsRollupService.recordReturn(updateTransactionDto.getReturnedDate(), refundAmount,
+                    detail != null ? detail.getPenaltyFee() : 0);
+            liveStatisticsService.recordReturn(detail != null ? detail.getPenaltyFee() : 0);
         }
 
         Transaction updatedTransaction = transactionRepository.save(existingTransaction);
 
+        // Returned or due date pushed out, drop it from the overdue snapshot. An open loan now past due goes
+        // (back) in right away with the bucket of its new due date, the deadline wheel skips past dates
+        overdueService.removeLoan(updatedTransaction.getId());
+        if (updatedTransaction.getReturnedDate() == null && updatedTransaction.getDueDate().isBefore(LocalDate.now())) {
+            overdueService.addLoans(List.of(updatedTransaction.getId()));
+        }
+        if (updatedTransaction.getReturnedDate() != null) {
+            deadlineService.cancelLoanDue(updatedTransaction.getId());
+        } else {
+            deadlineService.scheduleLoanDue(updatedTransaction.getId(), updatedTransaction.getDueDate());
+        }
+        // Returns and due date changes move the title's availability estimate
+        BookCopy loanedCopy = updatedTransaction.getBookCopy();
+        if (loanedCopy != null) {
+            if (updatedTransaction.getReturnedDate() != null) {
+                availabilityForecastService.recordReturn(loanedCopy.getBookTitleId(), updatedTransaction.getId());
+            } else {
+                availabilityForecastService.recordLoan(loanedCopy.getBookTitleId(), updatedTransaction.getId(), updatedTransaction.getDueDate());
+            }
+        }
+
         ResponseTransactionDto responseTransactionDto = transactionMapper.toResponseDto(updatedTransaction);
 
         // Enhance with user name and book title
@@ -216,7 +334,16 @@ public class TransactionService {
             throw new RuntimeException("Cannot delete transaction. Book has not been returned.");
         }
 
+        String bookTitleId = bookCopyRepository.findById(existingTransaction.getBookCopyId())
+                .map(BookCopy::getBookTitleId)
+                .orElse(null);
+        TransactionDetail detail = existingTransaction.getTransactionDetail();
+
         transactionRepository.delete(existingTransaction);
+
+        if (bookTitleId != null) {
+            statisticsRollupService.recordDeletedLoan(existingTransaction, bookTitleId, detail != null ? detail.getPenaltyFee() : 0);
+        }
     }
 
     public ResponseTransactionDto createTransactionFromReservation(String reservationId, String bookCopyId) {
@@ -237,8 +364,10 @@ public class TransactionService {
             throw new RuntimeException("Selected book copy does not match the reserved book title");
         }
 
-        // Validate book copy is available for borrowing
-        if (!BookCopyStatus.AVAILABLE.equals(bookCopy.getStatus())) {
+        // Validate book copy is available for borrowing, or held for this very reservation
+        boolean heldForReservation = BookCopyStatus.RESERVED.equals(bookCopy.getStatus())
+                && bookCopyId.equals(reservation.getBookCopyId());
+        if (!BookCopyStatus.AVAILABLE.equals(bookCopy.getStatus()) && !heldForReservation) {
             throw new RuntimeException("Book copy is not available for borrowing. Current status: " + bookCopy.getStatus());
         }
 
@@ -267,33 +396,51 @@ public class TransactionService {
         int totalPrice = bookCopy.getBookTitle().getPrice();
         int remainingAmount = totalPrice - reservation.getDeposit();
 
-        if (user.getBalance() < remainingAmount) {
-            throw new RuntimeException(String.format(
-                "Insufficient balance. Required: %,d VND (Total: %,d VND - Deposit: %,d VND), Available: %,d VND",
-                remainingAmount, totalPrice, reservation.getDeposit(), user.getBalance()));
-        }
-
         // Create the transaction
         LocalDate today = LocalDate.now();
         Transaction transaction = new Transaction();
         transaction.setUserId(user.getId());
         transaction.setBookCopyId(bookCopy.getId());
         transaction.setBorrowDate(today);
-        transaction.setDueDate(today.plusWeeks(2)); // Default 2 weeks loan period
-
-        // Update book copy status
-        bookCopy.setStatus(BookCopyStatus.BORROWED);
-        bookCopyRepository.save(bookCopy);
+        transaction.setDueDate(today.plusWeeks(Transaction.DEFAULT_LOAN_WEEKS));
+        transaction.setChargedPrice(totalPrice);
+        transaction.setDeposit(reservation.getDeposit());
 
         // Deduct remaining amount from user balance (deposit was already deducted during reservation)
-        user.setBalance(user.getBalance() - remainingAmount);
-        userRepository.save(user);
+        balanceTransactionService.tryDebitBalance(user.getId(), remainingAmount)
+                .orElseThrow(() -> new RuntimeException(String.format(
+                        "Insufficient balance. Required: %,d VND (Total: %,d VND - Deposit: %,d VND), Available: %,d VND",
+                        remainingAmount, totalPrice, reservation.getDeposit(), currentBalance(user.getId()))));
 
-        // Save transaction
+        // Save transaction, then mark the copy as borrowed by it
         Transaction savedTransaction = transactionRepository.save(transaction);
 
+        bookCopy.setStatus(BookCopyStatus.BORROWED);
+        bookCopy.setCurrentTransactionId(savedTransaction.getId());
+        bookCopyRepository.save(bookCopy);
+
+        // The librarian picked another copy than the one held for the reservation, put that one back
+        Optional<BookCopy> releasedCopy = Optional.empty();
+        if (reservation.getBookCopyId() != null && !heldForReservation) {
+            releasedCopy = bookCopyRepository.findById(reservation.getBookCopyId())
+                    .filter(held -> BookCopyStatus.RESERVED.equals(held.getStatus()));
+            releasedCopy.ifPresent(held -> held.setStatus(BookCopyStatus.AVAILABLE));
+        }
+
         // Delete the reservation (since it's now fulfilled)
         reservationRepository.delete(reservation);
+        bookTitleRepository.releaseOnlineReservationSlots(reservation.getBookTitleId(), 1);
+        liveStatisticsService.recordReservations(-1);
+        deadlineService.cancelReservationExpiry(reservationId);
+
+        // The copy put back goes to the first patron waiting for the title, once this slot is free
+        releasedCopy.ifPresent(held -> holdQueueService.claimReturnedCopy(held, today));
+
+        statisticsRollupService.recordBorrow(today, bookCopy.getBookTitleId(), totalPrice);
+        borrowerSketchService.recordBorrower(today, user.getId(), bookCopy.getBookTitleId());
+        liveStatisticsService.recordCheckout(totalPrice);
+        deadlineService.scheduleLoanDue(savedTransaction.getId(), savedTransaction.getDueDate());
+        availabilityForecastService.recordLoan(bookCopy.getBookTitleId(), savedTransaction.getId(), savedTransaction.getDueDate());
 
         ResponseTransactionDto responseTransactionDto = transactionMapper.toResponseDto(savedTransaction);
 
@@ -323,8 +470,8 @@ public class TransactionService {
         User user = userRepository.findById(transaction.getUserId())
                 .orElseThrow(() -> new RuntimeException("User with ID " + transaction.getUserId() + " not found"));
 
-        // Calculate penalties with automatic late fee calculation
-        int bookPrice = bookCopy.getBookTitle().getPrice();
+        // Calculate penalties with automatic late fee calculation, against the price charged at checkout
+        int bookPrice = chargedPrice(transaction, bookCopy);
         int automaticLateFee;
         int additionalPenalty = returnBookDto.getAdditionalPenaltyFee(); // damage fees, etc.
           if (isLost) {
@@ -344,37 +491,29 @@ public class TransactionService {
         transaction.setReturnedDate(returnBookDto.getReturnedDate());
         Transaction updatedTransaction = transactionRepository.save(transaction);
 
-        // Update book copy status and condition
-        updateBookCopyForReturn(bookCopy, returnBookDto.getBookCondition(), isLost);
-
-        // Create transaction detail if there are penalties or description
-        TransactionDetail transactionDetail = null;
-        if (totalPenaltyFee > 0 || returnBookDto.getDescription() != null) {
-            String description = buildPenaltyDescription(automaticLateFee, additionalPenalty, returnBookDto.getDescription(), isLost, bookPrice);
-            transactionDetail = createTransactionDetail(transactionId, totalPenaltyFee, description);
-        }        // Update user balance: user gets refund of (book price - penalty) or pays extra if penalty > book price
+        // Update user balance: user gets refund of (book price - penalty) or pays extra if penalty > book price
+        // Done before touching the book copy so the USER row is always locked before BOOK_COPY
         int refundAmount = 0;
         int extraCharge = 0;
-        int previousBalance = user.getBalance();
           if (totalPenaltyFee <= bookPrice) {
             // Penalty is covered by deposit, give partial refund
             refundAmount = bookPrice - totalPenaltyFee;
-            user.setBalance(user.getBalance() + refundAmount);
             
             // Log balance transaction
             if (refundAmount > 0) {
+                int balanceAfter = balanceTransactionService.changeBalance(user.getId(), refundAmount);
                 balanceTransactionService.logTransaction(
                     user.getId(), 
                     BalanceTransactionType.REFUND, 
                     refundAmount, 
                     "Hoàn tiền trả sách: " + bookCopy.getBookTitle().getTitle(),
-                    user.getBalance()
+                    balanceAfter
                 );
             }
         } else {
-            // Penalty exceeds deposit, charge extra from user's balance
+            // Penalty exceeds deposit, charge extra from user's balance (may overdraw the account)
             extraCharge = totalPenaltyFee - bookPrice;
-            user.setBalance(user.getBalance() - extraCharge);
+            int balanceAfter = balanceTransactionService.changeBalance(user.getId(), -extraCharge);
             
             // Log balance transaction
             balanceTransactionService.logTransaction(
@@ -382,10 +521,31 @@ public class TransactionService {
                 BalanceTransactionType.PENALTY_FEE, 
                 -extraCharge, 
                 "Phí phạt thêm cho: " + bookCopy.getBookTitle().getTitle(),
-                user.getBalance()
+                balanceAfter
             );
         }
-        userRepository.save(user);
+
+        // Update book copy status and condition
+        clearCurrentLoan(bookCopy, transactionId);
+        updateBookCopyForReturn(bookCopy, returnBookDto.getBookCondition(), isLost);
+        overdueService.removeLoan(transactionId);
+        deadlineService.cancelLoanDue(transactionId);
+        availabilityForecastService.recordReturn(bookCopy.getBookTitleId(), transactionId);
+
+        // A copy back on the shelf goes to the first patron waiting for its title, if any
+        Optional<Reservation> heldFor = BookCopyStatus.AVAILABLE.equals(bookCopy.getStatus())
+                ? holdQueueService.claimReturnedCopy(bookCopy, LocalDate.now())
+                : Optional.empty();
+
+        // Create transaction detail if there are penalties or description
+        TransactionDetail transactionDetail = null;
+        if (totalPenaltyFee > 0 || returnBookDto.getDescription() != null) {
+            String description = buildPenaltyDescription(automaticLateFee, additionalPenalty, returnBookDto.getDescription(), isLost, bookPrice);
+            transactionDetail = createTransactionDetail(transactionId, totalPenaltyFee, description);
+        }
+
+        statisticsRollupService.recordReturn(returnBookDto.getReturnedDate(), bookPrice, totalPenaltyFee);
+        liveStatisticsService.recordReturn(totalPenaltyFee);
 
         // Build response
         ResponseTransactionDto responseTransactionDto = transactionMapper.toResponseDto(updatedTransaction);
@@ -398,6 +558,9 @@ public class TransactionService {
         }
 
         String message = buildReturnMessage(automaticLateFee, additionalPenalty, refundAmount, bookPrice);
+        if (heldFor.isPresent()) {
+            message += " Copy held for the next patron in the queue.";
+        }
 
         return ReturnBookResponseDto.builder()
                 .transaction(responseTransactionDto)
@@ -409,6 +572,7 @@ public class TransactionService {
     }
 
     private void updateBookCopyForReturn(BookCopy bookCopy, BookCopyCondition newCondition, boolean isLost) {
+        BookCopyCondition oldCondition = bookCopy.getCondition();
         if (isLost) {
             // Lost book: mark as lost regardless of condition
             bookCopy.setStatus(BookCopyStatus.LOST);
@@ -425,6 +589,19 @@ public class TransactionService {
         }
 
         bookCopyRepository.save(bookCopy);
+        statisticsRollupService.recordConditionChange(oldCondition, bookCopy.getCondition());
+    }
+
+    private void clearCurrentLoan(BookCopy bookCopy, String transactionId) {
+        // Leave a pointer to some other transaction alone, the backfill job reconciles mismatches
+        if (transactionId.equals(bookCopy.getCurrentTransactionId())) {
+            bookCopy.setCurrentTransactionId(null);
+        }
+    }
+
+    private int currentBalance(String userId) {
+        return userRepository.findBalanceById(userId)
+                .orElseThrow(() -> new RuntimeException("User with ID " + userId + " not found"));
     }
 
     private TransactionDetail createTransactionDetail(String transactionId, int penaltyFee, String description) {
@@ -436,6 +613,51 @@ public class TransactionService {
         return transactionDetailRepository.save(transactionDetail);
     }
 
+    private ResponseTransactionDto toResponseDto(TransactionRowDto row) {
+        ResponseTransactionDto responseTransactionDto = ResponseTransactionDto.builder()
+                .id(row.getId())
+                .borrowDate(row.getBorrowDate())
+                .dueDate(row.getDueDate())
+                .userId(row.getUserId())
+                .bookCopyId(row.getBookCopyId())
+                .returnedDate(row.getReturnedDate())
+                .userName(row.getUserName())
+                .bookTitle(row.getBookTitle())
+                .bookPrice(row.getBookPrice())
+                .accruedLateFee(row.getAccruedLateFee())
+                .accruedAsOf(row.getAccruedAsOf())
+                .build();
+
+        if (row.getDetailTransactionId() != null) {
+            responseTransactionDto.setTransactionDetail(ResponseTransactionDetailDto.builder()
+                    .transactionId(row.getDetailTransactionId())
+                    .penaltyFee(row.getPenaltyFee() != null ? row.getPenaltyFee() : 0)
+                    .description(row.getDetailDescription())
+                    .build());
+        }
+
+        return responseTransactionDto;
+    }
+
+    private String encodeCursor(LocalDate borrowDate, String id) {
+        String raw = borrowDate + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException();
+            }
+            LocalDate.parse(parts[0]);
+            return parts;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new RuntimeException("Invalid transaction page cursor");
+        }
+    }
+
     /**
      * Helper method to enhance transaction DTO with username, book title, and book price
      */
@@ -465,6 +687,15 @@ public class TransactionService {
         }
     }
     
+    /**
+     * Price the user was charged at checkout; the catalog price only for rows the backfill hasn't reached
+     */
+    private int chargedPrice(Transaction transaction, BookCopy bookCopy) {
+        return transaction.getChargedPrice() != null
+                ? transaction.getChargedPrice()
+                : bookCopy.getBookTitle().getPrice();
+    }
+
     /**
      * Calculate automatic late fee with cap at book price
      * @param transaction The borrowing transaction
@@ -473,17 +704,8 @@ public class TransactionService {
      * @return Late fee amount (capped at book price)
      */
     private int calculateLateFee(Transaction transaction, LocalDate returnDate, int bookPrice) {
-        LocalDate dueDate = transaction.getDueDate();
-        
-        if (returnDate.isAfter(dueDate)) {
-            long daysLate = ChronoUnit.DAYS.between(dueDate, returnDate);
-            int lateFee = (int) (daysLate * 5000); // 5,000 VND per day late
-            
-            // Cap at book replacement cost
-            return Math.min(lateFee, bookPrice);
-        }
-        
-        return 0; // No late fee if returned on time or early
+        // Same rule the nightly accrual batch applies to open loans
+        return LateFeePolicy.cappedLateFee(transaction.getDueDate(), returnDate, bookPrice);
     }
     
     /**
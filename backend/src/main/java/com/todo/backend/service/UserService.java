@@ -7,6 +7,7 @@ import com.todo.backend.dto.user.CreateUserDto;
 import com.todo.backend.dto.user.SelfUpdateUserDto;
 import com.todo.backend.dto.user.LibrarianUpdateUserDto;
 import com.todo.backend.dto.user.AdminUpdateUserDto;
+import com.todo.backend.entity.BalanceTransactionType;
 import com.todo.backend.entity.Transaction;
 import com.todo.backend.entity.User;
 import com.todo.backend.entity.identity.UserRole;
@@ -15,6 +16,7 @@ import jakarta.transaction.Transactional;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,11 +26,16 @@ public class UserService {
     private final UserRepository userRepository;
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
+    private final StatisticsRollupService statisticsRollupService;
+    private final BalanceTransactionService balanceTransactionService;
 
-    public UserService(UserRepository userRepository, UserMapper userMapper, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, UserMapper userMapper, PasswordEncoder passwordEncoder,
+                       StatisticsRollupService statisticsRollupService, BalanceTransactionService balanceTransactionService) {
         this.userRepository = userRepository;
         this.userMapper = userMapper;
         this.passwordEncoder = passwordEncoder;
+        this.statisticsRollupService = statisticsRollupService;
+        this.balanceTransactionService = balanceTransactionService;
     }
 
     public List<ResponseUserDto> getAllUsers() {
@@ -94,8 +101,10 @@ public class UserService {
 
         String hashedPassword = passwordEncoder.encode(user.getPassword());
         user.setPassword(hashedPassword);
+        user.setCreatedDate(LocalDate.now());
 
         userRepository.save(user);
+        statisticsRollupService.recordNewUser(user.getCreatedDate());
         return userMapper.toResponseDto(user);
     }
 
@@ -137,7 +146,6 @@ public class UserService {
                     .email(updateUserDto.getEmail())
                     .password(encodedPassword) // Use encoded password
                     .role(updateUserDto.getRole())
-                    .balance(updateUserDto.getBalance())
                     .build();
             
             // Admin cannot modify other admin users (except themselves)
@@ -175,6 +183,14 @@ public class UserService {
         }
 
         userRepository.save(existingUser);
+
+        // The new balance is applied as a difference through the conditional UPDATE and logged, so a debit
+        // committed since the user was loaded is not overwritten and the ledger still adds up
+        if (updateUserDto.getBalance() != null && updateUserDto.getBalance() != existingUser.getBalance()) {
+            var adjustment = balanceTransactionService.adjustBalance(id, BalanceTransactionType.ADJUSTMENT,
+                    updateUserDto.getBalance() - existingUser.getBalance(), "Điều chỉnh số dư bởi " + currentUserRole);
+            existingUser.setBalance(adjustment.getBalanceAfter());
+        }
         return userMapper.toResponseDto(existingUser);
     }
 
@@ -0,0 +1,56 @@
+package com.todo.backend.service.reminder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todo.backend.entity.LoanReminder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Appends each reminder as a JSON line to a local outbox file, for running without a mail or SMS provider
+ */
+@Component
+@ConditionalOnProperty(name = "library.reminders.sender", havingValue = "file", matchIfMissing = true)
+public class FileReminderSender implements ReminderSender {
+    private final ObjectMapper objectMapper;
+    private final Path outboxFile;
+
+    public FileReminderSender(ObjectMapper objectMapper,
+                              @Value("${library.reminders.outbox-file:data/reminder-outbox.jsonl}") String outboxFile) {
+        this.objectMapper = objectMapper;
+        this.outboxFile = Paths.get(outboxFile);
+    }
+
+    @Override
+    public synchronized void send(LoanReminder reminder) {
+        Map<String, String> line = new LinkedHashMap<>();
+        line.put("key", reminder.getReminderKey());
+        line.put("kind", reminder.getKind().name());
+        line.put("userId", reminder.getUserId());
+        line.put("recipient", reminder.getRecipient());
+        line.put("subject", reminder.getSubject());
+        line.put("body", reminder.getBody());
+        try {
+            if (outboxFile.getParent() != null) {
+                Files.createDirectories(outboxFile.getParent());
+            }
+            Files.writeString(outboxFile, objectMapper.writeValueAsString(line) + System.lineSeparator(), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize reminder " + reminder.getReminderKey(), e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append to reminder outbox " + outboxFile, e);
+        }
+    }
+}
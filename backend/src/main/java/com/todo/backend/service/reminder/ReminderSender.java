@@ -0,0 +1,17 @@
+package com.todo.backend.service.reminder;
+
+import com.todo.backend.entity.LoanReminder;
+
+/**
+ * Delivers one rendered reminder. The dispatcher marks a reminder sent right after this returns, so a node
+ * dying in between hands it over again once its claim runs out; senders that must not deliver twice can use
+ * the reminder key as an idempotency key.
+ * <p>
+ * The implementation is chosen with {@code library.reminders.sender}; FileReminderSender is the default.
+ */
+public interface ReminderSender {
+    /**
+     * @throws RuntimeException if the reminder was not delivered, it is retried by a later dispatch
+     */
+    void send(LoanReminder reminder);
+}
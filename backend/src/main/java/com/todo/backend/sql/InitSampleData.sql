@@ -5,6 +5,19 @@ USE `nextjslibrarydatabase`;
 
 -- Clear existing tables if they exist
 SET FOREIGN_KEY_CHECKS = 0;
+DROP TABLE IF EXISTS `LEDGER_SEGMENT`;
+DROP TABLE IF EXISTS `BORROWER_SKETCH`;
+DROP TABLE IF EXISTS `COPY_CONDITION_COUNT`;
+DROP TABLE IF EXISTS `DAILY_TITLE_STATS`;
+DROP TABLE IF EXISTS `DAILY_STATS`;
+DROP TABLE IF EXISTS `TRANSACTION_DETAIL_ARCHIVE`;
+DROP TABLE IF EXISTS `TRANSACTION_ARCHIVE`;
+DROP TABLE IF EXISTS `LOAN_REMINDER`;
+DROP TABLE IF EXISTS `BATCH_CHECKPOINT`;
+DROP TABLE IF EXISTS `SWEEP_LEASE`;
+DROP TABLE IF EXISTS `ACCRUED_LATE_FEE`;
+DROP TABLE IF EXISTS `HOLD_REQUEST`;
+DROP TABLE IF EXISTS `OVERDUE_LOAN`;
 DROP TABLE IF EXISTS `RESERVATION`;
 DROP TABLE IF EXISTS `TRANSACTION`;
 DROP TABLE IF EXISTS `TRANSACTION_DETAIL`;
@@ -57,6 +70,8 @@ CREATE TABLE `USER` (
   `PASSWORD` varchar(255),
   `ROLE` varchar(50) DEFAULT 'USER',
   `BALANCE` bigint NOT NULL DEFAULT 0,
+  -- only known for users registered through the API, counted by the statistics rollup
+  `CREATED_DATE` date DEFAULT NULL,
   PRIMARY KEY (`ID`),
   UNIQUE KEY `EMAIL_UNIQUE` (`EMAIL`),
   UNIQUE KEY `CCCD_UNIQUE` (`CCCD`)
@@ -73,6 +88,7 @@ CREATE TABLE `BOOK_TITLE` (
   `PUBLISHER_ID` varchar(36) DEFAULT NULL,
   `TOTAL_COPIES` INT NOT NULL DEFAULT 0,
   `MAX_ONLINE_RESERVATIONS` INT NOT NULL DEFAULT 0,
+  `RESERVED_ONLINE` INT NOT NULL DEFAULT 0,
   UNIQUE KEY `UK_ISBN` (`ISBN`),
   PRIMARY KEY (`ID`),
   KEY `FK_BOOK_TITLE_PUBLISHER` (`PUBLISHER_ID`),
@@ -86,8 +102,11 @@ CREATE TABLE `BOOK_COPY` (
   `BOOK_TITLE_ID` varchar(36) NOT NULL,
   `STATUS` varchar(50) NOT NULL DEFAULT 'AVAILABLE',
   `CONDITION` varchar(20) NOT NULL DEFAULT 'NEW',
+  -- open transaction holding this copy, maintained by checkout/return
+  `CURRENT_TRANSACTION_ID` varchar(36) DEFAULT NULL,
   PRIMARY KEY (`ID`),
   KEY `FK_BOOK_COPY_BOOK_TITLE` (`BOOK_TITLE_ID`),
+  KEY `FK_BOOK_COPY_CURRENT_TRANSACTION` (`CURRENT_TRANSACTION_ID`),
   CONSTRAINT `FK_BOOK_COPY_BOOK_TITLE`
       FOREIGN KEY (`BOOK_TITLE_ID`) REFERENCES `BOOK_TITLE` (`ID`)
       ON DELETE CASCADE
@@ -133,13 +152,36 @@ CREATE TABLE `TRANSACTION` (
   `DUE_DATE` date NOT NULL,
   `BOOK_COPY_ID` varchar(36) NOT NULL,
   `RETURNED_DATE` date DEFAULT NULL,
+  -- price charged at checkout and reservation deposit applied to it; NULL price only before the backfill
+  `CHARGED_PRICE` int DEFAULT NULL,
+  `DEPOSIT` int NOT NULL DEFAULT 0,
+  -- CRC32 of USER_ID, the sweep partition of the row (see PartitionHash)
+  `USER_HASH` int unsigned NOT NULL DEFAULT 0,
   PRIMARY KEY (`ID`),
   KEY `FK_TRANSACTION_USER` (`USER_ID`),
   KEY `FK_TRANSACTION_BOOK_COPY` (`BOOK_COPY_ID`),
+  -- keyset pagination of transaction listings, overall and per user
+  KEY `IDX_TRANSACTION_BORROW_DATE_ID` (`BORROW_DATE`, `ID`),
+  KEY `IDX_TRANSACTION_USER_BORROW_DATE_ID` (`USER_ID`, `BORROW_DATE`, `ID`),
+  -- archival scan of old returned transactions
+  KEY `IDX_TRANSACTION_RETURNED_DATE_ID` (`RETURNED_DATE`, `ID`),
+  -- covering indexes of the statistics rollup rebuild, which reads TRANSACTION alone
+  KEY `IDX_TRANSACTION_BORROW_DATE_PRICE` (`BORROW_DATE`, `CHARGED_PRICE`),
+  KEY `IDX_TRANSACTION_RETURNED_DATE_PRICE` (`RETURNED_DATE`, `CHARGED_PRICE`),
+  -- borrows per title and day, joined to BOOK_COPY straight from the index
+  KEY `IDX_TRANSACTION_BORROW_DATE_BOOK_COPY` (`BORROW_DATE`, `BOOK_COPY_ID`),
+  -- open loans (RETURNED_DATE IS NULL) and the overdue ones among them (then a DUE_DATE range)
+  KEY `IDX_TRANSACTION_RETURNED_DATE_DUE_DATE` (`RETURNED_DATE`, `DUE_DATE`),
   CONSTRAINT `FK_TRANSACTION_USER` FOREIGN KEY (`USER_ID`) REFERENCES `USER` (`ID`),
   CONSTRAINT `FK_TRANSACTION_BOOK_COPY` FOREIGN KEY (`BOOK_COPY_ID`) REFERENCES `BOOK_COPY` (`ID`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
+-- BOOK_COPY and TRANSACTION reference each other, so this FK is added once both exist
+ALTER TABLE `BOOK_COPY`
+  ADD CONSTRAINT `FK_BOOK_COPY_CURRENT_TRANSACTION`
+      FOREIGN KEY (`CURRENT_TRANSACTION_ID`) REFERENCES `TRANSACTION` (`ID`)
+      ON DELETE SET NULL;
+
 CREATE TABLE `TRANSACTION_DETAIL` (
   `TRANSACTION_ID` varchar(36) NOT NULL,
   `PENALTY_FEE` bigint NOT NULL DEFAULT 0,
@@ -157,15 +199,179 @@ CREATE TABLE `RESERVATION` (
   `RESERVATION_DATE` date NOT NULL,
   `EXPIRATION_DATE` date NOT NULL,
   `DEPOSIT` bigint NOT NULL DEFAULT 0,
+  -- CRC32 of USER_ID, the sweep partition of the row (see PartitionHash)
+  `USER_HASH` int unsigned NOT NULL DEFAULT 0,
   PRIMARY KEY (`ID`),
   KEY `FK_RESERVATION_USER` (`USER_ID`),
   KEY `FK_RESERVATION_BOOK_TITLE` (`BOOK_TITLE_ID`),
   KEY `FK_RESERVATION_BOOK_COPY` (`BOOK_COPY_ID`),
+  -- range scanned by the expiry sweep, which filters its partition in the index, see ReservationService.expireBatch
+  KEY `IDX_RESERVATION_EXPIRATION_DATE_USER_HASH` (`EXPIRATION_DATE`, `USER_HASH`),
+  -- keyset pagination of reservation listings, overall and per user
+  KEY `IDX_RESERVATION_DATE_ID` (`RESERVATION_DATE`, `ID`),
+  KEY `IDX_RESERVATION_USER_DATE_ID` (`USER_ID`, `RESERVATION_DATE`, `ID`),
   CONSTRAINT `FK_RESERVATION_USER` FOREIGN KEY (`USER_ID`) REFERENCES `USER` (`ID`),
   CONSTRAINT `FK_RESERVATION_BOOK_TITLE` FOREIGN KEY (`BOOK_TITLE_ID`) REFERENCES `BOOK_TITLE` (`ID`),
   CONSTRAINT `FK_RESERVATION_BOOK_COPY` FOREIGN KEY (`BOOK_COPY_ID`) REFERENCES `BOOK_COPY` (`ID`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
+-- Per-title FIFO waitlist of fully reserved titles, see HoldQueueService
+CREATE TABLE `HOLD_REQUEST` (
+  `ID` varchar(36) NOT NULL,
+  `USER_ID` varchar(36) NOT NULL,
+  `BOOK_TITLE_ID` varchar(36) NOT NULL,
+  `REQUESTED_AT` datetime(6) NOT NULL,
+  PRIMARY KEY (`ID`),
+  UNIQUE KEY `UK_HOLD_REQUEST_USER_BOOK_TITLE` (`USER_ID`, `BOOK_TITLE_ID`),
+  -- queue order of a title
+  KEY `IDX_HOLD_REQUEST_BOOK_TITLE_REQUESTED_AT` (`BOOK_TITLE_ID`, `REQUESTED_AT`),
+  CONSTRAINT `FK_HOLD_REQUEST_USER` FOREIGN KEY (`USER_ID`) REFERENCES `USER` (`ID`),
+  CONSTRAINT `FK_HOLD_REQUEST_BOOK_TITLE` FOREIGN KEY (`BOOK_TITLE_ID`) REFERENCES `BOOK_TITLE` (`ID`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Nightly snapshot of overdue open transactions, see OverdueService
+CREATE TABLE `OVERDUE_LOAN` (
+  `TRANSACTION_ID` varchar(36) NOT NULL,
+  `BOOK_COPY_ID` varchar(36) NOT NULL,
+  `BOOK_TITLE_ID` varchar(36) NOT NULL,
+  `BOOK_TITLE` varchar(255) NOT NULL,
+  `BOOK_PRICE` int NOT NULL,
+  `USER_ID` varchar(36) NOT NULL,
+  `USER_NAME` varchar(255) NOT NULL,
+  `USER_CCCD` char(15) NOT NULL,
+  `BORROW_DATE` date NOT NULL,
+  `DUE_DATE` date NOT NULL,
+  `DAYS_LATE_BUCKET` varchar(20) NOT NULL,
+  `MATERIALIZED_ON` date NOT NULL,
+  PRIMARY KEY (`TRANSACTION_ID`),
+  KEY `IDX_OVERDUE_LOAN_BUCKET_DUE_DATE` (`DAYS_LATE_BUCKET`, `DUE_DATE`),
+  KEY `IDX_OVERDUE_LOAN_USER` (`USER_ID`),
+  KEY `IDX_OVERDUE_LOAN_BOOK_TITLE` (`BOOK_TITLE_ID`),
+  CONSTRAINT `FK_OVERDUE_LOAN_TRANSACTION` FOREIGN KEY (`TRANSACTION_ID`) REFERENCES `TRANSACTION` (`ID`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Late fee accrued on open overdue transactions, refreshed by the nightly accrual batch
+CREATE TABLE `ACCRUED_LATE_FEE` (
+  `TRANSACTION_ID` varchar(36) NOT NULL,
+  `DAYS_LATE` int NOT NULL,
+  `ACCRUED_FEE` int NOT NULL,
+  `AS_OF` date NOT NULL,
+  PRIMARY KEY (`TRANSACTION_ID`),
+  KEY `IDX_ACCRUED_LATE_FEE_AS_OF` (`AS_OF`),
+  CONSTRAINT `FK_ACCRUED_LATE_FEE_TRANSACTION` FOREIGN KEY (`TRANSACTION_ID`) REFERENCES `TRANSACTION` (`ID`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Restart point of chunked batch jobs, one row per job and per partition of a partitioned one;
+-- the key is an ID, or a due date and an ID for the reminder scan
+CREATE TABLE `BATCH_CHECKPOINT` (
+  `JOB_NAME` varchar(100) NOT NULL,
+  `RUN_DATE` date NOT NULL,
+  `LAST_KEY` varchar(64) DEFAULT NULL,
+  `PROCESSED` bigint NOT NULL DEFAULT 0,
+  `STATUS` varchar(20) NOT NULL,
+  `UPDATED_AT` datetime NOT NULL,
+  PRIMARY KEY (`JOB_NAME`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Due-date reminders written by the daily scan and sent from here by the dispatcher, see DueDateReminderService.
+-- The key (transaction, kind, due date) makes each reminder unique; no foreign key, loans get archived
+CREATE TABLE `LOAN_REMINDER` (
+  `REMINDER_KEY` varchar(64) NOT NULL,
+  `TRANSACTION_ID` varchar(36) NOT NULL,
+  `USER_ID` varchar(36) NOT NULL,
+  `KIND` varchar(20) NOT NULL,
+  `DUE_DATE` date NOT NULL,
+  `RECIPIENT` varchar(255) NOT NULL,
+  `SUBJECT` varchar(255) NOT NULL,
+  `BODY` varchar(2000) NOT NULL,
+  `CREATED_AT` datetime(6) NOT NULL,
+  `SENT_AT` datetime(6) DEFAULT NULL,
+  `ATTEMPTS` int NOT NULL DEFAULT 0,
+  `CLAIMED_BY` varchar(36) DEFAULT NULL,
+  `CLAIMED_UNTIL` datetime(6) DEFAULT NULL,
+  PRIMARY KEY (`REMINDER_KEY`),
+  -- unsent reminders (SENT_AT IS NULL) oldest first
+  KEY `IDX_LOAN_REMINDER_SENT_AT_CREATED_AT` (`SENT_AT`, `CREATED_AT`),
+  -- the reminders a dispatch batch claimed
+  KEY `IDX_LOAN_REMINDER_CLAIMED_BY` (`CLAIMED_BY`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Leases on the hash partitions of the recurring sweeps, see SweepWorker. Rows are created by the nodes.
+CREATE TABLE `SWEEP_LEASE` (
+  `LEASE_KEY` varchar(110) NOT NULL,
+  `JOB_NAME` varchar(100) NOT NULL,
+  `PARTITION_NO` int NOT NULL,
+  `REQUESTED_AT` datetime(6) DEFAULT NULL,
+  `COMPLETED_AT` datetime(6) DEFAULT NULL,
+  `OWNER` varchar(100) DEFAULT NULL,
+  `LEASE_UNTIL` datetime(6) DEFAULT NULL,
+  PRIMARY KEY (`LEASE_KEY`),
+  KEY `IDX_SWEEP_LEASE_JOB_NAME` (`JOB_NAME`, `PARTITION_NO`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Returned transactions moved out of TRANSACTION by the archival job, see TransactionArchiveService.
+-- No foreign keys, the rows are history and must survive cleanup of the referenced users and copies
+CREATE TABLE `TRANSACTION_ARCHIVE` (
+  `ID` varchar(36) NOT NULL,
+  `USER_ID` varchar(36) NOT NULL,
+  `BORROW_DATE` date NOT NULL,
+  `DUE_DATE` date NOT NULL,
+  `BOOK_COPY_ID` varchar(36) NOT NULL,
+  `RETURNED_DATE` date NOT NULL,
+  `CHARGED_PRICE` int NOT NULL,
+  `DEPOSIT` int NOT NULL DEFAULT 0,
+  `ARCHIVED_ON` date NOT NULL,
+  PRIMARY KEY (`ID`),
+  KEY `IDX_TRANSACTION_ARCHIVE_BORROW_DATE_ID` (`BORROW_DATE`, `ID`),
+  KEY `IDX_TRANSACTION_ARCHIVE_USER_BORROW_DATE_ID` (`USER_ID`, `BORROW_DATE`, `ID`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE `TRANSACTION_DETAIL_ARCHIVE` (
+  `TRANSACTION_ID` varchar(36) NOT NULL,
+  `PENALTY_FEE` bigint NOT NULL DEFAULT 0,
+  `DESCRIPTION` text DEFAULT NULL,
+  PRIMARY KEY (`TRANSACTION_ID`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Statistics rollups, kept current by the domain services and rebuilt by StatisticsRollupService.
+-- Flow figures are counted on the day they happened: borrows and revenue on the borrow date,
+-- returns, penalties and refunds on the return date
+CREATE TABLE `DAILY_STATS` (
+  `STAT_DATE` date NOT NULL,
+  `BORROWS` int NOT NULL DEFAULT 0,
+  `RETURNS` int NOT NULL DEFAULT 0,
+  `REVENUE` bigint NOT NULL DEFAULT 0,
+  `PENALTIES` bigint NOT NULL DEFAULT 0,
+  `REFUNDS` bigint NOT NULL DEFAULT 0,
+  `NEW_USERS` int NOT NULL DEFAULT 0,
+  PRIMARY KEY (`STAT_DATE`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE `DAILY_TITLE_STATS` (
+  `STAT_DATE` date NOT NULL,
+  `BOOK_TITLE_ID` varchar(36) NOT NULL,
+  `BORROWS` int NOT NULL DEFAULT 0,
+  `REVENUE` bigint NOT NULL DEFAULT 0,
+  PRIMARY KEY (`STAT_DATE`, `BOOK_TITLE_ID`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Current copy count per condition, not a daily series
+CREATE TABLE `COPY_CONDITION_COUNT` (
+  `BOOK_CONDITION` varchar(20) NOT NULL,
+  `COPIES` bigint NOT NULL DEFAULT 0,
+  PRIMARY KEY (`BOOK_CONDITION`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- HyperLogLog registers of the day's distinct borrowers, CATEGORY_ID '' over all titles.
+-- Keyed category first so a date range of one category is a primary key range.
+-- Filled on checkout; the rollup rebuild recomputes it, including for the sample data below
+CREATE TABLE `BORROWER_SKETCH` (
+  `CATEGORY_ID` varchar(36) NOT NULL,
+  `STAT_DATE` date NOT NULL,
+  `REGISTERS` varbinary(4096) NOT NULL,
+  PRIMARY KEY (`CATEGORY_ID`, `STAT_DATE`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
 CREATE TABLE `balance_transactions` (
   `id` varchar(36) NOT NULL,
   `user_id` varchar(36) NOT NULL,
@@ -177,9 +383,19 @@ CREATE TABLE `balance_transactions` (
   `status` varchar(20) NOT NULL DEFAULT 'COMPLETED',
   PRIMARY KEY (`id`),
   KEY `FK_BALANCE_TRANSACTION_USER` (`user_id`),
+  -- month range scans of the cold storage export
+  KEY `IDX_BALANCE_TRANSACTION_TIMESTAMP` (`timestamp`),
   CONSTRAINT `FK_BALANCE_TRANSACTION_USER` FOREIGN KEY (`user_id`) REFERENCES `USER` (`ID`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
+CREATE TABLE `LEDGER_SEGMENT` (
+  `SEGMENT_MONTH` char(7) NOT NULL,
+  `ROW_COUNT` int NOT NULL,
+  `SIZE_BYTES` bigint NOT NULL,
+  `CONTENT` longblob NOT NULL,
+  PRIMARY KEY (`SEGMENT_MONTH`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
 -- Insert sample data
 -- 1. Insert Categories
 INSERT INTO `CATEGORY` (`ID`, `NAME`, `DESCRIPTION`) VALUES
@@ -343,12 +559,12 @@ INSERT INTO `BOOK_COPY` (`ID`, `BOOK_TITLE_ID`, `STATUS`, `CONDITION`) VALUES
 ('bc20-4', 'b20', 'AVAILABLE', 'NEW'),
 ('bc20-5', 'b20', 'AVAILABLE', 'NEW'),
 ('bc21-1', 'b21', 'AVAILABLE', 'NEW'),
-('bc21-2', 'b21', 'AVAILABLE', 'NEW'),
+('bc21-2', 'b21', 'RESERVED', 'NEW'),
 ('bc21-3', 'b21', 'AVAILABLE', 'NEW'),
 ('bc21-4', 'b21', 'AVAILABLE', 'NEW'),
 ('bc21-5', 'b21', 'AVAILABLE', 'NEW'),
 ('bc22-1', 'b22', 'AVAILABLE', 'NEW'),
-('bc22-2', 'b22', 'AVAILABLE', 'NEW'),
+('bc22-2', 'b22', 'RESERVED', 'NEW'),
 ('bc22-3', 'b22', 'AVAILABLE', 'NEW'),
 ('bc22-4', 'b22', 'AVAILABLE', 'NEW'),
 ('bc22-5', 'b22', 'AVAILABLE', 'NEW'),
@@ -363,7 +579,7 @@ INSERT INTO `BOOK_COPY` (`ID`, `BOOK_TITLE_ID`, `STATUS`, `CONDITION`) VALUES
 ('bc24-4', 'b24', 'AVAILABLE', 'WORN'),
 ('bc24-5', 'b24', 'LOST', 'DAMAGED'),
 ('bc25-1', 'b25', 'AVAILABLE', 'NEW'),
-('bc25-2', 'b25', 'AVAILABLE', 'GOOD'),
+('bc25-2', 'b25', 'RESERVED', 'GOOD'),
 ('bc25-3', 'b25', 'AVAILABLE', 'WORN'),
 ('bc25-4', 'b25', 'AVAILABLE', 'DAMAGED'),
 ('bc25-5', 'b25', 'AVAILABLE', 'NEW');
@@ -473,6 +689,21 @@ INSERT INTO `TRANSACTION` (`ID`, `USER_ID`, `BORROW_DATE`, `DUE_DATE`, `BOOK_COP
 ('t7', 'u4', '2023-02-01', '2023-02-15', 'bc13-1', NULL),     -- Bob has second book (overdue)
 ('t8', 'u3', '2023-02-05', '2023-02-19', 'bc15-1', NULL);     -- Jane has second book (overdue)
 
+-- Point borrowed copies at their open transaction
+UPDATE `BOOK_COPY` bc
+JOIN `TRANSACTION` t ON t.`BOOK_COPY_ID` = bc.`ID` AND t.`RETURNED_DATE` IS NULL
+SET bc.`CURRENT_TRANSACTION_ID` = t.`ID`;
+
+-- Sweep partitions of the sample transactions, same hash as PartitionHash
+UPDATE `TRANSACTION` SET `USER_HASH` = CRC32(`USER_ID`);
+
+-- Price snapshot of the sample transactions, same rule as PriceSnapshotService
+UPDATE `TRANSACTION` t
+JOIN `BOOK_COPY` bc ON bc.`ID` = t.`BOOK_COPY_ID`
+JOIN `BOOK_TITLE` bt ON bt.`ID` = bc.`BOOK_TITLE_ID`
+SET t.`CHARGED_PRICE` = bt.`PRICE`
+WHERE t.`CHARGED_PRICE` IS NULL;
+
 -- 11. Insert Transaction Details (only for returned books with penalties)
 INSERT INTO `TRANSACTION_DETAIL` (`TRANSACTION_ID`, `PENALTY_FEE`, `DESCRIPTION`) VALUES
 ('t2', 4385000, 'Late fee: 4,375,000 VND. Additional fee: 10,000 VND. Bruh'),
@@ -488,6 +719,12 @@ INSERT INTO `RESERVATION` (`ID`, `USER_ID`, `BOOK_TITLE_ID`, `BOOK_COPY_ID`, `RE
 ('res6', 'u3', 'b1', NULL, '2023-03-20', '2023-03-27', 85000),
 ('res7', 'u4', 'b2', NULL, '2023-03-21', '2023-03-28', 95000);
 
+-- Sweep partitions of the sample reservations, same hash as PartitionHash
+UPDATE `RESERVATION` SET `USER_HASH` = CRC32(`USER_ID`);
+
+-- Online slots held by the reservations above
+UPDATE `BOOK_TITLE` bt SET `RESERVED_ONLINE` = (SELECT COUNT(*) FROM `RESERVATION` r WHERE r.`BOOK_TITLE_ID` = bt.`ID`);
+
 -- 13. Insert Balance Transaction History (example transaction logs)
 INSERT INTO `balance_transactions` (`id`, `user_id`, `type`, `amount`, `description`, `timestamp`, `balance_after`, `status`) VALUES
 -- Jane Smith (u3) transaction history
@@ -520,6 +757,39 @@ INSERT INTO `balance_transactions` (`id`, `user_id`, `type`, `amount`, `descript
 ('bt19', 'u7', 'BOOK_RENTAL', -495000, 'Mượn sách: The Pragmatic Programmer', '2023-01-25 16:45:00', 3505000, 'COMPLETED'),
 ('bt20', 'u7', 'PENALTY_FEE', -755000, 'Phí phạt: Trả sách muộn 87 ngày', '2025-06-13 12:30:00', 2750000, 'COMPLETED');
 
+-- 14. Statistics rollups of the sample data, same rules as StatisticsRollupService.rebuild
+INSERT INTO `DAILY_STATS` (`STAT_DATE`, `BORROWS`, `REVENUE`)
+SELECT `BORROW_DATE`, COUNT(*), COALESCE(SUM(`CHARGED_PRICE`), 0)
+FROM `TRANSACTION`
+GROUP BY `BORROW_DATE`;
+
+INSERT INTO `DAILY_STATS` (`STAT_DATE`, `RETURNS`, `PENALTIES`, `REFUNDS`)
+SELECT r.`RETURNED_DATE`, r.`RETURNS`, r.`PENALTIES`, r.`REFUNDS`
+FROM (
+    SELECT t.`RETURNED_DATE`, COUNT(*) AS `RETURNS`,
+           COALESCE(SUM(td.`PENALTY_FEE`), 0) AS `PENALTIES`,
+           COALESCE(SUM(t.`CHARGED_PRICE` - COALESCE(td.`PENALTY_FEE`, 0)), 0) AS `REFUNDS`
+    FROM `TRANSACTION` t
+    LEFT JOIN `TRANSACTION_DETAIL` td ON td.`TRANSACTION_ID` = t.`ID`
+    WHERE t.`RETURNED_DATE` IS NOT NULL
+    GROUP BY t.`RETURNED_DATE`
+) r
+ON DUPLICATE KEY UPDATE
+    `RETURNS` = `DAILY_STATS`.`RETURNS` + r.`RETURNS`,
+    `PENALTIES` = `DAILY_STATS`.`PENALTIES` + r.`PENALTIES`,
+    `REFUNDS` = `DAILY_STATS`.`REFUNDS` + r.`REFUNDS`;
+
+INSERT INTO `DAILY_TITLE_STATS` (`STAT_DATE`, `BOOK_TITLE_ID`, `BORROWS`, `REVENUE`)
+SELECT t.`BORROW_DATE`, bc.`BOOK_TITLE_ID`, COUNT(*), COALESCE(SUM(t.`CHARGED_PRICE`), 0)
+FROM `TRANSACTION` t
+JOIN `BOOK_COPY` bc ON bc.`ID` = t.`BOOK_COPY_ID`
+GROUP BY t.`BORROW_DATE`, bc.`BOOK_TITLE_ID`;
+
+INSERT INTO `COPY_CONDITION_COUNT` (`BOOK_CONDITION`, `COPIES`)
+SELECT `CONDITION`, COUNT(*)
+FROM `BOOK_COPY`
+GROUP BY `CONDITION`;
+
 
 
 
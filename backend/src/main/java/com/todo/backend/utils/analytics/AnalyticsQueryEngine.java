@@ -0,0 +1,332 @@
+package com.todo.backend.utils.analytics;
+
+import com.todo.backend.dto.analytics.*;
+import com.todo.backend.entity.BookCopyCondition;
+import com.todo.backend.entity.identity.UserRole;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiConsumer;
+
+/**
+ * Runs filter, group-by and sum queries over a {@link LoanColumns} snapshot.
+ * The loans are split into chunks scanned in parallel on a fork-join pool, each chunk aggregating
+ * into its own groups, which are merged pairwise on the way back up.
+ */
+public class AnalyticsQueryEngine {
+    public static final int MAX_GROUP_BY = 3;
+    private static final int DEFAULT_LIMIT = 1000;
+    private static final int MAX_LIMIT = 10000;
+    private static final int SCAN_CHUNK = 16_384;
+    // Up to this many groups a chunk sums into a flat array instead of a map
+    private static final int DENSE_GROUPS = 4096;
+    private static final int METRICS = AnalyticsMetric.values().length;
+    private static final int[] NO_CODES = new int[0];
+
+    private final ForkJoinPool pool;
+
+    public AnalyticsQueryEngine(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public AnalyticsResultDto run(LoanColumns columns, AnalyticsQueryDto query, LocalDate today) {
+        long start = System.nanoTime();
+
+        List<AnalyticsDimension> groupBy = query.getGroupBy() != null ? query.getGroupBy() : List.of();
+        if (groupBy.size() > MAX_GROUP_BY) {
+            throw new IllegalArgumentException("At most " + MAX_GROUP_BY + " group by dimensions are supported");
+        }
+        if (new HashSet<>(groupBy).size() != groupBy.size()) {
+            throw new IllegalArgumentException("Group by dimensions must not repeat");
+        }
+        List<AnalyticsMetric> metrics = query.getMetrics() == null || query.getMetrics().isEmpty()
+                ? List.of(AnalyticsMetric.values()) : query.getMetrics();
+        int limit = query.getLimit() != null ? Math.min(Math.max(query.getLimit(), 1), MAX_LIMIT) : DEFAULT_LIMIT;
+
+        Dimension[] groups = groupBy.stream().map(d -> new Dimension(d, columns)).toArray(Dimension[]::new);
+        long groupCount = 1;
+        try {
+            for (Dimension group : groups) {
+                groupCount = Math.multiplyExact(groupCount, group.cardinality);
+            }
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Too many groups, group by fewer dimensions");
+        }
+
+        List<Dimension> filters = new ArrayList<>();
+        if (query.getFilters() != null) {
+            query.getFilters().forEach((dimension, values) -> {
+                if (values != null && !values.isEmpty()) {
+                    filters.add(new Dimension(dimension, columns).allow(values));
+                }
+            });
+        }
+
+        Scan scan = new Scan(columns, groups, filters.toArray(Dimension[]::new), groupCount,
+                query.getBorrowedFrom() != null ? (int) query.getBorrowedFrom().toEpochDay() : Integer.MIN_VALUE,
+                query.getBorrowedTo() != null ? (int) query.getBorrowedTo().toEpochDay() : Integer.MAX_VALUE,
+                (int) today.toEpochDay());
+        Groups result = pool.invoke(new ScanTask(scan, 0, columns.size));
+
+        List<AnalyticsRowDto> rows = new ArrayList<>();
+        result.forEach((key, sums) -> {
+            List<String> labels = new ArrayList<>(groups.length);
+            long rest = key;
+            for (int i = groups.length - 1; i >= 0; i--) {
+                labels.add(0, groups[i].label((int) (rest % groups[i].cardinality)));
+                rest /= groups[i].cardinality;
+            }
+            Map<AnalyticsMetric, Long> values = new EnumMap<>(AnalyticsMetric.class);
+            for (AnalyticsMetric metric : metrics) {
+                values.put(metric, sums[metric.ordinal()]);
+            }
+            rows.add(new AnalyticsRowDto(labels, values));
+        });
+        AnalyticsMetric first = metrics.getFirst();
+        rows.sort(Comparator.<AnalyticsRowDto>comparingLong(row -> row.getMetrics().get(first)).reversed()
+                .thenComparing(row -> String.join("\u0000", row.getGroup())));
+
+        return AnalyticsResultDto.builder()
+                .groupBy(groupBy)
+                .metrics(metrics)
+                .rows(rows.size() > limit ? new ArrayList<>(rows.subList(0, limit)) : rows)
+                .totalGroups(rows.size())
+                .scannedLoans(columns.size)
+                .elapsedMillis((System.nanoTime() - start) / 1_000_000.0)
+                .refreshedAt(columns.refreshedAt())
+                .build();
+    }
+
+    /**
+     * One dimension of a query, mapping a loan to its code(s) in [0, cardinality)
+     */
+    private static class Dimension {
+        private final AnalyticsDimension dimension;
+        private final LoanColumns columns;
+        private final int cardinality;
+        private final int[] noCategory;
+        private boolean[] allowed;
+
+        Dimension(AnalyticsDimension dimension, LoanColumns columns) {
+            this.dimension = dimension;
+            this.columns = columns;
+            this.cardinality = switch (dimension) {
+                // The extra code is "no category" or "no publisher"
+                case CATEGORY -> columns.categories.size() + 1;
+                case PUBLISHER -> columns.publishers.size() + 1;
+                case TITLE -> Math.max(columns.titleIds.size(), 1);
+                case USER_ROLE -> LoanColumns.UNKNOWN_ROLE + 1;
+                case MONTH -> Math.max(columns.maxMonth - columns.minMonth + 1, 1);
+                case CONDITION -> LoanColumns.UNKNOWN_CONDITION + 1;
+            };
+            this.noCategory = new int[]{columns.categories.size()};
+        }
+
+        Dimension allow(List<String> values) {
+            allowed = new boolean[cardinality];
+            for (String value : values) {
+                int code = code(value);
+                if (code >= 0 && code < cardinality) {
+                    allowed[code] = true;
+                }
+            }
+            return this;
+        }
+
+        int code(int row) {
+            return switch (dimension) {
+                case CATEGORY -> throw new IllegalStateException("Categories are multi-valued");
+                case PUBLISHER -> {
+                    int publisher = columns.titlePublisher[columns.title[row]];
+                    yield publisher >= 0 ? publisher : columns.publishers.size();
+                }
+                case TITLE -> columns.title[row];
+                case USER_ROLE -> columns.role[row];
+                case MONTH -> columns.borrowMonth[row] - columns.minMonth;
+                case CONDITION -> columns.condition[row];
+            };
+        }
+
+        // Categories of the loan's title, or the "no category" code
+        int[] categories(int row) {
+            int[] codes = columns.titleCategories[columns.title[row]];
+            return codes.length > 0 ? codes : noCategory;
+        }
+
+        boolean matches(int row) {
+            if (dimension != AnalyticsDimension.CATEGORY) {
+                return allowed[code(row)];
+            }
+            for (int code : categories(row)) {
+                if (allowed[code]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private int code(String value) {
+            try {
+                return switch (dimension) {
+                    case CATEGORY -> columns.categories.code(value);
+                    case PUBLISHER -> columns.publishers.code(value);
+                    case TITLE -> columns.titleIds.code(value);
+                    case USER_ROLE -> LoanColumns.UNKNOWN.equals(value) ? LoanColumns.UNKNOWN_ROLE : UserRole.valueOf(value).ordinal();
+                    case MONTH -> {
+                        YearMonth month = YearMonth.parse(value);
+                        yield month.getYear() * 12 + month.getMonthValue() - 1 - columns.minMonth;
+                    }
+                    case CONDITION -> LoanColumns.UNKNOWN.equals(value)
+                            ? LoanColumns.UNKNOWN_CONDITION : BookCopyCondition.valueOf(value).ordinal();
+                };
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                // Matches no loan, same as a name that does not exist
+                return -1;
+            }
+        }
+
+        String label(int code) {
+            return switch (dimension) {
+                case CATEGORY -> code < columns.categories.size() ? columns.categories.value(code) : "(none)";
+                case PUBLISHER -> code < columns.publishers.size() ? columns.publishers.value(code) : "(none)";
+                case TITLE -> columns.titleNames[code] != null ? columns.titleNames[code] : columns.titleIds.value(code);
+                case USER_ROLE -> code < UserRole.values().length ? UserRole.values()[code].name() : LoanColumns.UNKNOWN;
+                case MONTH -> {
+                    int month = code + columns.minMonth;
+                    yield YearMonth.of(month / 12, month % 12 + 1).toString();
+                }
+                case CONDITION -> code < BookCopyCondition.values().length
+                        ? BookCopyCondition.values()[code].name() : LoanColumns.UNKNOWN;
+            };
+        }
+    }
+
+    private record Scan(LoanColumns columns, Dimension[] groups, Dimension[] filters, long groupCount,
+                        int fromDay, int toDay, int today) {
+
+        Groups scan(int from, int to) {
+            Groups groupSums = new Groups(groupCount);
+            int categoryGroup = -1;
+            for (int i = 0; i < groups.length; i++) {
+                if (groups[i].dimension == AnalyticsDimension.CATEGORY) {
+                    categoryGroup = i;
+                }
+            }
+            long[] loan = new long[METRICS];
+
+            rows:
+            for (int row = from; row < to; row++) {
+                int day = columns.borrowDay[row];
+                if (day < fromDay || day >= toDay) {
+                    continue;
+                }
+                for (Dimension filter : filters) {
+                    if (!filter.matches(row)) {
+                        continue rows;
+                    }
+                }
+
+                int returned = columns.returnDay[row];
+                loan[AnalyticsMetric.LOANS.ordinal()] = 1;
+                loan[AnalyticsMetric.REVENUE.ordinal()] = columns.chargedPrice[row];
+                loan[AnalyticsMetric.PENALTIES.ordinal()] = columns.penalty[row];
+                loan[AnalyticsMetric.LATE_LOANS.ordinal()] =
+                        (returned != LoanColumns.OPEN ? returned : today) > columns.dueDay[row] ? 1 : 0;
+
+                // A loan counts once in each category of its title
+                int[] categories = categoryGroup >= 0 ? groups[categoryGroup].categories(row) : NO_CODES;
+                int fanOut = Math.max(categories.length, 1);
+                for (int c = 0; c < fanOut; c++) {
+                    long key = 0;
+                    for (int i = 0; i < groups.length; i++) {
+                        key = key * groups[i].cardinality + (i == categoryGroup ? categories[c] : groups[i].code(row));
+                    }
+                    groupSums.add(key, loan);
+                }
+            }
+            return groupSums;
+        }
+    }
+
+    private static class ScanTask extends RecursiveTask<Groups> {
+        private final Scan scan;
+        private final int from;
+        private final int to;
+
+        ScanTask(Scan scan, int from, int to) {
+            this.scan = scan;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Groups compute() {
+            if (to - from <= SCAN_CHUNK) {
+                return scan.scan(from, to);
+            }
+            int middle = (from + to) >>> 1;
+            ScanTask left = new ScanTask(scan, from, middle);
+            left.fork();
+            Groups right = new ScanTask(scan, middle, to).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    /**
+     * Metric sums per group key, in a flat array when the keys are few and in a map otherwise
+     */
+    private static class Groups {
+        private final long[] dense;
+        private final Map<Long, long[]> sparse;
+
+        Groups(long groupCount) {
+            boolean isDense = groupCount <= DENSE_GROUPS;
+            this.dense = isDense ? new long[(int) groupCount * (METRICS + 1)] : null;
+            this.sparse = isDense ? null : new HashMap<>();
+        }
+
+        void add(long key, long[] values) {
+            if (dense != null) {
+                // Slot 0 marks a group that was hit, so empty groups are left out of the result
+                int offset = (int) key * (METRICS + 1);
+                dense[offset] = 1;
+                for (int m = 0; m < METRICS; m++) {
+                    dense[offset + 1 + m] += values[m];
+                }
+                return;
+            }
+            long[] sums = sparse.computeIfAbsent(key, k -> new long[METRICS]);
+            for (int m = 0; m < METRICS; m++) {
+                sums[m] += values[m];
+            }
+        }
+
+        Groups merge(Groups other) {
+            if (dense != null) {
+                for (int i = 0; i < dense.length; i++) {
+                    dense[i] = i % (METRICS + 1) == 0 ? dense[i] | other.dense[i] : dense[i] + other.dense[i];
+                }
+                return this;
+            }
+            other.sparse.forEach(this::add);
+            return this;
+        }
+
+        void forEach(BiConsumer<Long, long[]> action) {
+            if (sparse != null) {
+                sparse.forEach(action);
+                return;
+            }
+            for (int key = 0; key * (METRICS + 1) < dense.length; key++) {
+                int offset = key * (METRICS + 1);
+                if (dense[offset] != 0) {
+                    action.accept((long) key, Arrays.copyOfRange(dense, offset + 1, offset + 1 + METRICS));
+                }
+            }
+        }
+    }
+}
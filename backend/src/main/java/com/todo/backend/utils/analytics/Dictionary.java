@@ -0,0 +1,53 @@
+package com.todo.backend.utils.analytics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes the distinct values of a dimension as dense int codes, in order of first appearance.
+ * Codes never change once given out, so a copy can be extended without recoding existing rows.
+ */
+public class Dictionary {
+    private final Map<String, Integer> codes;
+    private final List<String> values;
+
+    public Dictionary() {
+        this.codes = new HashMap<>();
+        this.values = new ArrayList<>();
+    }
+
+    public Dictionary(Dictionary other) {
+        this.codes = new HashMap<>(other.codes);
+        this.values = new ArrayList<>(other.values);
+    }
+
+    /**
+     * Code of the value, giving it the next code if it is new
+     */
+    public int encode(String value) {
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = values.size();
+            codes.put(value, code);
+            values.add(value);
+        }
+        return code;
+    }
+
+    /**
+     * Code of the value, or -1 if it was never encoded
+     */
+    public int code(String value) {
+        return codes.getOrDefault(value, -1);
+    }
+
+    public String value(int code) {
+        return values.get(code);
+    }
+
+    public int size() {
+        return values.size();
+    }
+}
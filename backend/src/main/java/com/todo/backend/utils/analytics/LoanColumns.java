@@ -0,0 +1,267 @@
+package com.todo.backend.utils.analytics;
+
+import com.todo.backend.entity.BookCopyCondition;
+import com.todo.backend.entity.identity.UserRole;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Immutable column-wise snapshot of every loan, one primitive array per attribute, for the analytics scans.
+ * Titles, publishers and categories are dictionary encoded; a loan only stores its title code and reaches
+ * publisher and categories through the per-title arrays.
+ * <p>
+ * Loans returned before the day of the last full load come first and are sealed: they no longer change,
+ * so an incremental refresh keeps them and reloads only the open and recently returned loans after them.
+ */
+public final class LoanColumns {
+    static final int OPEN = Integer.MAX_VALUE;
+    static final byte UNKNOWN_ROLE = (byte) UserRole.values().length;
+    static final byte UNKNOWN_CONDITION = (byte) BookCopyCondition.values().length;
+    static final String UNKNOWN = "UNKNOWN";
+
+    // Per loan
+    final int size;
+    final int[] title;
+    final byte[] role;
+    final byte[] condition;
+    final int[] borrowDay;      // Epoch day
+    final int[] borrowMonth;    // year * 12 + month - 1
+    final int[] dueDay;
+    final int[] returnDay;      // OPEN while not returned
+    final int[] chargedPrice;
+    final int[] penalty;
+    final int minMonth;
+    final int maxMonth;
+
+    // Per title code
+    final Dictionary titleIds;
+    final String[] titleNames;
+    final int[] titlePublisher; // -1 without a publisher
+    final int[][] titleCategories;
+    final Dictionary publishers;
+    final Dictionary categories;
+
+    private final int sealedRows;
+    private final LocalDate fullLoadOn;
+    private final LocalDateTime refreshedAt;
+
+    private LoanColumns(Builder builder, int[] order, LocalDateTime refreshedAt) {
+        this.size = builder.size;
+        this.title = permute(builder.title, order);
+        this.role = permute(builder.role, order);
+        this.condition = permute(builder.condition, order);
+        this.borrowDay = permute(builder.borrowDay, order);
+        this.borrowMonth = permute(builder.borrowMonth, order);
+        this.dueDay = permute(builder.dueDay, order);
+        this.returnDay = permute(builder.returnDay, order);
+        this.chargedPrice = permute(builder.chargedPrice, order);
+        this.penalty = permute(builder.penalty, order);
+
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            min = Math.min(min, borrowMonth[i]);
+            max = Math.max(max, borrowMonth[i]);
+        }
+        this.minMonth = size == 0 ? 0 : min;
+        this.maxMonth = size == 0 ? -1 : max;
+
+        this.titleIds = builder.titleIds;
+        this.publishers = builder.publishers;
+        this.categories = builder.categories;
+        int titles = titleIds.size();
+        this.titleNames = new String[titles];
+        this.titlePublisher = new int[titles];
+        this.titleCategories = new int[titles][];
+        Arrays.fill(titlePublisher, -1);
+        Arrays.fill(titleCategories, new int[0]);
+        for (var entry : builder.titleInfo.entrySet()) {
+            int code = entry.getKey();
+            TitleInfo info = entry.getValue();
+            titleNames[code] = info.name;
+            titlePublisher[code] = info.publisher;
+            titleCategories[code] = info.categories.stream().mapToInt(Integer::intValue).distinct().toArray();
+        }
+
+        this.sealedRows = builder.sealedRows;
+        this.fullLoadOn = builder.sealBefore;
+        this.refreshedAt = refreshedAt;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int titleCount() {
+        return titleIds.size();
+    }
+
+    public int sealedRows() {
+        return sealedRows;
+    }
+
+    public LocalDate fullLoadOn() {
+        return fullLoadOn;
+    }
+
+    public LocalDateTime refreshedAt() {
+        return refreshedAt;
+    }
+
+    /**
+     * Bytes held by the per loan arrays
+     */
+    public long memoryBytes() {
+        return (long) size * (Integer.BYTES * 8 + Byte.BYTES * 2);
+    }
+
+    /**
+     * Builder of a full load; loans returned before the given day are sealed
+     */
+    public static Builder builder(LocalDate sealBefore) {
+        return new Builder(sealBefore, new Dictionary());
+    }
+
+    /**
+     * Builder of an incremental refresh, starting from the sealed loans of the previous snapshot
+     */
+    public static Builder builder(LoanColumns previous) {
+        Builder builder = new Builder(previous.fullLoadOn, new Dictionary(previous.titleIds));
+        builder.copySealed(previous);
+        return builder;
+    }
+
+    public static class Builder {
+        private final LocalDate sealBefore;
+        private final int sealBeforeDay;
+        private final Dictionary titleIds;
+        private final Dictionary publishers = new Dictionary();
+        private final Dictionary categories = new Dictionary();
+        private final Map<Integer, TitleInfo> titleInfo = new HashMap<>();
+
+        private int size;
+        private int sealedRows;
+        private int[] title = new int[1024];
+        private byte[] role = new byte[1024];
+        private byte[] condition = new byte[1024];
+        private int[] borrowDay = new int[1024];
+        private int[] borrowMonth = new int[1024];
+        private int[] dueDay = new int[1024];
+        private int[] returnDay = new int[1024];
+        private int[] chargedPrice = new int[1024];
+        private int[] penalty = new int[1024];
+        private boolean[] sealed = new boolean[1024];
+
+        private Builder(LocalDate sealBefore, Dictionary titleIds) {
+            this.sealBefore = sealBefore;
+            this.sealBeforeDay = (int) sealBefore.toEpochDay();
+            this.titleIds = titleIds;
+        }
+
+        public Builder addLoan(String bookTitleId, UserRole userRole, BookCopyCondition copyCondition,
+                               LocalDate borrowDate, LocalDate dueDate, LocalDate returnedDate,
+                               int charged, int penaltyFee) {
+            ensureCapacity(size + 1);
+            int i = size++;
+            title[i] = titleIds.encode(bookTitleId != null ? bookTitleId : UNKNOWN);
+            role[i] = userRole != null ? (byte) userRole.ordinal() : UNKNOWN_ROLE;
+            condition[i] = copyCondition != null ? (byte) copyCondition.ordinal() : UNKNOWN_CONDITION;
+            borrowDay[i] = (int) borrowDate.toEpochDay();
+            borrowMonth[i] = borrowDate.getYear() * 12 + borrowDate.getMonthValue() - 1;
+            dueDay[i] = dueDate != null ? (int) dueDate.toEpochDay() : OPEN;
+            returnDay[i] = returnedDate != null ? (int) returnedDate.toEpochDay() : OPEN;
+            chargedPrice[i] = charged;
+            penalty[i] = penaltyFee;
+            sealed[i] = returnDay[i] < sealBeforeDay;
+            if (sealed[i]) {
+                sealedRows++;
+            }
+            return this;
+        }
+
+        public Builder addTitle(String id, String name, String publisher, Collection<String> categoryNames) {
+            TitleInfo info = titleInfo.computeIfAbsent(titleIds.encode(id), code -> new TitleInfo());
+            info.name = name;
+            info.publisher = publisher != null ? publishers.encode(publisher) : -1;
+            for (String category : categoryNames) {
+                info.categories.add(categories.encode(category));
+            }
+            return this;
+        }
+
+        public LoanColumns build(LocalDateTime refreshedAt) {
+            // Stable partition, sealed loans first
+            int[] order = new int[size];
+            int next = 0;
+            for (int i = 0; i < size; i++) {
+                if (sealed[i]) {
+                    order[next++] = i;
+                }
+            }
+            for (int i = 0; i < size; i++) {
+                if (!sealed[i]) {
+                    order[next++] = i;
+                }
+            }
+            return new LoanColumns(this, order, refreshedAt);
+        }
+
+        private void copySealed(LoanColumns previous) {
+            int rows = previous.sealedRows;
+            ensureCapacity(rows);
+            System.arraycopy(previous.title, 0, title, 0, rows);
+            System.arraycopy(previous.role, 0, role, 0, rows);
+            System.arraycopy(previous.condition, 0, condition, 0, rows);
+            System.arraycopy(previous.borrowDay, 0, borrowDay, 0, rows);
+            System.arraycopy(previous.borrowMonth, 0, borrowMonth, 0, rows);
+            System.arraycopy(previous.dueDay, 0, dueDay, 0, rows);
+            System.arraycopy(previous.returnDay, 0, returnDay, 0, rows);
+            System.arraycopy(previous.chargedPrice, 0, chargedPrice, 0, rows);
+            System.arraycopy(previous.penalty, 0, penalty, 0, rows);
+            Arrays.fill(sealed, 0, rows, true);
+            size = rows;
+            sealedRows = rows;
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity <= title.length) {
+                return;
+            }
+            int length = Math.max(capacity, title.length * 2);
+            title = Arrays.copyOf(title, length);
+            role = Arrays.copyOf(role, length);
+            condition = Arrays.copyOf(condition, length);
+            borrowDay = Arrays.copyOf(borrowDay, length);
+            borrowMonth = Arrays.copyOf(borrowMonth, length);
+            dueDay = Arrays.copyOf(dueDay, length);
+            returnDay = Arrays.copyOf(returnDay, length);
+            chargedPrice = Arrays.copyOf(chargedPrice, length);
+            penalty = Arrays.copyOf(penalty, length);
+            sealed = Arrays.copyOf(sealed, length);
+        }
+    }
+
+    private static class TitleInfo {
+        private String name;
+        private int publisher = -1;
+        private final List<Integer> categories = new ArrayList<>();
+    }
+
+    private static int[] permute(int[] column, int[] order) {
+        int[] result = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            result[i] = column[order[i]];
+        }
+        return result;
+    }
+
+    private static byte[] permute(byte[] column, int[] order) {
+        byte[] result = new byte[order.length];
+        for (int i = 0; i < order.length; i++) {
+            result[i] = column[order[i]];
+        }
+        return result;
+    }
+}
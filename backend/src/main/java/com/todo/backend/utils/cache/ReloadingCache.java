@@ -0,0 +1,61 @@
+package com.todo.backend.utils.cache;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-key values loaded from the database on first use, kept in step with this node's commits through
+ * {@link #ifLoaded}, and loaded again once older than the max age, which bounds how long changes committed
+ * on other nodes are missed. A load runs inside the map's lock for its key, so a change applied meanwhile
+ * waits for it instead of being lost. Values are shared between threads and must guard their own state.
+ */
+public final class ReloadingCache<K, V> {
+    private record Entry<V>(V value, long loadedAtNanos) {
+    }
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final Function<K, V> loader;
+    private final LongSupplier maxAgeNanos;
+    private final LongSupplier nanoClock;
+
+    /**
+     * @param maxAgeNanos read on every lookup, so it may follow a setting injected after construction
+     */
+    public ReloadingCache(Function<K, V> loader, LongSupplier maxAgeNanos) {
+        this(loader, maxAgeNanos, System::nanoTime);
+    }
+
+    ReloadingCache(Function<K, V> loader, LongSupplier maxAgeNanos, LongSupplier nanoClock) {
+        this.loader = loader;
+        this.maxAgeNanos = maxAgeNanos;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * The key's value, loaded if missing or too old
+     */
+    public V get(K key) {
+        long now = nanoClock.getAsLong();
+        long maxAge = maxAgeNanos.getAsLong();
+        return entries.compute(key, (k, entry) -> {
+            if (entry != null && now - entry.loadedAtNanos() < maxAge) {
+                return entry;
+            }
+            return new Entry<>(loader.apply(k), now);
+        }).value();
+    }
+
+    /**
+     * Applies a change to the key's value if it is loaded, waiting for a load in progress.
+     * Keys not loaded yet read the change from the database when they are.
+     */
+    public void ifLoaded(K key, Consumer<V> change) {
+        entries.computeIfPresent(key, (k, entry) -> {
+            change.accept(entry.value());
+            return entry;
+        });
+    }
+}
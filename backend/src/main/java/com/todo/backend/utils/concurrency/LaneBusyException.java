@@ -0,0 +1,11 @@
+package com.todo.backend.utils.concurrency;
+
+/**
+ * The user's command lane is full or did not start the command in time; the command was not run
+ * and can be retried
+ */
+public class LaneBusyException extends RuntimeException {
+    public LaneBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,193 @@
+package com.todo.backend.utils.concurrency;
+
+import com.todo.backend.dto.statistics.QueryTimingDto;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.function.Supplier;
+
+/**
+ * Runs independent read queries of one request side by side on virtual threads.
+ * Each query gets its own transaction, and with it its own pooled connection, so the number of
+ * queries in flight across all requests is capped to keep the connection pool from draining.
+ * <p>
+ * With a parallelism of 1 queries run inline on the caller's thread, one after another.
+ */
+@Component
+@Slf4j
+public class ParallelQueryRunner {
+    private final int parallelism;
+    private final long timeoutNanos;
+    private final Semaphore permits;
+    private final ExecutorService executor;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate readWriteTransaction;
+    private final Map<String, Timing> timings = new ConcurrentHashMap<>();
+
+    public ParallelQueryRunner(PlatformTransactionManager transactionManager,
+                               @Value("${library.statistics.query-parallelism:4}") int parallelism,
+                               @Value("${library.statistics.query-timeout-ms:10000}") long timeoutMillis) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Query parallelism must be positive");
+        }
+        this.parallelism = parallelism;
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        this.permits = new Semaphore(parallelism, true);
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("parallel-query-", 0).factory());
+
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readWriteTransaction = new TransactionTemplate(transactionManager);
+        this.readWriteTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Start a batch of queries; closing it records the batch's wall time under its name
+     * and cancels whatever is still running, e.g. after a failure
+     */
+    public Batch batch(String name) {
+        return new Batch(name);
+    }
+
+    /**
+     * Timing of every named query so far, slowest first
+     */
+    public List<QueryTimingDto> getTimings() {
+        return timings.entrySet().stream()
+                .map(entry -> entry.getValue().snapshot(entry.getKey()))
+                .sorted(Comparator.comparingDouble(QueryTimingDto::getMaxMillis).reversed())
+                .toList();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public class Batch implements AutoCloseable {
+        private final String batchName;
+        private final long start = System.nanoTime();
+        private final long deadline = start + timeoutNanos;
+        private final List<Future<?>> futures = new ArrayList<>();
+
+        private Batch(String batchName) {
+            this.batchName = batchName;
+        }
+
+        public <T> Future<T> submit(String name, Supplier<T> query) {
+            return submit(name, readOnlyTransaction, query);
+        }
+
+        /**
+         * For reads that may write on the side, e.g. a lazily refreshed snapshot
+         */
+        public <T> Future<T> submitReadWrite(String name, Supplier<T> query) {
+            return submit(name, readWriteTransaction, query);
+        }
+
+        /**
+         * Result of a submitted query, waiting at most until the batch deadline.
+         * Runtime exceptions thrown by the query are rethrown as is.
+         */
+        public <T> T get(Future<T> future) {
+            try {
+                return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                if (cause instanceof Error error) {
+                    throw error;
+                }
+                throw new RuntimeException("Query failed: ", cause);
+            } catch (TimeoutException e) {
+                throw new RuntimeException("Query did not finish within " + TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + " ms", e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for query", e);
+            }
+        }
+
+        @Override
+        public void close() {
+            for (Future<?> future : futures) {
+                future.cancel(true);
+            }
+            record(batchName, System.nanoTime() - start);
+        }
+
+        private <T> Future<T> submit(String name, TransactionTemplate transaction, Supplier<T> query) {
+            if (parallelism == 1) {
+                try {
+                    return CompletableFuture.completedFuture(run(name, transaction, query));
+                } catch (RuntimeException | Error e) {
+                    return CompletableFuture.failedFuture(e);
+                }
+            }
+
+            Future<T> future = executor.submit(() -> {
+                permits.acquire();
+                try {
+                    return run(name, transaction, query);
+                } finally {
+                    permits.release();
+                }
+            });
+            futures.add(future);
+            return future;
+        }
+    }
+
+    private <T> T run(String name, TransactionTemplate transaction, Supplier<T> query) {
+        long start = System.nanoTime();
+        try {
+            return transaction.execute(status -> query.get());
+        } finally {
+            record(name, System.nanoTime() - start);
+        }
+    }
+
+    private void record(String name, long elapsedNanos) {
+        timings.computeIfAbsent(name, key -> new Timing()).record(elapsedNanos);
+        log.debug("{} took {} ms", name, elapsedNanos / 1_000_000.0);
+    }
+
+    private static class Timing {
+        private final AtomicLong executions = new AtomicLong();
+        private final AtomicLong totalNanos = new AtomicLong();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private volatile long lastNanos;
+
+        void record(long nanos) {
+            executions.incrementAndGet();
+            totalNanos.addAndGet(nanos);
+            maxNanos.accumulate(nanos);
+            lastNanos = nanos;
+        }
+
+        QueryTimingDto snapshot(String name) {
+            long count = executions.get();
+            return QueryTimingDto.builder()
+                    .query(name)
+                    .executions(count)
+                    .lastMillis(lastNanos / 1_000_000.0)
+                    .averageMillis(count == 0 ? 0 : totalNanos.get() / count / 1_000_000.0)
+                    .maxMillis(maxNanos.get() / 1_000_000.0)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.todo.backend.utils.concurrency;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket of {@code burst} permits refilled at {@code permitsPerSecond}, kept as a single theoretical
+ * arrival time instead of a token count (the generic cell rate algorithm): a permit is free once that time
+ * is at most {@code burst - 1} intervals ahead of now, and each permit pushes it one interval further.
+ * Thread safe; waiting happens outside the lock, so callers are served in the order they reserved.
+ */
+public final class RateLimiter {
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final LongSupplier nanoClock;
+    private long theoreticalArrival;
+
+    public RateLimiter(double permitsPerSecond, int burst) {
+        this(permitsPerSecond, burst, System::nanoTime);
+    }
+
+    RateLimiter(double permitsPerSecond, int burst, LongSupplier nanoClock) {
+        if (!(permitsPerSecond > 0)) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive");
+        }
+        if (burst < 1) {
+            throw new IllegalArgumentException("burst must be at least 1");
+        }
+        this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.burstNanos = (burst - 1) * intervalNanos;
+        this.nanoClock = nanoClock;
+        this.theoreticalArrival = nanoClock.getAsLong();
+    }
+
+    /**
+     * Takes a permit, blocking until it is free
+     * @return nanoseconds waited
+     */
+    public long acquire() throws InterruptedException {
+        long waitNanos = reserve();
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+        return waitNanos;
+    }
+
+    /**
+     * Takes a permit only if it is free right now
+     */
+    public synchronized boolean tryAcquire() {
+        long now = nanoClock.getAsLong();
+        if (theoreticalArrival - burstNanos - now > 0) {
+            return false;
+        }
+        theoreticalArrival = Math.max(theoreticalArrival, now) + intervalNanos;
+        return true;
+    }
+
+    /**
+     * Takes the next permit
+     * @return nanoseconds until it may be used
+     */
+    synchronized long reserve() {
+        long now = nanoClock.getAsLong();
+        long waitNanos = Math.max(0, theoreticalArrival - burstNanos - now);
+        theoreticalArrival = Math.max(theoreticalArrival, now) + intervalNanos;
+        return waitNanos;
+    }
+}
@@ -0,0 +1,207 @@
+package com.todo.backend.utils.concurrency;
+
+import com.todo.backend.dto.lane.CommandLaneMetricsDto;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.function.Supplier;
+
+/**
+ * Runs balance-affecting commands on striped single-threaded lanes keyed by user ID.
+ * All mutations for one user run one after another on the same lane, so they never queue on that
+ * user's row lock in the database, while different users hash to different lanes and run in parallel.
+ * <p>
+ * Commands submitted from a lane thread run inline, so a command may call other lane-routed code
+ * without deadlocking on its own lane.
+ * <p>
+ * Each lane queues at most {@code queueCapacity} commands, and a caller waits at most {@code startTimeoutMillis}
+ * for its command to start; past either limit the command is not run and LaneBusyException is thrown, so a hot
+ * account cannot pile up requests and the threads waiting on them.
+ * <p>
+ * Inside a command, rows are locked in a fixed order: the USER row first (via the balance update),
+ * then BOOK_COPY rows. Services must apply the balance change before touching copy status.
+ */
+@Component
+@Slf4j
+public class UserCommandLanes {
+    private final ThreadLocal<Lane> currentLane = new ThreadLocal<>();
+    private final Lane[] lanes;
+    private final long startTimeoutNanos;
+
+    public UserCommandLanes(int laneCount) {
+        this(laneCount, 64, 10_000);
+    }
+
+    @Autowired
+    public UserCommandLanes(@Value("${library.command-lanes.count:16}") int laneCount,
+                            @Value("${library.command-lanes.queue-capacity:64}") int queueCapacity,
+                            @Value("${library.command-lanes.start-timeout-ms:10000}") long startTimeoutMillis) {
+        if (laneCount <= 0) {
+            throw new IllegalArgumentException("Command lane count must be positive");
+        }
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("Command lane queue capacity must be positive");
+        }
+
+        lanes = new Lane[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = new Lane(i, queueCapacity);
+        }
+        this.startTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(startTimeoutMillis);
+    }
+
+    /**
+     * Run a command on the user's lane and wait for its result.
+     * Runtime exceptions thrown by the command are rethrown as is.
+     * @throws LaneBusyException if the lane is full or the command did not start in time, it was not run
+     */
+    public <T> T execute(String userId, Supplier<T> command) {
+        if (currentLane.get() != null) {
+            return command.get();
+        }
+
+        Lane lane = laneFor(userId);
+        long submittedAt = System.nanoTime();
+        // Claimed by whichever comes first: the lane starting the command or the caller giving up on it
+        AtomicBoolean claimed = new AtomicBoolean();
+        Future<T> future;
+        try {
+            future = lane.executor.submit(() -> {
+                if (!claimed.compareAndSet(false, true)) {
+                    return null;
+                }
+                lane.recordWait(System.nanoTime() - submittedAt);
+                currentLane.set(lane);
+                try {
+                    return command.get();
+                } finally {
+                    currentLane.remove();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            lane.rejected.incrementAndGet();
+            throw new LaneBusyException("Too many pending requests for this account, try again later");
+        }
+
+        try {
+            try {
+                return future.get(startTimeoutNanos, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                // Only give up on a command that has not started; one already running is waited for,
+                // its outcome must reach the caller
+                if (claimed.compareAndSet(false, true)) {
+                    future.cancel(false);
+                    // Frees its queue slot now instead of when the lane reaches it
+                    lane.executor.remove((Runnable) future);
+                    lane.rejected.incrementAndGet();
+                    throw new LaneBusyException("Timed out waiting for earlier requests of this account, try again later");
+                }
+                return future.get();
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new RuntimeException("User command failed: ", cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new RuntimeException("Interrupted while waiting for user command", e);
+        }
+    }
+
+    public void execute(String userId, Runnable command) {
+        execute(userId, () -> {
+            command.run();
+            return null;
+        });
+    }
+
+    public List<CommandLaneMetricsDto> getMetrics() {
+        List<CommandLaneMetricsDto> metrics = new ArrayList<>(lanes.length);
+        for (Lane lane : lanes) {
+            metrics.add(lane.snapshot());
+        }
+        return metrics;
+    }
+
+    private Lane laneFor(String userId) {
+        if (userId == null) {
+            throw new IllegalArgumentException("User ID is required to route a command");
+        }
+        return lanes[Math.floorMod(userId.hashCode(), lanes.length)];
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Lane lane : lanes) {
+            lane.executor.shutdown();
+        }
+        for (Lane lane : lanes) {
+            try {
+                if (!lane.executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                    log.warn("Command lane {} did not drain before shutdown", lane.index);
+                    lane.executor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                lane.executor.shutdownNow();
+            }
+        }
+    }
+
+    private static class Lane {
+        private final int index;
+        private final ThreadPoolExecutor executor;
+        private final AtomicLong completed = new AtomicLong();
+        private final AtomicLong totalWaitNanos = new AtomicLong();
+        private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+        private final AtomicLong rejected = new AtomicLong();
+        private final int queueCapacity;
+
+        Lane(int index, int queueCapacity) {
+            this.index = index;
+            this.queueCapacity = queueCapacity;
+            // Full queue rejects the submission (AbortPolicy)
+            this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "user-command-lane-" + index);
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+        }
+
+        void recordWait(long waitNanos) {
+            completed.incrementAndGet();
+            totalWaitNanos.addAndGet(waitNanos);
+            maxWaitNanos.accumulate(waitNanos);
+        }
+
+        CommandLaneMetricsDto snapshot() {
+            long count = completed.get();
+            return CommandLaneMetricsDto.builder()
+                    .lane(index)
+                    .queueDepth(executor.getQueue().size())
+                    .queueCapacity(queueCapacity)
+                    .rejectedCommands(rejected.get())
+                    .executedCommands(count)
+                    .averageWaitMillis(count == 0 ? 0 : totalWaitNanos.get() / count / 1_000_000.0)
+                    .maxWaitMillis(maxWaitNanos.get() / 1_000_000.0)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.todo.backend.utils.fees;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Late fee rule shared by returns and the nightly accrual batch:
+ * 5,000 VND per day past the due date, capped at the book's price.
+ */
+public final class LateFeePolicy {
+    public static final int DAILY_LATE_FEE = 5000;
+
+    private LateFeePolicy() {
+    }
+
+    public static long daysLate(LocalDate dueDate, LocalDate asOf) {
+        return asOf.isAfter(dueDate) ? ChronoUnit.DAYS.between(dueDate, asOf) : 0;
+    }
+
+    public static int cappedLateFee(LocalDate dueDate, LocalDate asOf, int bookPrice) {
+        long lateFee = daysLate(dueDate, asOf) * DAILY_LATE_FEE;
+        return (int) Math.min(lateFee, bookPrice);
+    }
+}
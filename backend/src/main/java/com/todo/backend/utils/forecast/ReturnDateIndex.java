@@ -0,0 +1,144 @@
+package com.todo.backend.utils.forecast;
+
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Multiset of dates that answers "the k-th earliest date" as well as adding and removing one, all in
+ * O(log n) expected time. A treap keyed by date, one node per distinct date with its multiplicity, and
+ * each node keeping the number of dates in its subtree so the k-th date is found on one path down.
+ * <p>
+ * Not thread safe, the owner guards it.
+ */
+public final class ReturnDateIndex {
+    private Node root;
+
+    private static final class Node {
+        final long day;
+        final int priority = ThreadLocalRandom.current().nextInt();
+        int count = 1;
+        int size = 1;
+        Node left;
+        Node right;
+
+        Node(long day) {
+            this.day = day;
+        }
+
+        void resize() {
+            size = count + size(left) + size(right);
+        }
+    }
+
+    public int size() {
+        return size(root);
+    }
+
+    public void add(LocalDate date) {
+        root = insert(root, date.toEpochDay());
+    }
+
+    /**
+     * @return whether the date was present; one occurrence is removed
+     */
+    public boolean remove(LocalDate date) {
+        int before = size();
+        root = delete(root, date.toEpochDay());
+        return size() < before;
+    }
+
+    /**
+     * @param k 1 for the earliest date
+     * @return the k-th earliest date counting repeats, or null when there are fewer than k dates
+     */
+    public LocalDate kth(int k) {
+        if (k < 1 || k > size()) {
+            return null;
+        }
+        Node node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (k <= leftSize) {
+                node = node.left;
+            } else if (k <= leftSize + node.count) {
+                return LocalDate.ofEpochDay(node.day);
+            } else {
+                k -= leftSize + node.count;
+                node = node.right;
+            }
+        }
+    }
+
+    private static Node insert(Node node, long day) {
+        if (node == null) {
+            return new Node(day);
+        }
+        if (day == node.day) {
+            node.count++;
+        } else if (day < node.day) {
+            node.left = insert(node.left, day);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, day);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        node.resize();
+        return node;
+    }
+
+    private static Node delete(Node node, long day) {
+        if (node == null) {
+            return null;
+        }
+        if (day < node.day) {
+            node.left = delete(node.left, day);
+        } else if (day > node.day) {
+            node.right = delete(node.right, day);
+        } else if (node.count > 1) {
+            node.count--;
+        } else {
+            // Rotate the node down until it has at most one child, then splice it out
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            if (node.left.priority > node.right.priority) {
+                node = rotateRight(node);
+                node.right = delete(node.right, day);
+            } else {
+                node = rotateLeft(node);
+                node.left = delete(node.left, day);
+            }
+        }
+        node.resize();
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        node.resize();
+        left.resize();
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        node.resize();
+        right.resize();
+        return right;
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+}
@@ -0,0 +1,68 @@
+package com.todo.backend.utils.ledger;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Layout of a ledger segment, one per month of balance_transactions:
+ * <pre>
+ * header      MAGIC, VERSION, year, month, row count
+ * dictionary  deflated list of every string in the segment (ids, user ids, types, statuses, descriptions)
+ * directory   one fixed width entry per user, sorted by user id: user dictionary index, block offset, row count
+ * blocks      one block per user, rows by timestamp, each column stored contiguously
+ * footer      CRC32 of everything before it
+ * </pre>
+ * Inside a block, timestamps are delta-of-delta encoded, amounts and balances are delta encoded,
+ * strings are dictionary indexes, all as zigzag varints.
+ */
+final class LedgerSegmentFormat {
+    static final int MAGIC = 0x4C534547; // "LSEG"
+    static final short VERSION = 1;
+    static final int DIRECTORY_ENTRY_BYTES = 12;
+    static final int FOOTER_BYTES = 8;
+
+    private LedgerSegmentFormat() {
+    }
+
+    static void writeUnsigned(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    static void writeSigned(ByteArrayOutputStream out, long value) {
+        writeUnsigned(out, (value << 1) ^ (value >> 63));
+    }
+
+    static long readUnsigned(ByteBuffer buffer) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    static long readSigned(ByteBuffer buffer) {
+        long value = readUnsigned(buffer);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    // Microseconds is the finest precision MySQL DATETIME can hold, so nothing stored there is lost
+    static long toEpochMicros(LocalDateTime timestamp) {
+        return ChronoUnit.MICROS.between(LocalDateTime.of(1970, 1, 1, 0, 0), timestamp);
+    }
+
+    static LocalDateTime fromEpochMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1000, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,195 @@
+package com.todo.backend.utils.ledger;
+
+import com.todo.backend.entity.BalanceTransaction;
+import com.todo.backend.entity.BalanceTransactionStatus;
+import com.todo.backend.entity.BalanceTransactionType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import static com.todo.backend.utils.ledger.LedgerSegmentFormat.*;
+
+/**
+ * Read only view of a ledger segment. Segments never change once written,
+ * so one reader can be shared by any number of threads.
+ */
+public final class LedgerSegmentReader {
+    private final YearMonth month;
+    private final int rowCount;
+    private final long sizeBytes;
+    private final String[] dictionary;
+    private final int userCount;
+    private final ByteBuffer directory;
+    private final ByteBuffer blocks;
+
+    private LedgerSegmentReader(ByteBuffer buffer, long sizeBytes) throws IOException {
+        this.sizeBytes = sizeBytes;
+
+        int bodyLength = buffer.limit() - FOOTER_BYTES;
+        if (bodyLength < 0) {
+            throw new IOException("Ledger segment is truncated");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().position(0).limit(bodyLength));
+        if (crc.getValue() != buffer.getLong(bodyLength)) {
+            throw new IOException("Ledger segment checksum mismatch");
+        }
+
+        ByteBuffer body = buffer.duplicate().position(0).limit(bodyLength);
+        if (body.getInt() != MAGIC || body.getShort() != VERSION) {
+            throw new IOException("Not a ledger segment of a supported version");
+        }
+        this.month = YearMonth.of(body.getInt(), body.get());
+        this.rowCount = body.getInt();
+
+        int compressedLength = body.getInt();
+        int rawLength = body.getInt();
+        this.dictionary = decodeDictionary(body.slice(body.position(), compressedLength), rawLength);
+        body.position(body.position() + compressedLength);
+
+        this.userCount = body.getInt();
+        this.directory = body.slice(body.position(), userCount * DIRECTORY_ENTRY_BYTES);
+        body.position(body.position() + userCount * DIRECTORY_ENTRY_BYTES);
+
+        int blocksLength = body.getInt();
+        this.blocks = body.slice(body.position(), blocksLength);
+    }
+
+    public static LedgerSegmentReader open(byte[] content) throws IOException {
+        return new LedgerSegmentReader(ByteBuffer.wrap(content).asReadOnlyBuffer(), content.length);
+    }
+
+    public YearMonth getMonth() {
+        return month;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    /**
+     * Rows of one user, oldest first; only that user's block is decoded
+     */
+    public List<BalanceTransaction> readUser(String userId) {
+        int low = 0;
+        int high = userCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int entry = mid * DIRECTORY_ENTRY_BYTES;
+            int cmp = dictionary[directory.getInt(entry)].compareTo(userId);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                List<BalanceTransaction> rows = new ArrayList<>(directory.getInt(entry + 8));
+                decodeBlock(userId, directory.getInt(entry + 4), directory.getInt(entry + 8), rows::add);
+                return rows;
+            }
+        }
+        return List.of();
+    }
+
+    /**
+     * Every row of the segment, user by user, oldest first within a user
+     */
+    public void scan(Consumer<BalanceTransaction> consumer) {
+        for (int i = 0; i < userCount; i++) {
+            int entry = i * DIRECTORY_ENTRY_BYTES;
+            decodeBlock(dictionary[directory.getInt(entry)], directory.getInt(entry + 4), directory.getInt(entry + 8), consumer);
+        }
+    }
+
+    private void decodeBlock(String userId, int offset, int count, Consumer<BalanceTransaction> consumer) {
+        // Readers may run concurrently, each decode walks its own view of the buffer
+        ByteBuffer block = blocks.duplicate().position(offset);
+
+        long[] timestamps = new long[count];
+        long previousDelta = 0;
+        for (int i = 0; i < count; i++) {
+            long value = readSigned(block);
+            if (i == 0) {
+                timestamps[i] = value;
+            } else {
+                long delta = i == 1 ? value : previousDelta + value;
+                timestamps[i] = timestamps[i - 1] + delta;
+                previousDelta = delta;
+            }
+        }
+        int[] amounts = readDeltas(block, count);
+        int[] balances = readDeltas(block, count);
+        int[] types = readIndexes(block, count);
+        int[] statuses = readIndexes(block, count);
+        int[] descriptions = readIndexes(block, count);
+        int[] ids = readIndexes(block, count);
+
+        for (int i = 0; i < count; i++) {
+            BalanceTransaction row = new BalanceTransaction();
+            row.setId(dictionary[ids[i]]);
+            row.setUserId(userId);
+            row.setType(BalanceTransactionType.valueOf(dictionary[types[i]]));
+            row.setAmount(amounts[i]);
+            row.setDescription(dictionary[descriptions[i]]);
+            row.setTimestamp(fromEpochMicros(timestamps[i]));
+            row.setBalanceAfter(balances[i]);
+            row.setStatus(BalanceTransactionStatus.valueOf(dictionary[statuses[i]]));
+            consumer.accept(row);
+        }
+    }
+
+    private static int[] readDeltas(ByteBuffer block, int count) {
+        int[] values = new int[count];
+        long previous = 0;
+        for (int i = 0; i < count; i++) {
+            previous += readSigned(block);
+            values[i] = (int) previous;
+        }
+        return values;
+    }
+
+    private static int[] readIndexes(ByteBuffer block, int count) {
+        int[] values = new int[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = (int) readUnsigned(block);
+        }
+        return values;
+    }
+
+    private static String[] decodeDictionary(ByteBuffer compressed, int rawLength) throws IOException {
+        Inflater inflater = new Inflater();
+        ByteBuffer raw = ByteBuffer.allocate(rawLength);
+        try {
+            inflater.setInput(compressed);
+            while (raw.hasRemaining() && !inflater.finished()) {
+                if (inflater.inflate(raw) == 0 && inflater.needsInput()) {
+                    throw new IOException("Ledger segment dictionary is truncated");
+                }
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Ledger segment dictionary is corrupt", e);
+        } finally {
+            inflater.end();
+        }
+        raw.flip();
+
+        String[] values = new String[(int) readUnsigned(raw)];
+        for (int i = 0; i < values.length; i++) {
+            int length = (int) readUnsigned(raw);
+            values[i] = StandardCharsets.UTF_8.decode(raw.slice(raw.position(), length)).toString();
+            raw.position(raw.position() + length);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,167 @@
+package com.todo.backend.utils.ledger;
+
+import com.todo.backend.entity.BalanceTransaction;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import static com.todo.backend.utils.ledger.LedgerSegmentFormat.*;
+
+/**
+ * Writes one immutable ledger segment, see {@link LedgerSegmentFormat} for the layout.
+ */
+public final class LedgerSegmentWriter {
+
+    private LedgerSegmentWriter() {
+    }
+
+    /**
+     * Encodes one month of rows into a segment. The rows must come grouped by user, oldest first within a user,
+     * so only one user's rows are held at a time; the order of the users themselves does not matter.
+     * @return the segment bytes, or empty if there were no rows
+     */
+    public static Optional<byte[]> write(YearMonth month, Iterator<BalanceTransaction> rows) {
+        Map<String, Integer> dictionary = new LinkedHashMap<>();
+        List<DirectoryEntry> entries = new ArrayList<>();
+        Set<String> finishedUsers = new HashSet<>();
+        ByteArrayOutputStream blocks = new ByteArrayOutputStream();
+        List<BalanceTransaction> userRows = new ArrayList<>();
+        int rowCount = 0;
+        while (rows.hasNext()) {
+            BalanceTransaction row = rows.next();
+            if (!userRows.isEmpty() && !userRows.getFirst().getUserId().equals(row.getUserId())) {
+                entries.add(writeUser(blocks, userRows, dictionary, finishedUsers));
+                userRows.clear();
+            }
+            userRows.add(row);
+            rowCount++;
+        }
+        if (rowCount == 0) {
+            return Optional.empty();
+        }
+        entries.add(writeUser(blocks, userRows, dictionary, finishedUsers));
+
+        // Blocks are in arrival order, the directory is sorted by user id for the reader's binary search
+        entries.sort(Comparator.comparing(DirectoryEntry::userId));
+        ByteBuffer directory = ByteBuffer.allocate(entries.size() * DIRECTORY_ENTRY_BYTES);
+        for (DirectoryEntry entry : entries) {
+            directory.putInt(dictionary.get(entry.userId())).putInt(entry.offset()).putInt(entry.rowCount());
+        }
+
+        byte[] rawDictionary = encodeDictionary(dictionary);
+        byte[] compressedDictionary = deflate(rawDictionary);
+
+        ByteArrayOutputStream segment = new ByteArrayOutputStream(compressedDictionary.length + directory.capacity() + blocks.size() + 64);
+        segment.writeBytes(ByteBuffer.allocate(15)
+                .putInt(MAGIC)
+                .putShort(VERSION)
+                .putInt(month.getYear())
+                .put((byte) month.getMonthValue())
+                .putInt(rowCount)
+                .array());
+        segment.writeBytes(ByteBuffer.allocate(8).putInt(compressedDictionary.length).putInt(rawDictionary.length).array());
+        segment.writeBytes(compressedDictionary);
+        segment.writeBytes(ByteBuffer.allocate(4).putInt(entries.size()).array());
+        segment.writeBytes(directory.array());
+        segment.writeBytes(ByteBuffer.allocate(4).putInt(blocks.size()).array());
+        segment.writeBytes(blocks.toByteArray());
+
+        CRC32 crc = new CRC32();
+        crc.update(segment.toByteArray());
+        segment.writeBytes(ByteBuffer.allocate(FOOTER_BYTES).putLong(crc.getValue()).array());
+        return Optional.of(segment.toByteArray());
+    }
+
+    private static DirectoryEntry writeUser(ByteArrayOutputStream blocks, List<BalanceTransaction> userRows,
+                                            Map<String, Integer> dictionary, Set<String> finishedUsers) {
+        String userId = userRows.getFirst().getUserId();
+        if (!finishedUsers.add(userId)) {
+            throw new IllegalArgumentException("Ledger rows of user " + userId + " are not grouped together");
+        }
+        intern(dictionary, userId);
+        DirectoryEntry entry = new DirectoryEntry(userId, blocks.size(), userRows.size());
+        writeBlock(blocks, userRows, dictionary);
+        return entry;
+    }
+
+    private static void writeBlock(ByteArrayOutputStream out, List<BalanceTransaction> rows, Map<String, Integer> dictionary) {
+        // Timestamps: first value, first delta, then the change of delta, which stays near zero for regular activity
+        long previous = 0;
+        long previousDelta = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            long micros = toEpochMicros(rows.get(i).getTimestamp());
+            if (i == 0) {
+                writeSigned(out, micros);
+            } else {
+                long delta = micros - previous;
+                writeSigned(out, i == 1 ? delta : delta - previousDelta);
+                previousDelta = delta;
+            }
+            previous = micros;
+        }
+
+        long previousAmount = 0;
+        for (BalanceTransaction row : rows) {
+            writeSigned(out, (long) row.getAmount() - previousAmount);
+            previousAmount = row.getAmount();
+        }
+
+        long previousBalance = 0;
+        for (BalanceTransaction row : rows) {
+            writeSigned(out, (long) row.getBalanceAfter() - previousBalance);
+            previousBalance = row.getBalanceAfter();
+        }
+
+        for (BalanceTransaction row : rows) {
+            writeUnsigned(out, intern(dictionary, row.getType().name()));
+        }
+        for (BalanceTransaction row : rows) {
+            writeUnsigned(out, intern(dictionary, row.getStatus().name()));
+        }
+        for (BalanceTransaction row : rows) {
+            writeUnsigned(out, intern(dictionary, row.getDescription()));
+        }
+        for (BalanceTransaction row : rows) {
+            writeUnsigned(out, intern(dictionary, row.getId()));
+        }
+    }
+
+    private static int intern(Map<String, Integer> dictionary, String value) {
+        return dictionary.computeIfAbsent(value, v -> dictionary.size());
+    }
+
+    private static byte[] encodeDictionary(Map<String, Integer> dictionary) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeUnsigned(out, dictionary.size());
+        for (String value : dictionary.keySet()) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeUnsigned(out, bytes.length);
+            out.writeBytes(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2 + 16);
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(chunk, 0, deflater.deflate(chunk));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private record DirectoryEntry(String userId, int offset, int rowCount) {
+    }
+}
@@ -0,0 +1,27 @@
+package com.todo.backend.utils.partition;
+
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+/**
+ * Hash that assigns rows to the partitions of the sweeps ({@code MOD(hash, partitions)}), stored next to the key
+ * when the row is written so the sweep queries compare a number instead of parsing strings. CRC32 spreads
+ * UUIDs evenly over any partition count and equals MySQL's {@code CRC32()} of the same string, which
+ * fills the column for rows written before it existed.
+ */
+public final class PartitionHash {
+    private PartitionHash() {
+    }
+
+    /**
+     * @return the unsigned CRC32 of the key's UTF-8 bytes, 0 for a null key
+     */
+    public static long of(String key) {
+        if (key == null) {
+            return 0;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(key.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,54 @@
+package com.todo.backend.utils.reminders;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A message template with {@code {name}} placeholders, parsed once into literal and placeholder parts so
+ * rendering a chunk of reminders is only appends. Unknown placeholders render empty, missing closing braces
+ * are kept as text.
+ */
+public final class ReminderTemplate {
+    // Even indexes are literals, odd ones placeholder names
+    private final String[] parts;
+
+    private ReminderTemplate(String[] parts) {
+        this.parts = parts;
+    }
+
+    public static ReminderTemplate compile(String template) {
+        List<String> parts = new ArrayList<>();
+        int literalStart = 0;
+        int open;
+        while ((open = template.indexOf('{', literalStart)) >= 0) {
+            int close = template.indexOf('}', open + 1);
+            if (close < 0) {
+                break;
+            }
+            parts.add(template.substring(literalStart, open));
+            parts.add(template.substring(open + 1, close));
+            literalStart = close + 1;
+        }
+        parts.add(template.substring(literalStart));
+        return new ReminderTemplate(parts.toArray(String[]::new));
+    }
+
+    /**
+     * Renders into the builder, which is cleared first so one builder can serve a whole chunk
+     */
+    public String render(Map<String, String> values, StringBuilder builder) {
+        builder.setLength(0);
+        for (int i = 0; i < parts.length; i++) {
+            if (i % 2 == 0) {
+                builder.append(parts[i]);
+            } else {
+                String value = values.get(parts[i]);
+                if (value != null) {
+                    builder.append(value);
+                }
+            }
+        }
+        return builder.toString();
+    }
+}
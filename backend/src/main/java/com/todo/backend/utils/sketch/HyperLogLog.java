@@ -0,0 +1,135 @@
+package com.todo.backend.utils.sketch;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * HyperLogLog distinct counter with 2^12 one-byte registers, 4 KB per sketch.
+ * <p>
+ * The relative standard error of an estimate is 1.04 / sqrt(4096), about 1.6%, so about 95% of
+ * estimates are within 3.3% of the true count and 99.7% within 4.9%. Small counts use linear counting
+ * and are close to exact. Sketches of the same size merge losslessly: the merge of two sketches is the
+ * sketch of the union, so a month is the merge of its days.
+ */
+public class HyperLogLog {
+    public static final int PRECISION = 12;
+    public static final int REGISTERS = 1 << PRECISION;
+    public static final double RELATIVE_STANDARD_ERROR = 1.04 / Math.sqrt(REGISTERS);
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+
+    private final byte[] registers;
+
+    public HyperLogLog() {
+        this.registers = new byte[REGISTERS];
+    }
+
+    private HyperLogLog(byte[] registers) {
+        this.registers = registers;
+    }
+
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        if (bytes.length != REGISTERS) {
+            throw new IllegalArgumentException("Sketch must have " + REGISTERS + " registers, got " + bytes.length);
+        }
+        return new HyperLogLog(bytes.clone());
+    }
+
+    public byte[] toBytes() {
+        return registers.clone();
+    }
+
+    /**
+     * Add a value; returns whether a register grew, i.e. whether the stored sketch has to be written
+     */
+    public boolean offer(String value) {
+        return offerHash(hash(value));
+    }
+
+    public boolean offerHash(long hash) {
+        int index = index(hash);
+        byte rank = rank(hash);
+        if (registers[index] >= rank) {
+            return false;
+        }
+        registers[index] = rank;
+        return true;
+    }
+
+    /**
+     * Whether adding the hash would change the given registers
+     */
+    public static boolean wouldChange(byte[] registers, long hash) {
+        return registers[index(hash)] < rank(hash);
+    }
+
+    public HyperLogLog merge(HyperLogLog other) {
+        for (int i = 0; i < REGISTERS; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+        return this;
+    }
+
+    public long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = ALPHA * REGISTERS * REGISTERS / sum;
+        // Linear counting is more accurate while many registers are still empty
+        if (estimate <= 2.5 * REGISTERS && zeros > 0) {
+            estimate = REGISTERS * Math.log((double) REGISTERS / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    public boolean isEmpty() {
+        for (byte register : registers) {
+            if (register != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 64 bit FNV-1a, finished with MurmurHash3's fmix64 so the high bits picking the register are well mixed
+     */
+    public static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static int index(long hash) {
+        return (int) (hash >>> (64 - PRECISION));
+    }
+
+    // Position of the first one bit after the index bits, at most 64 - PRECISION + 1
+    private static byte rank(long hash) {
+        return (byte) (Long.numberOfLeadingZeros((hash << PRECISION) | (1L << (PRECISION - 1))) + 1);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof HyperLogLog other && Arrays.equals(registers, other.registers);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(registers);
+    }
+}
@@ -0,0 +1,175 @@
+package com.todo.backend.utils.timer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel: {@value #LEVELS} levels of {@value #SLOTS} slots, each level's slot spanning
+ * {@value #SLOTS} slots of the level below. A timer is filed by how far away it is, and moved down a level
+ * when the wheel reaches its slot, so schedule and cancel are O(1) and advancing costs O(1) per tick plus
+ * O(1) per timer per level it passes through. With one second ticks the wheel spans about 2000 years.
+ * <p>
+ * Each slot is a circular doubly linked list through the {@link Timeout}s themselves, so a pending timer
+ * costs one small object and no collection entries. Thread safe; callers are expected to advance it
+ * from one thread.
+ */
+public final class TimingWheel<T> {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 6;
+    private static final long MAX_TICKS = 1L << (SLOT_BITS * LEVELS);
+
+    private final long tickMillis;
+    private final Timeout<T>[] slots;
+    // Timers already due when filed, fired by the current or next advance
+    private final Timeout<T> due = sentinel();
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+        this.slots = new Timeout[LEVELS * SLOTS];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = sentinel();
+        }
+    }
+
+    /**
+     * Schedules the payload to fire by the first advance at or after deadlineMillis
+     */
+    public synchronized Timeout<T> schedule(long deadlineMillis, T payload) {
+        // Rounded up, a timer never fires early
+        long deadlineTick = -Math.floorDiv(-deadlineMillis, tickMillis);
+        if (deadlineTick - currentTick >= MAX_TICKS) {
+            throw new IllegalArgumentException("Deadline is beyond the range of the wheel: " + deadlineMillis);
+        }
+        Timeout<T> timeout = new Timeout<>(deadlineTick, payload);
+        file(timeout);
+        size++;
+        return timeout;
+    }
+
+    /**
+     * @return whether the timer was pending; false once it fired or was cancelled
+     */
+    public synchronized boolean cancel(Timeout<T> timeout) {
+        if (timeout.next == null) {
+            return false;
+        }
+        unlink(timeout);
+        size--;
+        return true;
+    }
+
+    /**
+     * Moves the wheel up to nowMillis
+     * @return the timers that came due, earliest tick first
+     */
+    public synchronized List<Timeout<T>> advance(long nowMillis) {
+        List<Timeout<T>> fired = new ArrayList<>();
+        drain(due, fired);
+
+        long targetTick = Math.floorDiv(nowMillis, tickMillis);
+        while (currentTick < targetTick) {
+            if (size == fired.size()) {
+                // Nothing left to move down, skip the idle ticks
+                currentTick = targetTick;
+                break;
+            }
+            currentTick++;
+            // Highest level first, a timer can drop several levels at once
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    Timeout<T> slot = slots[level * SLOTS + (int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK)];
+                    List<Timeout<T>> cascaded = new ArrayList<>();
+                    drain(slot, cascaded);
+                    cascaded.forEach(this::file);
+                }
+            }
+            // Cascaded timers due on this very tick were filed as due
+            drain(due, fired);
+            drain(slots[(int) (currentTick & SLOT_MASK)], fired);
+        }
+
+        size -= fired.size();
+        return fired;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    // Level is the lowest one whose span covers the distance, slot is the deadline's digit at that level
+    private void file(Timeout<T> timeout) {
+        long distance = timeout.deadlineTick - currentTick;
+        if (distance <= 0) {
+            link(due, timeout);
+            return;
+        }
+        int level = 0;
+        while (distance >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        int slot = (int) ((timeout.deadlineTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+        link(slots[level * SLOTS + slot], timeout);
+    }
+
+    private static <T> void drain(Timeout<T> slot, List<Timeout<T>> into) {
+        Timeout<T> timeout = slot.next;
+        while (timeout != slot) {
+            Timeout<T> next = timeout.next;
+            timeout.prev = null;
+            timeout.next = null;
+            into.add(timeout);
+            timeout = next;
+        }
+        slot.prev = slot;
+        slot.next = slot;
+    }
+
+    private static <T> void link(Timeout<T> slot, Timeout<T> timeout) {
+        timeout.prev = slot.prev;
+        timeout.next = slot;
+        slot.prev.next = timeout;
+        slot.prev = timeout;
+    }
+
+    private static <T> void unlink(Timeout<T> timeout) {
+        timeout.prev.next = timeout.next;
+        timeout.next.prev = timeout.prev;
+        timeout.prev = null;
+        timeout.next = null;
+    }
+
+    private static <T> Timeout<T> sentinel() {
+        Timeout<T> sentinel = new Timeout<>(0, null);
+        sentinel.prev = sentinel;
+        sentinel.next = sentinel;
+        return sentinel;
+    }
+
+    /**
+     * Handle of a scheduled timer, also its node in the slot list
+     */
+    public static final class Timeout<T> {
+        private final long deadlineTick;
+        private final T payload;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+
+        private Timeout(long deadlineTick, T payload) {
+            this.deadlineTick = deadlineTick;
+            this.payload = payload;
+        }
+
+        public T payload() {
+            return payload;
+        }
+    }
+}
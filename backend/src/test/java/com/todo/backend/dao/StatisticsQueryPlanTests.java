@@ -0,0 +1,141 @@
+package com.todo.backend.dao;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Query plan regression tests of the statistics queries. The indexes are taken from InitSampleData.sql,
+ * each query's SQL is captured from Hibernate and EXPLAINed on H2, and a full scan of any table fails the test.
+ * <p>
+ * Whole-table aggregates (user and title counts, all time totals) scan by design and are not checked.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.todo.backend.dao.StatisticsQueryPlanTests$CapturingInspector")
+@TestPropertySource(locations = "classpath:application-integration-tests.properties")
+public class StatisticsQueryPlanTests {
+    private static final Path SCHEMA = Path.of("src/main/java/com/todo/backend/sql/InitSampleData.sql");
+    private static final Set<String> TABLES = Set.of("TRANSACTION", "BOOK_COPY", "BOOK_TITLE", "USER", "DAILY_STATS", "DAILY_TITLE_STATS");
+    private static final Pattern TABLE = Pattern.compile("CREATE TABLE `(\\w+)` \\((.*?)\\n\\) ENGINE", Pattern.DOTALL);
+    private static final Pattern KEY = Pattern.compile("^\\s*KEY `(\\w+)` \\(([^)]*)\\)", Pattern.MULTILINE);
+
+    private static final LocalDate FROM = LocalDate.of(2025, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2026, 1, 1);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private StatisticsRepository statisticsRepository;
+    @Autowired
+    private DailyStatsRepository dailyStatsRepository;
+    @Autowired
+    private DailyTitleStatsRepository dailyTitleStatsRepository;
+    @Autowired
+    private OverdueLoanRepository overdueLoanRepository;
+
+    @BeforeEach
+    void createIndexes() throws IOException {
+        Matcher table = TABLE.matcher(Files.readString(SCHEMA));
+        while (table.find()) {
+            if (!TABLES.contains(table.group(1))) {
+                continue;
+            }
+            Matcher key = KEY.matcher(table.group(2));
+            while (key.find()) {
+                jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS \"%s\" ON \"%s\" (%s)"
+                        .formatted(key.group(1), table.group(1), key.group(2).replace('`', '"')));
+            }
+        }
+    }
+
+    @Test
+    void TC1_PeriodTotals_RangeOnRollup() {
+        /// Act
+        String plan = explain(() -> dailyStatsRepository.sumBetween(FROM, TO), FROM, TO);
+
+        /// Assert
+        assertNoFullScan(plan);
+        assertTrue(plan.contains("STAT_DATE >="), plan);
+    }
+
+    @Test
+    void TC2_MonthlyStats_RangeOnRollup() {
+        /// Act
+        String plan = explain(() -> dailyStatsRepository.sumByMonth(FROM, TO), FROM, TO);
+
+        /// Assert
+        assertNoFullScan(plan);
+    }
+
+    @Test
+    void TC3_PopularBooks_RangeOnTitleRollup() {
+        /// Act
+        String plan = explain(() -> dailyTitleStatsRepository.findPopularBetween(FROM, TO, PageRequest.of(0, 5)), FROM, TO, 5);
+
+        /// Assert
+        assertNoFullScan(plan);
+    }
+
+    @Test
+    void TC4_ActiveTransactions_OpenLoanIndex() {
+        /// Act
+        String plan = explain(() -> statisticsRepository.getActiveTransactions());
+
+        /// Assert
+        assertNoFullScan(plan);
+        assertTrue(plan.contains("IDX_TRANSACTION_RETURNED_DATE"), plan);
+    }
+
+    @Test
+    void TC5_OverdueSource_ReturnedDateDueDateIndex() {
+        /// Act
+        String plan = explain(() -> overdueLoanRepository.findOverdueSource(TO), TO);
+
+        /// Assert
+        assertNoFullScan(plan);
+        assertTrue(plan.contains("IDX_TRANSACTION_RETURNED_DATE_DUE_DATE"), plan);
+    }
+
+    private String explain(Runnable query, Object... parameters) {
+        CapturingInspector.STATEMENTS.clear();
+        query.run();
+        assertFalse(CapturingInspector.STATEMENTS.isEmpty(), "Query issued no SQL");
+        String sql = CapturingInspector.STATEMENTS.getLast();
+
+        List<String> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, parameters);
+        return String.join("\n", plan);
+    }
+
+    private static void assertNoFullScan(String plan) {
+        assertFalse(plan.contains(".tableScan"), () -> "Full table scan in plan:\n" + plan);
+    }
+
+    public static class CapturingInspector implements StatementInspector {
+        static final List<String> STATEMENTS = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            synchronized (STATEMENTS) {
+                STATEMENTS.add(sql);
+            }
+            return sql;
+        }
+    }
+}
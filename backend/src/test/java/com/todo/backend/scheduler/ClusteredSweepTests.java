@@ -0,0 +1,167 @@
+package com.todo.backend.scheduler;
+
+import com.todo.backend.BackendApplication;
+import com.todo.backend.dao.BookTitleRepository;
+import com.todo.backend.dao.ReservationRepository;
+import com.todo.backend.dao.UserRepository;
+import com.todo.backend.entity.BookTitle;
+import com.todo.backend.entity.Reservation;
+import com.todo.backend.entity.User;
+import com.todo.backend.scheduler.sweeps.ReservationExpirySweep;
+import com.todo.backend.service.SweepLeaseService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Several application contexts sharing one H2 database, as nodes behind the load balancer: a run requested
+ * on one node is swept by all of them, every partition exactly once.
+ */
+public class ClusteredSweepTests {
+    private static final int NODES = 3;
+    private static final int PARTITIONS = 8;
+    private static final String PROBE = "clusterProbe";
+
+    // [node, partition] of every probe batch, across all nodes
+    private static final Queue<String[]> probeBatches = new ConcurrentLinkedQueue<>();
+    private static final Queue<String> probeRunsCompleted = new ConcurrentLinkedQueue<>();
+
+    private static final List<ConfigurableApplicationContext> nodes = new ArrayList<>();
+
+    @BeforeAll
+    static void startNodes() {
+        for (int i = 0; i < NODES; i++) {
+            String nodeId = "node-" + i;
+            nodes.add(new SpringApplicationBuilder(BackendApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .initializers(context -> context.getBeanFactory().registerSingleton(PROBE, new ProbeSweep(nodeId)))
+                    // Command line arguments, to take precedence over application.properties
+                    .run(
+                            "--spring.datasource.url=jdbc:h2:mem:cluster;DB_CLOSE_DELAY=-1",
+                            "--spring.datasource.driver-class-name=",
+                            "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                            // The first node creates the schemas, the others join them
+                            "--spring.jpa.hibernate.ddl-auto=" + (i == 0 ? "create" : "none"),
+                            "--spring.quartz.jdbc.initialize-schema=" + (i == 0 ? "always" : "never"),
+                            "--library.cluster.enabled=true",
+                            "--library.deadlines.enabled=false",
+                            "--library.cluster.node-id=" + nodeId,
+                            "--library.sweeps.partitions=" + PARTITIONS,
+                            "--library.sweeps.poll-ms=50"));
+        }
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        nodes.reversed().forEach(ConfigurableApplicationContext::close);
+    }
+
+    @Test
+    void TC1_RunRequestedOnOneNode_EachPartitionSweptOnceByManyNodes() throws Exception {
+        /// Act
+        nodes.get(0).getBean(SweepWorker.class).requestRun(PROBE);
+        awaitRunComplete(PROBE);
+
+        /// Assert
+        Map<String, String> nodeByPartition = new HashMap<>();
+        for (String[] batch : probeBatches) {
+            assertNull(nodeByPartition.put(batch[1], batch[0]), "partition " + batch[1] + " swept twice");
+        }
+        assertEquals(PARTITIONS, nodeByPartition.size());
+        assertTrue(new HashSet<>(nodeByPartition.values()).size() > 1, "one node swept everything: " + nodeByPartition);
+        // Called right after the last partition's lease is released
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (probeRunsCompleted.isEmpty()) {
+            assertTrue(System.currentTimeMillis() < deadline, "run completion not called");
+            Thread.sleep(20);
+        }
+    }
+
+    @Test
+    void TC2_ReservationExpiry_AllNodesRefundOnce() throws Exception {
+        /// Arrange
+        var context = nodes.get(1);
+        var userRepository = context.getBean(UserRepository.class);
+        var bookTitleRepository = context.getBean(BookTitleRepository.class);
+        var reservationRepository = context.getBean(ReservationRepository.class);
+        var jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        var bookTitle = new BookTitle();
+        bookTitle.setTitle("Clustered expiry");
+        bookTitle.setMaxOnlineReservations(100);
+        String bookTitleId = bookTitleRepository.save(bookTitle).getId();
+
+        List<String> userIds = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            var user = new User();
+            user.setCccd("cluster-" + i);
+            user.setName("Cluster " + i);
+            String userId = userRepository.save(user).getId();
+            userIds.add(userId);
+
+            var reservation = new Reservation();
+            reservation.setUserId(userId);
+            reservation.setBookTitleId(bookTitleId);
+            reservation.setReservationDate(LocalDate.now().minusWeeks(2));
+            reservation.setExpirationDate(LocalDate.now().minusDays(1 + i % 5));
+            reservation.setDeposit(10);
+            reservationRepository.save(reservation);
+        }
+        jdbcTemplate.update("UPDATE BOOK_TITLE SET RESERVED_ONLINE = 40 WHERE ID = ?", bookTitleId);
+
+        /// Act
+        context.getBean(SweepWorker.class).requestRun(ReservationExpirySweep.NAME);
+        awaitRunComplete(ReservationExpirySweep.NAME);
+
+        /// Assert
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM RESERVATION WHERE BOOK_TITLE_ID = ?", Integer.class, bookTitleId));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT RESERVED_ONLINE FROM BOOK_TITLE WHERE ID = ?", Integer.class, bookTitleId));
+        for (String userId : userIds) {
+            assertEquals(10, jdbcTemplate.queryForObject("SELECT BALANCE FROM \"USER\" WHERE ID = ?", Integer.class, userId));
+        }
+    }
+
+    private static void awaitRunComplete(String sweepName) throws InterruptedException {
+        var sweepLeaseService = nodes.get(0).getBean(SweepLeaseService.class);
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (!sweepLeaseService.isRunComplete(sweepName, PARTITIONS)) {
+            assertTrue(System.currentTimeMillis() < deadline, sweepName + " run did not complete");
+            Thread.sleep(50);
+        }
+    }
+
+    private record ProbeSweep(String nodeId) implements PartitionedSweep {
+        @Override
+        public String name() {
+            return PROBE;
+        }
+
+        @Override
+        public boolean processNextBatch(int partition, int partitions, LocalDateTime requestedAt) {
+            probeBatches.add(new String[]{nodeId, String.valueOf(partition)});
+            try {
+                // Long enough for the other nodes to poll while this one holds a partition
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return false;
+        }
+
+        @Override
+        public void completeRun(LocalDateTime requestedAt) {
+            probeRunsCompleted.add(nodeId);
+        }
+    }
+}
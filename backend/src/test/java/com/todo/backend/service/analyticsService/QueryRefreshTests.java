@@ -0,0 +1,69 @@
+package com.todo.backend.service.analyticsService;
+
+import com.todo.backend.dao.AnalyticsRepository;
+import com.todo.backend.dto.analytics.AnalyticsQueryDto;
+import com.todo.backend.service.AnalyticsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class QueryRefreshTests {
+    @Mock
+    private AnalyticsRepository analyticsRepository;
+
+    private AnalyticsService analyticsService;
+
+    @BeforeEach
+    void setUp() {
+        when(analyticsRepository.streamLoans(anyBoolean(), any())).thenAnswer(invocation -> Stream.empty());
+        when(analyticsRepository.getTitleCategories()).thenReturn(List.of());
+        when(analyticsRepository.getTitles()).thenReturn(List.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        analyticsService.shutdown();
+    }
+
+    @Test
+    void TC1_FreshSnapshot_QueriedWithoutReload() {
+        /// Arrange
+        analyticsService = new AnalyticsService(analyticsRepository, 1, 300);
+
+        /// Act
+        analyticsService.query(new AnalyticsQueryDto());
+        analyticsService.query(new AnalyticsQueryDto());
+
+        /// Assert
+        // One full load: the archive tier and the hot tier once each
+        verify(analyticsRepository).streamLoans(true, null);
+        verify(analyticsRepository).streamLoans(false, null);
+        verify(analyticsRepository).getTitles();
+    }
+
+    @Test
+    void TC2_SnapshotTooOld_QueryReloadsIt() {
+        /// Arrange
+        // Refreshed by the job on another node only, this one must not keep its first snapshot
+        analyticsService = new AnalyticsService(analyticsRepository, 1, 0);
+
+        /// Act
+        analyticsService.query(new AnalyticsQueryDto());
+        analyticsService.query(new AnalyticsQueryDto());
+
+        /// Assert
+        verify(analyticsRepository, times(2)).getTitles();
+        // The second load of the day is incremental, from the first one's day
+        verify(analyticsRepository).streamLoans(eq(false), notNull());
+    }
+}
@@ -0,0 +1,164 @@
+package com.todo.backend.service.availabilityForecastService;
+
+import com.todo.backend.dao.BookCopyRepository;
+import com.todo.backend.dao.TransactionRepository;
+import com.todo.backend.service.AvailabilityForecastService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AvailabilityForecastTests {
+    private static final String BOOK_TITLE_ID = "book-title-id";
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Mock
+    private TransactionRepository transactionRepository;
+    @Mock
+    private BookCopyRepository bookCopyRepository;
+
+    @InjectMocks
+    private AvailabilityForecastService availabilityForecastService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(availabilityForecastService, "reloadSeconds", 60L);
+    }
+
+    @Test
+    void TC1_CopyOnShelfNotClaimed_AvailableToday() {
+        /// Arrange
+        initTitle(2, loan("t1", TODAY.plusDays(5)));
+
+        /// Act
+        var forecast = availabilityForecastService.forecast(BOOK_TITLE_ID, 1);
+
+        /// Assert
+        assertEquals(TODAY, forecast.getEstimatedAvailableDate());
+        assertEquals(2, forecast.getCopiesOnShelf());
+        assertEquals(1, forecast.getCopiesOnLoan());
+    }
+
+    @Test
+    void TC2_ShelfClaimed_NthEarliestReturn() {
+        /// Arrange
+        // 1 copy on the shelf and 2 claims ahead: the shelf copy and the earliest return serve them
+        initTitle(1, loan("t1", TODAY.plusDays(9)), loan("t2", TODAY.plusDays(3)), loan("t3", TODAY.plusDays(6)));
+
+        /// Act
+        var forecast = availabilityForecastService.forecast(BOOK_TITLE_ID, 2);
+
+        /// Assert
+        assertEquals(TODAY.plusDays(6), forecast.getEstimatedAvailableDate());
+    }
+
+    @Test
+    void TC3_MoreClaimsThanCopies_NextRound() {
+        /// Arrange
+        initTitle(0, loan("t1", TODAY.plusDays(4)), loan("t2", TODAY.plusDays(2)));
+
+        /// Act
+        var forecast = availabilityForecastService.forecast(BOOK_TITLE_ID, 3);
+
+        /// Assert
+        // The 4th patron gets the copy due in 4 days once the 2nd patron's loan period ends
+        assertEquals(TODAY.plusDays(4).plusWeeks(2), forecast.getEstimatedAvailableDate());
+    }
+
+    @Test
+    void TC4_OverdueLoan_ExpectedToday() {
+        /// Arrange
+        initTitle(0, loan("t1", TODAY.minusDays(3)));
+
+        /// Act
+        var forecast = availabilityForecastService.forecast(BOOK_TITLE_ID, 0);
+
+        /// Assert
+        assertEquals(TODAY, forecast.getEstimatedAvailableDate());
+    }
+
+    @Test
+    void TC5_NoCopies_NoEstimate() {
+        /// Arrange
+        initTitle(0);
+
+        /// Act
+        var forecast = availabilityForecastService.forecast(BOOK_TITLE_ID, 0);
+
+        /// Assert
+        assertNull(forecast.getEstimatedAvailableDate());
+    }
+
+    @Test
+    void TC6_CheckoutsAndReturnsApplied_LoadedOnce() {
+        /// Arrange
+        initTitle(0, loan("t1", TODAY.plusDays(10)));
+        availabilityForecastService.forecast(BOOK_TITLE_ID, 0);
+
+        /// Act
+        availabilityForecastService.recordLoan(BOOK_TITLE_ID, "t2", TODAY.plusDays(2));
+        var afterCheckout = availabilityForecastService.forecast(BOOK_TITLE_ID, 0);
+        availabilityForecastService.recordLoan(BOOK_TITLE_ID, "t2", TODAY.plusDays(12));
+        var afterExtension = availabilityForecastService.forecast(BOOK_TITLE_ID, 0);
+        availabilityForecastService.recordReturn(BOOK_TITLE_ID, "t1");
+        var afterReturn = availabilityForecastService.forecast(BOOK_TITLE_ID, 0);
+
+        /// Assert
+        assertEquals(TODAY.plusDays(2), afterCheckout.getEstimatedAvailableDate());
+        assertEquals(TODAY.plusDays(10), afterExtension.getEstimatedAvailableDate());
+        assertEquals(1, afterReturn.getCopiesOnLoan());
+        assertEquals(TODAY.plusDays(12), afterReturn.getEstimatedAvailableDate());
+        verify(transactionRepository, times(1)).findOpenLoanDueDatesByBookTitleId(BOOK_TITLE_ID);
+    }
+
+    @Test
+    void TC7_TitleNotLoaded_ChangesSkipped() {
+        /// Act
+        availabilityForecastService.recordLoan(BOOK_TITLE_ID, "t1", TODAY.plusDays(2));
+        availabilityForecastService.recordReturn(BOOK_TITLE_ID, "t1");
+
+        /// Assert
+        verify(transactionRepository, never()).findOpenLoanDueDatesByBookTitleId(any());
+    }
+
+    @Test
+    void TC8_StaleTitle_ReloadedWithLoansFromOtherNodes() {
+        /// Arrange
+        ReflectionTestUtils.setField(availabilityForecastService, "reloadSeconds", 0L);
+        when(bookCopyRepository.countByBookTitleIdAndStatusIn(eq(BOOK_TITLE_ID), any())).thenReturn(0L);
+        // t2 was checked out on another node between the two forecasts
+        when(transactionRepository.findOpenLoanDueDatesByBookTitleId(BOOK_TITLE_ID)).thenReturn(
+                new ArrayList<>(List.<Object[]>of(loan("t1", TODAY.plusDays(10)))),
+                new ArrayList<>(List.<Object[]>of(loan("t1", TODAY.plusDays(10)), loan("t2", TODAY.plusDays(3)))));
+
+        /// Act
+        availabilityForecastService.forecast(BOOK_TITLE_ID, 0);
+        var forecast = availabilityForecastService.forecast(BOOK_TITLE_ID, 0);
+
+        /// Assert
+        assertEquals(2, forecast.getCopiesOnLoan());
+        assertEquals(TODAY.plusDays(3), forecast.getEstimatedAvailableDate());
+    }
+
+    private void initTitle(int copiesOnShelf, Object[]... loans) {
+        when(bookCopyRepository.countByBookTitleIdAndStatusIn(eq(BOOK_TITLE_ID), any())).thenReturn((long) copiesOnShelf);
+        when(transactionRepository.findOpenLoanDueDatesByBookTitleId(BOOK_TITLE_ID)).thenReturn(new ArrayList<>(List.of(loans)));
+    }
+
+    private static Object[] loan(String transactionId, LocalDate dueDate) {
+        return new Object[]{transactionId, dueDate};
+    }
+}
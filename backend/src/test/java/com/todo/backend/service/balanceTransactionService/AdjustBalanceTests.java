@@ -0,0 +1,112 @@
+package com.todo.backend.service.balanceTransactionService;
+
+import com.todo.backend.dao.BalanceTransactionRepository;
+import com.todo.backend.dao.UserRepository;
+import com.todo.backend.entity.BalanceTransaction;
+import com.todo.backend.entity.BalanceTransactionType;
+import com.todo.backend.entity.User;
+import com.todo.backend.service.BalanceTransactionService;
+import com.todo.backend.service.LiveStatisticsService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AdjustBalanceTests {
+    @Mock
+    private BalanceTransactionRepository balanceTransactionRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private LiveStatisticsService liveStatisticsService;
+
+    @InjectMocks
+    private BalanceTransactionService balanceTransactionService;
+
+    @Test
+    void TC1_Deposit() {
+        /// Arrange
+        when(userRepository.addToBalance("user-id", 20000)).thenReturn(1);
+        when(userRepository.findBalanceById("user-id")).thenReturn(Optional.of(70000));
+
+        /// Act
+        var res = balanceTransactionService.adjustBalance("user-id", BalanceTransactionType.DEPOSIT, 20000, "deposit");
+
+        /// Assert
+        assertEquals(70000, res.getBalanceAfter());
+        assertLoggedBalanceAfter(70000);
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    void TC2_Withdrawal() {
+        /// Arrange
+        when(userRepository.debitBalanceIfSufficient("user-id", 20000)).thenReturn(1);
+        when(userRepository.findBalanceById("user-id")).thenReturn(Optional.of(30000));
+
+        /// Act
+        var res = balanceTransactionService.adjustBalance("user-id", BalanceTransactionType.WITHDRAWAL, -20000, "withdrawal");
+
+        /// Assert
+        assertEquals(-20000, res.getAmount());
+        assertEquals(30000, res.getBalanceAfter());
+        assertLoggedBalanceAfter(30000);
+    }
+
+    @Test
+    void TC3_WithdrawalInsufficientBalance() {
+        /// Arrange
+        when(userRepository.debitBalanceIfSufficient("user-id", 20000)).thenReturn(0);
+        when(userRepository.findBalanceById("user-id")).thenReturn(Optional.of(10000));
+
+        /// Act
+        var exception = assertThrows(RuntimeException.class, () ->
+                balanceTransactionService.adjustBalance("user-id", BalanceTransactionType.WITHDRAWAL, -20000, "withdrawal"));
+
+        /// Assert
+        assertEquals("Insufficient balance for withdrawal", exception.getMessage());
+        verify(balanceTransactionRepository, never()).save(any(BalanceTransaction.class));
+    }
+
+    @Test
+    void TC4_UserNotFound() {
+        /// Arrange
+        when(userRepository.addToBalance("non-existent-user-id", 20000)).thenReturn(0);
+
+        /// Act
+        var exception = assertThrows(RuntimeException.class, () ->
+                balanceTransactionService.adjustBalance("non-existent-user-id", BalanceTransactionType.DEPOSIT, 20000, "deposit"));
+
+        /// Assert
+        assertEquals("User with ID non-existent-user-id not found", exception.getMessage());
+        verify(balanceTransactionRepository, never()).save(any(BalanceTransaction.class));
+    }
+
+    @Test
+    void TC5_TryDebitUserNotFound() {
+        /// Arrange
+        when(userRepository.debitBalanceIfSufficient("non-existent-user-id", 100)).thenReturn(0);
+        when(userRepository.findBalanceById("non-existent-user-id")).thenReturn(Optional.empty());
+
+        /// Act
+        var exception = assertThrows(RuntimeException.class, () ->
+                balanceTransactionService.tryDebitBalance("non-existent-user-id", 100));
+
+        /// Assert
+        assertEquals("User with ID non-existent-user-id not found", exception.getMessage());
+    }
+
+    private void assertLoggedBalanceAfter(int expectedBalance) {
+        ArgumentCaptor<BalanceTransaction> captor = ArgumentCaptor.forClass(BalanceTransaction.class);
+        verify(balanceTransactionRepository).save(captor.capture());
+        assertEquals(expectedBalance, captor.getValue().getBalanceAfter());
+    }
+}
@@ -0,0 +1,70 @@
+package com.todo.backend.service.balanceTransactionService;
+
+import com.todo.backend.dao.BalanceTransactionRepository;
+import com.todo.backend.dao.UserRepository;
+import com.todo.backend.entity.BalanceTransaction;
+import com.todo.backend.entity.BalanceTransactionType;
+import com.todo.backend.service.BalanceTransactionService;
+import com.todo.backend.service.LedgerColdStorageService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class GetUserTransactionsTests {
+    @Mock
+    private BalanceTransactionRepository balanceTransactionRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private LedgerColdStorageService ledgerColdStorageService;
+
+    @InjectMocks
+    private BalanceTransactionService balanceTransactionService;
+
+    @Test
+    void TC1_HotRowsThenArchivedRows() {
+        /// Arrange
+        when(balanceTransactionRepository.findByUserIdOrderByTimestampDesc("user-id"))
+                .thenReturn(List.of(initRow("bt4", LocalDateTime.of(2025, 6, 1, 9, 0))));
+        when(ledgerColdStorageService.findUserTransactions("user-id"))
+                .thenReturn(List.of(
+                        initRow("bt2", LocalDateTime.of(2023, 2, 1, 9, 0)),
+                        initRow("bt1", LocalDateTime.of(2023, 1, 1, 9, 0))));
+
+        /// Act
+        var res = balanceTransactionService.getUserTransactions("user-id");
+
+        /// Assert
+        assertEquals(List.of("bt4", "bt2", "bt1"), res.stream().map(r -> r.getId()).toList());
+    }
+
+    @Test
+    void TC2_RowsStillHotAreNotDuplicated() {
+        /// Arrange
+        when(balanceTransactionRepository.findByUserIdOrderByTimestampDesc("user-id"))
+                .thenReturn(List.of(initRow("bt1", LocalDateTime.of(2023, 1, 1, 9, 0))));
+        when(ledgerColdStorageService.findUserTransactions("user-id"))
+                .thenReturn(List.of(initRow("bt1", LocalDateTime.of(2023, 1, 1, 9, 0))));
+
+        /// Act
+        var res = balanceTransactionService.getUserTransactions("user-id");
+
+        /// Assert
+        assertEquals(1, res.size());
+    }
+
+    private BalanceTransaction initRow(String id, LocalDateTime timestamp) {
+        var row = new BalanceTransaction(id, "user-id", BalanceTransactionType.DEPOSIT, 1000, "deposit", 1000);
+        row.setTimestamp(timestamp);
+        return row;
+    }
+}
@@ -12,6 +12,7 @@ import com.todo.backend.entity.User;
 import com.todo.backend.entity.identity.UserRole;
 import com.todo.backend.mapper.BookCopyMapper;
 import com.todo.backend.service.BookCopyService;
+import com.todo.backend.service.StatisticsRollupService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mapstruct.factory.Mappers;
@@ -36,6 +37,8 @@ public class UpdateBookTests {
     private TransactionRepository transactionRepository;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private StatisticsRollupService statisticsRollupService;
     @Spy
     private BookCopyMapper bookCopyMapper = Mappers.getMapper(BookCopyMapper.class);
 
@@ -0,0 +1,101 @@
+package com.todo.backend.service.borrowerSketchService;
+
+import com.todo.backend.dao.BorrowerSketchRepository;
+import com.todo.backend.dao.CategoryRepository;
+import com.todo.backend.dao.StatisticsRepository;
+import com.todo.backend.entity.BorrowerSketch;
+import com.todo.backend.service.BorrowerSketchService;
+import com.todo.backend.utils.sketch.HyperLogLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RecordBorrowerTests {
+    @Mock
+    private BorrowerSketchRepository borrowerSketchRepository;
+    @Mock
+    private CategoryRepository categoryRepository;
+    @Mock
+    private StatisticsRepository statisticsRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private BorrowerSketchService borrowerSketchService;
+
+    private static final LocalDate DAY = LocalDate.of(2025, 6, 12);
+
+    @Test
+    void TC1_NewBorrower_UpdatesDaySketchAndCategorySketches() {
+        /// Arrange
+        when(categoryRepository.findIdsByBookTitleId("title-id")).thenReturn(List.of("category-a", "category-b"));
+        when(borrowerSketchRepository.existsById(any())).thenReturn(true);
+        when(borrowerSketchRepository.findRegisters(anyString(), eq(DAY)))
+                .thenAnswer(invocation -> Optional.of(new HyperLogLog().toBytes()));
+        when(borrowerSketchRepository.findForUpdate(anyString(), eq(DAY)))
+                .thenAnswer(invocation -> Optional.of(new BorrowerSketch(invocation.getArgument(0), DAY)));
+
+        /// Act
+        borrowerSketchService.recordBorrower(DAY, "user-id", "title-id");
+
+        /// Assert
+        var inOrder = inOrder(borrowerSketchRepository);
+        inOrder.verify(borrowerSketchRepository).findForUpdate(BorrowerSketch.ALL_CATEGORIES, DAY);
+        inOrder.verify(borrowerSketchRepository).findForUpdate("category-a", DAY);
+        inOrder.verify(borrowerSketchRepository).findForUpdate("category-b", DAY);
+        ArgumentCaptor<BorrowerSketch> captor = ArgumentCaptor.forClass(BorrowerSketch.class);
+        verify(borrowerSketchRepository, times(3)).save(captor.capture());
+        for (BorrowerSketch sketch : captor.getAllValues()) {
+            assertEquals(1, HyperLogLog.fromBytes(sketch.getRegisters()).estimate());
+        }
+    }
+
+    @Test
+    void TC2_RepeatBorrower_SkipsLockAndWrite() {
+        /// Arrange
+        HyperLogLog seen = new HyperLogLog();
+        seen.offer("user-id");
+        when(categoryRepository.findIdsByBookTitleId("title-id")).thenReturn(List.of());
+        when(borrowerSketchRepository.existsById(any())).thenReturn(true);
+        when(borrowerSketchRepository.findRegisters(BorrowerSketch.ALL_CATEGORIES, DAY)).thenReturn(Optional.of(seen.toBytes()));
+
+        /// Act
+        borrowerSketchService.recordBorrower(DAY, "user-id", "title-id");
+
+        /// Assert
+        verify(borrowerSketchRepository, never()).findForUpdate(anyString(), any());
+        verify(borrowerSketchRepository, never()).save(any());
+    }
+
+    @Test
+    void TC3_MissingRow_CreatedOnceThenKnown() {
+        /// Arrange
+        when(categoryRepository.findIdsByBookTitleId("title-id")).thenReturn(List.of());
+        when(borrowerSketchRepository.existsById(any())).thenReturn(false);
+        when(borrowerSketchRepository.findRegisters(BorrowerSketch.ALL_CATEGORIES, DAY))
+                .thenAnswer(invocation -> Optional.of(new HyperLogLog().toBytes()));
+        when(borrowerSketchRepository.findForUpdate(BorrowerSketch.ALL_CATEGORIES, DAY))
+                .thenAnswer(invocation -> Optional.of(new BorrowerSketch(BorrowerSketch.ALL_CATEGORIES, DAY)));
+
+        /// Act
+        borrowerSketchService.recordBorrower(DAY, "user-1", "title-id");
+        borrowerSketchService.recordBorrower(DAY, "user-2", "title-id");
+
+        /// Assert
+        verify(borrowerSketchRepository, times(1)).existsById(any());
+        verify(borrowerSketchRepository, times(1)).saveAndFlush(any(BorrowerSketch.class));
+    }
+}
@@ -0,0 +1,91 @@
+package com.todo.backend.service.currentLoanService;
+
+import com.todo.backend.dao.BookCopyRepository;
+import com.todo.backend.service.CurrentLoanService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BackfillTests {
+    @Mock
+    private BookCopyRepository bookCopyRepository;
+
+    @InjectMocks
+    private CurrentLoanService currentLoanService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(currentLoanService, "chunkSize", 3);
+    }
+
+    @Test
+    void TC1_FillsLatestOpenTransactionPerCopy() {
+        /// Arrange
+        when(bookCopyRepository.findLatestOpenLoansMissingPointer(eq(""), any(Pageable.class))).thenReturn(List.of(
+                new Object[]{"bc1", "newer"},
+                new Object[]{"bc1", "older"}, // same borrow date, lower ID
+                new Object[]{"bc2", "t3"}));
+        when(bookCopyRepository.setCurrentTransactionId("bc1", "newer")).thenReturn(1);
+        when(bookCopyRepository.setCurrentTransactionId("bc2", "t3")).thenReturn(1);
+
+        /// Act
+        var chunk = currentLoanService.fillMissingChunk("");
+
+        /// Assert
+        assertEquals(2, chunk.filledPointers());
+        assertEquals("bc2", chunk.lastBookCopyId());
+        verify(bookCopyRepository, never()).setCurrentTransactionId("bc1", "older");
+    }
+
+    @Test
+    void TC2_ClearsStalePointers() {
+        /// Arrange
+        when(bookCopyRepository.findBookCopyIdsWithStaleCurrentLoan()).thenReturn(List.of("bc1", "bc2"));
+        when(bookCopyRepository.clearCurrentTransactionIds(List.of("bc1", "bc2"))).thenReturn(2);
+
+        /// Act
+        int cleared = currentLoanService.clearStalePointers();
+
+        /// Assert
+        assertEquals(2, cleared);
+    }
+
+    @Test
+    void TC4_NoCopyLeftAfterCursor_EndsBackfill() {
+        /// Arrange
+        when(bookCopyRepository.findLatestOpenLoansMissingPointer(eq("bc2"), any(Pageable.class))).thenReturn(List.of());
+
+        /// Act
+        var chunk = currentLoanService.fillMissingChunk("bc2");
+
+        /// Assert
+        assertNull(chunk.lastBookCopyId());
+        verify(bookCopyRepository, never()).setCurrentTransactionId(anyString(), anyString());
+    }
+
+    @Test
+    void TC3_ConsistencyReport() {
+        /// Arrange
+        when(bookCopyRepository.findBookCopyIdsWithStaleCurrentLoan()).thenReturn(List.of());
+        when(bookCopyRepository.findBookCopyIdsMissingCurrentLoan()).thenReturn(List.of("bc1"));
+
+        /// Act
+        var report = currentLoanService.checkConsistency();
+
+        /// Assert
+        assertFalse(report.isConsistent());
+        assertEquals(List.of("bc1"), report.getMissingBookCopyIds());
+    }
+}
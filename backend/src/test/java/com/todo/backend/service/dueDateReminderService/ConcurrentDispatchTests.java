@@ -0,0 +1,103 @@
+package com.todo.backend.service.dueDateReminderService;
+
+import com.todo.backend.dao.LoanReminderRepository;
+import com.todo.backend.entity.LoanReminder;
+import com.todo.backend.entity.ReminderKind;
+import com.todo.backend.service.ReminderDispatchService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.quartz.Scheduler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two nodes dispatching the same outbox at once, as they do while the scheduler is not clustered:
+ * every reminder is sent exactly once.
+ */
+@SpringBootTest
+@TestPropertySource(locations = "classpath:application-integration-tests.properties")
+public class ConcurrentDispatchTests {
+    private static final int REMINDERS = 60;
+
+    @Autowired
+    private LoanReminderRepository loanReminderRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private Scheduler scheduler;
+
+    private final List<String> reminderKeys = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime createdAt = LocalDateTime.now().minusHours(1);
+        List<LoanReminder> reminders = new ArrayList<>();
+        for (int i = 0; i < REMINDERS; i++) {
+            var reminder = new LoanReminder();
+            reminder.setReminderKey(LoanReminder.key("dispatch-" + UUID.randomUUID(), ReminderKind.DUE_SOON, LocalDate.now()));
+            reminder.setTransactionId("dispatch-" + i);
+            reminder.setUserId("dispatch-user");
+            reminder.setKind(ReminderKind.DUE_SOON);
+            reminder.setDueDate(LocalDate.now());
+            reminder.setRecipient("reader@example.com");
+            reminder.setSubject("Due soon");
+            reminder.setBody("Due soon");
+            reminder.setCreatedAt(createdAt.plusSeconds(i));
+            reminders.add(reminder);
+            reminderKeys.add(reminder.getReminderKey());
+        }
+        loanReminderRepository.saveAll(reminders);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        loanReminderRepository.deleteAllByIdInBatch(reminderKeys);
+    }
+
+    @Test
+    void TC1_TwoNodesDispatching_EachReminderSentOnce() throws Exception {
+        /// Arrange
+        Map<String, Integer> sends = new ConcurrentHashMap<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService nodes = Executors.newFixedThreadPool(2);
+
+        /// Act
+        List<Future<?>> futures = new ArrayList<>();
+        for (int node = 0; node < 2; node++) {
+            // Batches of 7, so the two nodes keep claiming from under each other
+            var dispatcher = new ReminderDispatchService(loanReminderRepository,
+                    reminder -> sends.merge(reminder.getReminderKey(), 1, Integer::sum),
+                    scheduler, transactionManager, 10_000, 100, 7, 5, 300);
+            futures.add(nodes.submit(() -> {
+                start.await();
+                while (dispatcher.dispatchNextBatch()) {
+                    Thread.onSpinWait();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        nodes.shutdown();
+
+        /// Assert
+        for (String key : reminderKeys) {
+            assertEquals(1, sends.getOrDefault(key, 0), key);
+            LoanReminder reminder = loanReminderRepository.findById(key).orElseThrow();
+            assertNotNull(reminder.getSentAt());
+            assertNull(reminder.getClaimedBy());
+        }
+    }
+}
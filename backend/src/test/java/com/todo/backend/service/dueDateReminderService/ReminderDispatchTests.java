@@ -0,0 +1,119 @@
+package com.todo.backend.service.dueDateReminderService;
+
+import com.todo.backend.dao.LoanReminderRepository;
+import com.todo.backend.entity.LoanReminder;
+import com.todo.backend.service.ReminderDispatchService;
+import com.todo.backend.service.reminder.ReminderSender;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.quartz.Scheduler;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ReminderDispatchTests {
+    @Mock
+    private LoanReminderRepository loanReminderRepository;
+    @Mock
+    private ReminderSender reminderSender;
+    @Mock
+    private Scheduler scheduler;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ReminderDispatchService reminderDispatchService;
+
+    @BeforeEach
+    void setUp() {
+        // Batches of 2, at most 5 attempts, a rate that never makes the tests wait, claims held for 5 minutes
+        reminderDispatchService = new ReminderDispatchService(loanReminderRepository, reminderSender, scheduler,
+                transactionManager, 1000, 10, 2, 5, 300);
+    }
+
+    @Test
+    void TC1_SendsClaimedBatchAndMarksEachSent() {
+        /// Arrange
+        var first = initReminder("r1");
+        var second = initReminder("r2");
+        when(loanReminderRepository.findClaimableKeys(eq(5), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of("r1", "r2"));
+        when(loanReminderRepository.findClaimed(anyString())).thenReturn(List.of(first, second));
+        when(loanReminderRepository.markSent(anyString(), anyString(), any(LocalDateTime.class))).thenReturn(1);
+
+        /// Act
+        boolean more = reminderDispatchService.dispatchNextBatch();
+
+        /// Assert
+        assertTrue(more); // full batch, there may be more
+        ArgumentCaptor<String> claimToken = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<LocalDateTime> now = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> claimedUntil = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(loanReminderRepository).claim(eq(List.of("r1", "r2")), claimToken.capture(), now.capture(), claimedUntil.capture());
+        assertEquals(now.getValue().plusMinutes(5), claimedUntil.getValue());
+        InOrder inOrder = inOrder(reminderSender, loanReminderRepository);
+        inOrder.verify(reminderSender).send(first);
+        inOrder.verify(loanReminderRepository).markSent(eq("r1"), eq(claimToken.getValue()), any(LocalDateTime.class));
+        inOrder.verify(reminderSender).send(second);
+        inOrder.verify(loanReminderRepository).markSent(eq("r2"), eq(claimToken.getValue()), any(LocalDateTime.class));
+        inOrder.verify(loanReminderRepository).releaseClaims(claimToken.getValue());
+        // Claim, each mark and the release in transactions of their own, none around the sends
+        verify(transactionManager, times(4)).commit(any());
+    }
+
+    @Test
+    void TC2_FailedSend_CountsAttemptAndReleasesRestOfBatch() {
+        /// Arrange
+        var first = initReminder("r1");
+        var second = initReminder("r2");
+        when(loanReminderRepository.findClaimableKeys(eq(5), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of("r1", "r2"));
+        when(loanReminderRepository.findClaimed(anyString())).thenReturn(List.of(first, second));
+        doThrow(new RuntimeException("outbox unavailable")).when(reminderSender).send(first);
+
+        /// Act
+        boolean more = reminderDispatchService.dispatchNextBatch();
+
+        /// Assert
+        assertFalse(more);
+        ArgumentCaptor<String> claimToken = ArgumentCaptor.forClass(String.class);
+        verify(loanReminderRepository).recordFailedAttempt(eq("r1"), claimToken.capture());
+        verify(loanReminderRepository, never()).markSent(anyString(), anyString(), any());
+        verify(reminderSender, never()).send(second);
+        verify(loanReminderRepository).releaseClaims(claimToken.getValue());
+    }
+
+    @Test
+    void TC3_OtherBatchClaimedEverything_SendsNothingAndReadsOn() {
+        /// Arrange
+        when(loanReminderRepository.findClaimableKeys(eq(5), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of("r1", "r2"));
+        // The conditional update matched no row, the other batch got there first
+        when(loanReminderRepository.findClaimed(anyString())).thenReturn(List.of());
+
+        /// Act
+        boolean more = reminderDispatchService.dispatchNextBatch();
+
+        /// Assert
+        assertTrue(more); // the next read skips what the other batch holds
+        verify(reminderSender, never()).send(any());
+        verify(loanReminderRepository, never()).markSent(anyString(), anyString(), any());
+    }
+
+    private LoanReminder initReminder(String key) {
+        var reminder = new LoanReminder();
+        reminder.setReminderKey(key);
+        return reminder;
+    }
+}
@@ -0,0 +1,138 @@
+package com.todo.backend.service.dueDateReminderService;
+
+import com.todo.backend.dao.BatchCheckpointRepository;
+import com.todo.backend.dao.LoanReminderRepository;
+import com.todo.backend.dto.reminder.ReminderSourceRowDto;
+import com.todo.backend.entity.BatchCheckpoint;
+import com.todo.backend.entity.BatchRunStatus;
+import com.todo.backend.entity.LoanReminder;
+import com.todo.backend.entity.ReminderKind;
+import com.todo.backend.service.DueDateReminderService;
+import com.todo.backend.service.PartitionedCheckpointService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ReminderScanTests {
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 30);
+
+    @Mock
+    private LoanReminderRepository loanReminderRepository;
+    @Mock
+    private BatchCheckpointRepository batchCheckpointRepository;
+
+    private DueDateReminderService dueDateReminderService;
+
+    @BeforeEach
+    void setUp() {
+        dueDateReminderService = new DueDateReminderService(loanReminderRepository,
+                new PartitionedCheckpointService(batchCheckpointRepository));
+        ReflectionTestUtils.setField(dueDateReminderService, "chunkSize", 4);
+        ReflectionTestUtils.setField(dueDateReminderService, "daysBefore", 2);
+    }
+
+    @Test
+    void TC1_FirstChunk_WritesNewRemindersOnly() {
+        /// Arrange
+        var checkpoint = initCheckpoint(null, 0);
+        when(batchCheckpointRepository.findById(PartitionedCheckpointService.partitionJobName(DueDateReminderService.JOB_NAME, 1)))
+                .thenReturn(Optional.of(checkpoint));
+        when(loanReminderRepository.findReminderChunk(eq(TODAY.plusDays(2)), any(LocalDate.class), eq(""), eq(1), eq(4), any(Pageable.class)))
+                .thenReturn(List.of(
+                        new ReminderSourceRowDto("t1", "u1", "An", "an@mail.com", null, "Dế Mèn", TODAY.minusDays(5)),
+                        new ReminderSourceRowDto("t2", "u2", "Bình", null, "0901", "Tắt đèn", TODAY.minusDays(1)),
+                        new ReminderSourceRowDto("t3", "u3", "Chi", null, " ", "Số đỏ", TODAY),
+                        new ReminderSourceRowDto("t4", "u4", "Dũng", "dung@mail.com", null, "Chí Phèo", TODAY.plusDays(2))));
+        // t2's overdue reminder was written by an earlier run
+        when(loanReminderRepository.findExistingKeys(anyCollection()))
+                .thenReturn(List.of(LoanReminder.key("t2", ReminderKind.OVERDUE, TODAY.minusDays(1))));
+
+        /// Act
+        boolean more = dueDateReminderService.processNextChunk(TODAY, 1, 4);
+
+        /// Assert
+        assertTrue(more); // full chunk, there may be more
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<String>> keysCaptor = ArgumentCaptor.forClass(Collection.class);
+        verify(loanReminderRepository).findExistingKeys(keysCaptor.capture());
+        assertEquals(3, keysCaptor.getValue().size()); // t3 has no contact
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<LoanReminder>> captor = ArgumentCaptor.forClass(List.class);
+        verify(loanReminderRepository).saveAll(captor.capture());
+        var saved = captor.getValue();
+        assertEquals(2, saved.size());
+        assertEquals(ReminderKind.OVERDUE, saved.get(0).getKind());
+        assertEquals("an@mail.com", saved.get(0).getRecipient());
+        assertEquals("Quá hạn trả sách: Dế Mèn", saved.get(0).getSubject());
+        assertTrue(saved.get(0).getBody().contains("25/06/2025 (5 ngày)"), saved.get(0).getBody());
+        assertEquals(ReminderKind.DUE_SOON, saved.get(1).getKind());
+        assertEquals(LoanReminder.key("t4", ReminderKind.DUE_SOON, TODAY.plusDays(2)), saved.get(1).getReminderKey());
+        assertTrue(saved.get(1).getBody().startsWith("Xin chào Dũng,"), saved.get(1).getBody());
+        assertTrue(saved.get(1).getBody().contains("02/07/2025 (còn 2 ngày)"), saved.get(1).getBody());
+
+        assertEquals(TODAY.plusDays(2) + "|t4", checkpoint.getLastKey());
+        assertEquals(4, checkpoint.getProcessed());
+    }
+
+    @Test
+    void TC2_ResumesAfterCheckpointDueDateAndId() {
+        /// Arrange
+        var checkpoint = initCheckpoint(TODAY.minusDays(3) + "|t7", 8);
+        when(batchCheckpointRepository.findById(PartitionedCheckpointService.partitionJobName(DueDateReminderService.JOB_NAME, 0)))
+                .thenReturn(Optional.of(checkpoint));
+        when(loanReminderRepository.findReminderChunk(eq(TODAY.plusDays(2)), eq(TODAY.minusDays(3)), eq("t7"), eq(0), eq(1), any(Pageable.class)))
+                .thenReturn(List.of(new ReminderSourceRowDto("t8", "u1", "An", "an@mail.com", null, "Dế Mèn", TODAY.minusDays(3))));
+
+        /// Act
+        boolean more = dueDateReminderService.processNextChunk(TODAY, 0, 1);
+
+        /// Assert
+        assertFalse(more);
+        verify(loanReminderRepository).saveAll(argThat(reminders -> reminders.iterator().hasNext()));
+        assertEquals(TODAY.minusDays(3) + "|t8", checkpoint.getLastKey());
+        assertEquals(9, checkpoint.getProcessed());
+    }
+
+    @Test
+    void TC3_EmptyChunkEndsPartition() {
+        /// Arrange
+        var checkpoint = initCheckpoint(TODAY + "|t9", 9);
+        when(batchCheckpointRepository.findById(PartitionedCheckpointService.partitionJobName(DueDateReminderService.JOB_NAME, 0)))
+                .thenReturn(Optional.of(checkpoint));
+        when(loanReminderRepository.findReminderChunk(any(), any(), any(), anyInt(), anyInt(), any(Pageable.class))).thenReturn(List.of());
+
+        /// Act
+        boolean more = dueDateReminderService.processNextChunk(TODAY, 0, 1);
+
+        /// Assert
+        assertFalse(more);
+        verify(loanReminderRepository, never()).saveAll(anyList());
+        verify(batchCheckpointRepository, never()).save(any(BatchCheckpoint.class));
+    }
+
+    private BatchCheckpoint initCheckpoint(String lastKey, long processed) {
+        var checkpoint = new BatchCheckpoint();
+        checkpoint.setJobName(DueDateReminderService.JOB_NAME);
+        checkpoint.setRunDate(TODAY);
+        checkpoint.setStatus(BatchRunStatus.RUNNING);
+        checkpoint.setLastKey(lastKey);
+        checkpoint.setProcessed(processed);
+        return checkpoint;
+    }
+}
@@ -0,0 +1,219 @@
+package com.todo.backend.service.holdQueueService;
+
+import com.todo.backend.dao.BookTitleRepository;
+import com.todo.backend.dao.HoldRequestRepository;
+import com.todo.backend.dao.ReservationRepository;
+import com.todo.backend.entity.BookCopy;
+import com.todo.backend.entity.BookTitle;
+import com.todo.backend.entity.HoldRequest;
+import com.todo.backend.entity.Reservation;
+import com.todo.backend.service.DeadlineService;
+import com.todo.backend.service.HoldQueueService;
+import com.todo.backend.service.LiveStatisticsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class HoldQueueTests {
+    @Mock
+    private HoldRequestRepository holdRequestRepository;
+    @Mock
+    private BookTitleRepository bookTitleRepository;
+    @Mock
+    private ReservationRepository reservationRepository;
+    @Mock
+    private LiveStatisticsService liveStatisticsService;
+    @Mock
+    private DeadlineService deadlineService;
+
+    @InjectMocks
+    private HoldQueueService holdQueueService;
+
+    private static final String TITLE_ID = "title-1";
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 12);
+    private static final LocalDateTime T0 = TODAY.atTime(9, 0);
+
+    private BookCopy bookCopy;
+
+    @BeforeEach
+    void setUp() {
+        bookCopy = new BookCopy();
+        bookCopy.setId("copy-1");
+        bookCopy.setBookTitleId(TITLE_ID);
+        ReflectionTestUtils.setField(holdQueueService, "queueReloadSeconds", 60L);
+    }
+
+    @Test
+    void TC1_CopyReturned_HeadOfQueueGetsReservationWithCopy() {
+        /// Arrange
+        var h1 = hold("h1", "user-a", T0);
+        var h2 = hold("h2", "user-b", T0.plusMinutes(5));
+        // Loaded out of order, the queue orders them by request time
+        queued(h2, h1);
+        holdQueueService.getPosition("user-a", TITLE_ID);
+        head(h1, h2);
+        when(holdRequestRepository.deleteClaimed("h1")).thenReturn(1);
+
+        /// Act
+        Optional<Reservation> reservation = holdQueueService.claimReturnedCopy(bookCopy, TODAY);
+
+        /// Assert
+        assertTrue(reservation.isPresent());
+        ArgumentCaptor<Reservation> captor = ArgumentCaptor.forClass(Reservation.class);
+        verify(reservationRepository).save(captor.capture());
+        assertEquals("user-a", captor.getValue().getUserId());
+        assertEquals("copy-1", captor.getValue().getBookCopyId());
+        assertEquals(0, captor.getValue().getDeposit());
+        assertEquals(TODAY.plusWeeks(1), captor.getValue().getExpirationDate());
+        verify(holdRequestRepository, never()).deleteClaimed("h2");
+        verify(bookTitleRepository).addOnlineReservationSlot(TITLE_ID);
+        verify(liveStatisticsService).recordReservations(1);
+        // The served patron left the in-memory queue, the next one moved up
+        assertThrows(RuntimeException.class, () -> holdQueueService.getPosition("user-a", TITLE_ID));
+        assertEquals(1, holdQueueService.getPosition("user-b", TITLE_ID).getPosition());
+    }
+
+    @Test
+    void TC2_HeadClaimedElsewhereOrAlreadyReserved_NextPatronServed() {
+        /// Arrange
+        head(hold("h1", "user-a", T0), hold("h2", "user-b", T0.plusMinutes(1)), hold("h3", "user-c", T0.plusMinutes(2)));
+        // h1 went to a concurrent return, user-b reserved the title meanwhile
+        when(holdRequestRepository.deleteClaimed("h1")).thenReturn(0);
+        when(holdRequestRepository.deleteClaimed("h2")).thenReturn(1);
+        when(holdRequestRepository.deleteClaimed("h3")).thenReturn(1);
+        var active = new Reservation();
+        active.setExpirationDate(TODAY);
+        when(reservationRepository.findByUserIdAndBookTitleId("user-b", TITLE_ID)).thenReturn(List.of(active));
+
+        /// Act
+        Optional<Reservation> reservation = holdQueueService.claimReturnedCopy(bookCopy, TODAY);
+
+        /// Assert
+        assertEquals("user-c", reservation.orElseThrow().getUserId());
+        verify(reservationRepository, times(1)).save(any());
+    }
+
+    @Test
+    void TC3_NobodyWaiting_NoWrites() {
+        /// Arrange
+        head();
+
+        /// Act
+        Optional<Reservation> reservation = holdQueueService.claimReturnedCopy(bookCopy, TODAY);
+
+        /// Assert
+        assertTrue(reservation.isEmpty());
+        verify(holdRequestRepository, never()).findQueueAfter(any(), any(), any(), any());
+        verify(holdRequestRepository, never()).deleteClaimed(any());
+        verifyNoInteractions(reservationRepository, liveStatisticsService, deadlineService);
+    }
+
+    @Test
+    void TC4_Position_FromMemoryWithEstimate() {
+        /// Arrange
+        var bookTitle = queued(hold("h1", "user-a", T0), hold("h2", "user-b", T0.plusMinutes(1)), hold("h3", "user-c", T0.plusMinutes(2)));
+        bookTitle.setTotalCopies(2);
+
+        /// Act
+        var position = holdQueueService.getPosition("user-c", TITLE_ID);
+        holdQueueService.getPosition("user-a", TITLE_ID);
+
+        /// Assert
+        assertEquals(3, position.getPosition());
+        assertEquals(3, position.getQueueLength());
+        // Third in line with two copies: the second round of loans
+        assertEquals(LocalDate.now().plusWeeks(4), position.getEstimatedAvailableDate());
+        verify(holdRequestRepository, times(1)).findByBookTitleIdOrderByRequestedAtAscIdAsc(TITLE_ID);
+    }
+
+    @Test
+    void TC5_HoldJoinedOnAnotherNode_ServedInTurn() {
+        /// Arrange
+        var h1 = hold("h1", "user-a", T0);
+        var h2 = hold("h2", "user-b", T0.plusMinutes(1));
+        // This node loaded the queue before user-a joined elsewhere
+        queued(h2);
+        holdQueueService.getPosition("user-b", TITLE_ID);
+        head(h1, h2);
+        when(holdRequestRepository.deleteClaimed("h1")).thenReturn(1);
+
+        /// Act
+        Optional<Reservation> reservation = holdQueueService.claimReturnedCopy(bookCopy, TODAY);
+
+        /// Assert
+        assertEquals("user-a", reservation.orElseThrow().getUserId());
+        verify(holdRequestRepository, never()).deleteClaimed("h2");
+    }
+
+    @Test
+    void TC6_StaleQueue_ReloadedForPositions() {
+        /// Arrange
+        ReflectionTestUtils.setField(holdQueueService, "queueReloadSeconds", 0L);
+        queued(hold("h1", "user-a", T0));
+
+        /// Act
+        holdQueueService.getQueueLength(TITLE_ID);
+        holdQueueService.getQueueLength(TITLE_ID);
+
+        /// Assert
+        verify(holdRequestRepository, times(2)).findByBookTitleIdOrderByRequestedAtAscIdAsc(TITLE_ID);
+    }
+
+    @Test
+    void TC7_FirstPageAllSkipped_ReadsNextPage() {
+        /// Arrange
+        var page = new HoldRequest[8];
+        for (int i = 0; i < page.length; i++) {
+            page[i] = hold("h" + i, "user-" + i, T0.plusMinutes(i));
+        }
+        head(page);
+        var next = hold("h8", "user-8", T0.plusMinutes(8));
+        when(holdRequestRepository.findQueueAfter(eq(TITLE_ID), eq(page[7].getRequestedAt()), eq("h7"), any()))
+                .thenReturn(List.of(next));
+        when(holdRequestRepository.deleteClaimed(startsWith("h"))).thenReturn(0);
+        when(holdRequestRepository.deleteClaimed("h8")).thenReturn(1);
+
+        /// Act
+        Optional<Reservation> reservation = holdQueueService.claimReturnedCopy(bookCopy, TODAY);
+
+        /// Assert
+        assertEquals("user-8", reservation.orElseThrow().getUserId());
+    }
+
+    private void head(HoldRequest... holds) {
+        when(holdRequestRepository.findQueueHead(eq(TITLE_ID), any())).thenReturn(List.of(holds));
+    }
+
+    private BookTitle queued(HoldRequest... holds) {
+        var bookTitle = new BookTitle();
+        bookTitle.setId(TITLE_ID);
+        bookTitle.setTotalCopies(1);
+        when(bookTitleRepository.findById(TITLE_ID)).thenReturn(Optional.of(bookTitle));
+        when(holdRequestRepository.findByBookTitleIdOrderByRequestedAtAscIdAsc(TITLE_ID)).thenReturn(List.of(holds));
+        return bookTitle;
+    }
+
+    private static HoldRequest hold(String id, String userId, LocalDateTime requestedAt) {
+        var hold = new HoldRequest();
+        hold.setId(id);
+        hold.setUserId(userId);
+        hold.setBookTitleId(TITLE_ID);
+        hold.setRequestedAt(requestedAt);
+        return hold;
+    }
+}
@@ -0,0 +1,121 @@
+package com.todo.backend.service.lateFeeAccrualService;
+
+import com.todo.backend.dao.AccruedLateFeeRepository;
+import com.todo.backend.dao.BatchCheckpointRepository;
+import com.todo.backend.dto.latefee.AccrualSourceRowDto;
+import com.todo.backend.entity.AccruedLateFee;
+import com.todo.backend.entity.BatchCheckpoint;
+import com.todo.backend.entity.BatchRunStatus;
+import com.todo.backend.service.LateFeeAccrualService;
+import com.todo.backend.service.PartitionedCheckpointService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AccrualTests {
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 30);
+
+    @Mock
+    private AccruedLateFeeRepository accruedLateFeeRepository;
+    @Mock
+    private BatchCheckpointRepository batchCheckpointRepository;
+
+    private LateFeeAccrualService lateFeeAccrualService;
+
+    @BeforeEach
+    void setUp() {
+        lateFeeAccrualService = new LateFeeAccrualService(accruedLateFeeRepository,
+                new PartitionedCheckpointService(batchCheckpointRepository), null);
+        ReflectionTestUtils.setField(lateFeeAccrualService, "chunkSize", 2);
+    }
+
+    @Test
+    void TC1_ChunkAccruesCappedFeesAndAdvancesCheckpoint() {
+        /// Arrange
+        var checkpoint = initCheckpoint(TODAY, BatchRunStatus.RUNNING, "t1", 1);
+        when(batchCheckpointRepository.findById(PartitionedCheckpointService.partitionJobName(LateFeeAccrualService.JOB_NAME, 2)))
+                .thenReturn(Optional.of(checkpoint));
+        when(accruedLateFeeRepository.findAccrualChunk(eq(TODAY), eq("t1"), eq(2), eq(4), any(Pageable.class))).thenReturn(List.of(
+                new AccrualSourceRowDto("t2", TODAY.minusDays(3), 100000),
+                new AccrualSourceRowDto("t3", TODAY.minusDays(40), 100000)));
+        var existing = new AccruedLateFee("t2");
+        when(accruedLateFeeRepository.findAllById(List.of("t2", "t3"))).thenReturn(List.of(existing));
+
+        /// Act
+        boolean more = lateFeeAccrualService.processNextChunk(TODAY, 2, 4);
+
+        /// Assert
+        assertTrue(more); // full chunk, there may be more
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<AccruedLateFee>> captor = ArgumentCaptor.forClass(List.class);
+        verify(accruedLateFeeRepository).saveAll(captor.capture());
+        var saved = captor.getValue();
+        assertSame(existing, saved.get(0));
+        assertEquals(15000, saved.get(0).getAccruedFee());   // 3 days × 5,000
+        assertEquals(100000, saved.get(1).getAccruedFee());  // 40 days capped at book price
+        assertEquals(40, saved.get(1).getDaysLate());
+        assertEquals("t3", checkpoint.getLastKey());
+        assertEquals(3, checkpoint.getProcessed());
+    }
+
+    @Test
+    void TC2_EmptyChunkEndsRun() {
+        /// Arrange
+        var checkpoint = initCheckpoint(TODAY, BatchRunStatus.RUNNING, "t9", 9);
+        when(batchCheckpointRepository.findById(PartitionedCheckpointService.partitionJobName(LateFeeAccrualService.JOB_NAME, 0)))
+                .thenReturn(Optional.of(checkpoint));
+        when(accruedLateFeeRepository.findAccrualChunk(eq(TODAY), eq("t9"), eq(0), eq(1), any(Pageable.class))).thenReturn(List.of());
+
+        /// Act
+        boolean more = lateFeeAccrualService.processNextChunk(TODAY, 0, 1);
+
+        /// Assert
+        assertFalse(more);
+        verify(accruedLateFeeRepository, never()).saveAll(anyList());
+        verify(batchCheckpointRepository, never()).save(any(BatchCheckpoint.class));
+    }
+
+    @Test
+    void TC3_CompleteSumsPartitionsAndDropsStaleSnapshots() {
+        /// Arrange
+        var checkpoint = initCheckpoint(TODAY, BatchRunStatus.RUNNING, null, 0);
+        when(batchCheckpointRepository.findById(LateFeeAccrualService.JOB_NAME)).thenReturn(Optional.of(checkpoint));
+        when(batchCheckpointRepository.findByJobNameStartingWithAndRunDate(LateFeeAccrualService.JOB_NAME + "#", TODAY))
+                .thenReturn(List.of(
+                        initCheckpoint(TODAY, BatchRunStatus.COMPLETED, "t8", 4),
+                        initCheckpoint(TODAY, BatchRunStatus.COMPLETED, "t5", 3)));
+        when(batchCheckpointRepository.save(any(BatchCheckpoint.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        /// Act
+        var result = lateFeeAccrualService.complete(TODAY);
+
+        /// Assert
+        verify(accruedLateFeeRepository).deleteOlderThan(TODAY);
+        assertEquals(7, result.getProcessed());
+        assertEquals(BatchRunStatus.COMPLETED, result.getStatus());
+    }
+
+    private BatchCheckpoint initCheckpoint(LocalDate runDate, BatchRunStatus status, String lastKey, long processed) {
+        var checkpoint = new BatchCheckpoint();
+        checkpoint.setJobName(LateFeeAccrualService.JOB_NAME);
+        checkpoint.setRunDate(runDate);
+        checkpoint.setStatus(status);
+        checkpoint.setLastKey(lastKey);
+        checkpoint.setProcessed(processed);
+        return checkpoint;
+    }
+}
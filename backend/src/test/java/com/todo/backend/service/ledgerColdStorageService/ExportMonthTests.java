@@ -0,0 +1,108 @@
+package com.todo.backend.service.ledgerColdStorageService;
+
+import com.todo.backend.dao.BalanceTransactionRepository;
+import com.todo.backend.dao.LedgerSegmentRepository;
+import com.todo.backend.entity.BalanceTransaction;
+import com.todo.backend.entity.BalanceTransactionType;
+import com.todo.backend.entity.LedgerSegment;
+import com.todo.backend.service.LedgerColdStorageService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ExportMonthTests {
+    private static final YearMonth MONTH = YearMonth.of(2023, 1);
+    private static final LocalDateTime START = LocalDateTime.of(2023, 1, 1, 0, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2023, 2, 1, 0, 0);
+
+    @Mock
+    private BalanceTransactionRepository balanceTransactionRepository;
+    @Mock
+    private LedgerSegmentRepository ledgerSegmentRepository;
+
+    @InjectMocks
+    private LedgerColdStorageService ledgerColdStorageService;
+
+    @Test
+    void TC1_StoresSegmentBeforePurge() {
+        /// Arrange
+        when(balanceTransactionRepository.streamAllInRange(START, END)).thenReturn(Stream.of(
+                initRow("bt1", "u1", LocalDateTime.of(2023, 1, 2, 8, 0)),
+                initRow("bt2", "u2", LocalDateTime.of(2023, 1, 3, 8, 0))));
+        when(balanceTransactionRepository.deleteAllInRange(START, END)).thenReturn(2);
+
+        /// Act
+        int moved = ledgerColdStorageService.exportMonth(MONTH);
+
+        /// Assert
+        assertEquals(2, moved);
+        InOrder inOrder = inOrder(ledgerSegmentRepository, balanceTransactionRepository);
+        var segment = ArgumentCaptor.forClass(LedgerSegment.class);
+        inOrder.verify(ledgerSegmentRepository).save(segment.capture());
+        inOrder.verify(balanceTransactionRepository).deleteAllInRange(START, END);
+        assertEquals("2023-01", segment.getValue().getMonth());
+        assertEquals(2, segment.getValue().getRowCount());
+        assertEquals(segment.getValue().getContent().length, segment.getValue().getSizeBytes());
+    }
+
+    @Test
+    void TC2_PurgeOfRowsMissingFromSegmentFails() {
+        /// Arrange
+        when(balanceTransactionRepository.streamAllInRange(START, END)).thenReturn(Stream.of(
+                initRow("bt1", "u1", LocalDateTime.of(2023, 1, 2, 8, 0))));
+        when(balanceTransactionRepository.deleteAllInRange(START, END)).thenReturn(2);
+
+        /// Act
+        var exception = assertThrows(RuntimeException.class, () -> ledgerColdStorageService.exportMonth(MONTH));
+
+        /// Assert
+        assertEquals("Ledger segment 2023-01 has 1 rows but 2 were purged", exception.getMessage());
+    }
+
+    @Test
+    void TC3_EmptyMonthWritesNothing() {
+        /// Arrange
+        when(balanceTransactionRepository.streamAllInRange(START, END)).thenReturn(Stream.empty());
+
+        /// Act
+        int moved = ledgerColdStorageService.exportMonth(MONTH);
+
+        /// Assert
+        assertEquals(0, moved);
+        verify(ledgerSegmentRepository, never()).save(any());
+        verify(balanceTransactionRepository, never()).deleteAllInRange(any(), any());
+    }
+
+    @Test
+    void TC4_ArchivedMonthWithNewRowsFails() {
+        /// Arrange
+        when(ledgerSegmentRepository.existsById("2023-01")).thenReturn(true);
+
+        /// Act
+        var exception = assertThrows(RuntimeException.class, () -> ledgerColdStorageService.exportMonth(MONTH));
+
+        /// Assert
+        assertEquals("Ledger segment 2023-01 already exists but the month still has rows", exception.getMessage());
+        verify(balanceTransactionRepository, never()).deleteAllInRange(any(), any());
+    }
+
+    private BalanceTransaction initRow(String id, String userId, LocalDateTime timestamp) {
+        var row = new BalanceTransaction(id, userId, BalanceTransactionType.DEPOSIT, 1000, "Nạp tiền " + id, 1000);
+        row.setTimestamp(timestamp);
+        return row;
+    }
+}
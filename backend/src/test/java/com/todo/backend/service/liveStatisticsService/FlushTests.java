@@ -0,0 +1,117 @@
+package com.todo.backend.service.liveStatisticsService;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todo.backend.dao.BalanceTransactionRepository;
+import com.todo.backend.dao.DailyStatsRepository;
+import com.todo.backend.dao.OverdueLoanRepository;
+import com.todo.backend.dao.ReservationRepository;
+import com.todo.backend.dto.live.LiveMetric;
+import com.todo.backend.dto.live.LiveStatisticsDto;
+import com.todo.backend.entity.BalanceTransactionType;
+import com.todo.backend.entity.DailyStats;
+import com.todo.backend.service.LiveStatisticsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class FlushTests {
+    @Mock
+    private DailyStatsRepository dailyStatsRepository;
+    @Mock
+    private OverdueLoanRepository overdueLoanRepository;
+    @Mock
+    private ReservationRepository reservationRepository;
+    @Mock
+    private BalanceTransactionRepository balanceTransactionRepository;
+
+    private LiveStatisticsService liveStatisticsService;
+
+    @BeforeEach
+    void setUp() {
+        // Long interval and no start(), the tests flush by hand
+        liveStatisticsService = new LiveStatisticsService(dailyStatsRepository, overdueLoanRepository,
+                reservationRepository, balanceTransactionRepository, new ObjectMapper().findAndRegisterModules(),
+                3_600_000, 3_600_000, 60_000, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        liveStatisticsService.shutdown();
+    }
+
+    @Test
+    void TC1_BurstOfChanges_CoalescedIntoOneDelta() throws Exception {
+        /// Arrange
+        DailyStats today = new DailyStats(LocalDate.now());
+        today.setBorrows(10);
+        today.setRevenue(1000);
+        when(dailyStatsRepository.findById(any())).thenReturn(Optional.of(today));
+        when(overdueLoanRepository.count()).thenReturn(3L);
+        when(reservationRepository.count()).thenReturn(4L);
+        when(balanceTransactionRepository.sumAmountByTypeBetween(eq(BalanceTransactionType.DEPOSIT), any(), any()))
+                .thenReturn(500L);
+        SseEmitter emitter = mock(SseEmitter.class);
+        liveStatisticsService.subscribe(emitter);
+        verify(emitter, timeout(5000)).send(any(SseEmitter.SseEventBuilder.class));
+
+        /// Act
+        for (int i = 0; i < 5; i++) {
+            liveStatisticsService.recordCheckout(20);
+        }
+        liveStatisticsService.recordOverdueResolved();
+        liveStatisticsService.recordReservations(-1);
+        liveStatisticsService.recordBalance(BalanceTransactionType.DEPOSIT, 50);
+        liveStatisticsService.recordBalance(BalanceTransactionType.WITHDRAWAL, 30);
+        liveStatisticsService.flush();
+
+        /// Assert
+        LiveStatisticsDto current = liveStatisticsService.getCurrent();
+        assertEquals(Map.of(LiveMetric.CHECKOUTS, 5L, LiveMetric.REVENUE, 100L, LiveMetric.OVERDUE_LOANS, -1L,
+                LiveMetric.ACTIVE_RESERVATIONS, -1L, LiveMetric.BALANCE_DEPOSITS, 50L), current.getDeltas());
+        assertEquals(15L, current.getTotals().get(LiveMetric.CHECKOUTS));
+        assertEquals(1100L, current.getTotals().get(LiveMetric.REVENUE));
+        assertEquals(2L, current.getTotals().get(LiveMetric.OVERDUE_LOANS));
+        assertEquals(550L, current.getTotals().get(LiveMetric.BALANCE_DEPOSITS));
+        // One snapshot and one delta, the database read once
+        verify(emitter, times(2)).send(any(SseEmitter.SseEventBuilder.class));
+        verify(dailyStatsRepository, times(1)).findById(any());
+    }
+
+    @Test
+    void TC2_NoSubscribers_DeltasDroppedWithoutReadingTheDatabase() {
+        /// Arrange
+        liveStatisticsService.recordCheckout(20);
+
+        /// Act
+        liveStatisticsService.flush();
+
+        /// Assert
+        assertNull(liveStatisticsService.getCurrent());
+        verifyNoInteractions(dailyStatsRepository, overdueLoanRepository, reservationRepository,
+                balanceTransactionRepository);
+    }
+
+    @Test
+    void TC3_SubscriberCapReached_Rejected() {
+        /// Arrange
+        liveStatisticsService.subscribe(mock(SseEmitter.class));
+        liveStatisticsService.subscribe(mock(SseEmitter.class));
+
+        /// Act & Assert
+        assertThrows(RuntimeException.class, () -> liveStatisticsService.subscribe(mock(SseEmitter.class)));
+        assertEquals(2, liveStatisticsService.getSubscriberCount());
+    }
+}
@@ -0,0 +1,145 @@
+package com.todo.backend.service.overdueService;
+
+import com.todo.backend.dao.BatchCheckpointRepository;
+import com.todo.backend.dao.OverdueLoanRepository;
+import com.todo.backend.entity.BatchCheckpoint;
+import com.todo.backend.entity.BatchRunStatus;
+import com.todo.backend.entity.OverdueBucket;
+import com.todo.backend.entity.OverdueLoan;
+import com.todo.backend.service.LiveStatisticsService;
+import com.todo.backend.service.OverdueService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RefreshTests {
+    @Mock
+    private OverdueLoanRepository overdueLoanRepository;
+    @Mock
+    private BatchCheckpointRepository batchCheckpointRepository;
+    @Mock
+    private LiveStatisticsService liveStatisticsService;
+
+    @InjectMocks
+    private OverdueService overdueService;
+
+    @Test
+    void TC1_AssignsDaysLateBuckets() {
+        /// Arrange
+        var today = LocalDate.now();
+        var checkpoint = initCheckpoint(today.minusDays(1));
+        when(batchCheckpointRepository.findForUpdate(OverdueService.JOB_NAME)).thenReturn(Optional.of(checkpoint));
+        when(overdueLoanRepository.findOverdueSource(today)).thenReturn(List.of(
+                initLoan("t1", today.minusDays(1)),
+                initLoan("t2", today.minusDays(8)),
+                initLoan("t3", today.minusDays(30)),
+                initLoan("t4", today.minusDays(31))));
+
+        /// Act
+        int count = overdueService.refresh();
+
+        /// Assert
+        assertEquals(4, count);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<OverdueLoan>> captor = ArgumentCaptor.forClass(List.class);
+        verify(overdueLoanRepository).deleteAllLoans();
+        verify(overdueLoanRepository).saveAll(captor.capture());
+        var buckets = captor.getValue().stream().map(OverdueLoan::getBucket).toList();
+        assertEquals(List.of(OverdueBucket.DAYS_1_7, OverdueBucket.DAYS_8_14, OverdueBucket.DAYS_15_30, OverdueBucket.DAYS_31_PLUS), buckets);
+        assertTrue(captor.getValue().stream().allMatch(loan -> today.equals(loan.getMaterializedOn())));
+        assertEquals(today, checkpoint.getRunDate());
+        assertEquals(4, checkpoint.getProcessed());
+    }
+
+    @Test
+    void TC2_ReadsServeSnapshotWithoutRebuilding() {
+        /// Arrange
+        when(batchCheckpointRepository.findById(OverdueService.JOB_NAME))
+                .thenReturn(Optional.of(initCheckpoint(LocalDate.now().minusDays(1))));
+
+        /// Act
+        overdueService.countOverdue();
+        var summary = overdueService.getSummary();
+
+        /// Assert
+        assertEquals(LocalDate.now().minusDays(1), summary.getMaterializedOn());
+        verify(overdueLoanRepository, never()).findOverdueSource(any());
+        verify(overdueLoanRepository, never()).deleteAllLoans();
+    }
+
+    @Test
+    void TC3_CsvExportEscapesValues() throws Exception {
+        /// Arrange
+        var row = new com.todo.backend.dto.overdue.OverdueLoanDto("t1", "bc1", "bt1", "Sách \"hay\", tập 1", 100000,
+                "u1", "Jane", "123", LocalDate.now().minusDays(20), LocalDate.now().minusDays(6), OverdueBucket.DAYS_1_7);
+        when(overdueLoanRepository.streamByBucket(isNull())).thenReturn(Stream.of(row));
+        var writer = new StringWriter();
+
+        /// Act
+        overdueService.exportCsv(null, writer);
+
+        /// Assert
+        var lines = writer.toString().split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("transactionId,"));
+        assertEquals("t1,bc1,\"Sách \"\"hay\"\", tập 1\",u1,Jane,123," + row.getBorrowDate() + "," + row.getDueDate() + ",6,DAYS_1_7", lines[1]);
+    }
+
+    @Test
+    void TC4_CatchUpSkipsWhenTodaysSnapshotExists() {
+        /// Arrange
+        when(batchCheckpointRepository.findForUpdate(OverdueService.JOB_NAME))
+                .thenReturn(Optional.of(initCheckpoint(LocalDate.now())));
+
+        /// Act
+        var result = overdueService.refreshIfStale();
+
+        /// Assert
+        assertTrue(result.isEmpty());
+        verify(overdueLoanRepository, never()).deleteAllLoans();
+    }
+
+    @Test
+    void TC5_FiredLoansAddedWithoutRebuild() {
+        /// Arrange
+        var today = LocalDate.now();
+        when(overdueLoanRepository.findMissingOverdueSource(List.of("t1", "t2"), today))
+                .thenReturn(List.of(initLoan("t2", today.minusDays(1))));
+
+        /// Act
+        int added = overdueService.addLoans(List.of("t1", "t2"));
+
+        /// Assert
+        assertEquals(1, added);
+        verify(overdueLoanRepository).saveAllAndFlush(argThat(loans -> ((List<OverdueLoan>) loans).size() == 1));
+        verify(liveStatisticsService).recordOverdueAdded(1);
+        verify(overdueLoanRepository, never()).deleteAllLoans();
+    }
+
+    private BatchCheckpoint initCheckpoint(LocalDate runDate) {
+        var checkpoint = new BatchCheckpoint();
+        checkpoint.setJobName(OverdueService.JOB_NAME);
+        checkpoint.setRunDate(runDate);
+        checkpoint.setStatus(BatchRunStatus.COMPLETED);
+        return checkpoint;
+    }
+
+    private OverdueLoan initLoan(String transactionId, LocalDate dueDate) {
+        return new OverdueLoan(transactionId, "bc-" + transactionId, "bt", "Title", 100000,
+                "u", "User", "123", dueDate.minusWeeks(2), dueDate);
+    }
+}
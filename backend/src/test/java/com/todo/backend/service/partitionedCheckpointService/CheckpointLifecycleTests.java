@@ -0,0 +1,119 @@
+package com.todo.backend.service.partitionedCheckpointService;
+
+import com.todo.backend.dao.BatchCheckpointRepository;
+import com.todo.backend.entity.BatchCheckpoint;
+import com.todo.backend.entity.BatchRunStatus;
+import com.todo.backend.service.PartitionedCheckpointService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CheckpointLifecycleTests {
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 30);
+    private static final String JOB_NAME = "sweep";
+
+    @Mock
+    private BatchCheckpointRepository batchCheckpointRepository;
+
+    @InjectMocks
+    private PartitionedCheckpointService partitionedCheckpointService;
+
+    @Test
+    void TC1_BeginResumesUnfinishedRunOfSameDay() {
+        /// Arrange
+        var checkpoint = initCheckpoint(JOB_NAME, TODAY, BatchRunStatus.RUNNING, "t5", 4);
+        when(batchCheckpointRepository.findById(JOB_NAME)).thenReturn(Optional.of(checkpoint));
+        when(batchCheckpointRepository.save(any(BatchCheckpoint.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        /// Act
+        var result = partitionedCheckpointService.begin(JOB_NAME, TODAY);
+
+        /// Assert
+        assertEquals("t5", result.getLastKey());
+        assertEquals(4, result.getProcessed());
+    }
+
+    @Test
+    void TC2_BeginPartitionStartsOverAfterCompletedOrOlderRun() {
+        /// Arrange
+        var checkpoint = initCheckpoint("sweep#3", TODAY.minusDays(1), BatchRunStatus.RUNNING, "t5", 4);
+        when(batchCheckpointRepository.findById("sweep#3")).thenReturn(Optional.of(checkpoint));
+        when(batchCheckpointRepository.save(any(BatchCheckpoint.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        /// Act
+        var result = partitionedCheckpointService.beginPartition(JOB_NAME, TODAY, 3);
+
+        /// Assert
+        assertNull(result.getLastKey());
+        assertEquals(0, result.getProcessed());
+        assertEquals(TODAY, result.getRunDate());
+        assertEquals(BatchRunStatus.RUNNING, result.getStatus());
+    }
+
+    @Test
+    void TC3_PartitionNotStarted() {
+        /// Arrange
+        when(batchCheckpointRepository.findById("sweep#1")).thenReturn(Optional.empty());
+
+        /// Act
+        var exception = assertThrows(RuntimeException.class, () -> partitionedCheckpointService.getPartition(JOB_NAME, 1));
+
+        /// Assert
+        assertEquals("Partition 1 of sweep has not been started", exception.getMessage());
+    }
+
+    @Test
+    void TC4_AdvanceAddsChunkToPartition() {
+        /// Arrange
+        var checkpoint = initCheckpoint("sweep#0", TODAY, BatchRunStatus.RUNNING, "t1", 1);
+
+        /// Act
+        partitionedCheckpointService.advancePartition(checkpoint, "t3", 2);
+
+        /// Assert
+        verify(batchCheckpointRepository).save(checkpoint);
+        assertEquals("t3", checkpoint.getLastKey());
+        assertEquals(3, checkpoint.getProcessed());
+        assertNotNull(checkpoint.getUpdatedAt());
+    }
+
+    @Test
+    void TC5_CompleteSumsPartitions() {
+        /// Arrange
+        var checkpoint = initCheckpoint(JOB_NAME, TODAY, BatchRunStatus.RUNNING, null, 0);
+        when(batchCheckpointRepository.findById(JOB_NAME)).thenReturn(Optional.of(checkpoint));
+        when(batchCheckpointRepository.findByJobNameStartingWithAndRunDate("sweep#", TODAY))
+                .thenReturn(List.of(
+                        initCheckpoint("sweep#0", TODAY, BatchRunStatus.COMPLETED, "t8", 4),
+                        initCheckpoint("sweep#1", TODAY, BatchRunStatus.COMPLETED, "t5", 3)));
+        when(batchCheckpointRepository.save(any(BatchCheckpoint.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        /// Act
+        var result = partitionedCheckpointService.complete(JOB_NAME, TODAY);
+
+        /// Assert
+        assertEquals(7, result.getProcessed());
+        assertEquals(BatchRunStatus.COMPLETED, result.getStatus());
+    }
+
+    private BatchCheckpoint initCheckpoint(String jobName, LocalDate runDate, BatchRunStatus status, String lastKey, long processed) {
+        var checkpoint = new BatchCheckpoint();
+        checkpoint.setJobName(jobName);
+        checkpoint.setRunDate(runDate);
+        checkpoint.setStatus(status);
+        checkpoint.setLastKey(lastKey);
+        checkpoint.setProcessed(processed);
+        return checkpoint;
+    }
+}
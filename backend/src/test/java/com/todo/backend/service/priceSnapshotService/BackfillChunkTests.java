@@ -0,0 +1,59 @@
+package com.todo.backend.service.priceSnapshotService;
+
+import com.todo.backend.dao.TransactionRepository;
+import com.todo.backend.service.PriceSnapshotService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BackfillChunkTests {
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @InjectMocks
+    private PriceSnapshotService priceSnapshotService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(priceSnapshotService, "chunkSize", 2);
+    }
+
+    @Test
+    void TC1_FillsOneChunk() {
+        /// Arrange
+        when(transactionRepository.findIdsMissingChargedPrice(argThat((Pageable p) -> p.getPageSize() == 2)))
+                .thenReturn(List.of("t1", "t2"));
+        when(transactionRepository.fillChargedPrice(List.of("t1", "t2"))).thenReturn(2);
+
+        /// Act
+        int filled = priceSnapshotService.backfillChunk();
+
+        /// Assert
+        assertEquals(2, filled);
+    }
+
+    @Test
+    void TC2_NothingMissing() {
+        /// Arrange
+        when(transactionRepository.findIdsMissingChargedPrice(any(Pageable.class))).thenReturn(List.of());
+
+        /// Act
+        int filled = priceSnapshotService.backfillChunk();
+
+        /// Assert
+        assertEquals(0, filled);
+        verify(transactionRepository, never()).fillChargedPrice(any());
+    }
+}
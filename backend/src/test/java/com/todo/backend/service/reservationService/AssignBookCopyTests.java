@@ -8,11 +8,11 @@ import com.todo.backend.dto.bookcopy.UpdateBookCopyDto;
 import com.todo.backend.entity.*;
 import com.todo.backend.entity.identity.UserRole;
 import com.todo.backend.mapper.ReservationMapper;
+import com.todo.backend.service.BookCopyClaimService;
 import com.todo.backend.service.ReservationService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mapstruct.factory.Mappers;
-import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
@@ -37,6 +37,8 @@ public class AssignBookCopyTests {
     private ReservationRepository reservationRepository;
     @Mock
     private BookCopyRepository bookCopyRepository;
+    @Mock
+    private BookCopyClaimService bookCopyClaimService;
     @Spy
     private ReservationMapper reservationMapper = Mappers.getMapper(ReservationMapper.class);
 
@@ -53,11 +55,10 @@ public class AssignBookCopyTests {
 
         /// Assert
         // dto
-        assertEquals(reservation.getBookCopyId(), res.getBookCopyId());
-        // repository save
-        ArgumentCaptor<Reservation> captor = ArgumentCaptor.forClass(Reservation.class);
-        verify(reservationRepository).save(captor.capture());
-        assertEquals(reservation.getBookCopyId(), captor.getValue().getBookCopyId());
+        assertEquals("book-copy-id", res.getBookCopyId());
+        // claimed copy assigned only if no other desk did first
+        verify(bookCopyClaimService).claimAvailableCopy("book-title-id");
+        verify(reservationRepository).assignBookCopyIfUnassigned(reservation.getId(), "book-copy-id");
     }
 
     @Test
@@ -109,11 +110,24 @@ public class AssignBookCopyTests {
 
         /// Assert
         // dto
-        assertEquals(reservation.getBookCopyId(), res.getBookCopyId());
-        // repository save
-        ArgumentCaptor<Reservation> captor = ArgumentCaptor.forClass(Reservation.class);
-        verify(reservationRepository).save(captor.capture());
-        assertEquals(reservation.getBookCopyId(), captor.getValue().getBookCopyId());
+        assertEquals("book-copy-id", res.getBookCopyId());
+        // claimed copy assigned only if no other desk did first
+        verify(bookCopyClaimService).claimAvailableCopy("book-title-id");
+        verify(reservationRepository).assignBookCopyIfUnassigned(reservation.getId(), "book-copy-id");
+    }
+
+    @Test
+    void TC6_AssignedByAnotherDesk() {
+        /// Arrange
+        var reservation = initReservation(true, true, true);
+        when(reservationRepository.assignBookCopyIfUnassigned(reservation.getId(), "book-copy-id")).thenReturn(0);
+
+        /// Act
+        var res = assertThrows(RuntimeException.class, () ->
+                reservationService.assignBookCopyToReservation(reservation.getId()));
+
+        /// Assert
+        assertEquals("A book copy is already assigned to this reservation", res.getMessage());
     }
 
     BookTitle initBookTitle() {
@@ -153,11 +167,10 @@ public class AssignBookCopyTests {
         if (availableBookCopyExists) {
             var bookCopy = new BookCopy();
             bookCopy.setId("book-copy-id");
-            bookCopy.setStatus(BookCopyStatus.AVAILABLE);
-            when(bookCopyRepository.findFirstByBookTitleIdAndStatus(
-                    reservation.getBookTitle().getId(),
-                    BookCopyStatus.AVAILABLE
-            )).thenReturn(bookCopy);
+            bookCopy.setStatus(BookCopyStatus.RESERVED);
+            when(bookCopyClaimService.claimAvailableCopy(reservation.getBookTitle().getId()))
+                    .thenReturn(Optional.of(bookCopy));
+            when(reservationRepository.assignBookCopyIfUnassigned(reservationId, bookCopy.getId())).thenReturn(1);
         }
         return reservation;
     }
@@ -0,0 +1,162 @@
+package com.todo.backend.service.reservationService;
+
+import com.todo.backend.dao.BookCopyRepository;
+import com.todo.backend.dao.BookTitleRepository;
+import com.todo.backend.dao.ReservationRepository;
+import com.todo.backend.dao.UserRepository;
+import com.todo.backend.entity.*;
+import com.todo.backend.service.ReservationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Many desks assigning copies of the same title at once: every pickup gets its own copy, and a pickup
+ * never waits for a copy another one is still claiming.
+ */
+@SpringBootTest
+@TestPropertySource(locations = "classpath:application-integration-tests.properties")
+public class ConcurrentPickupTests {
+    private static final int THREADS = 16;
+    private static final int COPIES = 20;
+    private static final int RESERVATIONS = 40;
+
+    @Autowired
+    private ReservationService reservationService;
+    @Autowired
+    private ReservationRepository reservationRepository;
+    @Autowired
+    private BookCopyRepository bookCopyRepository;
+    @Autowired
+    private BookTitleRepository bookTitleRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private String bookTitleId;
+    private final List<String> userIds = new ArrayList<>();
+    private final List<String> reservationIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        var bookTitle = new BookTitle();
+        bookTitle.setTitle("Concurrent pickup");
+        bookTitle.setCanBorrow(true);
+        bookTitleId = bookTitleRepository.save(bookTitle).getId();
+        for (int i = 0; i < COPIES; i++) {
+            var bookCopy = new BookCopy();
+            bookCopy.setBookTitleId(bookTitleId);
+            bookCopy.setStatus(BookCopyStatus.AVAILABLE);
+            bookCopy.setCondition(BookCopyCondition.GOOD);
+            bookCopyRepository.save(bookCopy);
+        }
+        for (int i = 0; i < RESERVATIONS; i++) {
+            var user = new User();
+            user.setCccd("pickup-" + i);
+            user.setName("Pickup " + i);
+            userIds.add(userRepository.save(user).getId());
+
+            var reservation = new Reservation();
+            reservation.setUserId(userIds.get(i));
+            reservation.setBookTitleId(bookTitleId);
+            reservation.setReservationDate(LocalDate.now());
+            reservation.setExpirationDate(LocalDate.now().plusWeeks(1));
+            reservationIds.add(reservationRepository.save(reservation).getId());
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        reservationRepository.deleteAllByIdInBatch(reservationIds);
+        bookCopyRepository.deleteAllInBatch(bookCopyRepository.findByBookTitleId(bookTitleId));
+        bookTitleRepository.deleteAllByIdInBatch(List.of(bookTitleId));
+        userRepository.deleteAllByIdInBatch(userIds);
+    }
+
+    @Test
+    void TC1_ParallelPickups_EachGetsDistinctCopy() throws Exception {
+        /// Arrange
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        Map<String, String> assigned = new ConcurrentHashMap<>();
+        Map<String, String> failures = new ConcurrentHashMap<>();
+
+        /// Act
+        List<Future<?>> futures = new ArrayList<>();
+        for (String reservationId : reservationIds) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                try {
+                    assigned.put(reservationId, reservationService.assignBookCopyToReservation(reservationId).getBookCopyId());
+                } catch (RuntimeException e) {
+                    failures.put(reservationId, e.getMessage());
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+
+        /// Assert
+        assertEquals(COPIES, assigned.size());
+        assertEquals(COPIES, new HashSet<>(assigned.values()).size());
+        assertEquals(Set.of("No available physical copy for pickup at this time"), new HashSet<>(failures.values()));
+        for (BookCopy bookCopy : bookCopyRepository.findByBookTitleId(bookTitleId)) {
+            assertEquals(BookCopyStatus.RESERVED, bookCopy.getStatus());
+        }
+        for (var entry : assigned.entrySet()) {
+            assertEquals(entry.getValue(), reservationRepository.findById(entry.getKey()).orElseThrow().getBookCopyId());
+        }
+    }
+
+    @Test
+    void TC2_CopyBeingClaimed_SkippedNotWaitedFor() throws Exception {
+        /// Arrange
+        // First desk claims a copy and keeps its transaction open
+        CountDownLatch claimed = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        var template = new TransactionTemplate(transactionManager);
+        ExecutorService firstDesk = Executors.newSingleThreadExecutor();
+        Future<String> first = firstDesk.submit(() -> template.execute(status -> {
+            String bookCopyId = reservationService.assignBookCopyToReservation(reservationIds.get(0)).getBookCopyId();
+            claimed.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return bookCopyId;
+        }));
+        assertTrue(claimed.await(30, TimeUnit.SECONDS));
+
+        /// Act
+        String second;
+        try {
+            second = assertTimeoutPreemptively(Duration.ofSeconds(5),
+                    () -> reservationService.assignBookCopyToReservation(reservationIds.get(1)).getBookCopyId());
+        } finally {
+            release.countDown();
+        }
+        String firstCopy = first.get(30, TimeUnit.SECONDS);
+        firstDesk.shutdown();
+
+        /// Assert
+        assertNotEquals(firstCopy, second);
+    }
+}
@@ -0,0 +1,169 @@
+package com.todo.backend.service.reservationService;
+
+import com.todo.backend.dao.BookTitleRepository;
+import com.todo.backend.dao.UserRepository;
+import com.todo.backend.dto.reservation.CreateReservationDto;
+import com.todo.backend.entity.BookTitle;
+import com.todo.backend.entity.User;
+import com.todo.backend.service.ReservationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Fires thousands of createReservation calls from many threads at a handful of titles and checks that the
+ * online slots, the balances and the per-user rules add up exactly, each call in its own database transaction.
+ */
+@SpringBootTest
+@TestPropertySource(locations = "classpath:application-integration-tests.properties")
+public class ConcurrentReservationTests {
+    private static final int THREADS = 32;
+    private static final int REQUESTS = 3000;
+    private static final int USERS = 150;
+    private static final int[] SLOTS = {0, 1, 20, 40, 60, 80, 100, 120};
+    private static final int PRICE = 100;
+    private static final int DEPOSIT = PRICE / 10;
+
+    private static final Set<String> EXPECTED_FAILURES = Set.of(
+            "No more online reservation slots available for this book",
+            "User has reached the maximum number of active reservations",
+            "User has already reserved this book");
+    private static final String NOT_ENOUGH_BALANCE = "User does not have enough balance to reserve";
+
+    @Autowired
+    private ReservationService reservationService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private BookTitleRepository bookTitleRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<String> userIds = new ArrayList<>();
+    private final List<String> bookTitleIds = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        if (!bookTitleIds.isEmpty()) {
+            jdbcTemplate.update("DELETE FROM RESERVATION WHERE BOOK_TITLE_ID IN (" + placeholders(bookTitleIds) + ")", bookTitleIds.toArray());
+        }
+        bookTitleRepository.deleteAllByIdInBatch(bookTitleIds);
+        userRepository.deleteAllByIdInBatch(userIds);
+    }
+
+    @Test
+    void TC1_ParallelReservations_ExactSlotAccounting() throws Exception {
+        /// Arrange
+        Map<String, Integer> initialBalances = new HashMap<>();
+        for (int i = 0; i < USERS; i++) {
+            var user = new User();
+            user.setCccd("concurrent-" + i);
+            user.setName("Concurrent " + i);
+            // A third can only afford two deposits, the rest run into the 5 reservation limit
+            user.setBalance(i % 3 == 0 ? 2 * DEPOSIT : 10 * DEPOSIT);
+            user = userRepository.save(user);
+            userIds.add(user.getId());
+            initialBalances.put(user.getId(), user.getBalance());
+        }
+        for (int slots : SLOTS) {
+            var bookTitle = new BookTitle();
+            bookTitle.setTitle("Concurrent " + slots);
+            bookTitle.setPrice(PRICE);
+            bookTitle.setCanBorrow(true);
+            bookTitle.setMaxOnlineReservations(slots);
+            bookTitleIds.add(bookTitleRepository.save(bookTitle).getId());
+        }
+
+        var random = new Random(43);
+        List<String[]> requests = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            requests.add(new String[]{
+                    userIds.get(random.nextInt(USERS)),
+                    bookTitleIds.get(random.nextInt(bookTitleIds.size()))});
+        }
+
+        /// Act
+        Map<String, AtomicInteger> successes = new ConcurrentHashMap<>();
+        Map<String, AtomicInteger> failures = new ConcurrentHashMap<>();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (String[] request : requests) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                var dto = CreateReservationDto.builder().bookTitleId(request[1]).build();
+                try {
+                    reservationService.createReservation(request[0], dto);
+                    successes.computeIfAbsent(request[1], id -> new AtomicInteger()).incrementAndGet();
+                } catch (RuntimeException e) {
+                    // Lock timeouts, deadlocks and the like keep their type, so they fail the check below
+                    String message = e.getClass() != RuntimeException.class ? e.toString()
+                            : e.getMessage().startsWith(NOT_ENOUGH_BALANCE) ? NOT_ENOUGH_BALANCE
+                            : e.getMessage();
+                    failures.computeIfAbsent(message, m -> new AtomicInteger()).incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+
+        /// Assert
+        // Every call either reserved or failed on a business rule, nothing else
+        for (String message : failures.keySet()) {
+            assertTrue(EXPECTED_FAILURES.contains(message) || message.equals(NOT_ENOUGH_BALANCE), message);
+        }
+        int succeeded = successes.values().stream().mapToInt(AtomicInteger::get).sum();
+        int failed = failures.values().stream().mapToInt(AtomicInteger::get).sum();
+        assertEquals(REQUESTS, succeeded + failed);
+        assertTrue(failures.containsKey("No more online reservation slots available for this book"));
+
+        // Slots: counter == rows == successful calls, never above the limit
+        for (int i = 0; i < SLOTS.length; i++) {
+            String bookTitleId = bookTitleIds.get(i);
+            int rows = count("SELECT COUNT(*) FROM RESERVATION WHERE BOOK_TITLE_ID = ?", bookTitleId);
+            int reserved = count("SELECT RESERVED_ONLINE FROM BOOK_TITLE WHERE ID = ?", bookTitleId);
+            int calls = successes.getOrDefault(bookTitleId, new AtomicInteger()).get();
+            assertEquals(rows, reserved, "counter of title with " + SLOTS[i] + " slots");
+            assertEquals(rows, calls, "rows of title with " + SLOTS[i] + " slots");
+            assertTrue(rows <= SLOTS[i], "title with " + SLOTS[i] + " slots has " + rows);
+        }
+        // The small titles are certainly oversubscribed
+        assertEquals(0, count("SELECT COUNT(*) FROM RESERVATION WHERE BOOK_TITLE_ID = ?", bookTitleIds.get(0)));
+        assertEquals(1, count("SELECT COUNT(*) FROM RESERVATION WHERE BOOK_TITLE_ID = ?", bookTitleIds.get(1)));
+        assertEquals(20, count("SELECT COUNT(*) FROM RESERVATION WHERE BOOK_TITLE_ID = ?", bookTitleIds.get(2)));
+
+        // Users: at most 5 reservations, one per title, every deposit debited exactly once
+        for (String userId : userIds) {
+            int rows = count("SELECT COUNT(*) FROM RESERVATION WHERE USER_ID = ?", userId);
+            int titles = count("SELECT COUNT(DISTINCT BOOK_TITLE_ID) FROM RESERVATION WHERE USER_ID = ?", userId);
+            int deposits = count("SELECT COALESCE(SUM(DEPOSIT), 0) FROM RESERVATION WHERE USER_ID = ?", userId);
+            int balance = count("SELECT BALANCE FROM \"USER\" WHERE ID = ?", userId);
+            assertTrue(rows <= 5, "user has " + rows + " reservations");
+            assertEquals(rows, titles);
+            assertEquals(rows * DEPOSIT, deposits);
+            assertEquals(initialBalances.get(userId) - deposits, balance);
+            assertTrue(balance >= 0);
+        }
+    }
+
+    private int count(String sql, String id) {
+        return Objects.requireNonNull(jdbcTemplate.queryForObject(sql, Integer.class, id));
+    }
+
+    private static String placeholders(List<?> values) {
+        return String.join(", ", Collections.nCopies(values.size(), "?"));
+    }
+}
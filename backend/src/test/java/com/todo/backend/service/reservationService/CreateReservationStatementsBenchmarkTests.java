@@ -0,0 +1,146 @@
+package com.todo.backend.service.reservationService;
+
+import com.todo.backend.dao.BookTitleRepository;
+import com.todo.backend.dao.ReservationRepository;
+import com.todo.backend.dao.UserRepository;
+import com.todo.backend.dto.reservation.CreateReservationDto;
+import com.todo.backend.entity.BookTitle;
+import com.todo.backend.entity.Reservation;
+import com.todo.backend.entity.User;
+import com.todo.backend.service.BalanceTransactionService;
+import com.todo.backend.service.ReservationService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JDBC statements per successful createReservation, counted by Hibernate's statistics.
+ * The path before the single-command restructuring is replayed with the same repository calls in a
+ * transaction that is rolled back: the user entity, the title, the debit, the balance read back, the user's
+ * active reservations as a list, the slot claim and the insert. The current path replaces the user entity and
+ * the list with one row of per-user counts and also writes the ledger row, so both take 7 statements.
+ */
+@SpringBootTest
+@TestPropertySource(locations = "classpath:application-integration-tests.properties",
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class CreateReservationStatementsBenchmarkTests {
+    private static final int USERS = 50;
+    private static final int TITLES = 4;
+    private static final int PRICE = 100;
+    private static final int STATEMENTS_PER_RESERVATION = 7;
+
+    @Autowired
+    private ReservationService reservationService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private BookTitleRepository bookTitleRepository;
+    @Autowired
+    private ReservationRepository reservationRepository;
+    @Autowired
+    private BalanceTransactionService balanceTransactionService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<String> userIds = new ArrayList<>();
+    private final List<String> bookTitleIds = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        if (!userIds.isEmpty()) {
+            String placeholders = String.join(", ", Collections.nCopies(userIds.size(), "?"));
+            jdbcTemplate.update("DELETE FROM RESERVATION WHERE USER_ID IN (" + placeholders + ")", userIds.toArray());
+            jdbcTemplate.update("DELETE FROM \"balance_transactions\" WHERE \"user_id\" IN (" + placeholders + ")", userIds.toArray());
+        }
+        bookTitleRepository.deleteAllByIdInBatch(bookTitleIds);
+        userRepository.deleteAllByIdInBatch(userIds);
+    }
+
+    @Test
+    void TC1_StatementsPerReservation() {
+        /// Arrange
+        for (int i = 0; i < USERS; i++) {
+            var user = new User();
+            user.setCccd("statements-" + i);
+            user.setName("Statements " + i);
+            user.setBalance(TITLES * PRICE);
+            userIds.add(userRepository.save(user).getId());
+        }
+        for (int i = 0; i < TITLES; i++) {
+            var bookTitle = new BookTitle();
+            bookTitle.setTitle("Statements " + i);
+            bookTitle.setPrice(PRICE);
+            bookTitle.setCanBorrow(true);
+            bookTitle.setMaxOnlineReservations(USERS);
+            bookTitleIds.add(bookTitleRepository.save(bookTitle).getId());
+        }
+        // Each user already holds a few reservations, so the per-user rules have rows to look at
+        for (String userId : userIds) {
+            for (String bookTitleId : bookTitleIds.subList(0, TITLES - 1)) {
+                reservationService.createReservation(userId, CreateReservationDto.builder().bookTitleId(bookTitleId).build());
+            }
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        for (String userId : userIds) {
+            createReservationBeforeRestructuring(userId, bookTitleIds.getLast());
+        }
+        double before = (double) statistics.getPrepareStatementCount() / USERS;
+        statistics.clear();
+
+        /// Act
+        for (String userId : userIds) {
+            reservationService.createReservation(userId, CreateReservationDto.builder().bookTitleId(bookTitleIds.getLast()).build());
+        }
+
+        /// Assert
+        double after = (double) statistics.getPrepareStatementCount() / USERS;
+        String report = String.format("%.2f statements per reservation before, %.2f after (%d entity loads, %d inserts, %d queries)",
+                before, after, statistics.getEntityLoadCount() / USERS, statistics.getEntityInsertCount() / USERS,
+                statistics.getQueryExecutionCount() / USERS);
+        assertEquals(STATEMENTS_PER_RESERVATION, before, report);
+        assertEquals(STATEMENTS_PER_RESERVATION, after, report);
+    }
+
+    // The persistence calls createReservation made before it used the counts query and the ledger row,
+    // flushed and rolled back so the data stays as it was for the current path
+    private void createReservationBeforeRestructuring(String userId, String bookTitleId) {
+        LocalDate today = LocalDate.now();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            userRepository.findById(userId).orElseThrow();
+            BookTitle bookTitle = bookTitleRepository.findById(bookTitleId).orElseThrow();
+            balanceTransactionService.tryDebitBalance(userId, bookTitle.getPrice() / 10).orElseThrow();
+            assertFalse(reservationRepository.findActiveReservationsByUserId(userId, today).stream()
+                    .anyMatch(reservation -> reservation.getBookTitleId().equals(bookTitleId)));
+            assertEquals(1, bookTitleRepository.claimOnlineReservationSlot(bookTitleId));
+
+            var reservation = new Reservation();
+            reservation.setUserId(userId);
+            reservation.setBookTitleId(bookTitleId);
+            reservation.setReservationDate(today);
+            reservation.setExpirationDate(today.plusWeeks(1));
+            reservation.setDeposit(bookTitle.getPrice() / 10);
+            reservationRepository.saveAndFlush(reservation);
+            status.setRollbackOnly();
+        });
+    }
+}
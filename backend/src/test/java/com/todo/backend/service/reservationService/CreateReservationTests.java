@@ -4,9 +4,13 @@ import com.todo.backend.dao.BookCopyRepository;
 import com.todo.backend.dao.BookTitleRepository;
 import com.todo.backend.dao.ReservationRepository;
 import com.todo.backend.dao.UserRepository;
+import com.todo.backend.dto.reservation.ActiveReservationCountsDto;
 import com.todo.backend.dto.reservation.ResponseReservationDto;
 import com.todo.backend.entity.*;
 import com.todo.backend.mapper.ReservationMapper;
+import com.todo.backend.service.BalanceTransactionService;
+import com.todo.backend.service.DeadlineService;
+import com.todo.backend.service.LiveStatisticsService;
 import com.todo.backend.service.ReservationService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -18,7 +22,6 @@ import org.mockito.quality.Strictness;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDate;
-import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -38,6 +41,12 @@ public class CreateReservationTests {
     private BookCopyRepository bookCopyRepository;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private BalanceTransactionService balanceTransactionService;
+    @Mock
+    private LiveStatisticsService liveStatisticsService;
+    @Mock
+    private DeadlineService deadlineService;
     @Spy
     private ReservationMapper reservationMapper = Mappers.getMapper(ReservationMapper.class);
 
@@ -51,19 +60,16 @@ public class CreateReservationTests {
         var user = initUser();
         user.setBalance(10);
         int depositAmount = 9;
-        int remainingBalance = 1;
         // book title
         var bookTitle = initBookTitle();
         int price = depositAmount * 10; // 10% of book price as deposit
         bookTitle.setPrice(price);
         bookTitle.setCanBorrow(true);
         bookTitle.setMaxOnlineReservations(10);
-        when(reservationRepository.findActiveReservationsByBookTitleId(eq(bookTitle.getId()), any()))
-                .thenReturn(List.of());
         // reservation
         var reservation = initReservation(bookTitle, user, true, true, true);
-        when(reservationRepository.findActiveReservationsByUserId(eq(user.getId()), any()))
-                .thenReturn(List.of());
+        when(reservationRepository.countActiveReservations(eq(user.getId()), any(), any()))
+                .thenReturn(new ActiveReservationCountsDto(0L, 0L));
         // dto
         var reservationDto = reservationMapper.toDto(reservation);
 
@@ -82,8 +88,14 @@ public class CreateReservationTests {
         assertEquals(bookTitle.getId(), captor.getValue().getBookTitleId());
         assertEquals(user.getId(), captor.getValue().getUserId());
         // user balance deduction
-        verify(userRepository).save(argThat(
-                u -> u.getId().equals(user.getId()) && u.getBalance() == remainingBalance));
+        verify(balanceTransactionService).tryDebitBalance(user.getId(), depositAmount);
+        verify(userRepository, never()).save(any(User.class));
+        verify(userRepository, never()).findById(any());
+        // deposit logged to the ledger with the balance after the debit
+        verify(balanceTransactionService).logTransaction(eq(user.getId()), eq(BalanceTransactionType.RESERVATION_DEPOSIT),
+                eq(-depositAmount), any(), eq(1));
+        // online slot
+        verify(bookTitleRepository).claimOnlineReservationSlot(bookTitle.getId());
     }
 
 
@@ -94,15 +106,16 @@ public class CreateReservationTests {
         var nonExistentUserId = "non-existent-user-id";
         var user = new User();
         user.setId(nonExistentUserId);
-        when(userRepository.findById(nonExistentUserId)).thenReturn(Optional.empty());
+        when(balanceTransactionService.tryDebitBalance(eq(nonExistentUserId), anyInt()))
+                .thenThrow(new RuntimeException("User with ID " + nonExistentUserId + " not found"));
         // book title
         var bookTitle = initBookTitle();
         bookTitle.setCanBorrow(true);
         bookTitle.setMaxOnlineReservations(10);
         // reservation
         var reservation = initReservation(bookTitle, user, true, true, true);
-        when(reservationRepository.findActiveReservationsByUserId(eq(reservation.getUserId()), any()))
-                .thenReturn(List.of());
+        when(reservationRepository.countActiveReservations(eq(reservation.getUserId()), any(), any()))
+                .thenReturn(new ActiveReservationCountsDto(0L, 0L));
         // dto
         var reservationDto = reservationMapper.toDto(reservation);
 
@@ -113,7 +126,8 @@ public class CreateReservationTests {
             }
         });
         /// Assert
-        assertEquals("User not found", res.getMessage());
+        assertEquals("User with ID non-existent-user-id not found", res.getMessage());
+        verify(reservationRepository, never()).save(any());
     }
 
     @Test
@@ -127,8 +141,8 @@ public class CreateReservationTests {
         bookTitle.setMaxOnlineReservations(10);
         // reservation
         var reservation = initReservation(bookTitle, user, true, true, true);
-        when(reservationRepository.findActiveReservationsByUserId(eq(reservation.getUserId()), any()))
-                .thenReturn(List.of());
+        when(reservationRepository.countActiveReservations(eq(reservation.getUserId()), any(), any()))
+                .thenReturn(new ActiveReservationCountsDto(0L, 0L));
         // dto
         var reservationDto = reservationMapper.toDto(reservation);
 
@@ -153,8 +167,8 @@ public class CreateReservationTests {
         bookTitle.setMaxOnlineReservations(10);
         // reservation
         var reservation = initReservation(bookTitle, user, true, true, true);
-        when(reservationRepository.findActiveReservationsByUserId(eq(user.getId()), any()))
-                .thenReturn(Collections.nCopies(6, new Reservation()));
+        when(reservationRepository.countActiveReservations(eq(user.getId()), any(), any()))
+                .thenReturn(new ActiveReservationCountsDto(6L, 0L));
         // dto
         var reservationDto = reservationMapper.toDto(reservation);
 
@@ -179,8 +193,8 @@ public class CreateReservationTests {
         bookTitle.setMaxOnlineReservations(10);
         // reservation
         var reservation = initReservation(bookTitle, user, true, true, true);
-        when(reservationRepository.findActiveReservationsByUserId(eq(user.getId()), any()))
-                .thenReturn(Collections.nCopies(1, reservation));
+        when(reservationRepository.countActiveReservations(eq(user.getId()), any(), any()))
+                .thenReturn(new ActiveReservationCountsDto(1L, 1L));
         // dto
         var reservationDto = reservationMapper.toDto(reservation);
 
@@ -205,8 +219,8 @@ public class CreateReservationTests {
         bookTitle.setMaxOnlineReservations(10);
         // reservation
         var reservation = initReservation(bookTitle, user, true, true, true);
-        when(reservationRepository.findActiveReservationsByUserId(eq(user.getId()), any()))
-                .thenReturn(List.of());
+        when(reservationRepository.countActiveReservations(eq(user.getId()), any(), any()))
+                .thenReturn(new ActiveReservationCountsDto(0L, 0L));
         // dto
         var reservationDto = reservationMapper.toDto(reservation);
 
@@ -229,12 +243,11 @@ public class CreateReservationTests {
         var bookTitle = initBookTitle();
         bookTitle.setCanBorrow(true);
         bookTitle.setMaxOnlineReservations(1);
-        when(reservationRepository.findActiveReservationsByBookTitleId(eq(bookTitle.getId()), any()))
-                .thenReturn(List.of(new Reservation()));
+        bookTitle.setReservedOnline(1);
         // reservation
         var reservation = initReservation(bookTitle, user, true, true, true);
-        when(reservationRepository.findActiveReservationsByUserId(eq(user.getId()), any()))
-                .thenReturn(List.of());
+        when(reservationRepository.countActiveReservations(eq(user.getId()), any(), any()))
+                .thenReturn(new ActiveReservationCountsDto(0L, 0L));
         // dto
         var reservationDto = reservationMapper.toDto(reservation);
 
@@ -261,12 +274,10 @@ public class CreateReservationTests {
         bookTitle.setPrice(price);
         bookTitle.setCanBorrow(true);
         bookTitle.setMaxOnlineReservations(10);
-        when(reservationRepository.findActiveReservationsByBookTitleId(eq(bookTitle.getId()), any()))
-                .thenReturn(List.of());
         // reservation
         var reservation = initReservation(bookTitle, user, true, true, true);
-        when(reservationRepository.findActiveReservationsByUserId(eq(user.getId()), any()))
-                .thenReturn(List.of());
+        when(reservationRepository.countActiveReservations(eq(user.getId()), any(), any()))
+                .thenReturn(new ActiveReservationCountsDto(0L, 0L));
         // dto
         var reservationDto = reservationMapper.toDto(reservation);
 
@@ -278,6 +289,7 @@ public class CreateReservationTests {
         });
         /// Assert
         assertTrue(res.getMessage().startsWith("User does not have enough balance to reserve. Required deposit: 11 "));
+        verify(bookTitleRepository, never()).claimOnlineReservationSlot(any());
     }
 
 
@@ -288,19 +300,16 @@ public class CreateReservationTests {
         var user = initUser();
         user.setBalance(10);
         int depositAmount = 10;
-        int remainingBalance = 0;
         // book title
         var bookTitle = initBookTitle();
         int price = depositAmount * 10; // 10% of book price as deposit
         bookTitle.setPrice(price);
         bookTitle.setCanBorrow(true);
         bookTitle.setMaxOnlineReservations(10);
-        when(reservationRepository.findActiveReservationsByBookTitleId(eq(bookTitle.getId()), any()))
-                .thenReturn(List.of());
         // reservation
         var reservation = initReservation(bookTitle, user, true, true, true);
-        when(reservationRepository.findActiveReservationsByUserId(eq(user.getId()), any()))
-                .thenReturn(List.of());
+        when(reservationRepository.countActiveReservations(eq(user.getId()), any(), any()))
+                .thenReturn(new ActiveReservationCountsDto(0L, 0L));
         // dto
         var reservationDto = reservationMapper.toDto(reservation);
 
@@ -319,8 +328,10 @@ public class CreateReservationTests {
         assertEquals(bookTitle.getId(), captor.getValue().getBookTitleId());
         assertEquals(user.getId(), captor.getValue().getUserId());
         // user balance deduction
-        verify(userRepository).save(argThat(
-                u -> u.getId().equals(user.getId()) && u.getBalance() == remainingBalance));
+        verify(balanceTransactionService).tryDebitBalance(user.getId(), depositAmount);
+        verify(userRepository, never()).save(any(User.class));
+        // online slot
+        verify(bookTitleRepository).claimOnlineReservationSlot(bookTitle.getId());
     }
 
     User initUser() {
@@ -328,6 +339,13 @@ public class CreateReservationTests {
         var user = new User();
         user.setId(userId);
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        // Mirrors the conditional UPDATE: only debits when the balance covers the amount
+        when(balanceTransactionService.tryDebitBalance(eq(userId), anyInt())).thenAnswer(invocation -> {
+            int amount = invocation.getArgument(1);
+            return user.getBalance() >= amount
+                    ? Optional.of(user.getBalance() - amount)
+                    : Optional.empty();
+        });
         return user;
     }
     BookTitle initBookTitle() {
@@ -345,6 +363,14 @@ public class CreateReservationTests {
         author.setAuthor(new Author());
         bookTitle.setBookAuthors(List.of(author));
         when(bookTitleRepository.findById(bookTitle.getId())).thenReturn(Optional.of(bookTitle));
+        // Mirrors the conditional UPDATE: only claims a slot while one is free
+        when(bookTitleRepository.claimOnlineReservationSlot(bookTitle.getId())).thenAnswer(invocation -> {
+            if (bookTitle.getReservedOnline() >= bookTitle.getMaxOnlineReservations()) {
+                return 0;
+            }
+            bookTitle.setReservedOnline(bookTitle.getReservedOnline() + 1);
+            return 1;
+        });
         return bookTitle;
     }
     Reservation initReservation(
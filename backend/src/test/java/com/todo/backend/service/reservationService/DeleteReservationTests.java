@@ -0,0 +1,121 @@
+package com.todo.backend.service.reservationService;
+
+import com.todo.backend.dao.BookCopyRepository;
+import com.todo.backend.dao.BookTitleRepository;
+import com.todo.backend.dao.ReservationRepository;
+import com.todo.backend.dao.UserRepository;
+import com.todo.backend.entity.BalanceTransactionType;
+import com.todo.backend.entity.BookCopy;
+import com.todo.backend.entity.BookCopyStatus;
+import com.todo.backend.entity.BookTitle;
+import com.todo.backend.entity.Reservation;
+import com.todo.backend.entity.User;
+import com.todo.backend.entity.identity.UserRole;
+import com.todo.backend.service.BalanceTransactionService;
+import com.todo.backend.service.DeadlineService;
+import com.todo.backend.service.HoldQueueService;
+import com.todo.backend.service.LiveStatisticsService;
+import com.todo.backend.service.ReservationService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DeleteReservationTests {
+    @Mock
+    private ReservationRepository reservationRepository;
+    @Mock
+    private BookCopyRepository bookCopyRepository;
+    @Mock
+    private BookTitleRepository bookTitleRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private BalanceTransactionService balanceTransactionService;
+    @Mock
+    private LiveStatisticsService liveStatisticsService;
+    @Mock
+    private DeadlineService deadlineService;
+    @Mock
+    private HoldQueueService holdQueueService;
+
+    @InjectMocks
+    private ReservationService reservationService;
+
+    @Test
+    void TC1_ActiveReservationCancelled_RefundLoggedWithBalance() {
+        /// Arrange
+        var bookTitle = new BookTitle();
+        bookTitle.setTitle("Dế Mèn phiêu lưu ký");
+        var reservation = new Reservation();
+        reservation.setId("r1");
+        reservation.setUserId("user-a");
+        reservation.setBookTitleId("title-1");
+        reservation.setBookTitle(bookTitle);
+        reservation.setDeposit(45000);
+        reservation.setExpirationDate(LocalDate.now().plusDays(3));
+        var user = new User();
+        user.setId("user-a");
+        user.setRole(UserRole.USER);
+        when(reservationRepository.findById("r1")).thenReturn(Optional.of(reservation));
+        when(userRepository.findById("user-a")).thenReturn(Optional.of(user));
+        when(balanceTransactionService.changeBalance("user-a", 45000)).thenReturn(145000);
+
+        /// Act
+        reservationService.deleteReservation("r1", "user-a");
+
+        /// Assert
+        InOrder inOrder = inOrder(balanceTransactionService);
+        inOrder.verify(balanceTransactionService).changeBalance("user-a", 45000);
+        inOrder.verify(balanceTransactionService).logTransaction(eq("user-a"), eq(BalanceTransactionType.REFUND), eq(45000),
+                contains("Dế Mèn phiêu lưu ký"), eq(145000));
+        verify(reservationRepository).delete(reservation);
+        verifyNoInteractions(holdQueueService);
+    }
+
+    @Test
+    void TC2_CopyHeldForReservation_OfferedToQueueOnceSlotReleased() {
+        /// Arrange
+        var bookTitle = new BookTitle();
+        bookTitle.setTitle("Số đỏ");
+        var reservation = new Reservation();
+        reservation.setId("r2");
+        reservation.setUserId("user-a");
+        reservation.setBookTitleId("title-1");
+        reservation.setBookTitle(bookTitle);
+        reservation.setBookCopyId("copy-1");
+        reservation.setDeposit(0);
+        reservation.setExpirationDate(LocalDate.now().plusDays(3));
+        var bookCopy = new BookCopy();
+        bookCopy.setId("copy-1");
+        bookCopy.setBookTitleId("title-1");
+        bookCopy.setStatus(BookCopyStatus.RESERVED);
+        var user = new User();
+        user.setId("user-a");
+        user.setRole(UserRole.USER);
+        when(reservationRepository.findById("r2")).thenReturn(Optional.of(reservation));
+        when(userRepository.findById("user-a")).thenReturn(Optional.of(user));
+        when(bookCopyRepository.findById("copy-1")).thenReturn(Optional.of(bookCopy));
+        when(bookCopyRepository.save(bookCopy)).thenReturn(bookCopy);
+
+        /// Act
+        reservationService.deleteReservation("r2", "user-a");
+
+        /// Assert
+        assertEquals(BookCopyStatus.AVAILABLE, bookCopy.getStatus());
+        InOrder inOrder = inOrder(reservationRepository, bookTitleRepository, holdQueueService);
+        inOrder.verify(reservationRepository).delete(reservation);
+        inOrder.verify(bookTitleRepository).releaseOnlineReservationSlots("title-1", 1);
+        inOrder.verify(holdQueueService).claimReturnedCopy(bookCopy, LocalDate.now());
+    }
+}
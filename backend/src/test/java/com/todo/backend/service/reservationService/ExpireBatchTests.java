@@ -0,0 +1,149 @@
+package com.todo.backend.service.reservationService;
+
+import com.todo.backend.dao.BookCopyRepository;
+import com.todo.backend.dao.BookTitleRepository;
+import com.todo.backend.dao.ReservationRepository;
+import com.todo.backend.dao.UserRepository;
+import com.todo.backend.entity.BalanceTransactionType;
+import com.todo.backend.entity.BookCopy;
+import com.todo.backend.entity.BookCopyStatus;
+import com.todo.backend.entity.Reservation;
+import com.todo.backend.service.BalanceTransactionService;
+import com.todo.backend.service.HoldQueueService;
+import com.todo.backend.service.LiveStatisticsService;
+import com.todo.backend.service.ReservationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ExpireBatchTests {
+    @Mock
+    private ReservationRepository reservationRepository;
+    @Mock
+    private BookCopyRepository bookCopyRepository;
+    @Mock
+    private BookTitleRepository bookTitleRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private BalanceTransactionService balanceTransactionService;
+    @Mock
+    private LiveStatisticsService liveStatisticsService;
+    @Mock
+    private HoldQueueService holdQueueService;
+
+    @InjectMocks
+    private ReservationService reservationService;
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 12);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(reservationService, "expiryBatchSize", 3);
+    }
+
+    @Test
+    void TC1_ExpiredBatch_RefundsOncePerUserFreesCopiesAndDeletes() {
+        /// Arrange
+        var r1 = reservation("r1", "user-b", "title-2", 10, null);
+        var r2 = reservation("r2", "user-a", "title-1", 20, "copy-1");
+        var r3 = reservation("r3", "user-b", "title-2", 5, null);
+        when(reservationRepository.findExpiredIdsAndUserIdsInPartition(TODAY, 0, 1, PageRequest.of(0, 3))).thenReturn(List.of(
+                new Object[]{"r1", "user-b"}, new Object[]{"r2", "user-a"}, new Object[]{"r3", "user-b"}));
+        when(reservationRepository.findExpiredByIdInForUpdate(List.of("r1", "r2", "r3"), TODAY))
+                .thenReturn(List.of(r1, r2, r3));
+        when(balanceTransactionService.changeBalance("user-a", 20)).thenReturn(120);
+        when(balanceTransactionService.changeBalance("user-b", 15)).thenReturn(65);
+        var copy = new BookCopy();
+        copy.setId("copy-1");
+        copy.setBookTitleId("title-1");
+        when(bookCopyRepository.findAllById(List.of("copy-1"))).thenReturn(List.of(copy));
+
+        /// Act
+        int expired = reservationService.expireBatch(TODAY, 0, 1);
+
+        /// Assert
+        assertEquals(3, expired);
+        InOrder inOrder = inOrder(userRepository, reservationRepository, balanceTransactionService);
+        inOrder.verify(userRepository).lockAllByIdIn(List.of("user-b", "user-a"));
+        inOrder.verify(reservationRepository).findExpiredByIdInForUpdate(anyList(), eq(TODAY));
+        // Users in ID order, one update each
+        inOrder.verify(balanceTransactionService).changeBalance("user-a", 20);
+        inOrder.verify(balanceTransactionService).logTransaction(eq("user-a"), eq(BalanceTransactionType.REFUND), eq(20), anyString(), eq(120));
+        inOrder.verify(balanceTransactionService).changeBalance("user-b", 15);
+        inOrder.verify(balanceTransactionService).logTransaction(eq("user-b"), eq(BalanceTransactionType.REFUND), eq(15), anyString(), eq(65));
+        verifyNoMoreInteractions(balanceTransactionService);
+        verify(bookCopyRepository).updateStatusByIdIn(List.of("copy-1"), BookCopyStatus.AVAILABLE);
+        verify(reservationRepository).deleteAllByIdInBatch(List.of("r1", "r2", "r3"));
+        // One slot update per title
+        verify(bookTitleRepository).releaseOnlineReservationSlots("title-1", 1);
+        verify(bookTitleRepository).releaseOnlineReservationSlots("title-2", 2);
+        verify(liveStatisticsService).recordReservations(-3);
+        // The freed copy is offered to the title's queue once its slot is released
+        InOrder claimOrder = inOrder(bookTitleRepository, holdQueueService);
+        claimOrder.verify(bookTitleRepository).releaseOnlineReservationSlots("title-1", 1);
+        claimOrder.verify(holdQueueService).claimReturnedCopy(copy, TODAY);
+    }
+
+    @Test
+    void TC2_ConvertedMeanwhile_SkippedWithoutRefund() {
+        /// Arrange
+        var r2 = reservation("r2", "user-a", "title-1", 20, null);
+        when(reservationRepository.findExpiredIdsAndUserIdsInPartition(eq(TODAY), eq(0), eq(1), any())).thenReturn(List.of(
+                new Object[]{"r1", "user-b"}, new Object[]{"r2", "user-a"}));
+        // r1 was checked out between the candidate read and the locks
+        when(reservationRepository.findExpiredByIdInForUpdate(List.of("r1", "r2"), TODAY)).thenReturn(List.of(r2));
+
+        /// Act
+        int expired = reservationService.expireBatch(TODAY, 0, 1);
+
+        /// Assert
+        assertEquals(1, expired);
+        verify(balanceTransactionService).changeBalance("user-a", 20);
+        verify(balanceTransactionService, never()).changeBalance(eq("user-b"), anyInt());
+        verify(bookCopyRepository, never()).updateStatusByIdIn(any(), any());
+        verifyNoInteractions(holdQueueService);
+        verify(reservationRepository).deleteAllByIdInBatch(List.of("r2"));
+        verify(bookTitleRepository).releaseOnlineReservationSlots("title-1", 1);
+        verifyNoMoreInteractions(bookTitleRepository);
+    }
+
+    @Test
+    void TC3_NothingExpired_NoWrites() {
+        /// Arrange
+        when(reservationRepository.findExpiredIdsAndUserIdsInPartition(eq(TODAY), eq(0), eq(1), any())).thenReturn(List.of());
+
+        /// Act
+        int expired = reservationService.expireBatch(TODAY, 0, 1);
+
+        /// Assert
+        assertEquals(0, expired);
+        verifyNoInteractions(userRepository, balanceTransactionService, bookCopyRepository, bookTitleRepository, liveStatisticsService);
+        verify(reservationRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    private static Reservation reservation(String id, String userId, String bookTitleId, int deposit, String bookCopyId) {
+        var reservation = new Reservation();
+        reservation.setId(id);
+        reservation.setUserId(userId);
+        reservation.setBookTitleId(bookTitleId);
+        reservation.setDeposit(deposit);
+        reservation.setBookCopyId(bookCopyId);
+        reservation.setExpirationDate(TODAY.minusDays(1));
+        return reservation;
+    }
+}
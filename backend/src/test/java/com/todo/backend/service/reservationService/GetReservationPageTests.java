@@ -0,0 +1,124 @@
+package com.todo.backend.service.reservationService;
+
+import com.todo.backend.dao.ReservationQueryRepository;
+import com.todo.backend.dto.reservation.ReservationPageQuery;
+import com.todo.backend.dto.reservation.ReservationRowDto;
+import com.todo.backend.dto.reservation.ReservationStatusFilter;
+import com.todo.backend.service.ReservationService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class GetReservationPageTests {
+    @Mock
+    private ReservationQueryRepository reservationQueryRepository;
+
+    @InjectMocks
+    private ReservationService reservationService;
+
+    @Test
+    void TC1_FirstPageHasMore_AuthorsLoadedOnceForPage() {
+        /// Arrange
+        var rows = List.of(
+                initRow("r3", LocalDate.of(2025, 6, 3), "bt1"),
+                initRow("r2", LocalDate.of(2025, 6, 2), "bt2"),
+                initRow("r1", LocalDate.of(2025, 6, 1), "bt1"));
+        when(reservationQueryRepository.findRows(isNull(), isNull(), eq(ReservationStatusFilter.ACTIVE), isNull(), isNull(), eq(3)))
+                .thenReturn(rows);
+        when(reservationQueryRepository.findAuthorNamesByBookTitleIds(any()))
+                .thenReturn(Map.of("bt1", List.of("Author A", "Author B")));
+
+        /// Act
+        var page = reservationService.getReservationPage(ReservationPageQuery.builder()
+                .status(ReservationStatusFilter.ACTIVE)
+                .size(2)
+                .build());
+
+        /// Assert
+        assertTrue(page.isHasMore());
+        assertNotNull(page.getNextCursor());
+        assertEquals(List.of("r3", "r2"), page.getItems().stream().map(item -> item.getId()).toList());
+        assertEquals(List.of("Author A", "Author B"), page.getItems().getFirst().getBookAuthors());
+        assertEquals(List.of(), page.getItems().get(1).getBookAuthors());
+        assertEquals("Test User", page.getItems().getFirst().getUserName());
+        // Only the titles on the page, in one call
+        verify(reservationQueryRepository).findAuthorNamesByBookTitleIds(Set.of("bt1", "bt2"));
+    }
+
+    @Test
+    void TC2_NextPageUsesCursorOfLastRow() {
+        /// Arrange
+        when(reservationQueryRepository.findRows(any(), any(), any(), any(), any(), anyInt()))
+                .thenReturn(List.of(
+                        initRow("r3", LocalDate.of(2025, 6, 3), "bt1"),
+                        initRow("r2", LocalDate.of(2025, 6, 2), "bt1")));
+        var first = reservationService.getReservationPage(ReservationPageQuery.builder().size(1).build());
+
+        /// Act
+        reservationService.getReservationPage(ReservationPageQuery.builder()
+                .userId("user-id")
+                .bookTitleId("bt1")
+                .cursor(first.getNextCursor())
+                .size(1)
+                .build());
+
+        /// Assert
+        verify(reservationQueryRepository).findRows(eq("user-id"), eq("bt1"), isNull(),
+                eq(LocalDate.of(2025, 6, 3)), eq("r3"), eq(2));
+    }
+
+    @Test
+    void TC3_LastPage() {
+        /// Arrange
+        when(reservationQueryRepository.findRows(any(), any(), any(), any(), any(), anyInt()))
+                .thenReturn(List.of(initRow("r1", LocalDate.of(2025, 6, 1), "bt1")));
+
+        /// Act
+        var page = reservationService.getReservationPage(ReservationPageQuery.builder().size(20).build());
+
+        /// Assert
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextCursor());
+        assertEquals(1, page.getItems().size());
+    }
+
+    @Test
+    void TC4_InvalidCursor() {
+        /// Act
+        var exception = assertThrows(RuntimeException.class, () ->
+                reservationService.getReservationPage(ReservationPageQuery.builder().cursor("not-a-cursor").build()));
+
+        /// Assert
+        assertEquals("Invalid reservation page cursor", exception.getMessage());
+    }
+
+    @Test
+    void TC5_PageSizeCapped() {
+        /// Arrange
+        when(reservationQueryRepository.findRows(any(), any(), any(), any(), any(), anyInt()))
+                .thenReturn(List.of());
+
+        /// Act
+        reservationService.getReservationPage(ReservationPageQuery.builder().size(10_000).build());
+
+        /// Assert
+        verify(reservationQueryRepository).findRows(isNull(), isNull(), isNull(), isNull(), isNull(), eq(101));
+    }
+
+    private ReservationRowDto initRow(String id, LocalDate reservationDate, String bookTitleId) {
+        return new ReservationRowDto(id, reservationDate, reservationDate.plusWeeks(1), 10000, bookTitleId, null,
+                "user-id", "Test User", "Test Book", "image-url");
+    }
+}
@@ -0,0 +1,138 @@
+package com.todo.backend.service.statisticsRollupService;
+
+import com.todo.backend.dao.CopyConditionCountRepository;
+import com.todo.backend.dao.DailyStatsRepository;
+import com.todo.backend.dao.DailyTitleStatsRepository;
+import com.todo.backend.dao.StatisticsRepository;
+import com.todo.backend.entity.BookCopyCondition;
+import com.todo.backend.entity.DailyStats;
+import com.todo.backend.entity.Transaction;
+import com.todo.backend.service.StatisticsRollupService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.quartz.Scheduler;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RecordTests {
+    @Mock
+    private DailyStatsRepository dailyStatsRepository;
+    @Mock
+    private DailyTitleStatsRepository dailyTitleStatsRepository;
+    @Mock
+    private CopyConditionCountRepository copyConditionCountRepository;
+    @Mock
+    private StatisticsRepository statisticsRepository;
+    @Mock
+    private Scheduler scheduler;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private StatisticsRollupService statisticsRollupService;
+
+    private static final LocalDate DAY = LocalDate.of(2025, 6, 12);
+
+    @Test
+    void TC1_Return_CreatesMissingRowThenIncrements() {
+        /// Arrange
+        when(dailyStatsRepository.existsById(DAY)).thenReturn(false);
+        when(dailyStatsRepository.increment(any(), anyInt(), anyInt(), anyLong(), anyLong(), anyLong(), anyInt())).thenReturn(1);
+
+        /// Act
+        statisticsRollupService.recordReturn(DAY, 100000, 30000);
+
+        /// Assert
+        verify(dailyStatsRepository).saveAndFlush(any(DailyStats.class));
+        verify(dailyStatsRepository).increment(DAY, 0, 1, 0, 30000, 70000, 0);
+    }
+
+    @Test
+    void TC2_KnownRow_SkipsExistenceCheck() {
+        /// Arrange
+        when(dailyStatsRepository.existsById(DAY)).thenReturn(true);
+        when(dailyStatsRepository.increment(any(), anyInt(), anyInt(), anyLong(), anyLong(), anyLong(), anyInt())).thenReturn(1);
+
+        /// Act
+        statisticsRollupService.recordNewUser(DAY);
+        statisticsRollupService.recordNewUser(DAY);
+
+        /// Assert
+        verify(dailyStatsRepository, times(1)).existsById(DAY);
+        verify(dailyStatsRepository, never()).saveAndFlush(any());
+        verify(dailyStatsRepository, times(2)).increment(DAY, 0, 0, 0, 0, 0, 1);
+    }
+
+    @Test
+    void TC3_RowCreatedConcurrently_StillIncrements() {
+        /// Arrange
+        when(dailyStatsRepository.existsById(DAY)).thenReturn(false);
+        when(dailyStatsRepository.saveAndFlush(any(DailyStats.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(dailyStatsRepository.increment(any(), anyInt(), anyInt(), anyLong(), anyLong(), anyLong(), anyInt())).thenReturn(1);
+        when(dailyTitleStatsRepository.increment(any(), any(), anyInt(), anyLong())).thenReturn(1);
+
+        /// Act
+        statisticsRollupService.recordBorrow(DAY, "b1", 85000);
+
+        /// Assert
+        verify(dailyStatsRepository).increment(DAY, 1, 0, 85000, 0, 0, 0);
+        verify(dailyTitleStatsRepository).increment(DAY, "b1", 1, 85000);
+    }
+
+    @Test
+    void TC4_PenaltyChangeOnReturnedLoan_MovesRefund() {
+        /// Arrange
+        var transaction = new Transaction();
+        transaction.setReturnedDate(DAY);
+        when(dailyStatsRepository.existsById(DAY)).thenReturn(true);
+        when(dailyStatsRepository.increment(any(), anyInt(), anyInt(), anyLong(), anyLong(), anyLong(), anyInt())).thenReturn(1);
+
+        /// Act
+        statisticsRollupService.recordPenaltyChange(transaction, 5000);
+
+        /// Assert
+        verify(dailyStatsRepository).increment(DAY, 0, 0, 0, 5000, -5000, 0);
+    }
+
+    @Test
+    void TC5_ConditionChange() {
+        /// Arrange
+        when(copyConditionCountRepository.existsById(any())).thenReturn(true);
+        when(copyConditionCountRepository.increment(any(), anyLong())).thenReturn(1);
+
+        /// Act
+        statisticsRollupService.recordConditionChange(BookCopyCondition.GOOD, BookCopyCondition.DAMAGED);
+        statisticsRollupService.recordConditionChange(BookCopyCondition.NEW, BookCopyCondition.NEW);
+
+        /// Assert
+        verify(copyConditionCountRepository).increment(BookCopyCondition.GOOD, -1);
+        verify(copyConditionCountRepository).increment(BookCopyCondition.DAMAGED, 1);
+        verify(copyConditionCountRepository, never()).increment(eq(BookCopyCondition.NEW), anyLong());
+    }
+
+    @Test
+    void TC6_KnownRowDeletedByRebuild_RecreatesAndRetriesOnce() {
+        /// Arrange
+        when(dailyStatsRepository.existsById(DAY)).thenReturn(true, false);
+        when(dailyStatsRepository.increment(DAY, 0, 0, 0, 0, 0, 1)).thenReturn(1, 0, 1);
+
+        /// Act
+        statisticsRollupService.recordNewUser(DAY);
+        statisticsRollupService.recordNewUser(DAY);
+
+        /// Assert
+        verify(dailyStatsRepository, times(2)).existsById(DAY);
+        verify(dailyStatsRepository).saveAndFlush(any(DailyStats.class));
+        verify(dailyStatsRepository, times(3)).increment(DAY, 0, 0, 0, 0, 0, 1);
+    }
+}
@@ -0,0 +1,96 @@
+package com.todo.backend.service.transactionArchiveService;
+
+import com.todo.backend.dao.ArchivedTransactionRepository;
+import com.todo.backend.dao.TransactionDetailRepository;
+import com.todo.backend.dao.TransactionRepository;
+import com.todo.backend.dto.transaction.TransactionStatusFilter;
+import com.todo.backend.service.TransactionArchiveService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ArchiveChunkTests {
+    @Mock
+    private ArchivedTransactionRepository archivedTransactionRepository;
+    @Mock
+    private TransactionRepository transactionRepository;
+    @Mock
+    private TransactionDetailRepository transactionDetailRepository;
+
+    @InjectMocks
+    private TransactionArchiveService transactionArchiveService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(transactionArchiveService, "minAgeDays", 365);
+        ReflectionTestUtils.setField(transactionArchiveService, "chunkSize", 2);
+    }
+
+    @Test
+    void TC1_CopiesBeforeDeleting() {
+        /// Arrange
+        var ids = List.of("t1", "t2");
+        when(archivedTransactionRepository.findArchivableIds(eq(LocalDate.now().minusDays(365)), any(Pageable.class)))
+                .thenReturn(ids);
+
+        /// Act
+        int moved = transactionArchiveService.archiveChunk();
+
+        /// Assert
+        assertEquals(2, moved);
+        InOrder inOrder = inOrder(archivedTransactionRepository, transactionDetailRepository, transactionRepository);
+        inOrder.verify(archivedTransactionRepository).copyTransactions(ids, LocalDate.now());
+        inOrder.verify(archivedTransactionRepository).copyTransactionDetails(ids);
+        inOrder.verify(transactionDetailRepository).deleteAllByTransactionIdIn(ids);
+        inOrder.verify(transactionRepository).deleteAllByIdIn(ids);
+    }
+
+    @Test
+    void TC2_NothingOldEnough() {
+        /// Arrange
+        when(archivedTransactionRepository.findArchivableIds(any(), any(Pageable.class))).thenReturn(List.of());
+
+        /// Act
+        int moved = transactionArchiveService.archiveChunk();
+
+        /// Assert
+        assertEquals(0, moved);
+        verify(archivedTransactionRepository, never()).copyTransactions(any(), any());
+        verify(transactionRepository, never()).deleteAllByIdIn(any());
+    }
+
+    @Test
+    void TC3_NeedsArchiveOnlyBeforeHorizon() {
+        /// Arrange
+        when(archivedTransactionRepository.findMaxBorrowDate()).thenReturn(LocalDate.of(2024, 3, 1));
+
+        /// Act & Assert
+        assertTrue(transactionArchiveService.needsArchive(null, null));
+        assertTrue(transactionArchiveService.needsArchive(TransactionStatusFilter.RETURNED, LocalDate.of(2024, 3, 1)));
+        assertFalse(transactionArchiveService.needsArchive(null, LocalDate.of(2024, 3, 2)));
+        assertFalse(transactionArchiveService.needsArchive(TransactionStatusFilter.OPEN, null));
+    }
+
+    @Test
+    void TC4_EmptyArchiveIsNeverRead() {
+        /// Arrange
+        when(archivedTransactionRepository.findMaxBorrowDate()).thenReturn(null);
+
+        /// Act & Assert
+        assertFalse(transactionArchiveService.needsArchive(null, null));
+    }
+}
@@ -5,7 +5,12 @@ import com.todo.backend.dto.transaction.CreateTransactionDto;
 import com.todo.backend.entity.*;
 import com.todo.backend.mapper.TransactionDetailMapper;
 import com.todo.backend.mapper.TransactionMapper;
+import com.todo.backend.service.AvailabilityForecastService;
 import com.todo.backend.service.BalanceTransactionService;
+import com.todo.backend.service.BorrowerSketchService;
+import com.todo.backend.service.DeadlineService;
+import com.todo.backend.service.LiveStatisticsService;
+import com.todo.backend.service.StatisticsRollupService;
 import com.todo.backend.service.TransactionService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -38,6 +43,16 @@ public class CreateTransactionTests {
     private ReservationRepository reservationRepository;
     @Mock
     private BalanceTransactionService balanceTransactionService;
+    @Mock
+    private StatisticsRollupService statisticsRollupService;
+    @Mock
+    private BorrowerSketchService borrowerSketchService;
+    @Mock
+    private LiveStatisticsService liveStatisticsService;
+    @Mock
+    private DeadlineService deadlineService;
+    @Mock
+    private AvailabilityForecastService availabilityForecastService;
     @Spy
     private TransactionMapper transactionMapper = Mappers.getMapper(TransactionMapper.class);
     @Spy
@@ -64,11 +79,15 @@ public class CreateTransactionTests {
         when(transactionRepository.findByUserIdAndReturnedDateIsNull(createDto.getUserId()))
                 .thenReturn(List.of());
         when(transactionRepository.save(any(Transaction.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
-        when(userRepository.save(any(User.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
+                .thenAnswer(invocation -> {
+                    Transaction saved = invocation.getArgument(0);
+                    saved.setId("transaction-id");
+                    return saved;
+                });
         when(bookCopyRepository.save(any(BookCopy.class)))
                 .thenAnswer(invocation -> invocation.getArgument(0));
+        when(balanceTransactionService.tryDebitBalance(eq(createDto.getUserId()), anyInt()))
+                .thenAnswer(invocation -> Optional.of(user.getBalance() - (int) invocation.getArgument(1)));
 
         /// Act
         var res = transactionService.createTransaction(createDto);
@@ -77,16 +96,19 @@ public class CreateTransactionTests {
         // dto
         assertEquals(createDto.getUserId(), res.getUserId());
         assertEquals(createDto.getBookCopyId(), res.getBookCopyId());
-        // transaction saved
-        verify(transactionRepository).save(any(Transaction.class));
+        // transaction saved with the price charged at checkout
+        ArgumentCaptor<Transaction> transactionCaptor = ArgumentCaptor.forClass(Transaction.class);
+        verify(transactionRepository).save(transactionCaptor.capture());
+        assertEquals(100000, transactionCaptor.getValue().getChargedPrice());
+        assertEquals(0, transactionCaptor.getValue().getDeposit());
         // book copy status updated
         ArgumentCaptor<BookCopy> bookCopyCaptor = ArgumentCaptor.forClass(BookCopy.class);
         verify(bookCopyRepository).save(bookCopyCaptor.capture());
         assertEquals(BookCopyStatus.BORROWED, bookCopyCaptor.getValue().getStatus());
-        // user balance deducted
-        ArgumentCaptor<User> userCaptor = ArgumentCaptor.forClass(User.class);
-        verify(userRepository).save(userCaptor.capture());
-        assertEquals(50000, userCaptor.getValue().getBalance()); // 150000 - 100000
+        assertEquals("transaction-id", bookCopyCaptor.getValue().getCurrentTransactionId());
+        // user balance deducted atomically, never through a full entity save
+        verify(balanceTransactionService).tryDebitBalance(user.getId(), 100000);
+        verify(userRepository, never()).save(any(User.class));
         // balance transaction logged
         verify(balanceTransactionService).logTransaction(
                 eq(user.getId()),
@@ -95,6 +117,9 @@ public class CreateTransactionTests {
                 anyString(),
                 eq(50000)
         );
+        // counted in the statistics rollup of the borrow day
+        verify(statisticsRollupService).recordBorrow(LocalDate.now(), "book-title-id", 100000);
+        verify(borrowerSketchService).recordBorrower(LocalDate.now(), user.getId(), "book-title-id");
     }
 
     @Test
@@ -111,6 +136,9 @@ public class CreateTransactionTests {
                 .thenReturn(Optional.of(user));
         when(bookCopyRepository.findById(createDto.getBookCopyId()))
                 .thenReturn(Optional.of(bookCopy));
+        // Another debit committed after the user was loaded
+        when(userRepository.findBalanceById(createDto.getUserId()))
+                .thenReturn(Optional.of(20000));
 
         /// Act
         var exception = assertThrows(RuntimeException.class, () ->
@@ -118,6 +146,7 @@ public class CreateTransactionTests {
 
         /// Assert
         assertTrue(exception.getMessage().contains("Insufficient balance"));
+        assertTrue(exception.getMessage().endsWith(String.format("Available: %,d VND", 20000)), exception.getMessage());
     }
 
     @Test
@@ -259,19 +288,24 @@ public class CreateTransactionTests {
                 .thenReturn(List.of());
         when(transactionRepository.save(any(Transaction.class)))
                 .thenAnswer(invocation -> invocation.getArgument(0));
-        when(userRepository.save(any(User.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
         when(bookCopyRepository.save(any(BookCopy.class)))
                 .thenAnswer(invocation -> invocation.getArgument(0));
+        when(balanceTransactionService.tryDebitBalance(eq(createDto.getUserId()), anyInt()))
+                .thenAnswer(invocation -> Optional.of(user.getBalance() - (int) invocation.getArgument(1)));
 
         /// Act
         var res = transactionService.createTransaction(createDto);
 
         /// Assert
         // user balance deducted to 0
-        ArgumentCaptor<User> userCaptor = ArgumentCaptor.forClass(User.class);
-        verify(userRepository).save(userCaptor.capture());
-        assertEquals(0, userCaptor.getValue().getBalance());
+        verify(balanceTransactionService).tryDebitBalance(user.getId(), 100000);
+        verify(balanceTransactionService).logTransaction(
+                eq(user.getId()),
+                eq(BalanceTransactionType.BOOK_RENTAL),
+                eq(-100000),
+                anyString(),
+                eq(0)
+        );
     }
 
     // Helper methods
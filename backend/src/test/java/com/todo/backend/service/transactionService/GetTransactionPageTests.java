@@ -0,0 +1,141 @@
+package com.todo.backend.service.transactionService;
+
+import com.todo.backend.dao.TransactionQueryRepository;
+import com.todo.backend.dto.transaction.TransactionPageQuery;
+import com.todo.backend.dto.transaction.TransactionRowDto;
+import com.todo.backend.dto.transaction.TransactionStatusFilter;
+import com.todo.backend.service.TransactionArchiveService;
+import com.todo.backend.service.TransactionService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class GetTransactionPageTests {
+    @Mock
+    private TransactionQueryRepository transactionQueryRepository;
+    @Mock
+    private TransactionArchiveService transactionArchiveService;
+
+    @InjectMocks
+    private TransactionService transactionService;
+
+    @Test
+    void TC1_FirstPageHasMore() {
+        /// Arrange
+        var rows = List.of(
+                initRow("t3", LocalDate.of(2025, 6, 3), 5000),
+                initRow("t2", LocalDate.of(2025, 6, 2), null),
+                initRow("t1", LocalDate.of(2025, 6, 1), null));
+        when(transactionQueryRepository.findRows(isNull(), eq(TransactionStatusFilter.OPEN), isNull(), isNull(), isNull(), isNull(), eq(3)))
+                .thenReturn(rows);
+
+        /// Act
+        var page = transactionService.getTransactionPage(TransactionPageQuery.builder()
+                .status(TransactionStatusFilter.OPEN)
+                .size(2)
+                .build());
+
+        /// Assert
+        assertTrue(page.isHasMore());
+        assertEquals(2, page.getItems().size());
+        assertEquals(5000, page.getItems().getFirst().getTransactionDetail().getPenaltyFee());
+        assertNull(page.getItems().get(1).getTransactionDetail());
+        assertNotNull(page.getNextCursor());
+    }
+
+    @Test
+    void TC2_NextPageUsesCursorOfLastRow() {
+        /// Arrange
+        when(transactionQueryRepository.findRows(any(), any(), any(), any(), any(), any(), anyInt()))
+                .thenReturn(List.of(
+                        initRow("t3", LocalDate.of(2025, 6, 3), null),
+                        initRow("t2", LocalDate.of(2025, 6, 2), null)));
+        var first = transactionService.getTransactionPage(TransactionPageQuery.builder().size(1).build());
+
+        /// Act
+        transactionService.getTransactionPage(TransactionPageQuery.builder()
+                .userId("user-id")
+                .cursor(first.getNextCursor())
+                .size(1)
+                .build());
+
+        /// Assert
+        verify(transactionQueryRepository).findRows(eq("user-id"), isNull(), isNull(), isNull(),
+                eq(LocalDate.of(2025, 6, 3)), eq("t3"), eq(2));
+    }
+
+    @Test
+    void TC3_LastPage() {
+        /// Arrange
+        when(transactionQueryRepository.findRows(any(), any(), any(), any(), any(), any(), anyInt()))
+                .thenReturn(List.of(initRow("t1", LocalDate.of(2025, 6, 1), null)));
+
+        /// Act
+        var page = transactionService.getTransactionPage(TransactionPageQuery.builder().size(20).build());
+
+        /// Assert
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void TC4_InvalidCursor() {
+        /// Act
+        var exception = assertThrows(RuntimeException.class, () ->
+                transactionService.getTransactionPage(TransactionPageQuery.builder().cursor("not-a-cursor").build()));
+
+        /// Assert
+        assertEquals("Invalid transaction page cursor", exception.getMessage());
+    }
+
+    @Test
+    void TC5_MergesArchivedRowsInOrder() {
+        /// Arrange
+        when(transactionQueryRepository.findRows(any(), any(), any(), any(), any(), any(), anyInt()))
+                .thenReturn(List.of(
+                        initRow("t4", LocalDate.of(2025, 6, 4), null),
+                        initRow("t2", LocalDate.of(2025, 6, 2), null)));
+        when(transactionArchiveService.needsArchive(any(), any())).thenReturn(true);
+        when(transactionQueryRepository.findArchivedRows(any(), any(), any(), any(), any(), any(), anyInt()))
+                .thenReturn(List.of(
+                        initRow("t3", LocalDate.of(2025, 6, 3), null),
+                        initRow("t1", LocalDate.of(2025, 6, 1), null)));
+
+        /// Act
+        var page = transactionService.getTransactionPage(TransactionPageQuery.builder().size(2).build());
+
+        /// Assert
+        assertTrue(page.isHasMore());
+        assertEquals(List.of("t4", "t3"), page.getItems().stream().map(item -> item.getId()).toList());
+    }
+
+    @Test
+    void TC6_OpenFilterSkipsArchive() {
+        /// Arrange
+        when(transactionQueryRepository.findRows(any(), any(), any(), any(), any(), any(), anyInt()))
+                .thenReturn(List.of());
+
+        /// Act
+        transactionService.getTransactionPage(TransactionPageQuery.builder()
+                .status(TransactionStatusFilter.OPEN)
+                .build());
+
+        /// Assert
+        verify(transactionQueryRepository, never()).findArchivedRows(any(), any(), any(), any(), any(), any(), anyInt());
+    }
+
+    private TransactionRowDto initRow(String id, LocalDate borrowDate, Integer penaltyFee) {
+        return new TransactionRowDto(id, borrowDate, borrowDate.plusWeeks(2), "user-id", "book-copy-id", null,
+                "Test User", "Test Book", 100000, penaltyFee != null ? id : null, penaltyFee, null, null, null);
+    }
+}
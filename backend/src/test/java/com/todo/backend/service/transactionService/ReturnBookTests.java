@@ -6,7 +6,13 @@ import com.todo.backend.dto.transaction.ReturnBookResponseDto;
 import com.todo.backend.entity.*;
 import com.todo.backend.mapper.TransactionDetailMapper;
 import com.todo.backend.mapper.TransactionMapper;
+import com.todo.backend.service.AvailabilityForecastService;
 import com.todo.backend.service.BalanceTransactionService;
+import com.todo.backend.service.DeadlineService;
+import com.todo.backend.service.HoldQueueService;
+import com.todo.backend.service.LiveStatisticsService;
+import com.todo.backend.service.OverdueService;
+import com.todo.backend.service.StatisticsRollupService;
 import com.todo.backend.service.TransactionService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -38,6 +44,18 @@ public class ReturnBookTests {
     private ReservationRepository reservationRepository;
     @Mock
     private BalanceTransactionService balanceTransactionService;
+    @Mock
+    private OverdueService overdueService;
+    @Mock
+    private StatisticsRollupService statisticsRollupService;
+    @Mock
+    private LiveStatisticsService liveStatisticsService;
+    @Mock
+    private DeadlineService deadlineService;
+    @Mock
+    private HoldQueueService holdQueueService;
+    @Mock
+    private AvailabilityForecastService availabilityForecastService;
     @Spy
     private TransactionMapper transactionMapper = Mappers.getMapper(TransactionMapper.class);
     @Spy
@@ -174,6 +192,8 @@ public class ReturnBookTests {
                 anyString(),
                 eq(150000)
         );
+        // the loan leaves its title's availability forecast
+        verify(availabilityForecastService).recordReturn(any(), eq("transaction-id"));
     }
 
     @Test
@@ -351,6 +371,31 @@ public class ReturnBookTests {
         ArgumentCaptor<BookCopy> bookCopyCaptor = ArgumentCaptor.forClass(BookCopy.class);
         verify(bookCopyRepository).save(bookCopyCaptor.capture());
         assertEquals(BookCopyStatus.LOST, bookCopyCaptor.getValue().getStatus());
+        assertNull(bookCopyCaptor.getValue().getCurrentTransactionId());
+        verify(overdueService).removeLoan("transaction-id");
+        // statistics rollup: refund goes negative when the penalty exceeds the price
+        verify(statisticsRollupService).recordReturn(LocalDate.now(), 100000, 200000);
+        verify(statisticsRollupService).recordConditionChange(any(), eq(BookCopyCondition.DAMAGED));
+    }
+
+    @Test
+    void TC14_RefundUsesPriceChargedAtCheckout() {
+        /// Arrange
+        var dueDate = LocalDate.now().minusDays(2);
+        var result = executeReturnBook(
+                dueDate.minusWeeks(2),
+                dueDate,
+                LocalDate.now(),
+                BookCopyCondition.GOOD,
+                0,
+                false,
+                80000 // catalog price has since gone up to 100k
+        );
+
+        /// Assert
+        assertEquals(10000, result.getTotalPenaltyFee());
+        assertEquals(70000, result.getRefundAmount());
+        assertUserBalance(120000);
     }
 
     // Helper methods
@@ -361,6 +406,18 @@ public class ReturnBookTests {
             BookCopyCondition bookCondition,
             int additionalPenalty,
             boolean isLost
+    ) {
+        return executeReturnBook(borrowDate, dueDate, returnDate, bookCondition, additionalPenalty, isLost, null);
+    }
+
+    private ReturnBookResponseDto executeReturnBook(
+            LocalDate borrowDate,
+            LocalDate dueDate,
+            LocalDate returnDate,
+            BookCopyCondition bookCondition,
+            int additionalPenalty,
+            boolean isLost,
+            Integer chargedPrice
     ) {
         var transactionId = "transaction-id";
         var transaction = new Transaction();
@@ -370,6 +427,7 @@ public class ReturnBookTests {
         transaction.setBorrowDate(borrowDate);
         transaction.setDueDate(dueDate);
         transaction.setReturnedDate(null);
+        transaction.setChargedPrice(chargedPrice);
 
         var user = new User();
         user.setId("user-id");
@@ -395,8 +453,8 @@ public class ReturnBookTests {
                 .thenAnswer(invocation -> invocation.getArgument(0));
         when(bookCopyRepository.save(any(BookCopy.class)))
                 .thenAnswer(invocation -> invocation.getArgument(0));
-        when(userRepository.save(any(User.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
+        lenient().when(balanceTransactionService.changeBalance(eq(user.getId()), anyInt()))
+                .thenAnswer(invocation -> user.getBalance() + (int) invocation.getArgument(1));
         when(transactionDetailRepository.save(any(TransactionDetail.class)))
                 .thenAnswer(invocation -> invocation.getArgument(0));
 
@@ -407,6 +465,7 @@ public class ReturnBookTests {
         var bookCopy = new BookCopy();
         bookCopy.setId(bookCopyId);
         bookCopy.setStatus(BookCopyStatus.BORROWED);
+        bookCopy.setCurrentTransactionId("transaction-id");
 
         var bookTitle = new BookTitle();
         bookTitle.setId("book-title-id");
@@ -418,9 +477,14 @@ public class ReturnBookTests {
     }
 
     private void assertUserBalance(int expectedBalance) {
-        ArgumentCaptor<User> userCaptor = ArgumentCaptor.forClass(User.class);
-        verify(userRepository).save(userCaptor.capture());
-        assertEquals(expectedBalance, userCaptor.getValue().getBalance());
+        // Starting balance is 50000, the change must go through the atomic balance primitive
+        verify(userRepository, never()).save(any(User.class));
+        int expectedDelta = expectedBalance - 50000;
+        if (expectedDelta == 0) {
+            verify(balanceTransactionService, never()).changeBalance(anyString(), anyInt());
+        } else {
+            verify(balanceTransactionService).changeBalance("user-id", expectedDelta);
+        }
     }
 
     private void assertTransactionDetailCreated(int expectedPenalty) {
@@ -0,0 +1,107 @@
+package com.todo.backend.service.transactionService;
+
+import com.todo.backend.dao.*;
+import com.todo.backend.dto.transaction.UpdateTransactionDto;
+import com.todo.backend.entity.Transaction;
+import com.todo.backend.mapper.TransactionDetailMapper;
+import com.todo.backend.mapper.TransactionMapper;
+import com.todo.backend.service.AvailabilityForecastService;
+import com.todo.backend.service.BalanceTransactionService;
+import com.todo.backend.service.DeadlineService;
+import com.todo.backend.service.HoldQueueService;
+import com.todo.backend.service.LiveStatisticsService;
+import com.todo.backend.service.OverdueService;
+import com.todo.backend.service.StatisticsRollupService;
+import com.todo.backend.service.TransactionService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UpdateTransactionTests {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+    @Mock
+    private BookCopyRepository bookCopyRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private BalanceTransactionService balanceTransactionService;
+    @Mock
+    private OverdueService overdueService;
+    @Mock
+    private StatisticsRollupService statisticsRollupService;
+    @Mock
+    private LiveStatisticsService liveStatisticsService;
+    @Mock
+    private DeadlineService deadlineService;
+    @Mock
+    private HoldQueueService holdQueueService;
+    @Mock
+    private AvailabilityForecastService availabilityForecastService;
+    @Spy
+    private TransactionMapper transactionMapper = Mappers.getMapper(TransactionMapper.class);
+    @Spy
+    private TransactionDetailMapper transactionDetailMapper = Mappers.getMapper(TransactionDetailMapper.class);
+
+    @InjectMocks
+    private TransactionService transactionService;
+
+    @Test
+    void TC1_DueDateMovedIntoPast_AddedToOverdueSnapshot() {
+        /// Arrange
+        var transaction = initOpenLoan(LocalDate.now().plusDays(5));
+        when(transactionRepository.findById("transaction-id")).thenReturn(Optional.of(transaction));
+        when(transactionRepository.save(transaction)).thenReturn(transaction);
+        var updateDto = UpdateTransactionDto.builder().dueDate(LocalDate.now().minusDays(3)).build();
+
+        /// Act
+        transactionService.updateTransaction("transaction-id", updateDto);
+
+        /// Assert
+        // Out first, so an earlier row comes back with the bucket of the new due date
+        InOrder inOrder = inOrder(overdueService);
+        inOrder.verify(overdueService).removeLoan("transaction-id");
+        inOrder.verify(overdueService).addLoans(List.of("transaction-id"));
+    }
+
+    @Test
+    void TC2_DueDatePushedOut_OnlyRemovedFromOverdueSnapshot() {
+        /// Arrange
+        var transaction = initOpenLoan(LocalDate.now().minusDays(3));
+        when(transactionRepository.findById("transaction-id")).thenReturn(Optional.of(transaction));
+        when(transactionRepository.save(transaction)).thenReturn(transaction);
+        var updateDto = UpdateTransactionDto.builder().dueDate(LocalDate.now().plusDays(7)).build();
+
+        /// Act
+        transactionService.updateTransaction("transaction-id", updateDto);
+
+        /// Assert
+        verify(overdueService).removeLoan("transaction-id");
+        verify(overdueService, never()).addLoans(anyCollection());
+        verify(deadlineService).scheduleLoanDue("transaction-id", LocalDate.now().plusDays(7));
+    }
+
+    private Transaction initOpenLoan(LocalDate dueDate) {
+        var transaction = new Transaction();
+        transaction.setId("transaction-id");
+        transaction.setUserId("user-id");
+        transaction.setBookCopyId("book-copy-id");
+        transaction.setBorrowDate(LocalDate.now().minusWeeks(2));
+        transaction.setDueDate(dueDate);
+        return transaction;
+    }
+}
@@ -6,6 +6,7 @@ import com.todo.backend.entity.User;
 import com.todo.backend.entity.identity.UserRole;
 import com.todo.backend.mapper.UserMapper;
 import com.todo.backend.service.UserService;
+import com.todo.backend.service.StatisticsRollupService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mapstruct.factory.Mappers;
@@ -26,6 +27,8 @@ public class CreateUserTests {
     private UserRepository userRepository;
     @Mock
     private PasswordEncoder passwordEncoder;
+    @Mock
+    private StatisticsRollupService statisticsRollupService;
     @Spy
     private UserMapper userMapper = Mappers.getMapper(UserMapper.class);
 
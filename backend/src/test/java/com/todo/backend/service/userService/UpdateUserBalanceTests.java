@@ -0,0 +1,89 @@
+package com.todo.backend.service.userService;
+
+import com.todo.backend.dao.UserRepository;
+import com.todo.backend.dto.balancetransaction.BalanceTransactionResponseDto;
+import com.todo.backend.dto.user.LibrarianUpdateUserDto;
+import com.todo.backend.entity.BalanceTransactionStatus;
+import com.todo.backend.entity.BalanceTransactionType;
+import com.todo.backend.entity.User;
+import com.todo.backend.entity.identity.UserRole;
+import com.todo.backend.mapper.UserMapper;
+import com.todo.backend.service.BalanceTransactionService;
+import com.todo.backend.service.StatisticsRollupService;
+import com.todo.backend.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UpdateUserBalanceTests {
+
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private PasswordEncoder passwordEncoder;
+    @Mock
+    private StatisticsRollupService statisticsRollupService;
+    @Mock
+    private BalanceTransactionService balanceTransactionService;
+    @Spy
+    private UserMapper userMapper = Mappers.getMapper(UserMapper.class);
+
+    @InjectMocks
+    private UserService userService;
+
+    @Test
+    void TC1_BalanceAppliedAsLoggedAdjustment() {
+        /// Arrange
+        var user = initUser("u1", UserRole.USER, 300);
+        var librarian = initUser("l1", UserRole.LIBRARIAN, 0);
+        when(userRepository.findById("u1")).thenReturn(Optional.of(user));
+        when(userRepository.findById("l1")).thenReturn(Optional.of(librarian));
+        when(balanceTransactionService.adjustBalance(eq("u1"), eq(BalanceTransactionType.ADJUSTMENT), eq(200), anyString()))
+                .thenReturn(new BalanceTransactionResponseDto("b1", BalanceTransactionType.ADJUSTMENT, 200, "", "", 450,
+                        BalanceTransactionStatus.COMPLETED));
+
+        /// Act
+        var result = userService.updateUserByRole("u1", LibrarianUpdateUserDto.builder().name("New").balance(500).build(), "l1");
+
+        /// Assert
+        assertEquals("New", result.getName());
+        // A concurrent debit of 50 committed meanwhile, the response shows the balance actually written
+        assertEquals(450, result.getBalance());
+        verify(balanceTransactionService).adjustBalance(eq("u1"), eq(BalanceTransactionType.ADJUSTMENT), eq(200), anyString());
+    }
+
+    @Test
+    void TC2_UnchangedBalance_NoLedgerRow() {
+        /// Arrange
+        var user = initUser("u1", UserRole.USER, 300);
+        var librarian = initUser("l1", UserRole.LIBRARIAN, 0);
+        when(userRepository.findById("u1")).thenReturn(Optional.of(user));
+        when(userRepository.findById("l1")).thenReturn(Optional.of(librarian));
+
+        /// Act
+        userService.updateUserByRole("u1", LibrarianUpdateUserDto.builder().balance(300).build(), "l1");
+
+        /// Assert
+        verifyNoInteractions(balanceTransactionService);
+    }
+
+    private User initUser(String id, UserRole role, int balance) {
+        var user = new User();
+        user.setId(id);
+        user.setRole(role);
+        user.setBalance(balance);
+        return user;
+    }
+}
@@ -0,0 +1,166 @@
+package com.todo.backend.utils.analytics;
+
+import com.todo.backend.dto.analytics.*;
+import com.todo.backend.entity.BookCopyCondition;
+import com.todo.backend.entity.identity.UserRole;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AnalyticsQueryEngineTests {
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 15);
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+    private final AnalyticsQueryEngine engine = new AnalyticsQueryEngine(pool);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void TC1_GroupByCategory_LoanCountsInEachCategoryOfItsTitle() {
+        /// Arrange
+        LoanColumns columns = LoanColumns.builder(TODAY)
+                .addTitle("t1", "Dune", "Chilton", List.of("Fiction", "Classics"))
+                .addTitle("t2", "Atlas", null, List.of())
+                .addLoan("t1", UserRole.USER, BookCopyCondition.NEW, date(3, 1), date(3, 15), date(3, 10), 100, 0)
+                .addLoan("t2", UserRole.USER, BookCopyCondition.NEW, date(3, 2), date(3, 16), null, 50, 0)
+                .build(LocalDateTime.now());
+
+        /// Act
+        AnalyticsResultDto result = engine.run(columns, AnalyticsQueryDto.builder()
+                .groupBy(List.of(AnalyticsDimension.CATEGORY))
+                .metrics(List.of(AnalyticsMetric.REVENUE))
+                .build(), TODAY);
+
+        /// Assert
+        assertEquals(3, result.getRows().size());
+        assertEquals(List.of("Classics"), result.getRows().get(0).getGroup());
+        assertEquals(100L, result.getRows().get(0).getMetrics().get(AnalyticsMetric.REVENUE));
+        assertEquals(List.of("Fiction"), result.getRows().get(1).getGroup());
+        assertEquals(List.of("(none)"), result.getRows().get(2).getGroup());
+        assertEquals(50L, result.getRows().get(2).getMetrics().get(AnalyticsMetric.REVENUE));
+    }
+
+    @Test
+    void TC2_FiltersAndHalfOpenBorrowRange() {
+        /// Arrange
+        LoanColumns columns = LoanColumns.builder(TODAY)
+                .addTitle("t1", "Dune", "Chilton", List.of("Fiction"))
+                .addTitle("t2", "Atlas", "Penguin", List.of("Reference"))
+                .addLoan("t1", UserRole.USER, BookCopyCondition.NEW, date(1, 31), date(2, 14), date(2, 1), 10, 0)
+                .addLoan("t1", UserRole.USER, BookCopyCondition.GOOD, date(2, 1), date(2, 15), date(2, 20), 20, 5)
+                .addLoan("t1", UserRole.LIBRARIAN, BookCopyCondition.NEW, date(2, 10), date(2, 24), null, 30, 0)
+                .addLoan("t2", UserRole.USER, BookCopyCondition.NEW, date(2, 11), date(2, 25), null, 40, 0)
+                .addLoan("t1", UserRole.USER, BookCopyCondition.NEW, date(3, 1), date(3, 15), null, 50, 0)
+                .build(LocalDateTime.now());
+
+        /// Act
+        AnalyticsResultDto result = engine.run(columns, AnalyticsQueryDto.builder()
+                .groupBy(List.of(AnalyticsDimension.MONTH, AnalyticsDimension.PUBLISHER))
+                .filters(Map.of(AnalyticsDimension.USER_ROLE, List.of("USER"),
+                        AnalyticsDimension.CATEGORY, List.of("Fiction", "Unknown category")))
+                .borrowedFrom(date(2, 1))
+                .borrowedTo(date(3, 1))
+                .build(), TODAY);
+
+        /// Assert
+        assertEquals(1, result.getRows().size());
+        AnalyticsRowDto row = result.getRows().getFirst();
+        assertEquals(List.of("2025-02", "Chilton"), row.getGroup());
+        assertEquals(1L, row.getMetrics().get(AnalyticsMetric.LOANS));
+        assertEquals(20L, row.getMetrics().get(AnalyticsMetric.REVENUE));
+        assertEquals(5L, row.getMetrics().get(AnalyticsMetric.PENALTIES));
+        assertEquals(1L, row.getMetrics().get(AnalyticsMetric.LATE_LOANS));
+        assertEquals(5, result.getScannedLoans());
+    }
+
+    @Test
+    void TC3_ParallelScanMatchesSingleThreaded() {
+        /// Arrange
+        var random = new Random(42);
+        LoanColumns.Builder builder = LoanColumns.builder(TODAY);
+        for (int t = 0; t < 6000; t++) {
+            builder.addTitle("t" + t, "Title " + t, "p" + t % 7, List.of("c" + t % 5, "c" + t % 3));
+        }
+        for (int i = 0; i < 100_000; i++) {
+            LocalDate borrowed = TODAY.minusDays(random.nextInt(700));
+            builder.addLoan("t" + random.nextInt(6000), UserRole.values()[random.nextInt(3)],
+                    BookCopyCondition.values()[random.nextInt(BookCopyCondition.values().length)],
+                    borrowed, borrowed.plusDays(14), random.nextBoolean() ? borrowed.plusDays(random.nextInt(30)) : null,
+                    random.nextInt(100), random.nextInt(10));
+        }
+        LoanColumns columns = builder.build(LocalDateTime.now());
+
+        // TITLE x ROLE has too many groups for the flat array, CATEGORY x MONTH fits in it
+        var sparseQuery = AnalyticsQueryDto.builder()
+                .groupBy(List.of(AnalyticsDimension.TITLE, AnalyticsDimension.USER_ROLE)).limit(100_000).build();
+        var denseQuery = AnalyticsQueryDto.builder()
+                .groupBy(List.of(AnalyticsDimension.CATEGORY, AnalyticsDimension.MONTH)).limit(100_000).build();
+
+        /// Act
+        var singlePool = new ForkJoinPool(1);
+        var single = new AnalyticsQueryEngine(singlePool);
+        var sparseSingle = single.run(columns, sparseQuery, TODAY);
+        var denseSingle = single.run(columns, denseQuery, TODAY);
+        singlePool.shutdownNow();
+        var sparseParallel = engine.run(columns, sparseQuery, TODAY);
+        var denseParallel = engine.run(columns, denseQuery, TODAY);
+
+        /// Assert
+        assertEquals(sparseSingle.getRows(), sparseParallel.getRows());
+        assertEquals(denseSingle.getRows(), denseParallel.getRows());
+        long loans = denseParallel.getRows().stream().mapToLong(r -> r.getMetrics().get(AnalyticsMetric.LOANS)).sum();
+        // Every title has two categories, or one when both codes agree
+        assertTrue(loans > 100_000 && loans < 200_000);
+    }
+
+    @Test
+    void TC4_IncrementalBuilderKeepsOnlySealedLoans() {
+        /// Arrange
+        LoanColumns first = LoanColumns.builder(TODAY)
+                .addTitle("t1", "Dune", null, List.of())
+                .addLoan("t1", UserRole.USER, BookCopyCondition.NEW, date(6, 1), date(6, 14), null, 10, 0)
+                .addLoan("t1", UserRole.USER, BookCopyCondition.NEW, date(5, 1), date(5, 14), date(5, 10), 20, 0)
+                .addLoan("t1", UserRole.USER, BookCopyCondition.NEW, date(6, 2), date(6, 16), TODAY, 30, 0)
+                .build(LocalDateTime.now());
+
+        /// Act
+        LoanColumns second = LoanColumns.builder(first)
+                .addTitle("t1", "Dune", null, List.of())
+                .addLoan("t1", UserRole.USER, BookCopyCondition.NEW, date(6, 1), date(6, 14), TODAY, 10, 0)
+                .addLoan("t1", UserRole.USER, BookCopyCondition.NEW, date(6, 2), date(6, 16), TODAY, 30, 0)
+                .build(LocalDateTime.now());
+        var result = engine.run(second, AnalyticsQueryDto.builder().metrics(List.of(AnalyticsMetric.REVENUE)).build(), TODAY);
+
+        /// Assert
+        assertEquals(1, first.sealedRows());
+        assertEquals(3, second.size());
+        assertEquals(1, second.sealedRows());
+        assertEquals(TODAY, second.fullLoadOn());
+        assertEquals(60L, result.getRows().getFirst().getMetrics().get(AnalyticsMetric.REVENUE));
+    }
+
+    @Test
+    void TC5_RepeatedGroupBy_Rejected() {
+        /// Arrange
+        LoanColumns columns = LoanColumns.builder(TODAY).build(LocalDateTime.now());
+
+        /// Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> engine.run(columns, AnalyticsQueryDto.builder()
+                .groupBy(List.of(AnalyticsDimension.MONTH, AnalyticsDimension.MONTH)).build(), TODAY));
+    }
+
+    private static LocalDate date(int month, int day) {
+        return LocalDate.of(2025, month, day);
+    }
+}
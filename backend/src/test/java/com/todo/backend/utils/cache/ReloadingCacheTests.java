@@ -0,0 +1,48 @@
+package com.todo.backend.utils.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReloadingCacheTests {
+
+    @Test
+    void TC1_LoadsOnceUntilTooOld() {
+        /// Arrange
+        var clock = new AtomicLong();
+        var loads = new AtomicInteger();
+        var cache = new ReloadingCache<String, Integer>(key -> loads.incrementAndGet(), () -> 100, clock::get);
+
+        /// Act
+        int first = cache.get("title-1");
+        clock.set(99);
+        int fresh = cache.get("title-1");
+        clock.set(100);
+        int reloaded = cache.get("title-1");
+
+        /// Assert
+        assertEquals(1, first);
+        assertEquals(1, fresh);
+        assertEquals(2, reloaded);
+    }
+
+    @Test
+    void TC2_ChangesApplyOnlyToLoadedKeys() {
+        /// Arrange
+        var clock = new AtomicLong();
+        var cache = new ReloadingCache<String, List<String>>(key -> new ArrayList<>(), () -> 100, clock::get);
+        cache.get("title-1");
+
+        /// Act
+        cache.ifLoaded("title-1", list -> list.add("hold-1"));
+        cache.ifLoaded("title-2", list -> fail("title-2 is not loaded"));
+
+        /// Assert
+        assertEquals(List.of("hold-1"), cache.get("title-1"));
+    }
+}
@@ -0,0 +1,117 @@
+package com.todo.backend.utils.concurrency;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+public class ParallelQueryRunnerTests {
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private ParallelQueryRunner runner = new ParallelQueryRunner(transactionManager, 3, 10000);
+
+    @AfterEach
+    void tearDown() {
+        runner.shutdown();
+    }
+
+    @Test
+    void TC1_ParallelismIsBounded() {
+        /// Arrange
+        var running = new AtomicInteger();
+        var maxConcurrent = new AtomicInteger();
+
+        /// Act
+        List<Integer> results = new ArrayList<>();
+        try (var queries = runner.batch("batch")) {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 12; i++) {
+                int value = i;
+                futures.add(queries.submit("query", () -> {
+                    maxConcurrent.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    sleep(20);
+                    running.decrementAndGet();
+                    return value;
+                }));
+            }
+            for (var future : futures) {
+                results.add(queries.get(future));
+            }
+        }
+
+        /// Assert
+        assertTrue(maxConcurrent.get() > 1);
+        assertTrue(maxConcurrent.get() <= 3);
+        assertEquals(12, results.size());
+        assertEquals(11, results.get(11));
+    }
+
+    @Test
+    void TC2_TimingTracksSlowestQuery() {
+        /// Act
+        try (var queries = runner.batch("batch")) {
+            var slow = queries.submit("slow", () -> {
+                sleep(200);
+                return 1;
+            });
+            var fast = queries.submit("fast", () -> 2);
+            queries.get(slow);
+            queries.get(fast);
+        }
+
+        /// Assert
+        var timings = runner.getTimings();
+        assertEquals(3, timings.size());
+        var batch = timings.stream().filter(t -> t.getQuery().equals("batch")).findFirst().orElseThrow();
+        var slow = timings.stream().filter(t -> t.getQuery().equals("slow")).findFirst().orElseThrow();
+        assertTrue(slow.getMaxMillis() >= 200);
+        // queries overlapped, the batch took about as long as its slowest query
+        assertTrue(batch.getMaxMillis() < slow.getMaxMillis() + 150);
+    }
+
+    @Test
+    void TC3_ExceptionsAreRethrown() {
+        /// Act
+        var exception = assertThrows(RuntimeException.class, () -> {
+            try (var queries = runner.batch("batch")) {
+                queries.get(queries.submit("failing", () -> {
+                    throw new RuntimeException("Query failed");
+                }));
+            }
+        });
+
+        /// Assert
+        assertEquals("Query failed", exception.getMessage());
+    }
+
+    @Test
+    void TC4_SingleParallelismRunsInline() {
+        /// Arrange
+        runner.shutdown();
+        runner = new ParallelQueryRunner(transactionManager, 1, 10000);
+        var caller = Thread.currentThread();
+
+        /// Act
+        Thread ranOn;
+        try (var queries = runner.batch("batch")) {
+            ranOn = queries.get(queries.submit("query", Thread::currentThread));
+        }
+
+        /// Assert
+        assertSame(caller, ranOn);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
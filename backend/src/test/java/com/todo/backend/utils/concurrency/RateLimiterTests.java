@@ -0,0 +1,61 @@
+package com.todo.backend.utils.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimiterTests {
+    private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void TC1_BurstIsFree_ThenOnePermitPerInterval() {
+        /// Arrange
+        var clock = new AtomicLong(1_000 * MILLI);
+        var rateLimiter = new RateLimiter(10, 3, clock::get);
+
+        /// Act & Assert
+        assertEquals(0, rateLimiter.reserve());
+        assertEquals(0, rateLimiter.reserve());
+        assertEquals(0, rateLimiter.reserve());
+        assertEquals(100 * MILLI, rateLimiter.reserve());
+        assertEquals(200 * MILLI, rateLimiter.reserve());
+    }
+
+    @Test
+    void TC2_IdleTimeRefillsUpToBurstOnly() {
+        /// Arrange
+        var clock = new AtomicLong(0);
+        var rateLimiter = new RateLimiter(10, 2, clock::get);
+        rateLimiter.reserve();
+        rateLimiter.reserve();
+
+        /// Act
+        clock.addAndGet(10_000 * MILLI);
+
+        /// Assert
+        assertTrue(rateLimiter.tryAcquire());
+        assertTrue(rateLimiter.tryAcquire());
+        assertFalse(rateLimiter.tryAcquire());
+        clock.addAndGet(100 * MILLI);
+        assertTrue(rateLimiter.tryAcquire());
+    }
+
+    @Test
+    void TC3_AcquireWaitsForTheRate() throws InterruptedException {
+        /// Arrange
+        var rateLimiter = new RateLimiter(100, 1);
+
+        /// Act
+        long start = System.nanoTime();
+        for (int i = 0; i < 11; i++) {
+            rateLimiter.acquire();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        /// Assert
+        assertTrue(elapsed >= 95 * MILLI, elapsed / MILLI + " ms for 10 intervals of 10 ms");
+    }
+}
@@ -0,0 +1,141 @@
+package com.todo.backend.utils.concurrency;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserCommandLanesTests {
+    private final UserCommandLanes lanes = new UserCommandLanes(4);
+
+    @AfterEach
+    void tearDown() {
+        lanes.shutdown();
+    }
+
+    @Test
+    void TC1_SameUserRunsSerially() throws Exception {
+        /// Arrange
+        var running = new AtomicInteger();
+        var maxConcurrent = new AtomicInteger();
+        var pool = Executors.newFixedThreadPool(8);
+
+        /// Act
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            futures.add(pool.submit(() -> lanes.execute("user-id", () -> {
+                maxConcurrent.accumulateAndGet(running.incrementAndGet(), Math::max);
+                sleep(1);
+                running.decrementAndGet();
+            })));
+        }
+        for (var future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        /// Assert
+        assertEquals(1, maxConcurrent.get());
+        assertEquals(50, lanes.getMetrics().stream().mapToLong(m -> m.getExecutedCommands()).sum());
+    }
+
+    @Test
+    void TC2_ExceptionsAreRethrown() {
+        /// Act
+        var exception = assertThrows(RuntimeException.class, () ->
+                lanes.execute("user-id", () -> {
+                    throw new RuntimeException("Insufficient balance");
+                }));
+
+        /// Assert
+        assertEquals("Insufficient balance", exception.getMessage());
+    }
+
+    @Test
+    void TC3_NestedCommandRunsInline() {
+        /// Act
+        String result = lanes.execute("user-id", () -> lanes.execute("user-id", () -> "done"));
+
+        /// Assert
+        assertEquals("done", result);
+    }
+
+    @Test
+    void TC4_FullLane_RejectsWithoutRunning() throws Exception {
+        /// Arrange
+        var busyLanes = new UserCommandLanes(1, 1, 10_000);
+        var release = new CountDownLatch(1);
+        var started = new CountDownLatch(1);
+        var ran = new AtomicInteger();
+        var pool = Executors.newFixedThreadPool(2);
+        // One command running, one queued: the lane is full
+        var running = pool.submit(() -> busyLanes.execute("user-id", () -> {
+            started.countDown();
+            await(release);
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        var queued = pool.submit(() -> busyLanes.execute("user-id", ran::incrementAndGet));
+        while (busyLanes.getMetrics().getFirst().getQueueDepth() == 0) {
+            sleep(1);
+        }
+
+        /// Act
+        assertThrows(LaneBusyException.class, () -> busyLanes.execute("user-id", ran::incrementAndGet));
+        release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+        queued.get(5, TimeUnit.SECONDS);
+        pool.shutdown();
+        busyLanes.shutdown();
+
+        /// Assert
+        assertEquals(1, ran.get());
+        assertEquals(1, busyLanes.getMetrics().getFirst().getRejectedCommands());
+    }
+
+    @Test
+    void TC5_NotStartedInTime_IsDroppedNotRun() throws Exception {
+        /// Arrange
+        var slowLanes = new UserCommandLanes(1, 8, 50);
+        var release = new CountDownLatch(1);
+        var started = new CountDownLatch(1);
+        var ran = new AtomicInteger();
+        var pool = Executors.newSingleThreadExecutor();
+        var running = pool.submit(() -> slowLanes.execute("user-id", () -> {
+            started.countDown();
+            await(release);
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        /// Act
+        assertThrows(LaneBusyException.class, () -> slowLanes.execute("user-id", ran::incrementAndGet));
+        release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+        slowLanes.execute("user-id", () -> null);
+        pool.shutdown();
+        slowLanes.shutdown();
+
+        /// Assert
+        assertEquals(0, ran.get());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
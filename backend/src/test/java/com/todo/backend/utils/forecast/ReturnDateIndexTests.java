@@ -0,0 +1,81 @@
+package com.todo.backend.utils.forecast;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReturnDateIndexTests {
+    private static final LocalDate START = LocalDate.of(2025, 6, 1);
+
+    @Test
+    void TC1_KthCountsRepeatedDates() {
+        /// Arrange
+        var index = new ReturnDateIndex();
+        index.add(START.plusDays(3));
+        index.add(START.plusDays(1));
+        index.add(START.plusDays(3));
+        index.add(START.plusDays(2));
+
+        /// Act & Assert
+        assertEquals(4, index.size());
+        assertEquals(START.plusDays(1), index.kth(1));
+        assertEquals(START.plusDays(2), index.kth(2));
+        assertEquals(START.plusDays(3), index.kth(3));
+        assertEquals(START.plusDays(3), index.kth(4));
+        assertNull(index.kth(5));
+        assertNull(index.kth(0));
+    }
+
+    @Test
+    void TC2_RemoveTakesOneOccurrence() {
+        /// Arrange
+        var index = new ReturnDateIndex();
+        index.add(START);
+        index.add(START);
+        index.add(START.plusDays(7));
+
+        /// Act & Assert
+        assertTrue(index.remove(START));
+        assertEquals(2, index.size());
+        assertEquals(START, index.kth(1));
+        assertEquals(START.plusDays(7), index.kth(2));
+        assertFalse(index.remove(START.plusDays(1)));
+        assertTrue(index.remove(START));
+        assertTrue(index.remove(START.plusDays(7)));
+        assertEquals(0, index.size());
+        assertNull(index.kth(1));
+    }
+
+    @Test
+    void TC3_MatchesSortedListUnderRandomChanges() {
+        /// Arrange
+        var random = new Random(42);
+        var index = new ReturnDateIndex();
+        List<LocalDate> expected = new ArrayList<>();
+
+        /// Act
+        for (int i = 0; i < 5_000; i++) {
+            if (!expected.isEmpty() && random.nextInt(3) == 0) {
+                LocalDate date = expected.remove(random.nextInt(expected.size()));
+                assertTrue(index.remove(date));
+            } else {
+                LocalDate date = START.plusDays(random.nextInt(60));
+                expected.add(date);
+                index.add(date);
+            }
+        }
+
+        /// Assert
+        Collections.sort(expected);
+        assertEquals(expected.size(), index.size());
+        for (int k = 1; k <= expected.size(); k++) {
+            assertEquals(expected.get(k - 1), index.kth(k));
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.todo.backend.utils.ledger;
+
+import com.todo.backend.entity.BalanceTransaction;
+import com.todo.backend.entity.BalanceTransactionStatus;
+import com.todo.backend.entity.BalanceTransactionType;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LedgerSegmentTests {
+    private static final YearMonth MONTH = YearMonth.of(2023, 1);
+
+    @Test
+    void TC1_RoundTripsEveryColumn() throws IOException {
+        /// Arrange
+        // Users arrive in any order, the directory is still sorted for the lookups
+        var rows = List.of(
+                initRow("bt1", "u3", BalanceTransactionType.DEPOSIT, 5000000, 5000000, LocalDateTime.of(2022, 12, 31, 8, 30, 0, 123_456_000)),
+                initRow("bt2", "u3", BalanceTransactionType.BOOK_RENTAL, -85000, 4915000, LocalDateTime.of(2023, 1, 1, 9, 0)),
+                initRow("bt3", "u3", BalanceTransactionType.BOOK_RENTAL, -75000, 4840000, LocalDateTime.of(2023, 1, 5, 10, 30)),
+                initRow("bt9", "u1", BalanceTransactionType.REFUND, 60000, 60000, LocalDateTime.of(2023, 1, 20, 17, 45)));
+
+        /// Act
+        byte[] content = LedgerSegmentWriter.write(MONTH, rows.iterator()).orElseThrow();
+        var segment = LedgerSegmentReader.open(content);
+
+        /// Assert
+        assertEquals(MONTH, segment.getMonth());
+        assertEquals(4, segment.getRowCount());
+        var u3 = segment.readUser("u3");
+        assertEquals(List.of("bt1", "bt2", "bt3"), u3.stream().map(BalanceTransaction::getId).toList());
+        var first = u3.getFirst();
+        assertEquals(LocalDateTime.of(2022, 12, 31, 8, 30, 0, 123_456_000), first.getTimestamp());
+        assertEquals(BalanceTransactionType.DEPOSIT, first.getType());
+        assertEquals(5000000, first.getAmount());
+        assertEquals(5000000, first.getBalanceAfter());
+        assertEquals("Nạp tiền bt1", first.getDescription());
+        assertEquals(BalanceTransactionStatus.COMPLETED, first.getStatus());
+        assertEquals(-75000, u3.get(2).getAmount());
+        assertEquals(4840000, u3.get(2).getBalanceAfter());
+        assertEquals(LocalDateTime.of(2023, 1, 5, 10, 30), u3.get(2).getTimestamp());
+        assertEquals("u1", segment.readUser("u1").getFirst().getUserId());
+        assertTrue(segment.readUser("u2").isEmpty());
+    }
+
+    @Test
+    void TC2_ScanVisitsEveryRow() throws IOException {
+        /// Arrange
+        var rows = new ArrayList<BalanceTransaction>();
+        var start = LocalDateTime.of(2023, 1, 1, 0, 0);
+        for (int i = 0; i < 1000; i++) {
+            rows.add(initRow("bt" + i, "u" + (i % 7), BalanceTransactionType.values()[i % 5],
+                    (i % 2 == 0 ? 1 : -1) * i * 1000, Integer.MAX_VALUE - i, start.plusMinutes(i * 37L)));
+        }
+        byte[] content = LedgerSegmentWriter.write(MONTH, rows.stream()
+                .sorted(Comparator.comparing(BalanceTransaction::getUserId))
+                .iterator()).orElseThrow();
+
+        /// Act
+        var scanned = new ArrayList<BalanceTransaction>();
+        LedgerSegmentReader.open(content).scan(scanned::add);
+
+        /// Assert
+        assertEquals(1000, scanned.size());
+        assertEquals(rows.stream().mapToLong(BalanceTransaction::getAmount).sum(),
+                scanned.stream().mapToLong(BalanceTransaction::getAmount).sum());
+        var row = scanned.stream().filter(r -> r.getId().equals("bt999")).findFirst().orElseThrow();
+        assertEquals(Integer.MAX_VALUE - 999, row.getBalanceAfter());
+        assertEquals(start.plusMinutes(999 * 37L), row.getTimestamp());
+    }
+
+    @Test
+    void TC3_RejectsCorruptSegment() throws IOException {
+        /// Arrange
+        byte[] content = LedgerSegmentWriter.write(MONTH, List.of(
+                initRow("bt1", "u3", BalanceTransactionType.DEPOSIT, 1000, 1000, LocalDateTime.of(2023, 1, 2, 8, 0))).iterator())
+                .orElseThrow();
+        content[content.length / 2] ^= 0x01;
+
+        /// Act
+        var exception = assertThrows(IOException.class, () -> LedgerSegmentReader.open(content));
+
+        /// Assert
+        assertEquals("Ledger segment checksum mismatch", exception.getMessage());
+    }
+
+    @Test
+    void TC4_RejectsRowsNotGroupedByUser() {
+        /// Arrange
+        var rows = List.of(
+                initRow("bt1", "u1", BalanceTransactionType.DEPOSIT, 1000, 1000, LocalDateTime.of(2023, 1, 2, 8, 0)),
+                initRow("bt2", "u2", BalanceTransactionType.DEPOSIT, 1000, 1000, LocalDateTime.of(2023, 1, 3, 8, 0)),
+                initRow("bt3", "u1", BalanceTransactionType.DEPOSIT, 1000, 2000, LocalDateTime.of(2023, 1, 4, 8, 0)));
+
+        /// Act
+        var exception = assertThrows(IllegalArgumentException.class, () -> LedgerSegmentWriter.write(MONTH, rows.iterator()));
+
+        /// Assert
+        assertEquals("Ledger rows of user u1 are not grouped together", exception.getMessage());
+    }
+
+    @Test
+    void TC5_NoRowsNoSegment() {
+        /// Act
+        var content = LedgerSegmentWriter.write(MONTH, List.<BalanceTransaction>of().iterator());
+
+        /// Assert
+        assertTrue(content.isEmpty());
+    }
+
+    private BalanceTransaction initRow(String id, String userId, BalanceTransactionType type, int amount,
+                                       int balanceAfter, LocalDateTime timestamp) {
+        var row = new BalanceTransaction(id, userId, type, amount, "Nạp tiền " + id, balanceAfter);
+        row.setTimestamp(timestamp);
+        return row;
+    }
+}
@@ -0,0 +1,53 @@
+package com.todo.backend.utils.partition;
+
+import com.todo.backend.entity.Reservation;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PartitionHashTests {
+
+    @Test
+    void TC1_MatchesStandardCrc32() {
+        /// Act & Assert
+        // Check value of CRC-32/ISO-HDLC, the one MySQL's CRC32() computes
+        assertEquals(0xCBF43926L, PartitionHash.of("123456789"));
+        assertEquals(0, PartitionHash.of(null));
+    }
+
+    @Test
+    void TC2_UuidsSpreadEvenlyOverPartitions() {
+        /// Arrange
+        int partitions = 12;
+        int keys = 60_000;
+        var random = new Random(42);
+        int[] counts = new int[partitions];
+
+        /// Act
+        for (int i = 0; i < keys; i++) {
+            String key = new UUID(random.nextLong(), random.nextLong()).toString();
+            counts[(int) (PartitionHash.of(key) % partitions)]++;
+        }
+
+        /// Assert
+        // 5000 expected per partition, the last character of a UUID would leave 4 of 12 empty
+        for (int count : counts) {
+            assertTrue(count > 4700 && count < 5300, "partition count " + count);
+        }
+    }
+
+    @Test
+    void TC3_EntityHashFollowsUserId() {
+        /// Arrange
+        var reservation = new Reservation();
+
+        /// Act
+        reservation.setUserId("u3");
+
+        /// Assert
+        assertEquals(PartitionHash.of("u3"), reservation.getUserHash());
+    }
+}
@@ -0,0 +1,76 @@
+package com.todo.backend.utils.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HyperLogLogTests {
+
+    @Test
+    void TC1_LargeCount_WithinErrorBound() {
+        /// Arrange
+        var sketch = new HyperLogLog();
+
+        /// Act
+        for (int i = 0; i < 200_000; i++) {
+            sketch.offer("user-" + i);
+            sketch.offer("user-" + i / 2);
+        }
+
+        /// Assert
+        double error = Math.abs(sketch.estimate() - 200_000) / 200_000.0;
+        // 3 standard errors, the bound 99.7% of estimates stay within
+        assertTrue(error < 3 * HyperLogLog.RELATIVE_STANDARD_ERROR, "error " + error);
+    }
+
+    @Test
+    void TC2_SmallCount_NearlyExact() {
+        /// Arrange
+        var sketch = new HyperLogLog();
+
+        /// Act
+        for (int i = 0; i < 50; i++) {
+            sketch.offer("user-" + i % 37);
+        }
+
+        /// Assert
+        assertTrue(Math.abs(sketch.estimate() - 37) <= 1);
+        assertFalse(sketch.offer("user-0"));
+    }
+
+    @Test
+    void TC3_Merge_EqualsSketchOfUnion() {
+        /// Arrange
+        var monday = new HyperLogLog();
+        var tuesday = new HyperLogLog();
+        var week = new HyperLogLog();
+        for (int i = 0; i < 30_000; i++) {
+            monday.offer("user-" + i);
+            week.offer("user-" + i);
+        }
+        for (int i = 20_000; i < 50_000; i++) {
+            tuesday.offer("user-" + i);
+            week.offer("user-" + i);
+        }
+
+        /// Act
+        var merged = HyperLogLog.fromBytes(monday.toBytes()).merge(tuesday);
+
+        /// Assert
+        assertEquals(week, merged);
+        assertTrue(Math.abs(merged.estimate() - 50_000) / 50_000.0 < 3 * HyperLogLog.RELATIVE_STANDARD_ERROR);
+    }
+
+    @Test
+    void TC4_WouldChange_MatchesOffer() {
+        /// Arrange
+        var sketch = new HyperLogLog();
+        long hash = HyperLogLog.hash("user-id");
+
+        /// Act & Assert
+        assertTrue(HyperLogLog.wouldChange(sketch.toBytes(), hash));
+        assertTrue(sketch.offerHash(hash));
+        assertFalse(HyperLogLog.wouldChange(sketch.toBytes(), hash));
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromBytes(new byte[10]));
+    }
+}
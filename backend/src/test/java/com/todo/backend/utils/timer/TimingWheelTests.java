@@ -0,0 +1,100 @@
+package com.todo.backend.utils.timer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimingWheelTests {
+    private static final long START = 1_750_000_000_000L;
+
+    @Test
+    void TC1_FiresOnTheDeadlineTickAcrossLevels() {
+        /// Arrange
+        var wheel = new TimingWheel<String>(1000, START);
+        // Level 0, level 1, level 3 and exactly on a level boundary
+        wheel.schedule(START + 5_000, "5s");
+        wheel.schedule(START + 500_000, "500s");
+        wheel.schedule(START + 86_400_000L * 30, "30d");
+        wheel.schedule(START + 4_096_000, "4096s");
+
+        /// Act & Assert
+        assertTrue(wheel.advance(START + 4_999).isEmpty());
+        assertEquals(List.of("5s"), payloads(wheel.advance(START + 5_000)));
+        assertTrue(wheel.advance(START + 499_999).isEmpty());
+        assertEquals(List.of("500s"), payloads(wheel.advance(START + 500_000)));
+        assertTrue(wheel.advance(START + 4_095_999).isEmpty());
+        assertEquals(List.of("4096s"), payloads(wheel.advance(START + 4_096_000)));
+        assertTrue(wheel.advance(START + 86_400_000L * 30 - 1).isEmpty());
+        assertEquals(List.of("30d"), payloads(wheel.advance(START + 86_400_000L * 30)));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void TC2_CancelledAndPastDeadlines() {
+        /// Arrange
+        var wheel = new TimingWheel<String>(1000, START);
+        var cancelled = wheel.schedule(START + 10_000, "cancelled");
+        wheel.schedule(START + 10_000, "kept");
+        wheel.schedule(START - 60_000, "past");
+
+        /// Act
+        boolean firstCancel = wheel.cancel(cancelled);
+        boolean secondCancel = wheel.cancel(cancelled);
+        var immediately = wheel.advance(START);
+        var later = wheel.advance(START + 60_000);
+
+        /// Assert
+        assertTrue(firstCancel);
+        assertFalse(secondCancel);
+        assertEquals(List.of("past"), payloads(immediately));
+        assertEquals(List.of("kept"), payloads(later));
+        assertFalse(wheel.cancel(later.getFirst()));
+    }
+
+    @Test
+    void TC3_RandomDeadlines_EachFiresOnceNeverEarly() {
+        /// Arrange
+        var random = new Random(7);
+        var wheel = new TimingWheel<Long>(1000, START);
+        var pending = new HashSet<Long>();
+        for (int i = 0; i < 200_000; i++) {
+            long deadline = START + (long) (random.nextDouble() * 40L * 86_400_000L);
+            if (pending.add(deadline)) {
+                wheel.schedule(deadline, deadline);
+            }
+        }
+        int scheduled = pending.size();
+
+        /// Act & Assert
+        long now = START;
+        int fired = 0;
+        while (now < START + 41L * 86_400_000L) {
+            // Uneven steps, as a delayed ticker would advance
+            now += 1000 + random.nextInt(3_600_000);
+            for (var timeout : wheel.advance(now)) {
+                long deadline = timeout.payload();
+                assertTrue(deadline <= now, "fired early");
+                assertTrue(pending.remove(deadline), "fired twice");
+                fired++;
+            }
+        }
+        assertTrue(pending.isEmpty());
+        assertEquals(scheduled, fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void TC4_BeyondRange_Rejected() {
+        /// Arrange
+        var wheel = new TimingWheel<String>(1, START);
+
+        /// Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> wheel.schedule(START + (1L << 40), "far"));
+    }
+
+    private static <T> List<T> payloads(List<TimingWheel.Timeout<T>> fired) {
+        return fired.stream().map(TimingWheel.Timeout::payload).toList();
+    }
+}